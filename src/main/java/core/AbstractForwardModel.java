@@ -1,10 +1,16 @@
 package core;
 
 import core.actions.AbstractAction;
+import core.interfaces.IActionGenerator;
+import core.interfaces.IExtendedSequence;
+import core.interfaces.IGamePhase;
 import utilities.ElapsedCpuChessTimer;
+import utilities.Metrics;
+import utilities.Metrics.Metric;
 import utilities.Utils;
 
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 
@@ -67,11 +73,15 @@ public abstract class AbstractForwardModel {
     protected abstract List<AbstractAction> _computeAvailableActions(AbstractGameState gameState);
 
     /**
-     * Gets a copy of the FM with a new random number generator.
+     * Gets a copy of the FM. Forward models keep no game state (anything that changes during a game belongs in the
+     * game state, and randomness comes from the game state's rnd), so by default the same instance is returned, and
+     * is shared by the game, every player and any threads they use. Only override this if the FM has mutable fields.
      *
-     * @return - new forward model with different random seed (keeping logic).
+     * @return - this forward model, or a copy if it holds mutable state.
      */
-    protected abstract AbstractForwardModel _copy();
+    protected AbstractForwardModel _copy() {
+        return this;
+    }
 
     /**
      * Performs any end of game computations, as needed. Not necessary to be implemented in the subclass, but can be.
@@ -127,12 +137,17 @@ public abstract class AbstractForwardModel {
      */
     public final void next(AbstractGameState currentState, AbstractAction action) {
         if (action != null) {
+            boolean timed = Metrics.isEnabled();
+            IGamePhase phase = timed ? currentState.getGamePhase() : null;
+            long start = timed ? System.nanoTime() : 0L;
             currentState.recordAction(action);
             if (currentState.isActionInProgress()) {
                 // we register the action with the currently active ActionSequence
                 currentState.currentActionInProgress().registerActionTaken(currentState, action);
             }
             _next(currentState, action);
+            if (timed)
+                Metrics.record(Metric.NEXT, currentState.getGameType(), phase, action.getClass(), System.nanoTime() - start);
         } else {
             if (currentState.coreGameParameters.verbose) {
                 System.out.println("Invalid action.");
@@ -148,6 +163,18 @@ public abstract class AbstractForwardModel {
      * @return - the list of actions available.
      */
     public final List<AbstractAction> computeAvailableActions(AbstractGameState gameState) {
+        if (!Metrics.isEnabled())
+            return _computeAvailableActionsOrSequence(gameState);
+        IGamePhase phase = gameState.getGamePhase();
+        // broken down by the sequence in progress, if there is one
+        Class<?> source = gameState.isActionInProgress() ? gameState.actionsInProgress.peek().getClass() : null;
+        long start = System.nanoTime();
+        List<AbstractAction> actions = _computeAvailableActionsOrSequence(gameState);
+        Metrics.record(Metric.COMPUTE_ACTIONS, gameState.getGameType(), phase, source, System.nanoTime() - start);
+        return actions;
+    }
+
+    private List<AbstractAction> _computeAvailableActionsOrSequence(AbstractGameState gameState) {
         // If there is an action in progress (see IExtendedSequence), then delegate to that
         if (gameState.isActionInProgress()) {
             return gameState.actionsInProgress.peek()._computeAvailableActions(gameState);
@@ -156,9 +183,30 @@ public abstract class AbstractForwardModel {
     }
 
     /**
-     * Returns a copy of this forward model with a new random seed.
+     * Provides the available actions as a (possibly lazy) Iterator. If the forward model (or the currently active
+     * IExtendedSequence) implements IActionGenerator, then actions are only generated as they are pulled; otherwise
+     * this falls back to iterating over computeAvailableActions().
+     *
+     * @param gameState - game state to generate actions from. This must not be modified while the Iterator is in use.
+     * @return - an Iterator over the actions available.
+     */
+    public final Iterator<AbstractAction> availableActionIterator(AbstractGameState gameState) {
+        if (gameState.isActionInProgress()) {
+            IExtendedSequence inProgress = gameState.actionsInProgress.peek();
+            if (inProgress instanceof IActionGenerator)
+                return ((IActionGenerator) inProgress).generateAvailableActions(gameState);
+            return inProgress._computeAvailableActions(gameState).iterator();
+        }
+        if (this instanceof IActionGenerator)
+            return ((IActionGenerator) this).generateAvailableActions(gameState);
+        return _computeAvailableActions(gameState).iterator();
+    }
+
+    /**
+     * Returns a forward model with the same logic as this one. As forward models are stateless this is normally the
+     * same instance (see _copy()).
      *
-     * @return a new Forward Model instance with a different random object.
+     * @return a forward model that can be used independently of this one.
      */
     public final AbstractForwardModel copy() {
         return _copy();
@@ -7,10 +7,15 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AbstractGameData {
 
+    // Process-wide cache of parsed data, keyed by class and data path, so that the JSON is only parsed once
+    private static final Map<String, AbstractGameData> sharedData = new ConcurrentHashMap<>();
+
     private List<GraphBoard> graphBoards = new ArrayList<>();
     private List<GridBoard> gridBoards = new ArrayList<>();
     private List<Deck<Card>> decks = new ArrayList<>();
@@ -36,6 +41,36 @@ public class AbstractGameData {
         }
     }
 
+    /**
+     * Returns the data loaded from dataPath, parsing the JSON files only the first time this is called for a given
+     * path. The returned object is shared by all games (and threads) in the process, and must be treated as
+     * immutable; the find*() methods all return copies of the prototype components, so are safe to use from
+     * setup() on every game reset.
+     *
+     * @param dataPath - directory containing the json files
+     * @return - the shared game data
+     */
+    public static AbstractGameData loadShared(String dataPath) {
+        return loadShared(AbstractGameData.class, dataPath);
+    }
+
+    /**
+     * As loadShared(dataPath), for a game-specific sub-class of AbstractGameData (which must have a no-argument
+     * constructor).
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends AbstractGameData> T loadShared(Class<T> dataClass, String dataPath) {
+        return (T) sharedData.computeIfAbsent(dataClass.getName() + "@" + dataPath, key -> {
+            try {
+                T data = dataClass.getConstructor().newInstance();
+                data.load(dataPath);
+                return data;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Unable to instantiate " + dataClass.getName(), e);
+            }
+        });
+    }
+
     public GridBoard findGridBoard(String name) {
         for (GridBoard<?> c : gridBoards) {
             if (name.equalsIgnoreCase(c.getComponentName())) {
@@ -10,6 +10,7 @@ import core.interfaces.IGamePhase;
 import core.turnorders.TurnOrder;
 import games.GameType;
 import utilities.ElapsedCpuChessTimer;
+import utilities.Metrics;
 import utilities.Utils;
 
 import java.util.*;
@@ -168,6 +169,8 @@ public abstract class AbstractGameState {
      * @return - reduced copy of the game state.
      */
     public final AbstractGameState copy(int playerId) {
+        boolean timed = Metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0L;
         AbstractGameState s = _copy(playerId);
         // Copy super class things
         s.turnOrder = turnOrder.copy();
@@ -199,6 +202,8 @@ public abstract class AbstractGameState {
 
         // Update the list of components for ID matching in actions.
         s.addAllComponents();
+        if (timed)
+            Metrics.record(Metrics.Metric.COPY, this, null, System.nanoTime() - start);
         return s;
     }
 
@@ -10,9 +10,8 @@ import groupL.SushiGoHeuristic;
 import gui.AbstractGUIManager;
 import gui.GUI;
 import gui.GamePanel;
-import io.humble.video.*;
-import io.humble.video.awt.MediaPictureConverter;
-import io.humble.video.awt.MediaPictureConverterFactory;
+import gui.StateSnapshotBuffer;
+import gui.VideoRecorder;
 import players.PlayerConstants;
 import players.human.ActionController;
 import players.human.HumanConsolePlayer;
@@ -63,20 +62,20 @@ public class Game {
     private int nActionsPerTurn, nActionsPerTurnSum, nActionsPerTurnCount;
 
     private boolean pause, stop;
+    // Only set if a GUI is watching this game; headless games never take snapshots
+    private StateSnapshotBuffer snapshotBuffer;
     private boolean debug = false;
 
     // Video recording
     private Rectangle areaBounds;
-    private MediaPictureConverter converter = null;
-    private MediaPacket packet;
-    private MediaPicture picture;
-    private Encoder encoder;
-    private Muxer muxer;
+    private volatile VideoRecorder videoRecorder;  // frames are captured on the GUI thread
     private boolean recordingVideo = false;
     String fileName = "output.mp4";
     String formatName = "mp4";
     String codecName = null;
     int snapsPerSecond = 10;
+    int videoQueueCapacity = 64;
+    VideoRecorder.Backpressure videoBackpressure = VideoRecorder.Backpressure.BLOCK;
     private int turnPause;
 
     /**
@@ -158,6 +157,7 @@ public class Game {
                     game.areaBounds = new Rectangle(0, 0, frame.getWidth(), frame.getHeight());
                     game.setupVideoRecording(game.fileName, game.formatName, game.codecName, game.snapsPerSecond);
                 }
+                game.enableStateSnapshots();
 
                 Timer guiUpdater = new Timer((int) game.getCoreParameters().frameSleepMS, event -> game.updateGUI(gui, frame));
                 guiUpdater.start();
@@ -339,17 +339,39 @@ public class Game {
      * @param gui - gui to update.
      */
     private void updateGUI(AbstractGUIManager gui, JFrame frame) {
-        // synchronise on game to avoid updating GUI in middle of action being taken
-        AbstractGameState gameState = getGameState();
-        int currentPlayer = gameState.getCurrentPlayer();
-        AbstractPlayer player = getPlayers().get(currentPlayer);
-        if (gui != null) {
-            gui.update(player, gameState, isHumanToMove());
+        // we render the latest snapshot published by the game thread, rather than the live game state
+        StateSnapshotBuffer.Snapshot fresh = snapshotBuffer.poll();
+        StateSnapshotBuffer.Snapshot snapshot = fresh != null ? fresh : snapshotBuffer.last();
+        if (gui != null && snapshot != null) {
+            // if nothing has changed, then we only need to update the GUI if a human is interacting with it
+            if (fresh == null && !snapshot.humanToMove)
+                return;
+            AbstractPlayer player = getPlayers().get(snapshot.state.getCurrentPlayer());
+            gui.update(player, snapshot.state, snapshot.humanToMove);
             frame.repaint();
-            videoRecordFrame(frame);
+            videoRecordFrame(frame, snapshot.tick);
         }
     }
 
+    /**
+     * Switches on publication of a copy of the game state after every action, for rendering by a GUI on
+     * another thread (see StateSnapshotBuffer). Headless games never call this, so never pay for the copies.
+     *
+     * @return - the buffer that snapshots are published to
+     */
+    public StateSnapshotBuffer enableStateSnapshots() {
+        if (snapshotBuffer == null) {
+            snapshotBuffer = new StateSnapshotBuffer();
+            publishSnapshot();
+        }
+        return snapshotBuffer;
+    }
+
+    private void publishSnapshot() {
+        if (snapshotBuffer != null)
+            snapshotBuffer.publish(gameState, tick, isHumanToMove());
+    }
+
     public final void reset(List<AbstractPlayer> players) {
         reset(players, gameState.gameParameters.randomSeed);
     }
@@ -386,6 +408,7 @@ public class Game {
         int gameID = idFountain.incrementAndGet();
         gameState.setGameID(gameID);
         resetStats();
+        publishSnapshot();
     }
 
     /**
@@ -587,6 +610,7 @@ public class Game {
         // (such as the next player)
         AbstractAction finalAction1 = action;
         listeners.forEach(l -> l.onEvent(GameEvents.ACTION_TAKEN, gameState.copy(), finalAction1.copy()));
+        publishSnapshot();
         if (debug) System.out.printf("Finishing oneAction for player %s%n", activePlayer);
     }
 
@@ -601,6 +625,7 @@ public class Game {
 
         // Perform any end of game computations as required by the game
         forwardModel.endGame(gameState);
+        publishSnapshot();
         listeners.forEach(l -> l.onGameEvent(GameEvents.GAME_OVER, this));
         if (gameState.coreGameParameters.verbose) {
             System.out.println("Game Over");
@@ -784,113 +809,45 @@ public class Game {
                                     String codecname, int snapsPerSecond) {
         if (recordingVideo) {
             try {
-                final Rational framerate = Rational.make(1, snapsPerSecond);
-
-                // First we create a muxer using the passed in filename and formatname if given.
-                muxer = Muxer.make(filename, null, formatname);
-
-                /* Now, we need to decide what type of codec to use to encode video. Muxers
-                 * have limited sets of codecs they can use. We're going to pick the first one that
-                 * works, or if the user supplied a codec name, we're going to force-fit that
-                 * in instead.
-                 */
-                final MuxerFormat format = muxer.getFormat();
-                final Codec codec;
-                if (codecname != null) {
-                    codec = Codec.findEncodingCodecByName(codecname);
-                } else {
-                    codec = Codec.findEncodingCodec(format.getDefaultVideoCodecId());
-                }
-
-                // Now that we know what codec, we need to create an encoder
-                encoder = Encoder.make(codec);
-
-                /*
-                 * Video encoders need to know at a minimum:
-                 *   width
-                 *   height
-                 *   pixel format
-                 * Some also need to know frame-rate (older codecs that had a fixed rate at which video files could
-                 * be written needed this). There are many other options you can set on an encoder, but we're
-                 * going to keep it simpler here.
-                 */
-                encoder.setWidth(areaBounds.width);
-                encoder.setHeight(areaBounds.height);
-                // We are going to use 420P as the format because that's what most video formats these days use
-                final PixelFormat.Type pixelformat = PixelFormat.Type.PIX_FMT_YUV420P;
-                encoder.setPixelFormat(pixelformat);
-                encoder.setTimeBase(framerate);
-
-                /* An annoynace of some formats is that they need global (rather than per-stream) headers,
-                 * and in that case you have to tell the encoder. And since Encoders are decoupled from
-                 * Muxers, there is no easy way to know this beyond
-                 */
-                if (format.getFlag(MuxerFormat.Flag.GLOBAL_HEADER))
-                    encoder.setFlag(Encoder.Flag.FLAG_GLOBAL_HEADER, true);
-
-                // Open the encoder.
-                encoder.open(null, null);
-                // Add this stream to the muxer.
-                muxer.addNewStream(encoder);
-                // And open the muxer for business.
-                muxer.open(null, null);
-
-                /* Next, we need to make sure we have the right MediaPicture format objects
-                 * to encode data with. Java (and most on-screen graphics programs) use some
-                 * variant of Red-Green-Blue image encoding (a.k.a. RGB or BGR). Most video
-                 * codecs use some variant of YCrCb formatting. So we're going to have to
-                 * convert. To do that, we'll introduce a MediaPictureConverter object later. object.
-                 */
-                picture = MediaPicture.make(
-                        encoder.getWidth(),
-                        encoder.getHeight(),
-                        pixelformat);
-                picture.setTimeBase(framerate);
-
-                /* Now begin our main loop of taking screen snaps.
-                 * We're going to encode and then write out any resulting packets. */
-                packet = MediaPacket.make();
+                // Encoding happens on the recorder's own thread, so capturing frames costs the game very little
+                videoRecorder = new VideoRecorder(filename, formatname, codecname, snapsPerSecond,
+                        areaBounds.width, areaBounds.height, videoQueueCapacity, videoBackpressure);
             } catch (IOException | InterruptedException e) {
                 e.printStackTrace();
             }
         }
     }
 
-    private void videoRecordFrame(JFrame gui) {
-        if (recordingVideo) {
-            // Make the screen capture && convert image to TYPE_3BYTE_BGR
+    private void videoRecordFrame(JFrame gui, int frameTick) {
+        // read once, as the game thread may terminate the recording while we are capturing
+        VideoRecorder recorder = videoRecorder;
+        if (recorder != null) {
+            // Make the screen capture && convert image to TYPE_3BYTE_BGR; the rest is done by the encoder thread
             final BufferedImage screen = componentToImage(gui, BufferedImage.TYPE_3BYTE_BGR);
-
-            // This is LIKELY not in YUV420P format, so we're going to convert it using some handy utilities.
-            if (converter == null)
-                converter = MediaPictureConverterFactory.createConverter(screen, picture);
-            converter.toPicture(picture, screen, tick);
-
-            do {
-                encoder.encode(packet, picture);
-                if (packet.isComplete())
-                    muxer.write(packet, false);
-            } while (packet.isComplete());
+            recorder.recordFrame(screen, frameTick);
         }
     }
 
     private void terminateVideoRecording() {
-        if (recordingVideo) {
-            /* Encoders, like decoders, sometimes cache pictures so it can do the right key-frame optimizations.
-             * So, they need to be flushed as well. As with the decoders, the convention is to pass in a null
-             * input until the output is not complete.
-             */
-            do {
-                encoder.encode(packet, null);
-                if (packet.isComplete())
-                    muxer.write(packet, false);
-            } while (packet.isComplete());
-
-            // Finally, let's clean up after ourselves.
-            muxer.close();
+        VideoRecorder recorder = videoRecorder;
+        if (recorder != null) {
+            videoRecorder = null;
+            // Waits for the encoder thread to finish any queued frames, then flushes and closes the file
+            recorder.finish();
+            if (recorder.getDroppedFrames() > 0)
+                System.out.printf("Video recording dropped %d frames%n", recorder.getDroppedFrames());
         }
     }
 
+    public void setRecordingVideo(boolean recordingVideo) {
+        this.recordingVideo = recordingVideo;
+    }
+
+    public void setVideoBackpressure(VideoRecorder.Backpressure backpressure, int queueCapacity) {
+        this.videoBackpressure = backpressure;
+        this.videoQueueCapacity = queueCapacity;
+    }
+
 
     /**
      * The recommended way to run a game is via evaluations.Frontend, however that may not work on
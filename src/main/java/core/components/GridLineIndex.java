@@ -0,0 +1,125 @@
+package core.components;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Precomputed lines through every cell of a GridBoard, for n-in-a-row games (TicTacToe, Connect4...).
+ * <p>
+ * For each cell and each of the four directions (horizontal, vertical and the two diagonals) we hold the cells from
+ * (length - 1) before the cell to (length - 1) after it, clipped to the board. Any run of length cells in a line
+ * through a cell must lie within this segment, so after a piece is placed only these (at most 4 * (2 * length - 1))
+ * cells need to be checked, rather than the whole board.
+ * <p>
+ * Cells are indexed as y * width + x. Indexes depend only on the board dimensions and the line length, so are
+ * shared by all games with the same settings.
+ */
+public class GridLineIndex {
+
+    private static final Map<String, GridLineIndex> cache = new ConcurrentHashMap<>();
+    private static final int[][] DIRECTIONS = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+
+    public final int width, height, length;
+    // lines[cell][direction] lists the cells of the segment through cell, in order along the direction
+    private final int[][][] lines;
+
+    private GridLineIndex(int width, int height, int length) {
+        this.width = width;
+        this.height = height;
+        this.length = length;
+        lines = new int[width * height][DIRECTIONS.length][];
+        int[] buffer = new int[2 * length - 1];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    int n = 0;
+                    for (int j = 1 - length; j < length; j++) {
+                        int cx = x + DIRECTIONS[d][0] * j, cy = y + DIRECTIONS[d][1] * j;
+                        if (cx >= 0 && cx < width && cy >= 0 && cy < height)
+                            buffer[n++] = cy * width + cx;
+                    }
+                    lines[y * width + x][d] = Arrays.copyOf(buffer, n);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param width  - width of the board
+     * @param height - height of the board
+     * @param length - number of cells in a row needed
+     * @return the index for these settings
+     */
+    public static GridLineIndex get(int width, int height, int length) {
+        return cache.computeIfAbsent(width + ":" + height + ":" + length, k -> new GridLineIndex(width, height, length));
+    }
+
+    /**
+     * @param x - x coordinate of a cell
+     * @param y - y coordinate of a cell
+     * @return the segments through the cell, one per direction. These must not be modified.
+     */
+    public int[][] linesThrough(int x, int y) {
+        return lines[y * width + x];
+    }
+
+    /**
+     * Looks for length cells in a row that include (x, y), all with the same key as the element at (x, y).
+     * <p>
+     * Components are compared by key rather than with equals(), which compares component IDs: two pieces that are
+     * the same for the game (e.g. Tokens of the same type) need not be the same component, for example when they
+     * were created separately, or after a state has been copied or redeterminised.
+     *
+     * @param board - the board, with the same dimensions as this index
+     * @param x     - x coordinate of the cell, usually the one just set
+     * @param y     - y coordinate of the cell
+     * @param key   - what identifies a piece for the game, e.g. Token::getTokenType
+     * @return the indexes of the cells in the line, in order, or null if there is no such line
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component> int[] findLine(GridBoard<T> board, int x, int y, Function<? super T, ?> key) {
+        Component[][] grid = board.getGridValues();
+        if (grid[y][x] == null)
+            return null;
+        Object target = key.apply((T) grid[y][x]);
+        for (int[] line : lines[y * width + x]) {
+            int count = 0;
+            for (int i = 0; i < line.length; i++) {
+                int cell = line[i];
+                T element = (T) grid[cell / width][cell % width];
+                if (element != null && Objects.equals(target, key.apply(element))) {
+                    if (++count == length)
+                        return Arrays.copyOfRange(line, i + 1 - length, i + 1);
+                } else {
+                    count = 0;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * As findLine(GridBoard, int, int, Function), for an IntGridBoard. Cells with the empty code never form a line.
+     */
+    public int[] findLine(IntGridBoard board, int x, int y) {
+        int[] cells = board.getCells();
+        int target = cells[y * width + x];
+        if (target == board.getEmptyValue())
+            return null;
+        for (int[] line : lines[y * width + x]) {
+            int count = 0;
+            for (int i = 0; i < line.length; i++) {
+                if (cells[line[i]] == target) {
+                    if (++count == length)
+                        return Arrays.copyOfRange(line, i + 1 - length, i + 1);
+                } else {
+                    count = 0;
+                }
+            }
+        }
+        return null;
+    }
+}
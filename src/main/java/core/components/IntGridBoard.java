@@ -0,0 +1,219 @@
+package core.components;
+
+import core.CoreConstants;
+import core.interfaces.IComponentContainer;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A grid of small integer codes (for example 0 = empty, 1 and 2 for the two players' pieces), as a lighter
+ * alternative to GridBoard for games whose cells do not need to hold full Components.
+ * <p>
+ * Cells are stored in a flat array in row-major order, with index = y * width + x, so copying the board is a single
+ * array copy rather than a copy of each row. If constructed with trackEmpty, a BitSet of the cells equal to the empty
+ * code is also maintained, so empty cells can be found without scanning the board.
+ * <p>
+ * For GUIs and GameReport, getComponents() maps each code to a Token through the palette (if one is set).
+ */
+public class IntGridBoard extends Component implements IComponentContainer<Token> {
+
+    private final int width, height;
+    private final int emptyValue;
+    private final int[] cells;
+    private final BitSet emptyCells;  // null if not tracked
+    private Token[] palette;  // code -> Token, shared between copies
+
+    /**
+     * @param width      - width of the board
+     * @param height     - height of the board
+     * @param emptyValue - code for an empty cell. All cells start with this value.
+     * @param trackEmpty - if true, maintain the set of empty cells as the board changes
+     */
+    public IntGridBoard(int width, int height, int emptyValue, boolean trackEmpty) {
+        super(Utils.ComponentType.BOARD);
+        this.width = width;
+        this.height = height;
+        this.emptyValue = emptyValue;
+        this.cells = new int[width * height];
+        if (emptyValue != 0)
+            Arrays.fill(cells, emptyValue);
+        if (trackEmpty) {
+            emptyCells = new BitSet(cells.length);
+            emptyCells.set(0, cells.length);
+        } else {
+            emptyCells = null;
+        }
+    }
+
+    private IntGridBoard(IntGridBoard orig) {
+        super(Utils.ComponentType.BOARD, orig.componentID);
+        this.width = orig.width;
+        this.height = orig.height;
+        this.emptyValue = orig.emptyValue;
+        this.cells = new int[orig.cells.length];
+        System.arraycopy(orig.cells, 0, cells, 0, cells.length);
+        this.emptyCells = orig.emptyCells == null ? null : (BitSet) orig.emptyCells.clone();
+        this.palette = orig.palette;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getEmptyValue() {
+        return emptyValue;
+    }
+
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    public int getX(int index) {
+        return index % width;
+    }
+
+    public int getY(int index) {
+        return index / width;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public int get(int index) {
+        return cells[index];
+    }
+
+    /**
+     * @return the code at (x, y); coordinates must be in bounds
+     */
+    public int get(int x, int y) {
+        return cells[y * width + x];
+    }
+
+    public void set(int index, int value) {
+        cells[index] = value;
+        if (emptyCells != null)
+            emptyCells.set(index, value == emptyValue);
+    }
+
+    /**
+     * Sets the code at (x, y).
+     *
+     * @return - true if coordinates in bounds, false otherwise (and function fails).
+     */
+    public boolean set(int x, int y, int value) {
+        if (!inBounds(x, y))
+            return false;
+        set(y * width + x, value);
+        return true;
+    }
+
+    /**
+     * @return the backing array, in row-major order. This must not be modified.
+     */
+    public int[] getCells() {
+        return cells;
+    }
+
+    public boolean isEmpty(int index) {
+        return cells[index] == emptyValue;
+    }
+
+    /**
+     * @return the number of empty cells (counted from the BitSet if tracked)
+     */
+    public int countEmpty() {
+        if (emptyCells != null)
+            return emptyCells.cardinality();
+        int count = 0;
+        for (int cell : cells)
+            if (cell == emptyValue) count++;
+        return count;
+    }
+
+    /**
+     * For iterating over empty cells without allocating, in the same way as BitSet.nextSetBit():
+     * for (int i = board.nextEmptyCell(0); i >= 0; i = board.nextEmptyCell(i + 1))
+     *
+     * @param from - first index to consider
+     * @return the index of the first empty cell at or after from, or -1 if there is none
+     */
+    public int nextEmptyCell(int from) {
+        if (emptyCells != null)
+            return emptyCells.nextSetBit(from);
+        for (int i = from; i < cells.length; i++)
+            if (cells[i] == emptyValue) return i;
+        return -1;
+    }
+
+    /**
+     * @param palette - the Token to show for each code (palette[code]), for GUIs and getComponents()
+     */
+    public void setPalette(Token... palette) {
+        this.palette = palette;
+    }
+
+    @Override
+    public IntGridBoard copy() {
+        IntGridBoard retValue = new IntGridBoard(this);
+        copyComponentTo(retValue);
+        return retValue;
+    }
+
+    /**
+     * @return a Token for each cell in row-major order, as given by the palette (null for any code not in it)
+     */
+    @Override
+    public List<Token> getComponents() {
+        List<Token> retValue = new ArrayList<>(cells.length);
+        for (int cell : cells)
+            retValue.add(palette != null && cell >= 0 && cell < palette.length ? palette[cell] : null);
+        return retValue;
+    }
+
+    @Override
+    public int getSize() {
+        return cells.length;
+    }
+
+    @Override
+    public CoreConstants.VisibilityMode getVisibilityMode() {
+        return CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof IntGridBoard) {
+            IntGridBoard other = (IntGridBoard) o;
+            return componentID == other.componentID && width == other.width && Arrays.equals(cells, other.cells);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return componentID + 5 * Arrays.hashCode(cells);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int cell = cells[y * width + x];
+                sb.append(palette != null && cell >= 0 && cell < palette.length ? palette[cell] : String.valueOf(cell)).append(" ");
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package core.interfaces;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+
+import java.util.Iterator;
+
+/**
+ * A ForwardModel (or IExtendedSequence) can implement this to provide its available actions lazily, one at a time,
+ * instead of materialising the full list in _computeAvailableActions(). This is of most use in games with very large
+ * action spaces (trade offers, buy phases...) where a search algorithm using progressive widening will only ever look
+ * at the first few actions.
+ *
+ * The order of the Iterator is significant - it should yield the 'most interesting' actions first, as progressive
+ * widening will pull from the front. It must yield exactly the same set of actions as _computeAvailableActions().
+ *
+ * The Iterator may read the state lazily, so it is only valid until the state is next modified.
+ */
+public interface IActionGenerator {
+
+    /**
+     * @param state The current game state
+     * @return an Iterator over the actions available to the current player
+     */
+    Iterator<AbstractAction> generateAvailableActions(AbstractGameState state);
+
+}
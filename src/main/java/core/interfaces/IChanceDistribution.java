@@ -0,0 +1,33 @@
+package core.interfaces;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+
+import java.util.Map;
+
+/**
+ * A ForwardModel can implement this, as well as IChanceOutcome, if it can list every random outcome of a stochastic
+ * transition with its probability, and can set the outcome of a transition that has already happened. Search can then
+ * expand a chance node exactly: every outcome is a separate child, and each is visited in proportion to its
+ * probability, rather than in proportion to how often it happens to be sampled.
+ */
+public interface IChanceDistribution extends IChanceOutcome {
+
+    /**
+     * @param state  The game state immediately after the action was applied
+     * @param action The action that was applied
+     * @return the key (as returned by chanceOutcome()) of every possible outcome of the action, with its probability.
+     * The probabilities sum to 1. Empty if the transition was deterministic.
+     */
+    Map<Long, Double> chanceDistribution(AbstractGameState state, AbstractAction action);
+
+    /**
+     * Changes the state, immediately after the action was applied, so that the action had the given outcome instead.
+     *
+     * @param state   The game state immediately after the action was applied
+     * @param action  The action that was applied
+     * @param outcome One of the keys from chanceDistribution()
+     */
+    void setChanceOutcome(AbstractGameState state, AbstractAction action, long outcome);
+
+}
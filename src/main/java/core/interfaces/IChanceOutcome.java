@@ -0,0 +1,25 @@
+package core.interfaces;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+
+/**
+ * A ForwardModel can implement this to identify the random outcome of a stochastic transition (a dice roll, a card
+ * draw...). Search algorithms can then keep separate statistics for each outcome, instead of averaging over all of
+ * them as open loop search otherwise does.
+ *
+ * Two transitions with the same key should be strategically equivalent (for example, the same dice values in any
+ * order). Keys only need to be unique for a given action from a given state.
+ */
+public interface IChanceOutcome {
+
+    long NO_CHANCE = Long.MIN_VALUE;
+
+    /**
+     * @param state  The game state immediately after the action was applied
+     * @param action The action that was applied
+     * @return a key for the random outcome of the action, or NO_CHANCE if the transition was deterministic
+     */
+    long chanceOutcome(AbstractGameState state, AbstractAction action);
+
+}
@@ -3,17 +3,17 @@ package core.rules;
 import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
-import core.rules.nodetypes.BranchingRuleNode;
-import core.rules.nodetypes.ConditionNode;
-import core.rules.nodetypes.RuleNode;
 import utilities.Utils;
 
-import java.util.HashMap;
+import static core.rules.RuleProgram.END;
+import static core.rules.RuleProgram.ROOT;
 
 public abstract class AbstractRuleBasedForwardModel extends AbstractForwardModel {
 
-    // Rule executed last, rule to be executed next, and first rule to be executed in a turn (root)
-    protected Node lastRule, nextRule, root;
+    // First rule to be executed in a turn (root)
+    protected Node root;
+    // The rule graph compiled from root. The position in it is kept in the game state (see IRuleBasedGameState).
+    private volatile RuleProgram program;
 
     /**
      * Default constructor. Any classes extending this should initialise the root node variable to the first rule
@@ -29,17 +29,40 @@ public abstract class AbstractRuleBasedForwardModel extends AbstractForwardModel
      *      - Use core.rules.rulenodes.ForceAllPlayerReaction.java type rules to force all players to react (if using
      *      a ReactiveTurnOrder).
      *
+     * The graph is compiled into a RuleProgram the first time it is needed, and must not be changed after that.
+     * Nodes must not keep game state between executions (see RuleProgram). The game state must implement
+     * IRuleBasedGameState, which holds the position in the graph. The forward model itself then has no mutable
+     * state, and one instance can be used by every player and thread.
+     *
      * Can use utilities.GameFlowDiagram.java class to visualise game flow, given a root node (and all children assigned)
      */
     protected AbstractRuleBasedForwardModel() {}
 
     /**
-     * Copy constructor from root node.
+     * Constructor from root node.
      * @param root - root rule node.
      */
     protected AbstractRuleBasedForwardModel(Node root) {
         this.root = root;
-        this.nextRule = root;
+    }
+
+    /**
+     * @return the compiled rule graph
+     */
+    protected final RuleProgram getProgram() {
+        RuleProgram retValue = program;
+        if (retValue == null) {
+            // if two threads get here at once they compile equivalent programs, and either can be kept
+            retValue = RuleProgram.compile(root);
+            program = retValue;
+        }
+        return retValue;
+    }
+
+    private static RuleExecution execution(AbstractGameState state) {
+        if (!(state instanceof IRuleBasedGameState))
+            throw new AssertionError("The game state of a rule based game must implement IRuleBasedGameState");
+        return ((IRuleBasedGameState) state).getRuleExecution();
     }
 
     /**
@@ -48,8 +71,7 @@ public abstract class AbstractRuleBasedForwardModel extends AbstractForwardModel
      */
     protected void abstractSetup(AbstractGameState firstState) {
         super.abstractSetup(firstState);
-        nextRule = root;
-        lastRule = null;
+        execution(firstState).reset();
     }
 
     /**
@@ -60,77 +82,29 @@ public abstract class AbstractRuleBasedForwardModel extends AbstractForwardModel
     @Override
     protected void _next(AbstractGameState currentState, AbstractAction action) {
         if (currentState.getGameStatus() != Utils.GameResult.GAME_ONGOING) return;
-        
-        if (nextRule == null) {
-            nextRule = lastRule.getNext();  // Go back to parent, skip it and go to next rule
-            if (nextRule == null) nextRule = root;
+        RuleProgram program = getProgram();
+        RuleExecution ex = execution(currentState);
+
+        if (ex.nextRule == END) {
+            ex.nextRule = program.next(ex.lastRule);  // Go back to parent, skip it and go to next rule
+            if (ex.nextRule == END) ex.nextRule = ROOT;
             return;
         }
 
         do {
-            if (nextRule.requireAction()) {
+            AbstractAction ruleAction = null;
+            if (program.requiresAction(ex.nextRule)) {
                 if (action != null) {
-                    nextRule.setAction(action);
+                    ruleAction = action;
                     action = null;
                 } else {
                     return;  // Wait for action to be sent to execute this rule requiring action
                 }
             }
-            lastRule = nextRule;
-            nextRule = nextRule.execute(currentState);
-        } while (nextRule != null);
-
-        nextRule = lastRule.getNext();  // Go back to parent, skip it and go to next rule
-    }
-
-    /**
-     * Copy root node with rule graph.
-     * @return - New copy of root
-     */
-    protected Node copyRoot() {
-        return copyNodeGraph(new HashMap<>(), root);
-    }
-
-    /**
-     * Recursive copy of nodes in rule graph
-     * @param visitedNodes - Map keeping track of visited nodes
-     * @param node - Original node
-     * @return - Node with copy of rule graph
-     */
-    private Node copyNodeGraph(HashMap<Integer, Node> visitedNodes, Node node) {
-
-        if(node == null) {
-            throw new AssertionError("Can't copy rule graph containing null nodes!");
-        }
-        if(visitedNodes.containsKey(node.getId())) {
-            return visitedNodes.get(node.getId());
-        }
-
-        Node copy = node.copy();
-        visitedNodes.put(node.getId(), copy);
-
-        if(node instanceof RuleNode) {
-            if(node instanceof BranchingRuleNode) {
-                Node[] children = ((BranchingRuleNode) node).getChildren();
-                Node[] copies = new Node[children.length];
-                for (int j = 0; j < copies.length; j++) {
-                    copies[j] = copyNodeGraph(visitedNodes, children[j].getNext());
-                    if (children[j].parent != null) copies[j].setParent(copy);
-                }
-                ((BranchingRuleNode) copy).setNext(copies);
-            } else {
-                Node child = copyNodeGraph(visitedNodes, node.getNext());
-                if (node.getNext().parent != null) child.setParent(copy);
-                ((RuleNode) copy).setNext(child);
-            }
+            ex.lastRule = ex.nextRule;
+            ex.nextRule = program.step(ex.lastRule, currentState, ruleAction);
+        } while (ex.nextRule != END);
 
-        } else if(node instanceof ConditionNode) {
-            Node childYes = copyNodeGraph(visitedNodes, ((ConditionNode) node).getYesNo()[0]);
-            Node childNo = copyNodeGraph(visitedNodes, ((ConditionNode) node).getYesNo()[1]);
-            if (((ConditionNode) node).getYesNo()[0].parent != null) childYes.setParent(copy);
-            if (((ConditionNode) node).getYesNo()[1].parent != null) childNo.setParent(copy);
-            ((ConditionNode) copy).setYesNo(childYes, childNo);
-        }
-        return copy;
+        ex.nextRule = program.next(ex.lastRule);  // Go back to parent, skip it and go to next rule
     }
 }
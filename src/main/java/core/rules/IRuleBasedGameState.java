@@ -0,0 +1,10 @@
+package core.rules;
+
+/**
+ * Implemented by the game states of games with an AbstractRuleBasedForwardModel, which keeps its position in the
+ * rule graph in the state rather than in the forward model. The state must copy its RuleExecution in _copy().
+ */
+public interface IRuleBasedGameState {
+
+    RuleExecution getRuleExecution();
+}
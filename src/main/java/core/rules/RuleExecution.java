@@ -0,0 +1,49 @@
+package core.rules;
+
+import java.util.Objects;
+
+import static core.rules.RuleProgram.END;
+import static core.rules.RuleProgram.ROOT;
+
+/**
+ * Where a game is in its rule graph: the rule executed last, and the rule to execute next, as indices into the
+ * RuleProgram of the forward model. This is part of the game state (see IRuleBasedGameState), so that one
+ * forward model can be used with many states at once.
+ */
+public final class RuleExecution {
+
+    int lastRule = END, nextRule = ROOT;
+
+    public RuleExecution copy() {
+        RuleExecution copy = new RuleExecution();
+        copy.lastRule = lastRule;
+        copy.nextRule = nextRule;
+        return copy;
+    }
+
+    public void reset() {
+        lastRule = END;
+        nextRule = ROOT;
+    }
+
+    public int getLastRule() {
+        return lastRule;
+    }
+
+    public int getNextRule() {
+        return nextRule;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RuleExecution)) return false;
+        RuleExecution that = (RuleExecution) o;
+        return lastRule == that.lastRule && nextRule == that.nextRule;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lastRule, nextRule);
+    }
+}
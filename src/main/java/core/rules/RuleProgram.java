@@ -0,0 +1,151 @@
+package core.rules;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import core.rules.nodetypes.BranchingRuleNode;
+import core.rules.nodetypes.ConditionNode;
+import core.rules.nodetypes.RuleNode;
+
+import java.util.*;
+
+/**
+ * A rule graph compiled into a table of nodes, where each node is referred to by its index (the program counter).
+ * The links between nodes are held as arrays of indices, so following them needs no copies of the graph.
+ * <p>
+ * A program is immutable once compiled, so it can be shared by every game that uses the forward model, on any
+ * thread: each game only needs its own program counters (see RuleExecution). For this the nodes must not keep any
+ * game state between executions; anything a later rule needs to know should be stored in the game state. The
+ * action for a rule is passed to RuleNode.execute() rather than stored in the node. The nodes are compiled as they
+ * are, and not copied, so the graph must not be changed after compilation.
+ * <p>
+ * The root of the graph is always at index ROOT, and END marks the end of a sequence of rules (when a rule is
+ * interrupted, or needs an action that it does not have).
+ */
+public final class RuleProgram {
+
+    public static final int ROOT = 0, END = -1;
+
+    private static final byte RULE = 0, CONDITION = 1, OTHER = 2;
+
+    private final Node[] nodes;
+    private final byte[] kind;
+    private final boolean[] requiresAction;
+    private final int[] next;  // the child of a rule node
+    private final int[] yes, no;  // the children of a condition node
+    private final IdentityHashMap<Node, Integer> index;
+
+    private RuleProgram(List<Node> nodeList, IdentityHashMap<Node, Integer> index) {
+        int n = nodeList.size();
+        this.index = index;
+        nodes = nodeList.toArray(new Node[0]);
+        kind = new byte[n];
+        requiresAction = new boolean[n];
+        next = new int[n];
+        yes = new int[n];
+        no = new int[n];
+        Arrays.fill(next, END);
+        Arrays.fill(yes, END);
+        Arrays.fill(no, END);
+        for (int pc = 0; pc < n; pc++) {
+            Node node = nodes[pc];
+            requiresAction[pc] = node.requireAction();
+            if (node instanceof ConditionNode) {
+                kind[pc] = CONDITION;
+                Node[] yesNo = ((ConditionNode) node).getYesNo();
+                yes[pc] = index.get(yesNo[0]);
+                no[pc] = index.get(yesNo[1]);
+            } else if (node instanceof RuleNode && !(node instanceof BranchingRuleNode)) {
+                kind[pc] = RULE;
+                next[pc] = index.get(node.getNext());
+            } else {
+                kind[pc] = OTHER;
+                if (node.getNext() != null)
+                    next[pc] = index.get(node.getNext());
+            }
+        }
+    }
+
+    /**
+     * Compiles the graph reachable from root. Every rule and condition must have its children set.
+     *
+     * @param root - first rule of the game
+     */
+    public static RuleProgram compile(Node root) {
+        if (root == null)
+            throw new AssertionError("Can't compile a rule graph without a root");
+        List<Node> nodeList = new ArrayList<>();
+        IdentityHashMap<Node, Integer> index = new IdentityHashMap<>();
+        Deque<Node> toVisit = new ArrayDeque<>();
+        toVisit.push(root);
+        while (!toVisit.isEmpty()) {
+            Node node = toVisit.pop();
+            if (index.containsKey(node))
+                continue;
+            index.put(node, nodeList.size());
+            nodeList.add(node);
+            List<Node> children = new ArrayList<>();
+            if (node instanceof ConditionNode) {
+                children.addAll(Arrays.asList(((ConditionNode) node).getYesNo()));
+            } else if (node instanceof BranchingRuleNode) {
+                Node[] branches = ((BranchingRuleNode) node).getChildren();
+                if (branches != null)
+                    children.addAll(Arrays.asList(branches));
+                if (node.getNext() != null)
+                    children.add(node.getNext());
+            } else {
+                children.add(node.getNext());
+            }
+            // reversed, so that nodes are numbered in the order of a depth-first walk
+            for (int i = children.size() - 1; i >= 0; i--) {
+                if (children.get(i) == null)
+                    throw new AssertionError("Can't compile rule graph containing null nodes! (child of " + node + ")");
+                toVisit.push(children.get(i));
+            }
+        }
+        return new RuleProgram(nodeList, index);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public Node node(int pc) {
+        return nodes[pc];
+    }
+
+    public boolean requiresAction(int pc) {
+        return requiresAction[pc];
+    }
+
+    /**
+     * @return the rule to carry on with after the rule at pc interrupted the game loop; END if there is none
+     * (including when pc is END).
+     */
+    public int next(int pc) {
+        return pc == END ? END : next[pc];
+    }
+
+    /**
+     * Executes one node.
+     *
+     * @param pc     - the node to execute
+     * @param gs     - game state to apply it to
+     * @param action - the action for a node that requires one (ignored otherwise)
+     * @return the node to execute next, or END if the sequence of rules stops here
+     */
+    public int step(int pc, AbstractGameState gs, AbstractAction action) {
+        Node node = nodes[pc];
+        if (kind[pc] == CONDITION)
+            return ((ConditionNode) node).evaluate(gs) ? yes[pc] : no[pc];
+
+        Node result = node instanceof RuleNode ? ((RuleNode) node).execute(gs, action) : node.execute(gs);
+        if (result == null)
+            return END;
+        if (kind[pc] == RULE)
+            return next[pc];
+        Integer resultPc = index.get(result);
+        if (resultPc == null)
+            throw new AssertionError("Rule " + node + " went to a node that is not in the compiled graph");
+        return resultPc;
+    }
+}
@@ -37,6 +37,16 @@ public abstract class ConditionNode extends Node {
      */
     protected abstract boolean test(AbstractGameState gs);
 
+    /**
+     * Tests the condition without recording the result in this node, so that the node can be shared by several
+     * copies of a forward model (see RuleProgram).
+     * @param gs - game state to test condition in.
+     * @return - boolean, the result of the condition test.
+     */
+    public final boolean evaluate(AbstractGameState gs) {
+        return test(gs);
+    }
+
     @Override
     public final Node execute(AbstractGameState gs) {
         passed = test(gs);
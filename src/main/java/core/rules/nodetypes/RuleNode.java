@@ -1,6 +1,7 @@
 package core.rules.nodetypes;
 
 import core.AbstractGameState;
+import core.actions.AbstractAction;
 import core.rules.GameOverCondition;
 import core.rules.Node;
 import utilities.Utils;
@@ -52,6 +53,17 @@ public abstract class RuleNode extends Node {
      */
     protected abstract boolean run(AbstractGameState gs);
 
+    /**
+     * As run(gs), for a rule that is given its action rather than reading it from the node. Rules that use an
+     * action should override this, so that the node can be shared between games on several threads.
+     * @param gs - game state to modify.
+     * @param action - the action for this rule, or null.
+     * @return - true if successfully executed, false if not and game loop should be interrupted after the execution.
+     */
+    protected boolean run(AbstractGameState gs, AbstractAction action) {
+        return run(gs);
+    }
+
     /**
      * Adds a new game over condition to this node.
      * @param condition - game over condition to add.
@@ -68,9 +80,19 @@ public abstract class RuleNode extends Node {
      * requirements for execution are not met, or the game is over).
      */
     public final Node execute(AbstractGameState gs) {
+        return execute(gs, action);
+    }
+
+    /**
+     * As execute(gs), but with the action given rather than set on the node.
+     * @param gs - game state to apply functionality in.
+     * @param action - the action for this rule (ignored if the rule does not require one).
+     * @return - the next child to execute, or null as for execute(gs).
+     */
+    public final Node execute(AbstractGameState gs, AbstractAction action) {
         if (requireAction() && action == null) return null;
 
-        boolean interrupted = !run(gs);
+        boolean interrupted = !run(gs, action);
         if (gameOverConditions != null && gameOverConditions.size() > 0) {
             for (GameOverCondition goc: gameOverConditions) {  // TODO: this triggers first condition, maybe order matters/loss first
                 Utils.GameResult result = goc.test(gs);
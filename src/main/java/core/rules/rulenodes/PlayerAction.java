@@ -1,6 +1,7 @@
 package core.rules.rulenodes;
 
 import core.AbstractGameState;
+import core.actions.AbstractAction;
 import core.rules.Node;
 import core.rules.nodetypes.RuleNode;
 
@@ -24,6 +25,11 @@ public class PlayerAction extends RuleNode {
 
     @Override
     protected boolean run(AbstractGameState gs) {
+        return run(gs, action);
+    }
+
+    @Override
+    protected boolean run(AbstractGameState gs, AbstractAction action) {
         if (action != null) {
             action.execute(gs);
             return true;
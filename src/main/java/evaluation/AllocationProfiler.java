@@ -0,0 +1,318 @@
+package evaluation;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.json.simple.JSONObject;
+import players.simple.RandomPlayer;
+import utilities.Utils;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+import static utilities.Utils.getArg;
+
+/**
+ * Measures how much memory the forward model of each game allocates, so that the games that put most pressure on the
+ * garbage collector (and so cause the longest pauses in search) can be found, and regressions caught.
+ * <p>
+ * Seeded random games are played for each game, and the bytes allocated by the current thread (as counted by the
+ * JVM) are recorded around every state copy, computeAvailableActions() and next(); next() is also broken down by the
+ * class of the action played. The results can be saved as a baseline, and later runs compared against it: a run
+ * fails if any game allocates more than the baseline by a given tolerance.
+ * <p>
+ * The first few games for each game type are not measured, so that the JIT has compiled (and removed what
+ * allocations it can from) the hot code before measurement starts. Numbers can still vary a little between runs
+ * for the same reason, hence the tolerance.
+ */
+public class AllocationProfiler {
+
+    public static final String COPY = "copy", ACTIONS = "computeAvailableActions", NEXT = "next";
+
+    // bytes allocated by the calls to one operation
+    public static class Tally {
+        long calls, bytes, max;
+
+        void add(long allocated) {
+            calls++;
+            bytes += allocated;
+            max = Math.max(max, allocated);
+        }
+
+        public long calls() {
+            return calls;
+        }
+
+        public double mean() {
+            return calls == 0 ? 0.0 : bytes / (double) calls;
+        }
+
+        public long max() {
+            return max;
+        }
+    }
+
+    private final com.sun.management.ThreadMXBean bean;
+    private final long threadId = Thread.currentThread().getId();
+    private final long overhead;
+    // GameType -> operation (or NEXT + ":" + action class) -> tally
+    private final Map<GameType, Map<String, Tally>> results = new LinkedHashMap<>();
+    // GameType -> the exception that stopped it being profiled
+    private final Map<GameType, String> failures = new LinkedHashMap<>();
+
+    public AllocationProfiler() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+            throw new AssertionError("This JVM does not count the memory allocated by each thread");
+        bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!bean.isThreadAllocatedMemorySupported())
+            throw new AssertionError("This JVM does not count the memory allocated by each thread");
+        bean.setThreadAllocatedMemoryEnabled(true);
+        // reading the counter may itself allocate, so we take the smallest difference between two readings off
+        long smallest = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long start = allocated();
+            smallest = Math.min(smallest, allocated() - start);
+        }
+        overhead = smallest;
+    }
+
+    private long allocated() {
+        return bean.getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * Plays random games of the given game, and adds their allocations to the results. Must be called on the thread
+     * that created the profiler.
+     *
+     * @param gameType   - the game to play
+     * @param nPlayers   - the number of players
+     * @param nGames     - the number of games to measure
+     * @param warmup     - the number of games to play first, without measuring them
+     * @param maxActions - the most actions to take in any one game
+     * @param seed       - the seed for the games and the choice of actions
+     */
+    public void profile(GameType gameType, int nPlayers, int nGames, int warmup, int maxActions, long seed) {
+        if (Thread.currentThread().getId() != threadId)
+            throw new AssertionError("Allocations can only be measured on the thread that created the profiler");
+        Map<String, Tally> tallies = results.computeIfAbsent(gameType, g -> new LinkedHashMap<>());
+        Random rnd = new Random(seed);
+        for (int i = 0; i < warmup + nGames; i++) {
+            long gameSeed = rnd.nextLong();
+            Game game = gameType.createGameInstance(nPlayers, gameSeed);
+            List<AbstractPlayer> players = new ArrayList<>();
+            for (int p = 0; p < nPlayers; p++)
+                players.add(new RandomPlayer(new Random(rnd.nextLong())));
+            game.reset(players, gameSeed);
+            playGame(game.getGameState(), game.getForwardModel(), maxActions, rnd, i < warmup ? null : tallies);
+        }
+    }
+
+    // as the main game loop, but with the actions chosen directly so that no agent code runs between measurements
+    private void playGame(AbstractGameState state, AbstractForwardModel fm, int maxActions, Random rnd, Map<String, Tally> tallies) {
+        for (int actions = 0; actions < maxActions && state.isNotTerminal(); actions++) {
+            long start = allocated();
+            state.copy(state.getCurrentPlayer());
+            long afterCopy = allocated();
+            List<AbstractAction> available = fm.computeAvailableActions(state);
+            long afterActions = allocated();
+            if (available.isEmpty())
+                break;
+            AbstractAction action = available.get(rnd.nextInt(available.size()));
+            long beforeNext = allocated();
+            fm.next(state, action);
+            long end = allocated();
+            if (tallies != null) {
+                tally(tallies, COPY, afterCopy - start);
+                tally(tallies, ACTIONS, afterActions - afterCopy);
+                tally(tallies, NEXT, end - beforeNext);
+                tally(tallies, NEXT + ":" + action.getClass().getSimpleName(), end - beforeNext);
+            }
+        }
+    }
+
+    private void tally(Map<String, Tally> tallies, String key, long bytes) {
+        tallies.computeIfAbsent(key, k -> new Tally()).add(Math.max(0, bytes - overhead));
+    }
+
+    public Map<GameType, Map<String, Tally>> getResults() {
+        return results;
+    }
+
+    /**
+     * Records that a game could not be profiled, and discards any partial results for it. A failed game counts as a
+     * regression against any baseline.
+     */
+    public void recordFailure(GameType gameType, Throwable e) {
+        results.remove(gameType);
+        failures.put(gameType, e.toString());
+    }
+
+    public Map<GameType, String> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return a table with the mean and maximum bytes allocated per call of each operation, for each game.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-24s %-40s %10s %14s %14s%n", "Game", "Operation", "Calls", "Mean bytes", "Max bytes"));
+        for (Map.Entry<GameType, Map<String, Tally>> game : results.entrySet()) {
+            List<String> keys = new ArrayList<>(game.getValue().keySet());
+            // the three totals first, then the action classes from the most allocated per call
+            keys.sort(Comparator.comparing((String k) -> k.contains(":"))
+                    .thenComparing(k -> -game.getValue().get(k).mean()));
+            for (String key : keys) {
+                Tally t = game.getValue().get(key);
+                sb.append(String.format("%-24s %-40s %10d %14.0f %14d%n", game.getKey().name(), key, t.calls, t.mean(), t.max));
+            }
+        }
+        for (Map.Entry<GameType, String> failure : failures.entrySet())
+            sb.append(String.format("%-24s FAILED: %s%n", failure.getKey().name(), failure.getValue()));
+        return sb.toString();
+    }
+
+    /**
+     * @return the mean bytes per copy, computeAvailableActions and next for each game, in the format read by
+     * regressions().
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject toJSON() {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<GameType, Map<String, Tally>> game : results.entrySet()) {
+            JSONObject means = new JSONObject();
+            for (String key : new String[]{COPY, ACTIONS, NEXT}) {
+                Tally t = game.getValue().get(key);
+                if (t != null)
+                    means.put(key, t.mean());
+            }
+            json.put(game.getKey().name(), means);
+        }
+        return json;
+    }
+
+    /**
+     * Compares the results with a baseline (as written by toJSON()).
+     *
+     * @param baseline  - the mean bytes per call of each operation for each game
+     * @param tolerance - the fraction by which a mean may exceed the baseline, e.g. 0.1 for 10%
+     * @param slack     - bytes by which a mean may exceed the baseline regardless, so that operations that
+     *                  allocate almost nothing do not fail on noise
+     * @return a description of each operation whose mean exceeded the baseline, and of each game that failed; empty
+     * if there are none. Games and operations that are not in the baseline are not otherwise checked.
+     */
+    public List<String> regressions(JSONObject baseline, double tolerance, double slack) {
+        List<String> retValue = new ArrayList<>();
+        for (Map.Entry<GameType, String> failure : failures.entrySet())
+            retValue.add(String.format("%s failed: %s", failure.getKey().name(), failure.getValue()));
+        for (Map.Entry<GameType, Map<String, Tally>> game : results.entrySet()) {
+            JSONObject expected = (JSONObject) baseline.get(game.getKey().name());
+            if (expected == null)
+                continue;
+            for (String key : new String[]{COPY, ACTIONS, NEXT}) {
+                Tally t = game.getValue().get(key);
+                Object limit = expected.get(key);
+                if (t == null || !(limit instanceof Number))
+                    continue;
+                double allowed = ((Number) limit).doubleValue() * (1.0 + tolerance) + slack;
+                if (t.mean() > allowed)
+                    retValue.add(String.format("%s %s: %.0f bytes per call, against a baseline of %.0f",
+                            game.getKey().name(), key, t.mean(), ((Number) limit).doubleValue()));
+            }
+        }
+        return retValue;
+    }
+
+    public static void main(String[] args) {
+        List<String> argsList = Arrays.asList(args);
+        if (argsList.contains("--help") || argsList.contains("-h")) {
+            System.out.println(
+                    "To run this class, you can supply a number of possible arguments:\n" +
+                            "\tgames=         A pipe-delimited list of the games to profile, for example games=Uno|Pandemic.\n" +
+                            "\t               The default is 'all'. Specifying all|-name1|-name2... will profile all games\n" +
+                            "\t               except for name1, name2...\n" +
+                            "\tnPlayers=      The number of players. Defaults to the minimum for each game.\n" +
+                            "\tnGames=        The number of games to measure for each game type. Defaults to 20.\n" +
+                            "\twarmup=        The number of games to play first without measuring. Defaults to 5.\n" +
+                            "\tmaxActions=    The most actions to take in a single game. Defaults to 5000.\n" +
+                            "\tseed=          Random seed for the games and actions. Defaults to 42.\n" +
+                            "\tbaseline=      (Optional) A JSON file of the bytes allocated per call by each game. If\n" +
+                            "\t               given, the run fails if any game allocates more than this, or throws an\n" +
+                            "\t               exception while being profiled.\n" +
+                            "\twriteBaseline= If true, the results are written to the baseline file instead of checked\n" +
+                            "\t               against it. Defaults to false.\n" +
+                            "\ttolerance=     The fraction by which a game may allocate more than the baseline.\n" +
+                            "\t               Defaults to 0.1.\n" +
+                            "\tslack=         Bytes per call by which a game may allocate more than the baseline, whatever\n" +
+                            "\t               the tolerance. Defaults to 64.\n" +
+                            "\treport=        (Optional) A file to write the report to, as well as the console.\n"
+            );
+            return;
+        }
+        List<String> tempGames = Arrays.asList(getArg(args, "games", "all").split("\\|"));
+        List<String> games = tempGames;
+        if (tempGames.get(0).equals("all"))
+            games = Arrays.stream(GameType.values()).map(Enum::name).filter(name -> !tempGames.contains("-" + name)).collect(toList());
+        int nPlayers = getArg(args, "nPlayers", -1);
+        int nGames = getArg(args, "nGames", 20);
+        int warmup = getArg(args, "warmup", 5);
+        int maxActions = getArg(args, "maxActions", 5000);
+        long seed = getArg(args, "seed", 42L);
+        String baseline = getArg(args, "baseline", "");
+        boolean writeBaseline = getArg(args, "writeBaseline", false);
+        double tolerance = getArg(args, "tolerance", 0.1);
+        double slack = getArg(args, "slack", 64.0);
+        String reportFile = getArg(args, "report", "");
+
+        AllocationProfiler profiler = new AllocationProfiler();
+        for (String name : games) {
+            GameType gameType = GameType.valueOf(name);
+            int players = nPlayers > 0 ? nPlayers : gameType.getMinPlayers();
+            System.out.printf("Profiling %s with %d players%n", name, players);
+            try {
+                profiler.profile(gameType, players, nGames, warmup, maxActions, seed);
+            } catch (Exception | AssertionError e) {
+                // a game that crashes fails the baseline check; exclude it with games=all|-name if that is expected
+                System.out.printf("Failed %s: %s%n", name, e);
+                profiler.recordFailure(gameType, e);
+            }
+        }
+        String report = profiler.report();
+        System.out.println(report);
+        if (!reportFile.isEmpty())
+            write(reportFile, report);
+
+        if (baseline.isEmpty())
+            return;
+        if (writeBaseline) {
+            write(baseline, profiler.toJSON().toJSONString());
+            System.out.println("Baseline written to " + baseline);
+            return;
+        }
+        if (!new File(baseline).exists())
+            throw new IllegalArgumentException("Baseline file " + baseline + " does not exist");
+        List<String> regressions = profiler.regressions(Utils.loadJSONFile(baseline), tolerance, slack);
+        if (regressions.isEmpty()) {
+            System.out.println("No allocation regressions against " + baseline);
+        } else {
+            System.out.println("Allocation regressions against " + baseline + ":");
+            regressions.forEach(r -> System.out.println("\t" + r));
+            System.exit(1);
+        }
+    }
+
+    private static void write(String fileName, String contents) {
+        try (FileWriter writer = new FileWriter(fileName)) {
+            writer.write(contents);
+        } catch (IOException e) {
+            throw new AssertionError("Could not write to " + fileName + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package evaluation;
+
+import games.GameType;
+import utilities.Utils.GameResult;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+
+import static evaluation.TournamentWorker.*;
+import static utilities.Utils.getArg;
+
+/**
+ * A round robin tournament whose games are played by worker processes, rather than all in one JVM.
+ * <p>
+ * The coordinator enumerates the match-ups in the same way as RoundRobinTournament (every combination of agents in
+ * every seat, gamesPerMatchUp times each), and writes one WorkUnit per game into the pending directory of a shared
+ * directory. Game k is given the seed (seed + k + 1), as in RoundRobinTournament. TournamentWorkers, started locally
+ * by the coordinator or by hand on other machines that share the directory, then claim and play the units.
+ * <p>
+ * Units that throw an exception are retried by the workers (up to maxAttempts), and units whose worker has been
+ * running them for longer than unitTimeout (for example because it died) are put back in pending by the coordinator.
+ * <p>
+ * Each unit creates its players afresh, with seeds taken from that of the game, so its result depends only on its
+ * contents. The results are therefore the same however many workers are used, and in whatever order they play the
+ * units. runLocally() plays the same units one after the other in this JVM, which gives the single process results
+ * to compare against. (This is not true of players whose decisions depend on the clock, such as those with a time
+ * budget, or of players from JSON files that are not TunableParameters, whose seeds cannot be set.) Note also that
+ * RoundRobinTournament re-uses its players from game to game, so its results will not in general be the same as
+ * these.
+ */
+public class DistributedTournament {
+
+    public final GameType game;
+    public final int playersPerGame;
+    private final List<String> agents;
+    private final List<WorkUnit> units = new ArrayList<>();
+    private final File dir;
+    public boolean verbose = true;
+
+    /**
+     * @param game            - game to play in this tournament.
+     * @param playersPerGame  - number of players per game.
+     * @param agents          - descriptors of the players for the tournament (see PlayerFactory.createPlayer()).
+     * @param gameParams      - JSON file of game parameters, or "" for the defaults.
+     * @param gamesPerMatchUp - number of games for each combination of players.
+     * @param selfPlay        - true if agents are allowed to play copies of themselves.
+     * @param seed            - the seed of the first game is seed + 1, and so on.
+     * @param listeners       - class names of the IGameListeners to attach to each game.
+     * @param maxAttempts     - the number of times to try a unit before giving up on it.
+     * @param dir             - the directory shared with the workers.
+     */
+    public DistributedTournament(GameType game, int playersPerGame, List<String> agents, String gameParams,
+                                 int gamesPerMatchUp, boolean selfPlay, long seed, List<String> listeners,
+                                 int maxAttempts, File dir) {
+        if (!selfPlay && playersPerGame > agents.size())
+            throw new IllegalArgumentException("Not enough agents to fill a match without self-play." +
+                    "Either add more agents, reduce the number of players per game, or allow self-play.");
+        this.game = game;
+        this.playersPerGame = playersPerGame;
+        this.agents = agents;
+        this.dir = dir;
+        List<List<Integer>> matchUps = new ArrayList<>();
+        createMatchUps(new LinkedList<>(), selfPlay, matchUps);
+        for (List<Integer> matchUp : matchUps) {
+            List<String> players = new ArrayList<>();
+            for (int agentID : matchUp)
+                players.add(agents.get(agentID));
+            for (int i = 0; i < gamesPerMatchUp; i++) {
+                int id = units.size();
+                units.add(new WorkUnit(id, game, seed + id + 1, gameParams, players, matchUp, listeners, maxAttempts));
+            }
+        }
+    }
+
+    private void createMatchUps(LinkedList<Integer> matchUp, boolean selfPlay, List<List<Integer>> matchUps) {
+        if (matchUp.size() == playersPerGame) {
+            matchUps.add(new ArrayList<>(matchUp));
+        } else {
+            for (int agentID = 0; agentID < agents.size(); agentID++) {
+                if (selfPlay || !matchUp.contains(agentID)) {
+                    matchUp.add(agentID);
+                    createMatchUps(matchUp, selfPlay, matchUps);
+                    matchUp.removeLast();
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        List<String> argsList = Arrays.asList(args);
+        if (argsList.contains("--help") || argsList.contains("-h")) {
+            System.out.println(
+                    "There are a number of possible arguments:\n" +
+                            "\trole=          coordinator|worker|local - defaults to coordinator.\n" +
+                            "\t               coordinator splits the tournament into work units, and collects the results.\n" +
+                            "\t               worker plays work units until the coordinator has finished.\n" +
+                            "\t               local plays all the work units in this process, one after the other.\n" +
+                            "\tdir=           The directory shared by the coordinator and workers. Defaults to 'distributed'.\n" +
+                            "\t               Any previous contents of its sub-directories are deleted by the coordinator.\n" +
+                            "\tlocalWorkers=  (coordinator only) The number of worker processes to start on this machine.\n" +
+                            "\t               Defaults to the number of processors. Workers on other machines can be started\n" +
+                            "\t               with role=worker, and the same dir.\n" +
+                            "\tgame=          The name of the game to play. Defaults to TicTacToe.\n" +
+                            "\tnPlayers=      The number of players in each game. Defaults to 2.\n" +
+                            "\tplayers=       The directory containing agent JSON files for the competing Players, or a\n" +
+                            "\t               pipe-delimited list of JSON files or random|osla|rmhc|rhea|mcts.\n" +
+                            "\t               Defaults to random|osla.\n" +
+                            "\tgameParams=    (Optional) A JSON file from which the game parameters will be initialised.\n" +
+                            "\tselfPlay=      If true, then multiple copies of the same agent can be in one game.\n" +
+                            "\t               Defaults to false\n" +
+                            "\tmatchups=      The number of games to run per combination of players. Defaults to 1.\n" +
+                            "\tseed=          The seed of the first game is seed + 1, and so on. Defaults to the time.\n" +
+                            "\tlistener=      (Optional) The full class name of an IGameListener implementation. \n" +
+                            "\t               Defaults to utilities.GameResultListener. \n" +
+                            "\t               A pipe-delimited string can be provided to gather many types of statistics \n" +
+                            "\t               from the same set of games.\n" +
+                            "\tlistenerFile=  (Optional) Will be used as the IStatisticsLogger log file.\n" +
+                            "\t               Defaults to RoundRobinReport.txt\n" +
+                            "\t               A pipe-delimited list should be provided if each distinct listener should\n" +
+                            "\t               use a different log file.\n" +
+                            "\tmaxAttempts=   The number of times to try a work unit that fails. Defaults to 3.\n" +
+                            "\tunitTimeout=   Seconds after which a unit that has not finished is given to another worker.\n" +
+                            "\t               Defaults to 3600.\n"
+            );
+            return;
+        }
+        String role = getArg(args, "role", "coordinator");
+        File dir = new File(getArg(args, "dir", "distributed"));
+        if (role.equals("worker")) {
+            new TournamentWorker(dir, TournamentWorker.defaultName()).run();
+            return;
+        }
+
+        GameType gameToPlay = GameType.valueOf(getArg(args, "game", "TicTacToe"));
+        int nPlayersPerGame = getArg(args, "nPlayers", 2);
+        boolean selfPlay = getArg(args, "selfPlay", false);
+        int matchups = getArg(args, "matchups", 1);
+        String playerDescriptor = getArg(args, "players", "random|osla");
+        String gameParams = getArg(args, "gameParams", "");
+        long seed = getArg(args, "seed", System.currentTimeMillis());
+        int maxAttempts = getArg(args, "maxAttempts", 3);
+        int unitTimeout = getArg(args, "unitTimeout", 3600);
+        int localWorkers = getArg(args, "localWorkers", Runtime.getRuntime().availableProcessors());
+        List<String> listenerClasses = new ArrayList<>(Arrays.asList(getArg(args, "listener", "utilities.GameResultListener").split("\\|")));
+        List<String> listenerFiles = new ArrayList<>(Arrays.asList(getArg(args, "listenerFile", "RoundRobinReport.txt").split("\\|")));
+
+        if (listenerClasses.size() > 1 && listenerFiles.size() > 1 && listenerClasses.size() != listenerFiles.size())
+            throw new IllegalArgumentException("Lists of log files and listeners must be the same length");
+
+        List<String> agents = new ArrayList<>();
+        File playerDir = new File(playerDescriptor);
+        if (playerDir.isDirectory()) {
+            for (String fileName : Objects.requireNonNull(playerDir.list())) {
+                if (fileName.endsWith(".json"))
+                    agents.add(new File(playerDir, fileName).getAbsolutePath());
+            }
+            Collections.sort(agents);
+        } else {
+            agents.addAll(Arrays.asList(playerDescriptor.split("\\|")));
+        }
+
+        System.out.printf("Tournament seed is %d%n", seed);
+        DistributedTournament tournament = new DistributedTournament(gameToPlay, nPlayersPerGame, agents, gameParams,
+                matchups, selfPlay, seed, listenerClasses, maxAttempts, dir);
+        if (role.equals("local"))
+            tournament.runLocally();
+        else
+            tournament.run(localWorkers, unitTimeout * 1000L);
+        tournament.writeListenerFiles(listenerFiles);
+        tournament.report();
+    }
+
+    public List<WorkUnit> getUnits() {
+        return units;
+    }
+
+    /**
+     * Plays every unit in this JVM, in order.
+     */
+    public void runLocally() {
+        prepareDirectory();
+        File logDir = new File(dir, LOGS);
+        for (WorkUnit unit : units) {
+            List<File> logs = TournamentWorker.runUnit(unit, logDir, "local");
+            for (int k = 0; k < logs.size(); k++)
+                logs.get(k).renameTo(new File(logDir, TournamentWorker.logFileName(unit, k)));
+        }
+    }
+
+    /**
+     * Hands out the units to workers, and waits until they have all been played.
+     *
+     * @param localWorkers      - number of worker processes to start on this machine
+     * @param unitTimeoutMillis - time after which a running unit is assumed lost, and put back in pending
+     */
+    public void run(int localWorkers, long unitTimeoutMillis) {
+        prepareDirectory();
+        File pending = new File(dir, PENDING), running = new File(dir, RUNNING), done = new File(dir, DONE),
+                merged = new File(dir, MERGED);
+        for (WorkUnit unit : units)
+            unit.write(new File(pending, unit.fileName()));
+
+        List<Process> processes = startWorkers(localWorkers);
+        try {
+            int completed = 0;
+            while (completed < units.size()) {
+                File[] failed = new File(dir, FAILED).listFiles((d, n) -> n.endsWith(".unit"));
+                if (failed != null && failed.length > 0) {
+                    WorkUnit unit = WorkUnit.read(failed[0]);
+                    throw new AssertionError(String.format("Unit %d failed after %d attempts : %s",
+                            unit.id, unit.attempt, unit.error));
+                }
+                File[] results = done.listFiles((d, n) -> n.endsWith(".unit"));
+                for (File file : Objects.requireNonNull(results)) {
+                    WorkUnit result = WorkUnit.read(file);
+                    WorkUnit unit = units.get(result.id);
+                    if (!unit.isComplete()) {
+                        unit.results = result.results;
+                        unit.ordinals = result.ordinals;
+                        completed++;
+                        if (verbose && completed % 100 == 0)
+                            System.out.printf("%d of %d games played%n", completed, units.size());
+                    }
+                    // so that each result is only read once (a unit played twice after a time out is simply replaced)
+                    if (!file.renameTo(new File(merged, file.getName())))
+                        file.delete();
+                }
+                requeueLostUnits(running, pending, unitTimeoutMillis);
+                if (completed < units.size())
+                    Thread.sleep(200);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopWorkers(processes);
+        }
+    }
+
+    private void requeueLostUnits(File running, File pending, long unitTimeoutMillis) {
+        File[] claimed = running.listFiles((d, n) -> n.contains(".unit."));
+        if (claimed == null)
+            return;
+        long now = System.currentTimeMillis();
+        for (File file : claimed) {
+            if (now - file.lastModified() < unitTimeoutMillis)
+                continue;
+            WorkUnit unit;
+            try {
+                unit = WorkUnit.read(file);
+            } catch (AssertionError e) {
+                continue;  // finished (and removed) since we listed the directory
+            }
+            unit.attempt++;
+            unit.error = "Timed out on " + file.getName().substring(file.getName().indexOf(".unit.") + 6);
+            if (verbose)
+                System.out.printf("Unit %d : %s%n", unit.id, unit.error);
+            unit.write(new File(unit.attempt >= unit.maxAttempts ? new File(dir, FAILED) : pending, unit.fileName()));
+            file.delete();
+        }
+    }
+
+    private List<Process> startWorkers(int n) {
+        List<Process> processes = new ArrayList<>();
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        for (int i = 0; i < n; i++) {
+            ProcessBuilder pb = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    DistributedTournament.class.getName(), "role=worker", "dir=" + dir.getPath());
+            pb.inheritIO();
+            try {
+                processes.add(pb.start());
+            } catch (IOException e) {
+                throw new AssertionError("Problem starting worker process : " + e.getMessage());
+            }
+        }
+        return processes;
+    }
+
+    private void stopWorkers(List<Process> processes) {
+        try {
+            new File(dir, STOP).createNewFile();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        for (Process process : processes) {
+            try {
+                process.waitFor();
+            } catch (InterruptedException e) {
+                process.destroy();
+            }
+        }
+    }
+
+    private void prepareDirectory() {
+        for (String sub : new String[]{PENDING, RUNNING, DONE, FAILED, LOGS, MERGED}) {
+            File subDir = new File(dir, sub);
+            subDir.mkdirs();
+            File[] old = subDir.listFiles();
+            if (old != null)
+                for (File file : old)
+                    file.delete();
+        }
+        new File(dir, STOP).delete();
+    }
+
+    /**
+     * Joins the listener output of all the units, in unit order, with a single header line per file.
+     *
+     * @param listenerFiles - one file per listener, or a single file for all of them
+     */
+    public void writeListenerFiles(List<String> listenerFiles) {
+        if (units.isEmpty())
+            return;
+        int nListeners = units.get(0).listeners.size();
+        for (int k = 0; k < nListeners; k++) {
+            String output = listenerFiles.get(Math.min(k, listenerFiles.size() - 1));
+            boolean headerNeeded = !new File(output).exists();
+            try (Writer writer = new FileWriter(output, true)) {
+                for (WorkUnit unit : units) {
+                    File log = new File(new File(dir, LOGS), TournamentWorker.logFileName(unit, k));
+                    if (!log.exists())
+                        continue;
+                    List<String> lines = Files.readAllLines(log.toPath());
+                    for (int l = headerNeeded ? 0 : 1; l < lines.size(); l++)
+                        writer.write(lines.get(l) + "\n");
+                    if (!lines.isEmpty())
+                        headerNeeded = false;
+                }
+            } catch (IOException e) {
+                throw new AssertionError("Problem writing to file " + output + " : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the number of games won by each agent
+     */
+    public int[] getPointsPerPlayer() {
+        int[] points = new int[agents.size()];
+        for (WorkUnit unit : units) {
+            if (!unit.isComplete())
+                continue;
+            for (int p = 0; p < unit.results.length; p++)
+                points[unit.agentIDs.get(p)] += unit.results[p] == GameResult.WIN ? 1 : 0;
+        }
+        return points;
+    }
+
+    public void report() {
+        int[] points = getPointsPerPlayer();
+        int gameCounter = units.size();
+        int gamesPerPlayer = gameCounter * playersPerGame / agents.size();
+        for (int i = 0; i < agents.size(); i++) {
+            System.out.printf("%s got %d points %n", agents.get(i), points[i]);
+            System.out.printf("%s won %.1f%% of the %d games of the tournament. %n",
+                    agents.get(i), 100.0 * points[i] / gameCounter, gameCounter);
+            System.out.printf("%s won %.1f%% of the games it played during the tournament. %n",
+                    agents.get(i), 100.0 * points[i] / gamesPerPlayer);
+        }
+    }
+}
@@ -50,6 +50,7 @@ public class GameEvaluator implements SolutionEvaluator {
     public IStatisticLogger statsLogger = new SummaryLogger();
     IStateHeuristic stateHeuristic;
     IGameHeuristic gameHeuristic;
+    NTBEACheckpoint checkpoint;
 
     /**
      * GameEvaluator
@@ -89,7 +90,8 @@ public class GameEvaluator implements SolutionEvaluator {
 
     @Override
     public void reset() {
-        nEvals = 0;
+        // when resuming from a checkpoint, carry on counting from the evaluations already made in this run
+        nEvals = checkpoint == null ? 0 : checkpoint.samplesInRun();
     }
 
     @Override
@@ -144,7 +146,11 @@ public class GameEvaluator implements SolutionEvaluator {
         newGame.run();
 
         nEvals++;
-        return tuningGame ? gameHeuristic.evaluateGame(newGame) : stateHeuristic.evaluateState(newGame.getGameState(), playerIndex);
+        double result = tuningGame ? gameHeuristic.evaluateGame(newGame) : stateHeuristic.evaluateState(newGame.getGameState(), playerIndex);
+        // the final evaluation games (with reportStatistics) are not part of the search
+        if (checkpoint != null && !reportStatistics)
+            checkpoint.record(settings, result, rnd);
+        return result;
     }
 
     /**
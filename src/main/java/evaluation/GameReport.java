@@ -9,6 +9,7 @@ import core.interfaces.IStatisticLogger;
 import games.GameType;
 import players.PlayerFactory;
 import players.simple.RandomPlayer;
+import utilities.AsyncGameListener;
 import utilities.FileStatsLogger;
 import utilities.Pair;
 
@@ -62,6 +63,9 @@ public class GameReport {
                             "\tlogFile=       Will be used as the IStatisticsLogger log file (FileStatsLogger only)\n" +
                             "\t               A pipe-delimited list should be provided if each distinct listener should\n" +
                             "\t               use a different log file.\n" +
+                            "\tasyncListeners=(Optional) If true, listeners process events on their own threads, so they\n" +
+                            "\t               do not slow down the games. A copy of the state is still made on the game\n" +
+                            "\t               thread for every event. Defaults to false.\n" +
                             "\tstatsLog=      (Optional) If specified this file will be used to log statistics generated by the\n" +
                             "\t               agent's decision making process (e.g. MCTS node count, depth, etc)."
             );
@@ -76,6 +80,7 @@ public class GameReport {
         String statsLog = getArg(args, "statsLog", "");
         List<String> listenerClasses = new ArrayList<>(Arrays.asList(getArg(args, "listener", "utilities.GameStatisticsListener").split("\\|")));
         List<String> logFiles = new ArrayList<>(Arrays.asList(getArg(args, "logFile", "GameReport.txt").split("\\|")));
+        boolean asyncListeners = getArg(args, "asyncListeners", false);
 
         if (listenerClasses.size() > 1 && logFiles.size() > 1 && listenerClasses.size() != logFiles.size())
             throw new IllegalArgumentException("Lists of log files and listeners must be the same length");
@@ -116,7 +121,7 @@ public class GameReport {
             String listenerClass = listenerClasses.size() == 1 ? listenerClasses.get(0) : listenerClasses.get(i);
             IStatisticLogger logger = IStatisticLogger.createLogger(loggerClass, logFile);
             IGameListener gameTracker = IGameListener.createListener(listenerClass, logger);
-            gameTrackers.add(gameTracker);
+            gameTrackers.add(asyncListeners ? new AsyncGameListener(gameTracker) : gameTracker);
         }
 
         IStatisticLogger statsLogger = IStatisticLogger.createLogger(loggerClass, statsLog);
@@ -180,6 +185,8 @@ public class GameReport {
         // Once all games are complete, let the gameTracker know
         for (IGameListener gameTracker : gameTrackers) {
             gameTracker.allGamesFinished();
+            if (gameTracker instanceof AsyncGameListener)
+                ((AsyncGameListener) gameTracker).close();
         }
         if (statsLogger != null)
             statsLogger.processDataAndFinish();
@@ -0,0 +1,159 @@
+package evaluation;
+
+import core.AbstractGameState;
+import core.AbstractParameters;
+import core.AbstractPlayer;
+import games.GameType;
+
+import java.util.*;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * A tournament that rates agents with TrueSkillRating, and chooses each match-up to learn as much as possible from
+ * the next game, rather than playing every permutation of agents.
+ * <p>
+ * Each match-up is built greedily. It starts with the agent whose rating is least certain (largest sigma). Then the
+ * agent added to each remaining seat is the one that maximises the sum, over the agents already chosen, of
+ * matchQuality * (sigma_a^2 + sigma_b^2). Match quality is highest when the result is least predictable, and the
+ * variance term favours agents we know least about, so together they approximate the expected reduction in
+ * uncertainty from the game. Each term is divided by the square root of one plus the number of games the pair has
+ * already played together. Without this, agents whose ratings drift apart early on form groups that only play each
+ * other, and the ratings of one group are never compared with those of another. Ties are broken at random, and the
+ * seating order is shuffled.
+ * <p>
+ * This scales to many agents, as the number of games needed grows roughly linearly with the number of agents, and
+ * not with the number of permutations.
+ */
+public class MatchmakingTournament extends RoundRobinTournament {
+
+    private final int totalGames;
+    private final Random rnd;
+    private final TrueSkillRating ratings;
+    private final int[][] pairGames;
+
+    /**
+     * @param agents         - players for the tournament.
+     * @param gameToPlay     - game to play in this tournament.
+     * @param playersPerGame - number of players per game.
+     * @param selfPlay       - true if agents are allowed to play copies of themselves (only used to fill seats
+     *                       when there are fewer agents than seats).
+     * @param totalGames     - number of games to play.
+     * @param seed           - for breaking ties and choosing seats.
+     */
+    public MatchmakingTournament(List<AbstractPlayer> agents, GameType gameToPlay, int playersPerGame, boolean selfPlay,
+                                 int totalGames, long seed, AbstractParameters gameParams) {
+        super(agents, gameToPlay, playersPerGame, 1, selfPlay, gameParams);
+        this.totalGames = totalGames;
+        this.rnd = new Random(seed);
+        this.ratings = new TrueSkillRating(this.agents.size());
+        this.pairGames = new int[this.agents.size()][this.agents.size()];
+    }
+
+    public TrueSkillRating getRatings() {
+        return ratings;
+    }
+
+    /**
+     * Plays totalGames games, each with the most informative match-up given the ratings so far.
+     *
+     * @param ignored - this input is ignored
+     * @param gameIdx - index of game to play with this match-up.
+     */
+    @Override
+    public void createAndRunMatchUp(LinkedList<Integer> ignored, int gameIdx) {
+        int nPlayers = playersPerGame.get(gameIdx);
+        for (int g = 0; g < totalGames; g++) {
+            List<Integer> matchUp = chooseMatchUp(nPlayers);
+            evaluateMatchUp(matchUp, gameIdx);
+            AbstractGameState state = games.get(gameIdx).getGameState();
+            int[] seats = new int[nPlayers], positions = new int[nPlayers];
+            for (int p = 0; p < nPlayers; p++) {
+                seats[p] = matchUp.get(p);
+                positions[p] = state.getOrdinalPosition(p);
+            }
+            ratings.update(seats, positions);
+            for (int a : seats)
+                for (int b : seats)
+                    if (a != b)
+                        pairGames[a][b]++;
+        }
+    }
+
+    /**
+     * @return the agents for the next game, in seat order
+     */
+    public List<Integer> chooseMatchUp(int nPlayers) {
+        int n = agents.size();
+        List<Integer> matchUp = new ArrayList<>(nPlayers);
+        matchUp.add(best(n, a -> ratings.getSigma(a), matchUp));
+        while (matchUp.size() < nPlayers) {
+            if (matchUp.size() >= n) {
+                // only possible with self-play, as checked in the constructor
+                matchUp.add(rnd.nextInt(n));
+                continue;
+            }
+            matchUp.add(best(n, a -> {
+                double value = 0.0;
+                for (int b : matchUp) {
+                    double variance = ratings.getSigma(a) * ratings.getSigma(a) + ratings.getSigma(b) * ratings.getSigma(b);
+                    value += ratings.matchQuality(a, b) * variance / Math.sqrt(1.0 + pairGames[a][b]);
+                }
+                return value;
+            }, matchUp));
+        }
+        Collections.shuffle(matchUp, rnd);
+        return matchUp;
+    }
+
+    private int best(int n, IntToDoubleFunction value, List<Integer> exclude) {
+        int bestAgent = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int a = 0; a < n; a++) {
+            if (exclude.contains(a))
+                continue;
+            // small random noise to break ties
+            double v = value.applyAsDouble(a) + rnd.nextDouble() * 1e-6;
+            if (v > bestValue) {
+                bestValue = v;
+                bestAgent = a;
+            }
+        }
+        return bestAgent;
+    }
+
+    @Override
+    public boolean supportsCheckpoint() {
+        return false;
+    }
+
+    /**
+     * Runs the tournament, and then reports the ratings of the agents.
+     */
+    @Override
+    public void runTournament() {
+        super.runTournament();
+        if (verbose)
+            System.out.println(getReport());
+    }
+
+    /**
+     * @return agent indices, from best to worst by conservative skill (mu - 3 sigma)
+     */
+    public List<Integer> getRanking() {
+        List<Integer> ranking = new ArrayList<>(agentIDs);
+        ranking.sort(Comparator.comparingDouble(ratings::getConservativeSkill).reversed());
+        return ranking;
+    }
+
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("TrueSkill ratings after %d games%n", totalGames));
+        List<Integer> ranking = getRanking();
+        for (int r = 0; r < ranking.size(); r++) {
+            int i = ranking.get(r);
+            sb.append(String.format("%2d: %-30s mu %6.2f  sigma %5.2f  skill %6.2f  games %d%n", r + 1, agents.get(i),
+                    ratings.getMu(i), ratings.getSigma(i), ratings.getConservativeSkill(i), ratings.getGames(i)));
+        }
+        return sb.toString();
+    }
+}
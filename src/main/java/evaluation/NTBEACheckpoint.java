@@ -0,0 +1,214 @@
+package evaluation;
+
+import ntbea.NTupleSystem;
+import utilities.Pair;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Progress of a ParameterSearch, saved to a binary file so that a run that is stopped can carry on where it left off.
+ * <p>
+ * This holds the number of completed NTBEA runs (repeats) and the best result of these, and for the current run every
+ * point evaluated so far with its score. As the NTupleSystem landscape is just the sum of these samples, it is rebuilt
+ * on restart by adding them to it again. The state of the GameEvaluator's random number generator is also saved, so
+ * the remaining games have the same seeds and opponents as they would have had.
+ * <p>
+ * The checkpoint is written every checkpointEvery evaluations, and at the end of each run. It is first written to a
+ * temporary file which then replaces the old one, so a crash while writing leaves the previous checkpoint intact.
+ * Evaluations since the last checkpoint are lost (and played again).
+ */
+public class NTBEACheckpoint {
+
+    private static final int MAGIC = 0x4E544245;  // NTBE
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final int nDims;
+    private final int checkpointEvery;
+    private int repeat;
+    private Pair<Pair<Double, Double>, double[]> best;
+    private final List<int[]> points = new ArrayList<>();
+    private double[] values = new double[16];
+    private byte[] randomState;
+
+    private NTBEACheckpoint(File file, int nDims, int checkpointEvery) {
+        this.file = file;
+        this.nDims = nDims;
+        this.checkpointEvery = Math.max(checkpointEvery, 1);
+    }
+
+    /**
+     * @param file            - the checkpoint file. If this exists, it is loaded.
+     * @param nDims           - number of dimensions of the search space, which must match any existing checkpoint
+     * @param checkpointEvery - number of evaluations between checkpoints
+     */
+    public static NTBEACheckpoint loadOrCreate(File file, int nDims, int checkpointEvery) {
+        NTBEACheckpoint retValue = new NTBEACheckpoint(file, nDims, checkpointEvery);
+        if (file.exists())
+            retValue.load();
+        return retValue;
+    }
+
+    /**
+     * @return the number of runs already completed
+     */
+    public int getRepeat() {
+        return repeat;
+    }
+
+    /**
+     * @return the best result of the completed runs, or null if there are none
+     */
+    public Pair<Pair<Double, Double>, double[]> getBest() {
+        return best;
+    }
+
+    /**
+     * @return the number of evaluations so far in the current run
+     */
+    public int samplesInRun() {
+        return points.size();
+    }
+
+    public int[] lastPoint() {
+        return points.isEmpty() ? null : points.get(points.size() - 1).clone();
+    }
+
+    /**
+     * @return the saved state of the evaluator's random number generator, or null if there is none
+     */
+    public Random getRandom() {
+        if (randomState == null)
+            return null;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(randomState))) {
+            return (Random) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new AssertionError("Problem restoring random state from " + file + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the samples of the current run to the (freshly reset) landscape model.
+     */
+    public void replayInto(NTupleSystem landscapeModel) {
+        for (int i = 0; i < points.size(); i++)
+            landscapeModel.addPoint(points.get(i), values[i]);
+    }
+
+    /**
+     * Called by GameEvaluator after each evaluation during the search.
+     *
+     * @param rnd - the evaluator's random number generator, saved with the checkpoint
+     */
+    public void record(int[] settings, double value, Random rnd) {
+        if (points.size() == values.length) {
+            double[] newValues = new double[values.length * 2];
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            values = newValues;
+        }
+        values[points.size()] = value;
+        points.add(settings.clone());
+        if (points.size() % checkpointEvery == 0) {
+            randomState = serialise(rnd);
+            save();
+        }
+    }
+
+    /**
+     * Called at the end of each run.
+     *
+     * @param bestSoFar - the best result over all runs so far, including this one
+     * @param rnd       - the evaluator's random number generator
+     */
+    public void finishRun(Pair<Pair<Double, Double>, double[]> bestSoFar, Random rnd) {
+        repeat++;
+        best = bestSoFar;
+        points.clear();
+        randomState = serialise(rnd);
+        save();
+    }
+
+    private static byte[] serialise(Random rnd) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(rnd);
+        } catch (IOException e) {
+            throw new AssertionError("Problem saving random state : " + e.getMessage());
+        }
+        return bytes.toByteArray();
+    }
+
+    public void save() {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(nDims);
+            out.writeInt(repeat);
+            out.writeBoolean(best != null);
+            if (best != null) {
+                out.writeDouble(best.a.a);
+                out.writeDouble(best.a.b);
+                out.writeInt(best.b.length);
+                for (double d : best.b)
+                    out.writeDouble(d);
+            }
+            out.writeInt(points.size());
+            for (int i = 0; i < points.size(); i++) {
+                for (int v : points.get(i))
+                    out.writeInt(v);
+                out.writeDouble(values[i]);
+            }
+            out.writeInt(randomState == null ? 0 : randomState.length);
+            if (randomState != null)
+                out.write(randomState);
+        } catch (IOException e) {
+            throw new AssertionError("Problem writing checkpoint " + tmp + " : " + e.getMessage());
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new AssertionError("Problem replacing checkpoint " + file + " : " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new AssertionError(file + " is not an NTBEA checkpoint");
+            int dims = in.readInt();
+            if (dims != nDims)
+                throw new AssertionError(String.format("Checkpoint %s has %d dimensions, but the search space has %d",
+                        file, dims, nDims));
+            repeat = in.readInt();
+            if (in.readBoolean()) {
+                double mean = in.readDouble(), stdErr = in.readDouble();
+                double[] settings = new double[in.readInt()];
+                for (int i = 0; i < settings.length; i++)
+                    settings[i] = in.readDouble();
+                best = new Pair<>(new Pair<>(mean, stdErr), settings);
+            }
+            int n = in.readInt();
+            values = new double[Math.max(n, 16)];
+            for (int i = 0; i < n; i++) {
+                int[] point = new int[nDims];
+                for (int d = 0; d < nDims; d++)
+                    point[d] = in.readInt();
+                points.add(point);
+                values[i] = in.readDouble();
+            }
+            int randomBytes = in.readInt();
+            if (randomBytes > 0) {
+                randomState = new byte[randomBytes];
+                in.readFully(randomState);
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Problem reading checkpoint " + file + " : " + e.getMessage());
+        }
+    }
+}
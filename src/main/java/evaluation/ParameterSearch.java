@@ -71,7 +71,10 @@ public class ParameterSearch {
                         "\trepeat=        The number of times NTBEA should be re-run, to find a single best recommendation \n" +
                         "\tverbose        Will log the results marginalised to each dimension, and the Top 10 best tuples for each run \n" +
                         "\tseed=          Random seed for Game use (not used by NTBEA itself). Defaults to System.currentTimeMillis()\n" +
-                        "\tlogFile=       Output file with results of each run for easier statistical analysis\n"
+                        "\tlogFile=       Output file with results of each run for easier statistical analysis\n" +
+                        "\tcheckpoint=    (Optional, with opponent= only) A file in which to save progress. If the file exists, the search\n" +
+                        "\t               carries on from where it left off.\n" +
+                        "\tcheckpointEvery= The number of NTBEA iterations between checkpoints. Defaults to 10.\n"
         );
 
         if (argsList.size() < 3)
@@ -162,6 +165,8 @@ public class ParameterSearch {
         String logfile = getArg(args, "logFile", "");
         String evalMethod = getArg(args, "eval", "Win");
         String paramFile = getArg(args, "gameParam", "");
+        String checkpointFile = getArg(args, "checkpoint", "");
+        int checkpointEvery = getArg(args, "checkpointEvery", 10);
         AbstractParameters gameParams = ParameterFactory.createFromFile(game, paramFile);
 
         ITPSearchSpace searchSpace = (ITPSearchSpace) landscapeModel.getSearchSpace();
@@ -230,15 +235,37 @@ public class ParameterSearch {
         // runNTBEA runs a complete set of trials, and spits out the mean and std error on the mean of the best sampled result
         // These mean statistics are calculated from the evaluation trials that are run after NTBEA is complete. (evalGames)
         Pair<Pair<Double, Double>, double[]> bestResult = new Pair<>(new Pair<>(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY), new double[0]);
-        for (int mainLoop = 0; mainLoop < repeats; mainLoop++) {
+        NTBEACheckpoint checkpoint = null;
+        if (!checkpointFile.isEmpty()) {
+            checkpoint = NTBEACheckpoint.loadOrCreate(new File(checkpointFile), searchSpace.nDims(), checkpointEvery);
+            evaluator.checkpoint = checkpoint;
+            if (checkpoint.getRandom() != null)
+                evaluator.rnd = checkpoint.getRandom();
+            if (checkpoint.getBest() != null)
+                bestResult = checkpoint.getBest();
+        }
+        for (int mainLoop = checkpoint == null ? 0 : checkpoint.getRepeat(); mainLoop < repeats; mainLoop++) {
             landscapeModel.reset();
+            // If resuming part way through a run, rebuild the landscape and carry on from the last point evaluated
+            int alreadyRun = 0;
+            int[] startPoint = searchFramework.seed;
+            if (checkpoint != null && checkpoint.samplesInRun() > 0) {
+                alreadyRun = checkpoint.samplesInRun();
+                checkpoint.replayInto(landscapeModel);
+                searchFramework.seed = checkpoint.lastPoint();
+                System.out.printf("Resuming run %d from checkpoint after %d iterations%n", mainLoop + 1, alreadyRun);
+            }
             evaluator.statsLogger = IStatisticLogger.createLogger("utilities.SummaryLogger", "Agent_" + String.format("%2d", repeats+1) + "_" + logfile);
-            Pair<Double, Double> r = runNTBEA(evaluator, null, searchFramework, iterationsPerRun, iterationsPerRun, evalGames, verbose);
+            int remaining = Math.max(iterationsPerRun - alreadyRun, 0);
+            Pair<Double, Double> r = runNTBEA(evaluator, null, searchFramework, remaining, remaining, evalGames, verbose);
+            if (alreadyRun > 0)
+                searchFramework.seed = startPoint;
             Pair<Pair<Double, Double>, double[]> retValue = new Pair<>(r, landscapeModel.getBestOfSampled());
             printDetailsOfRun(retValue, searchSpace, logfile, verbose, evaluator.statsLogger);
             if (retValue.a.a > bestResult.a.a)
                 bestResult = retValue;
-
+            if (checkpoint != null)
+                checkpoint.finishRun(bestResult, evaluator.rnd);
         }
         System.out.println("\nFinal Recommendation: ");
         // we don't log the final run to file to avoid duplication
@@ -497,7 +524,7 @@ public class ParameterSearch {
 
         // If reportEvery == totalRuns, then this will just loop once
         // (Which is the usual default)
-        for (int iter = 0; iter < totalRuns / reportEvery; iter++) {
+        for (int iter = 0; reportEvery > 0 && iter < totalRuns / reportEvery; iter++) {
             if (evaluator != null) {
                 evaluator.reset();
                 searchFramework.runTrial(evaluator, reportEvery);
@@ -3,6 +3,7 @@ package evaluation;
 import core.AbstractParameters;
 import core.AbstractPlayer;
 import core.CoreConstants;
+import core.Game;
 import core.ParameterFactory;
 import core.interfaces.IGameListener;
 import core.interfaces.ILearner;
@@ -12,12 +13,14 @@ import games.GameType;
 import players.PlayerFactory;
 import players.learners.AbstractLearner;
 import utilities.FileStatsLogger;
+import utilities.ReplayBuffer;
 import utilities.StateFeatureListener;
 import utilities.Utils;
 
 import java.io.File;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static utilities.Utils.getArg;
@@ -39,6 +42,8 @@ public class ProgressiveLearner {
     boolean currentPlayerOnly;
     String phiClass, prefix;
     boolean useOnlyLast;
+    boolean pipelined;
+    int workers;
 
     public ProgressiveLearner(String[] args) {
 
@@ -55,6 +60,8 @@ public class ProgressiveLearner {
         finalMatchups = getArg(args, "finalMatchups", 1000);
         iterations = getArg(args, "iterations", 100);
         useOnlyLast = getArg(args, "useOnlyLast", false);
+        pipelined = getArg(args, "pipelined", false);
+        workers = getArg(args, "workers", Math.max(Runtime.getRuntime().availableProcessors() - 1, 1));
         agentsPerGeneration = new AbstractPlayer[iterations];
         dataFilesByIteration = new String[iterations];
         String learnerClass = getArg(args, "learner", "");
@@ -64,6 +71,8 @@ public class ProgressiveLearner {
         if (learner instanceof AbstractLearner) {
             ((AbstractLearner) learner).setGamma(getArg(args, "gamma", 1.0));
             ((AbstractLearner) learner).setTarget(getArg(args, "target", AbstractLearner.Target.WIN));
+        } else if (pipelined) {
+            throw new IllegalArgumentException("pipelined mode needs a learner that extends AbstractLearner");
         }
 
         learnedFilesByIteration = new String[iterations];
@@ -119,6 +128,12 @@ public class ProgressiveLearner {
                             "\tdefaultHeuristic=Defaults to a null heuristic (random play). This is only used in the first iteration\n" +
                             "\t               when we have no data.  \n" +
                             "\titerations=    Stop after this number of learning iterations. Defaults to 100.\n" +
+                            "\tpipelined=     (Optional) If true, games are played continuously by worker threads, and the data is kept\n" +
+                            "\t               in memory instead of in files. Each iteration learns from the games played since the\n" +
+                            "\t               last one, while the workers carry on playing with the previous agents; the new agent\n" +
+                            "\t               is then swapped in between games. Defaults to false.\n" +
+                            "\tworkers=       The number of threads playing games in pipelined mode. Defaults to one less than the\n" +
+                            "\t               number of processors.\n" +
                             "\tfinalMatchups= The number of games to run in a final tournament between all agents. Defaults to 1000."
             );
             return;
@@ -143,15 +158,19 @@ public class ProgressiveLearner {
     }
 
     public void run() {
-        iter = 0;
-        do {
-            loadAgents();
+        if (pipelined) {
+            runPipelined();
+        } else {
+            iter = 0;
+            do {
+                loadAgents();
 
-            runGamesWithAgents();
+                runGamesWithAgents();
 
-            learnFromNewData();
-            iter++;
-        } while (iter < iterations);
+                learnFromNewData();
+                iter++;
+            } while (iter < iterations);
+        }
 
         // Now we can run a tournament of everyone
         List<AbstractPlayer> finalAgents = Arrays.stream(agentsPerGeneration).collect(Collectors.toList());
@@ -187,10 +206,11 @@ public class ProgressiveLearner {
 
     private String injectAgentAttributes(String raw) {
         String fileName = learnedFilesByIteration[iter] == null ? "" : learnedFilesByIteration[iter] ;
-        return raw.replaceAll(Pattern.quote("*FILE*"), fileName)
-                .replaceAll(Pattern.quote("*PHI*"), phiClass)
-                .replaceAll(Pattern.quote("*HEURISTIC*"), heuristic)
-                .replaceAll(Pattern.quote("*DEFAULT*"), defaultHeuristic);
+        // literal replacement, as class names of nested classes contain '$'
+        return raw.replace("*FILE*", fileName)
+                .replace("*PHI*", phiClass)
+                .replace("*HEURISTIC*", heuristic)
+                .replace("*DEFAULT*", defaultHeuristic);
     }
 
     private void runGamesWithAgents() {
@@ -209,7 +229,10 @@ public class ProgressiveLearner {
     private void learnFromNewData() {
         // for the moment we will just supply the most recent file
         learner.learnFrom(dataFilesByIteration[iter]);
+        createLearnedAgent();
+    }
 
+    private void createLearnedAgent() {
         String fileName = String.format("%s_%d.txt", prefix, iter);
         learnedFilesByIteration[iter] = fileName;
         learner.writeToFile(fileName);
@@ -219,4 +242,72 @@ public class ProgressiveLearner {
         agentsPerGeneration[iter].setName(String.format("Iteration %2d", iter + 1));
 
     }
+
+    /**
+     * The pipelined version of the main loop. Worker threads play games non-stop with the current set of agents,
+     * and put the feature rows in an in-memory ReplayBuffer. Meanwhile this thread waits for at least 'matchups'
+     * games, takes them out of the buffer, and learns from them while the workers fill it up again. The new agent is
+     * then published to the workers, which pick it up at the start of their next game. So a few games of each batch
+     * may have been played with the agents of the previous iteration.
+     */
+    private void runPipelined() {
+        ReplayBuffer buffer = new ReplayBuffer();
+        AtomicBoolean stop = new AtomicBoolean(false);
+        iter = 0;
+        loadAgents();
+        AtomicReference<List<AbstractPlayer>> currentAgents = new AtomicReference<>(new ArrayList<>(agents));
+
+        List<Thread> threads = new ArrayList<>();
+        long seed = System.currentTimeMillis();
+        for (int w = 0; w < workers; w++) {
+            long workerSeed = seed + w;
+            Thread thread = new Thread(() -> playGames(buffer, currentAgents, stop, workerSeed), "SelfPlay-" + w);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        try {
+            do {
+                List<double[]> data = buffer.awaitGames(matchups);
+                ((AbstractLearner) learner).learnFrom(buffer.getHeader(), data);
+                createLearnedAgent();
+                iter++;
+                if (iter < iterations) {
+                    loadAgents();
+                    currentAgents.set(new ArrayList<>(agents));
+                }
+            } while (iter < iterations);
+        } catch (InterruptedException e) {
+            throw new AssertionError("Interrupted while waiting for games", e);
+        } finally {
+            stop.set(true);
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void playGames(ReplayBuffer buffer, AtomicReference<List<AbstractPlayer>> currentAgents,
+                           AtomicBoolean stop, long seed) {
+        try {
+            Random rnd = new Random(seed);
+            Game game = gameToPlay.createGameInstance(nPlayers, params.copy());
+            game.addListener(new StateFeatureListener(buffer.newLogger(), phi, frequency, currentPlayerOnly));
+            while (!stop.get()) {
+                // agents are shared between threads, so each game gets its own copies
+                List<AbstractPlayer> pool = currentAgents.get();
+                List<AbstractPlayer> players = new ArrayList<>(nPlayers);
+                for (int p = 0; p < nPlayers; p++)
+                    players.add(pool.get(rnd.nextInt(pool.size())).copy());
+                game.reset(players, rnd.nextLong());
+                game.run();
+            }
+        } catch (Exception | AssertionError e) {
+            buffer.fail(e);
+        }
+    }
 }
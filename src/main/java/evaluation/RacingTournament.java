@@ -0,0 +1,218 @@
+package evaluation;
+
+import core.AbstractGameState;
+import core.AbstractParameters;
+import core.AbstractPlayer;
+import games.GameType;
+import utilities.Utils;
+
+import java.util.*;
+
+/**
+ * A tournament that races the agents against each other, rather than playing a fixed number of games for every
+ * match-up.
+ * <p>
+ * Games are played in rounds. In each round, every pair of agents that is still undecided plays one game in each
+ * seat rotation (any further seats are filled with other agents, chosen at random). After each game every pair of
+ * distinct agents in it is scored: 1 to the one that finished ahead, 0.5 each for a tie.
+ * <p>
+ * Once a pair has played at least minGames games against each other, it is decided as soon as the mean score of one
+ * agent against the other is more than z standard errors from 0.5 (using the worst case standard error,
+ * 0.5 / sqrt(n)). Decided pairs play no more games of their own, so the budget goes to the close match-ups.
+ * The tournament stops when every pair is decided, or the budget of games is used up.
+ * <p>
+ * The pairs are checked after every round, so the real chance of deciding a pair wrongly is higher than the one
+ * implied by z on its own. The default of 3 leaves plenty of margin for this.
+ * <p>
+ * At the end agents are ranked by their mean score against all the others, and the confidence of each place in the
+ * ranking (that the agent beats the one below it more often than not) is reported.
+ */
+public class RacingTournament extends RoundRobinTournament {
+
+    private final int maxGames, minGames;
+    private final double z;
+    private final Random rnd;
+
+    // score[i][j] is the total score of agent i against agent j, over pairGames[i][j] games
+    private final double[][] score;
+    private final int[][] pairGames;
+    private final boolean[][] decided;
+    private int gamesPlayed;
+
+    /**
+     * @param agents         - players for the tournament.
+     * @param gameToPlay     - game to play in this tournament.
+     * @param playersPerGame - number of players per game.
+     * @param selfPlay       - true if agents are allowed to play copies of themselves (to fill seats).
+     * @param maxGames       - the total budget of games.
+     * @param minGames       - the minimum number of games between two agents before they can be decided.
+     * @param z              - the number of standard errors away from 0.5 at which a pair is decided.
+     * @param seed           - for choosing the agents in any extra seats.
+     */
+    public RacingTournament(List<AbstractPlayer> agents, GameType gameToPlay, int playersPerGame, boolean selfPlay,
+                            int maxGames, int minGames, double z, long seed, AbstractParameters gameParams) {
+        super(agents, gameToPlay, playersPerGame, 1, selfPlay, gameParams);
+        if (this.agents.size() < 2)
+            throw new IllegalArgumentException("A racing tournament needs at least two agents");
+        this.maxGames = maxGames;
+        this.minGames = Math.max(minGames, 1);
+        this.z = z;
+        this.rnd = new Random(seed);
+        int n = this.agents.size();
+        score = new double[n][n];
+        pairGames = new int[n][n];
+        decided = new boolean[n][n];
+    }
+
+    /**
+     * Plays rounds of games between the undecided pairs of agents, until all are decided or the budget is used up.
+     *
+     * @param ignored - this input is ignored
+     * @param gameIdx - index of game to play with this match-up.
+     */
+    @Override
+    public void createAndRunMatchUp(LinkedList<Integer> ignored, int gameIdx) {
+        int nPlayers = playersPerGame.get(gameIdx);
+        int n = agents.size();
+        while (gamesPlayed < maxGames) {
+            List<int[]> undecided = new ArrayList<>();
+            for (int i = 0; i < n; i++)
+                for (int j = i + 1; j < n; j++)
+                    if (!decided[i][j]) undecided.add(new int[]{i, j});
+            if (undecided.isEmpty())
+                break;
+            for (int[] pair : undecided) {
+                for (int seat = 0; seat < nPlayers && gamesPlayed < maxGames; seat++) {
+                    List<Integer> matchUp = fillMatchUp(pair, nPlayers);
+                    Collections.rotate(matchUp, seat);
+                    evaluateMatchUp(matchUp, gameIdx);
+                    recordResult(matchUp, games.get(gameIdx).getGameState());
+                    gamesPlayed++;
+                }
+            }
+            for (int[] pair : undecided) {
+                int i = pair[0], j = pair[1];
+                if (pairGames[i][j] >= minGames && Math.abs(meanScore(i, j) - 0.5) > z * standardError(i, j))
+                    decided[i][j] = decided[j][i] = true;
+            }
+        }
+    }
+
+    /**
+     * @return the two agents in the pair, followed by enough other agents (chosen at random) to fill the game
+     */
+    private List<Integer> fillMatchUp(int[] pair, int nPlayers) {
+        List<Integer> matchUp = new ArrayList<>(nPlayers);
+        matchUp.add(pair[0]);
+        matchUp.add(pair[1]);
+        List<Integer> others = new ArrayList<>();
+        for (int a = 0; a < agents.size(); a++)
+            if (a != pair[0] && a != pair[1]) others.add(a);
+        Collections.shuffle(others, rnd);
+        for (int k = 0; matchUp.size() < nPlayers; k++) {
+            if (k < others.size())
+                matchUp.add(others.get(k));
+            else  // only possible with self-play, as checked in the constructor
+                matchUp.add(rnd.nextInt(agents.size()));
+        }
+        return matchUp;
+    }
+
+    private void recordResult(List<Integer> matchUp, AbstractGameState state) {
+        for (int a = 0; a < matchUp.size(); a++) {
+            for (int b = a + 1; b < matchUp.size(); b++) {
+                int i = matchUp.get(a), j = matchUp.get(b);
+                if (i == j) continue;
+                int posA = state.getOrdinalPosition(a), posB = state.getOrdinalPosition(b);
+                double s = posA < posB ? 1.0 : posA == posB ? 0.5 : 0.0;
+                score[i][j] += s;
+                score[j][i] += 1.0 - s;
+                pairGames[i][j]++;
+                pairGames[j][i]++;
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsCheckpoint() {
+        return false;
+    }
+
+    /**
+     * Runs the tournament, and then reports the ranking of the agents.
+     */
+    @Override
+    public void runTournament() {
+        super.runTournament();
+        if (verbose)
+            System.out.println(getReport());
+    }
+
+    /**
+     * @return the mean score of agent i against agent j (0.5 if they have not met)
+     */
+    public double meanScore(int i, int j) {
+        return pairGames[i][j] == 0 ? 0.5 : score[i][j] / pairGames[i][j];
+    }
+
+    private double standardError(int i, int j) {
+        return 0.5 / Math.sqrt(pairGames[i][j]);
+    }
+
+    /**
+     * @return the mean score of agent i against all the others
+     */
+    public double overallScore(int i) {
+        double total = 0.0;
+        for (int j = 0; j < agents.size(); j++)
+            if (j != i) total += meanScore(i, j);
+        return total / (agents.size() - 1);
+    }
+
+    /**
+     * @return an estimate of the probability that agent i beats agent j more often than not
+     */
+    public double confidence(int i, int j) {
+        if (pairGames[i][j] == 0)
+            return 0.5;
+        return Utils.normalCDF((meanScore(i, j) - 0.5) / standardError(i, j));
+    }
+
+    public boolean isDecided(int i, int j) {
+        return decided[i][j];
+    }
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public int getPairGames(int i, int j) {
+        return pairGames[i][j];
+    }
+
+    /**
+     * @return agent indices, from best to worst by overallScore()
+     */
+    public List<Integer> getRanking() {
+        List<Integer> ranking = new ArrayList<>(agentIDs);
+        ranking.sort(Comparator.comparingDouble(this::overallScore).reversed());
+        return ranking;
+    }
+
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Racing tournament: %d of %d games played%n", gamesPlayed, maxGames));
+        List<Integer> ranking = getRanking();
+        for (int r = 0; r < ranking.size(); r++) {
+            int i = ranking.get(r);
+            sb.append(String.format("%2d: %-30s score %.3f", r + 1, agents.get(i), overallScore(i)));
+            if (r + 1 < ranking.size()) {
+                int j = ranking.get(r + 1);
+                sb.append(String.format("  vs next %.3f over %d games (confidence %.3f%s)", meanScore(i, j),
+                        pairGames[i][j], confidence(i, j), decided[i][j] ? ", decided" : ""));
+            }
+            sb.append(String.format("%n"));
+        }
+        return sb.toString();
+    }
+}
@@ -4,6 +4,9 @@ import core.AbstractParameters;
 import core.AbstractPlayer;
 import games.GameType;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -15,6 +18,8 @@ public class RandomRRTournament extends RoundRobinTournament {
 
     private int totalMatchups;
     private IntSupplier idStream;
+    private long seed;
+    private final int nPlayers;
 
     /**
      * Create a round robin tournament, which plays all agents against all others.
@@ -28,9 +33,26 @@ public class RandomRRTournament extends RoundRobinTournament {
                               boolean selfPlay, int totalMatchUps, long seed, AbstractParameters gameParams) {
         super(agents, gameToPlay, playersPerGame, 1, selfPlay, gameParams);
         this.totalMatchups = totalMatchUps;
+        this.seed = seed;
+        this.nPlayers = playersPerGame;
         idStream = new PermutationCycler(agents.size(), seed, playersPerGame);
     }
 
+    /**
+     * The seed is saved, so that on resuming the match-ups are drawn in the same order as before, and the ones
+     * already played are the ones skipped.
+     */
+    @Override
+    protected void writeCheckpointState(DataOutputStream out) throws IOException {
+        out.writeLong(seed);
+    }
+
+    @Override
+    protected void readCheckpointState(DataInputStream in) throws IOException {
+        seed = in.readLong();
+        idStream = new PermutationCycler(agents.size(), seed, nPlayers);
+    }
+
     /**
      * Instead of recursively constructing all possible combinations of players for the game (as in the super-class)
      * here we create random matchups. This is designed for large numbers of players, for which an exhaustive
@@ -2,6 +2,7 @@ package evaluation;
 
 import core.AbstractParameters;
 import core.AbstractPlayer;
+import core.Game;
 import core.ParameterFactory;
 import core.interfaces.IGameListener;
 import core.interfaces.IStatisticLogger;
@@ -11,8 +12,13 @@ import groupL.*;
 import players.PlayerConstants;
 import players.PlayerFactory;
 import players.mcts.*;
+import utilities.AsyncGameListener;
 import utilities.FileStatsLogger;
+import utilities.Metrics;
 
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 import static utilities.Utils.GameResult;
@@ -23,11 +29,16 @@ public class RoundRobinTournament extends AbstractTournament {
     private static boolean debug = false;
     public final boolean selfPlay;
     private final int gamesPerMatchUp;
-    protected List<IGameListener> listeners;
+    protected List<IGameListener> listeners = new ArrayList<>();
     int[] pointsPerPlayer;
     LinkedList<Integer> agentIDs;
     private int matchUpsRun;
     public boolean verbose = true;
+    // checkpointing: matchUpsSeen counts all match-ups reached, including those skipped on resuming
+    private File checkpointFile;
+    private int checkpointEvery = 1;
+    private int resumeFrom, matchUpsSeen;
+    private static final int CHECKPOINT_MAGIC = 0x52525443;  // RRTC
 
     /**
      * Create a round robin tournament, which plays all agents against all others.
@@ -71,14 +82,24 @@ public class RoundRobinTournament extends AbstractTournament {
                             "\tgameParams=    (Optional) A JSON file from which the game parameters will be initialised.\n" +
                             "\tselfPlay=      If true, then multiple copies of the same agent can be in one game.\n" +
                             "\t               Defaults to false\n" +
-                            "\tmode=          exhaustive|random - defaults to exhaustive.\n" +
+                            "\tmode=          exhaustive|random|racing|trueskill - defaults to exhaustive.\n" +
                             "\t               exhaustive will iterate exhaustively through every possible matchup: \n" +
                             "\t               every possible player in every possible position. This can be excessive\n" +
                             "\t               for a large number of players, and random will have a random matchup \n" +
                             "\t               in each game, while ensuring no duplicates, and that all players get the\n" +
                             "\t               the same number of games in total.\n" +
+                            "\t               racing plays games between each pair of players only until one is clearly\n" +
+                            "\t               better than the other, and reports how confident the final ranking is.\n" +
+                            "\t               trueskill rates players as it goes, and picks each matchup to learn the most\n" +
+                            "\t               about their ratings. This suits large numbers of players.\n" +
                             "\tmatchups=      The total number of matchups to run if mode=random...\n" +
                             "\t               ...or the number of matchups to run per combination of players if mode=exhaustive\n" +
+                            "\t               ...or the maximum number of games in total if mode=racing\n" +
+                            "\t               ...or the number of games in total if mode=trueskill\n" +
+                            "\tminGames=      (racing only) Games a pair of players must play before they can be decided.\n" +
+                            "\t               Defaults to 10.\n" +
+                            "\tz=             (racing only) Standard errors from an even record at which a pair is decided.\n" +
+                            "\t               Defaults to 3.0.\n" +
                             "\tlistener=      (Optional) The full class name of an IGameListener implementation. \n" +
                             "\t               Defaults to utilities.GameResultListener. \n" +
                             "\t               A pipe-delimited string can be provided to gather many types of statistics \n" +
@@ -87,9 +108,19 @@ public class RoundRobinTournament extends AbstractTournament {
                             "\t               Defaults to RoundRobinReport.txt\n" +
                             "\t               A pipe-delimited list should be provided if each distinct listener should\n" +
                             "\t               use a different log file.\n" +
+                            "\tasyncListeners=(Optional) If true, listeners process events on their own threads, so they\n" +
+                            "\t               do not slow down the games. A copy of the state is still made on the game\n" +
+                            "\t               thread for every event. Defaults to false.\n" +
+                            "\tcheckpoint=   (Optional) A file in which to save progress after each matchup. If the file exists,\n" +
+                            "\t               the tournament carries on from where it left off. Not available if mode=racing\n" +
+                            "\t               or mode=trueskill.\n" +
                             "\tstatsLog=      The file to use for logging agent-specific statistics (e.g. MCTS iterations/depth)\n" +
                             "\t               A single line will be generated as the average for each agent, implicitly assuming they are\n" +
-                            "\t               all of the same type. If not supplied, then no logging will take place.\n"
+                            "\t               all of the same type. If not supplied, then no logging will take place.\n" +
+                            "\tmetrics=       (Optional) A file to which to write histograms of the time taken by copy, next,\n" +
+                            "\t               computeAvailableActions and heuristics (by game phase and action), and of rollout\n" +
+                            "\t               lengths. Written as JSON if the name ends in .json, and as text otherwise.\n" +
+                            "\t               The metrics are also published over JMX while the tournament runs.\n"
             );
             return;
         }
@@ -101,10 +132,15 @@ public class RoundRobinTournament extends AbstractTournament {
         int matchups = getArg(args, "matchups", 1);
         String playerDirectory = getArg(args, "players", "");
         String gameParams = getArg(args, "gameParams", "");
+        int minGames = getArg(args, "minGames", 10);
+        double z = getArg(args, "z", 3.0);
         String statsLogPrefix = getArg(args, "statsLog", "sushiGo");
+        String checkpoint = getArg(args, "checkpoint", "");
+        String metricsFile = getArg(args, "metrics", "");
 
         List<String> listenerClasses = new ArrayList<>(Arrays.asList(getArg(args, "listener", "utilities.GameResultListener").split("\\|")));
         List<String> listenerFiles = new ArrayList<>(Arrays.asList(getArg(args, "listenerFile", "RoundRobinReport.txt").split("\\|")));
+        boolean asyncListeners = getArg(args, "asyncListeners", false);
 
         if (listenerClasses.size() > 1 && listenerFiles.size() > 1 && listenerClasses.size() != listenerFiles.size())
             throw new IllegalArgumentException("Lists of log files and listeners must be the same length");
@@ -178,18 +214,41 @@ public class RoundRobinTournament extends AbstractTournament {
         AbstractParameters params = ParameterFactory.createFromFile(gameToPlay, gameParams);
 
         // Run!
-        RoundRobinTournament tournament = mode.equals("exhaustive") ?
-                new RoundRobinTournament(agents, gameToPlay, nPlayersPerGame, matchups, selfPlay, params) :
-                new RandomRRTournament(agents, gameToPlay, nPlayersPerGame, selfPlay, matchups,
-                        System.currentTimeMillis(), params);
+        RoundRobinTournament tournament;
+        if (mode.equals("exhaustive"))
+            tournament = new RoundRobinTournament(agents, gameToPlay, nPlayersPerGame, matchups, selfPlay, params);
+        else if (mode.equals("trueskill"))
+            tournament = new MatchmakingTournament(agents, gameToPlay, nPlayersPerGame, selfPlay, matchups,
+                    System.currentTimeMillis(), params);
+        else if (mode.equals("racing"))
+            tournament = new RacingTournament(agents, gameToPlay, nPlayersPerGame, selfPlay, matchups, minGames, z,
+                    System.currentTimeMillis(), params);
+        else
+            tournament = new RandomRRTournament(agents, gameToPlay, nPlayersPerGame, selfPlay, matchups,
+                    System.currentTimeMillis(), params);
 
         tournament.listeners = new ArrayList<>();
         for (int l = 0; l < listenerClasses.size(); l++) {
             IStatisticLogger logger = new FileStatsLogger(listenerFiles.get(l));
             IGameListener gameTracker = IGameListener.createListener(listenerClasses.get(l), logger);
-            tournament.listeners.add(gameTracker);
+            tournament.listeners.add(asyncListeners ? new AsyncGameListener(gameTracker) : gameTracker);
+        }
+        if (!checkpoint.isEmpty()) {
+            if (!tournament.supportsCheckpoint())
+                throw new IllegalArgumentException("checkpoint= cannot be used with mode=" + mode);
+            tournament.setCheckpoint(new File(checkpoint), 1);
+        }
+        if (!metricsFile.isEmpty()) {
+            Metrics.setEnabled(true);
+            Metrics.registerMBean();
         }
         tournament.runTournament();
+        for (IGameListener listener : tournament.listeners) {
+            if (listener instanceof AsyncGameListener)
+                ((AsyncGameListener) listener).close();
+        }
+        if (!metricsFile.isEmpty())
+            Metrics.writeReport(metricsFile);
         if (!statsLogPrefix.equals("")) {
             for (int i = 0; i < agents.size(); i++) {
                 AbstractPlayer agent = agents.get(i);
@@ -200,6 +259,10 @@ public class RoundRobinTournament extends AbstractTournament {
         }
     }
 
+    public void addListener(IGameListener listener) {
+        listeners.add(listener);
+    }
+
     /**
      * Runs the round robin tournament.
      */
@@ -254,6 +317,8 @@ public class RoundRobinTournament extends AbstractTournament {
      * @param gameIdx  - index of game to play in this evaluation.
      */
     protected void evaluateMatchUp(List<Integer> agentIDs, int gameIdx) {
+        if (matchUpsSeen++ < resumeFrom)
+            return;  // played before the checkpoint we resumed from, and already counted
         if (debug)
             System.out.printf("Evaluate %s at %tT%n", agentIDs.toString(), System.currentTimeMillis());
         LinkedList<AbstractPlayer> matchUpPlayers = new LinkedList<>();
@@ -278,5 +343,91 @@ public class RoundRobinTournament extends AbstractTournament {
         }
         games.get(gameIdx).clearListeners();
         matchUpsRun++;
+        if (checkpointFile != null && matchUpsRun % checkpointEvery == 0)
+            writeCheckpoint();
+    }
+
+    /**
+     * @return false for tournaments that choose their match-ups as they go, such as RacingTournament, as the match-ups
+     * depend on the results so far and so cannot be replayed from a checkpoint.
+     */
+    public boolean supportsCheckpoint() {
+        return true;
+    }
+
+    /**
+     * Saves progress to a binary file every few match-ups, so that a tournament that is stopped can be resumed.
+     * If the file already exists, the points and match-ups in it are restored, and when the tournament is run the
+     * match-ups already played are skipped. The game seeds are restored too, so the remaining games are played with
+     * the same seeds as they would have been. (Agents carry their own state from game to game, which is not saved.)
+     * <p>
+     * This relies on the match-ups being created in the same order each time, so callers should check
+     * supportsCheckpoint() first. Subclasses that create their match-ups from a seed save it with
+     * writeCheckpointState(), and restore it with readCheckpointState().
+     * <p>
+     * Listeners are not part of the checkpoint. Any records they wrote for games after the last checkpoint will be
+     * written again when those games are replayed.
+     *
+     * @param file  - the checkpoint file
+     * @param every - the number of match-ups between checkpoints
+     */
+    public void setCheckpoint(File file, int every) {
+        if (!supportsCheckpoint())
+            throw new IllegalStateException(getClass().getSimpleName() + " does not support checkpoints");
+        this.checkpointFile = file;
+        this.checkpointEvery = Math.max(every, 1);
+        if (!file.exists())
+            return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC)
+                throw new AssertionError(file + " is not a tournament checkpoint");
+            if (in.readInt() != agents.size() || in.readInt() != games.size())
+                throw new AssertionError(file + " is for a tournament with different agents or games");
+            matchUpsRun = in.readInt();
+            resumeFrom = matchUpsRun;
+            for (int i = 0; i < pointsPerPlayer.length; i++)
+                pointsPerPlayer[i] = in.readInt();
+            for (Game game : games)
+                game.getGameState().getGameParameters().setRandomSeed(in.readLong());
+            readCheckpointState(in);
+        } catch (IOException e) {
+            throw new AssertionError("Problem reading checkpoint " + file + " : " + e.getMessage());
+        }
+        if (verbose)
+            System.out.printf("Resuming tournament after %d match-ups%n", resumeFrom);
+    }
+
+    /**
+     * Writes anything else a subclass needs to carry on from a checkpoint, after the progress saved by this class.
+     */
+    protected void writeCheckpointState(DataOutputStream out) throws IOException {
+    }
+
+    /**
+     * Reads back what writeCheckpointState() wrote, when resuming from a checkpoint.
+     */
+    protected void readCheckpointState(DataInputStream in) throws IOException {
+    }
+
+    private void writeCheckpoint() {
+        File tmp = new File(checkpointFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(agents.size());
+            out.writeInt(games.size());
+            out.writeInt(matchUpsRun);
+            for (int points : pointsPerPlayer)
+                out.writeInt(points);
+            for (Game game : games)
+                out.writeLong(game.getGameState().getGameParameters().getRandomSeed());
+            writeCheckpointState(out);
+        } catch (IOException e) {
+            throw new AssertionError("Problem writing checkpoint " + tmp + " : " + e.getMessage());
+        }
+        try {
+            Files.move(tmp.toPath(), checkpointFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new AssertionError("Problem replacing checkpoint " + checkpointFile + " : " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,177 @@
+package evaluation;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.ParameterFactory;
+import core.interfaces.IGameListener;
+import players.PlayerFactory;
+import utilities.FileStatsLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Worker for a DistributedTournament. This pulls work units from the shared directory, plays them, and writes back
+ * the results, until the coordinator writes the STOP file.
+ * <p>
+ * The directory holds one sub-directory per stage of a unit: pending, running, done and failed (plus logs for the
+ * output of any listeners, and merged for results the coordinator has collected). A unit is claimed by moving it from pending to running, and as this move is atomic only
+ * one worker can claim each unit. Workers only communicate through these files, so they can run on other machines
+ * as long as the directory is shared between them (and the player and parameter files are at the same paths).
+ * <p>
+ * If a unit throws an exception it is put back in pending to be tried again (by any worker), or moved to failed once
+ * it has used up its attempts.
+ */
+public class TournamentWorker implements Runnable {
+
+    public static final String PENDING = "pending", RUNNING = "running", DONE = "done", FAILED = "failed", LOGS = "logs",
+            MERGED = "merged";
+    public static final String STOP = "STOP";
+
+    private final File dir;
+    private final String name;
+    private final long pollMillis;
+
+    /**
+     * @param dir  - the shared directory
+     * @param name - unique name of this worker, used to mark the units it has claimed
+     */
+    public TournamentWorker(File dir, String name) {
+        this(dir, name, 200);
+    }
+
+    public TournamentWorker(File dir, String name, long pollMillis) {
+        this.dir = dir;
+        this.name = name;
+        this.pollMillis = pollMillis;
+    }
+
+    /**
+     * @return a name for a worker in this JVM, unique across machines
+     */
+    public static String defaultName() {
+        return ManagementFactory.getRuntimeMXBean().getName().replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    @Override
+    public void run() {
+        File stopFile = new File(dir, STOP);
+        while (!stopFile.exists()) {
+            File claimed = claimNext();
+            if (claimed == null) {
+                try {
+                    Thread.sleep(pollMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            } else {
+                process(claimed);
+            }
+        }
+    }
+
+    private File claimNext() {
+        File[] pending = new File(dir, PENDING).listFiles((d, n) -> n.endsWith(".unit"));
+        if (pending == null)
+            return null;
+        Arrays.sort(pending);
+        for (File file : pending) {
+            File target = new File(new File(dir, RUNNING), file.getName() + "." + name);
+            try {
+                Files.move(file.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                continue;  // claimed by someone else first
+            }
+            // the move keeps the old modification time, but the coordinator uses it to spot units that are stuck
+            target.setLastModified(System.currentTimeMillis());
+            return target;
+        }
+        return null;
+    }
+
+    private void process(File claimed) {
+        WorkUnit unit = WorkUnit.read(claimed);
+        try {
+            List<File> logs = runUnit(unit, new File(dir, RUNNING), name);
+            for (int k = 0; k < logs.size(); k++) {
+                File log = logs.get(k);
+                if (log.exists())
+                    Files.move(log.toPath(), new File(new File(dir, LOGS), logFileName(unit, k)).toPath(),
+                            StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            unit.write(new File(new File(dir, DONE), unit.fileName()));
+        } catch (Exception | AssertionError e) {
+            unit.results = null;
+            unit.ordinals = null;
+            unit.attempt++;
+            unit.error = e.toString();
+            System.out.printf("Worker %s: unit %d failed on attempt %d : %s%n", name, unit.id, unit.attempt, e);
+            unit.write(new File(new File(dir, unit.attempt >= unit.maxAttempts ? FAILED : PENDING), unit.fileName()));
+        } finally {
+            claimed.delete();
+        }
+    }
+
+    static String logFileName(WorkUnit unit, int listener) {
+        return String.format("%08d.L%d.txt", unit.id, listener);
+    }
+
+    /**
+     * Plays one unit, and records the results in it.
+     *
+     * @param unit   - the unit to play
+     * @param logDir - directory for the output of the unit's listeners
+     * @param tag    - added to the log file names, to keep them apart from those of other workers
+     * @return the log file written by each listener, in order
+     */
+    public static List<File> runUnit(WorkUnit unit, File logDir, String tag) {
+        int nPlayers = unit.players.size();
+        Game game = unit.gameParams.isEmpty() ?
+                unit.game.createGameInstance(nPlayers) :
+                unit.game.createGameInstance(nPlayers, ParameterFactory.createFromFile(unit.game, unit.gameParams));
+
+        // each player gets its own seed, derived from that of the game
+        Random seeds = new Random(unit.seed);
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (String descriptor : unit.players) {
+            AbstractPlayer player = PlayerFactory.createPlayer(descriptor, seeds.nextLong());
+            String fileName = new File(descriptor).getName();
+            if (fileName.contains("."))
+                player.setName(fileName.substring(0, fileName.indexOf(".")));
+            players.add(player);
+        }
+
+        List<File> logs = new ArrayList<>();
+        List<IGameListener> listeners = new ArrayList<>();
+        for (int k = 0; k < unit.listeners.size(); k++) {
+            File log = new File(logDir, logFileName(unit, k) + "." + tag);
+            logs.add(log);
+            IGameListener listener = IGameListener.createListener(unit.listeners.get(k),
+                    new FileStatsLogger(log.getPath(), "\t", false));
+            listeners.add(listener);
+            game.addListener(listener);
+        }
+
+        game.reset(players, unit.seed);
+        game.run();
+
+        AbstractGameState state = game.getGameState();
+        unit.results = state.getPlayerResults().clone();
+        unit.ordinals = new int[nPlayers];
+        for (int p = 0; p < nPlayers; p++)
+            unit.ordinals[p] = state.getOrdinalPosition(p);
+
+        for (IGameListener listener : listeners)
+            listener.allGamesFinished();
+        game.clearListeners();
+        return logs;
+    }
+}
@@ -0,0 +1,180 @@
+package evaluation;
+
+import java.util.Arrays;
+
+import static utilities.Utils.normalCDF;
+import static utilities.Utils.normalPDF;
+
+/**
+ * Incremental skill ratings in the style of TrueSkill, updated from the finishing positions of each game.
+ * <p>
+ * Each agent's skill is a normal distribution with mean mu and standard deviation sigma; its performance in a game
+ * is its skill plus noise with standard deviation beta. Before each game sigma is widened by tau, so that ratings can
+ * follow agents whose strength changes.
+ * <p>
+ * A game with more than two players is treated as the set of all its pairwise results (finishing ahead, behind or
+ * level with each other player). Each pair is updated as a two-player TrueSkill game from the ratings before the
+ * game, and the changes are averaged over the n - 1 opponents of each player. This is simpler than the full factor
+ * graph of TrueSkill, but keeps its main properties: agents with uncertain ratings move a lot, surprising results
+ * move ratings more than expected ones, and sigma shrinks as evidence builds up.
+ */
+public class TrueSkillRating {
+
+    public final double initialMu, initialSigma, beta, tau, drawMargin;
+    private final double[] mu, sigma;
+    private final int[] games;
+
+    /**
+     * Creates ratings with the usual TrueSkill defaults: mu = 25, sigma = 25/3, beta = sigma/2, tau = sigma/100,
+     * and a draw margin that corresponds to about a 10% chance of a draw between equal players.
+     *
+     * @param nAgents - number of agents to rate
+     */
+    public TrueSkillRating(int nAgents) {
+        this(nAgents, 25.0, 25.0 / 3.0, 25.0 / 6.0, 25.0 / 300.0, 0.74);
+    }
+
+    /**
+     * @param nAgents      - number of agents to rate
+     * @param initialMu    - starting mean skill
+     * @param initialSigma - starting standard deviation of skill
+     * @param beta         - standard deviation of performance around skill in a single game
+     * @param tau          - added to sigma before each game
+     * @param drawMargin   - difference in performance within which a game is a draw
+     */
+    public TrueSkillRating(int nAgents, double initialMu, double initialSigma, double beta, double tau, double drawMargin) {
+        this.initialMu = initialMu;
+        this.initialSigma = initialSigma;
+        this.beta = beta;
+        this.tau = tau;
+        this.drawMargin = drawMargin;
+        mu = new double[nAgents];
+        sigma = new double[nAgents];
+        games = new int[nAgents];
+        Arrays.fill(mu, initialMu);
+        Arrays.fill(sigma, initialSigma);
+    }
+
+    public int nAgents() {
+        return mu.length;
+    }
+
+    public double getMu(int agent) {
+        return mu[agent];
+    }
+
+    public double getSigma(int agent) {
+        return sigma[agent];
+    }
+
+    public int getGames(int agent) {
+        return games[agent];
+    }
+
+    /**
+     * @return mu - 3 * sigma, a conservative estimate of skill that is used for ranking
+     */
+    public double getConservativeSkill(int agent) {
+        return mu[agent] - 3.0 * sigma[agent];
+    }
+
+    /**
+     * Updates the ratings of the players in one game.
+     *
+     * @param agents    - the agent in each seat of the game
+     * @param positions - the finishing position of each seat (as from AbstractGameState.getOrdinalPosition(),
+     *                  where 1 is first). Equal positions are draws.
+     */
+    public void update(int[] agents, int[] positions) {
+        int n = agents.length;
+        if (n < 2)
+            return;
+        double[] variance = new double[n];
+        for (int i = 0; i < n; i++)
+            variance[i] = sigma[agents[i]] * sigma[agents[i]] + tau * tau;
+        double[] deltaMu = new double[n];
+        double[] varianceFactor = new double[n];
+        int[] opponents = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (agents[i] == agents[j])
+                    continue;  // self-play tells us nothing
+                double c = Math.sqrt(2.0 * beta * beta + variance[i] + variance[j]);
+                double t = (mu[agents[i]] - mu[agents[j]]) / c;
+                double e = drawMargin / c;
+                double v, w;
+                if (positions[i] == positions[j]) {
+                    v = vDraw(t, e);
+                    w = wDraw(t, e);
+                } else if (positions[i] < positions[j]) {
+                    v = vWin(t, e);
+                    w = wWin(t, e);
+                } else {
+                    // j won, so look at it from j's point of view, and flip the sign of the mean update
+                    v = -vWin(-t, e);
+                    w = wWin(-t, e);
+                }
+                deltaMu[i] += variance[i] / c * v;
+                deltaMu[j] -= variance[j] / c * v;
+                varianceFactor[i] += 1.0 - variance[i] / (c * c) * w;
+                varianceFactor[j] += 1.0 - variance[j] / (c * c) * w;
+                opponents[i]++;
+                opponents[j]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int a = agents[i];
+            games[a]++;
+            if (opponents[i] == 0) {
+                sigma[a] = Math.sqrt(variance[i]);
+                continue;
+            }
+            mu[a] += deltaMu[i] / opponents[i];
+            sigma[a] = Math.sqrt(variance[i] * Math.max(varianceFactor[i] / opponents[i], 1e-4));
+        }
+    }
+
+    /**
+     * @return the TrueSkill match quality of two agents: the chance of a draw, relative to that of equal players
+     * with no uncertainty. This is high when the outcome of a game between them is least predictable.
+     */
+    public double matchQuality(int a, int b) {
+        double c2 = 2.0 * beta * beta + sigma[a] * sigma[a] + sigma[b] * sigma[b];
+        double diff = mu[a] - mu[b];
+        return Math.sqrt(2.0 * beta * beta / c2) * Math.exp(-diff * diff / (2.0 * c2));
+    }
+
+    // The standard TrueSkill functions for the truncated Gaussian; guarded for extreme values of t
+
+    static double vWin(double t, double e) {
+        double denom = normalCDF(t - e);
+        if (denom < 1e-12)
+            return e - t;
+        return normalPDF(t - e) / denom;
+    }
+
+    static double wWin(double t, double e) {
+        double v = vWin(t, e);
+        double w = v * (v + t - e);
+        return Math.min(Math.max(w, 0.0), 1.0);
+    }
+
+    static double vDraw(double t, double e) {
+        double a = Math.abs(t);
+        double denom = normalCDF(e - a) - normalCDF(-e - a);
+        // the limit for players far apart is to move the stronger one down by the excess over the margin
+        double v = denom < 1e-12 ? e - a : (normalPDF(-e - a) - normalPDF(e - a)) / denom;
+        return t < 0 ? -v : v;
+    }
+
+    static double wDraw(double t, double e) {
+        double a = Math.abs(t);
+        double denom = normalCDF(e - a) - normalCDF(-e - a);
+        if (denom < 1e-12)
+            return 1.0;
+        double v = (normalPDF(-e - a) - normalPDF(e - a)) / denom;
+        double w = v * v + ((e - a) * normalPDF(e - a) + (e + a) * normalPDF(e + a)) / denom;
+        return Math.min(Math.max(w, 0.0), 1.0);
+    }
+}
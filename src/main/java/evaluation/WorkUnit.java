@@ -0,0 +1,127 @@
+package evaluation;
+
+import games.GameType;
+import utilities.Utils.GameResult;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * One game of a DistributedTournament: everything a worker needs to play it, and (once played) the result.
+ * <p>
+ * Players are given by descriptor (a JSON file, or one of the short-hand names understood by PlayerFactory) and are
+ * created afresh for each unit, so the result depends only on the contents of the unit, and not on which worker
+ * plays it or what it played before.
+ * <p>
+ * Units are passed between coordinator and workers as Properties files.
+ */
+public class WorkUnit {
+
+    public final int id;
+    public final GameType game;
+    public final long seed;
+    public final String gameParams;
+    public final List<String> players;     // descriptor of the player in each seat
+    public final List<Integer> agentIDs;   // index of the player in each seat, in the tournament list of agents
+    public final List<String> listeners;   // IGameListener class names
+    public final int maxAttempts;
+    public int attempt;
+    public String error = "";
+    public GameResult[] results;
+    public int[] ordinals;
+
+    public WorkUnit(int id, GameType game, long seed, String gameParams, List<String> players, List<Integer> agentIDs,
+                    List<String> listeners, int maxAttempts) {
+        this.id = id;
+        this.game = game;
+        this.seed = seed;
+        this.gameParams = gameParams;
+        this.players = players;
+        this.agentIDs = agentIDs;
+        this.listeners = listeners;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public String fileName() {
+        return String.format("%08d.unit", id);
+    }
+
+    public boolean isComplete() {
+        return results != null;
+    }
+
+    public Properties toProperties() {
+        Properties p = new Properties();
+        p.setProperty("id", String.valueOf(id));
+        p.setProperty("game", game.name());
+        p.setProperty("seed", String.valueOf(seed));
+        p.setProperty("gameParams", gameParams);
+        p.setProperty("players", String.join("|", players));
+        p.setProperty("agentIDs", agentIDs.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        p.setProperty("listeners", String.join("|", listeners));
+        p.setProperty("maxAttempts", String.valueOf(maxAttempts));
+        p.setProperty("attempt", String.valueOf(attempt));
+        p.setProperty("error", error);
+        if (results != null) {
+            p.setProperty("results", Arrays.stream(results).map(Enum::name).collect(Collectors.joining(",")));
+            p.setProperty("ordinals", Arrays.stream(ordinals).mapToObj(String::valueOf).collect(Collectors.joining(",")));
+        }
+        return p;
+    }
+
+    public static WorkUnit fromProperties(Properties p) {
+        WorkUnit unit = new WorkUnit(
+                Integer.parseInt(p.getProperty("id")),
+                GameType.valueOf(p.getProperty("game")),
+                Long.parseLong(p.getProperty("seed")),
+                p.getProperty("gameParams", ""),
+                split(p.getProperty("players"), "\\|"),
+                split(p.getProperty("agentIDs"), ",").stream().map(Integer::valueOf).collect(Collectors.toList()),
+                split(p.getProperty("listeners", ""), "\\|"),
+                Integer.parseInt(p.getProperty("maxAttempts", "1")));
+        unit.attempt = Integer.parseInt(p.getProperty("attempt", "0"));
+        unit.error = p.getProperty("error", "");
+        if (p.containsKey("results")) {
+            unit.results = split(p.getProperty("results"), ",").stream().map(GameResult::valueOf).toArray(GameResult[]::new);
+            unit.ordinals = split(p.getProperty("ordinals"), ",").stream().mapToInt(Integer::parseInt).toArray();
+        }
+        return unit;
+    }
+
+    private static List<String> split(String value, String regex) {
+        if (value == null || value.isEmpty())
+            return new ArrayList<>();
+        return new ArrayList<>(Arrays.asList(value.split(regex)));
+    }
+
+    /**
+     * Writes the unit to a temporary file, and then moves it into place, so that other processes never see a
+     * partly written unit.
+     */
+    public void write(File file) {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (Writer writer = new FileWriter(tmp)) {
+            toProperties().store(writer, null);
+        } catch (IOException e) {
+            throw new AssertionError("Problem writing work unit " + tmp + " : " + e.getMessage());
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new AssertionError("Problem moving work unit to " + file + " : " + e.getMessage());
+        }
+    }
+
+    public static WorkUnit read(File file) {
+        Properties p = new Properties();
+        try (Reader reader = new FileReader(file)) {
+            p.load(reader);
+        } catch (IOException e) {
+            throw new AssertionError("Problem reading work unit " + file + " : " + e.getMessage());
+        }
+        return fromProperties(p);
+    }
+}
@@ -1,6 +1,7 @@
 package games.battlelore;
 
 import core.AbstractForwardModel;
+import core.AbstractGameData;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.components.GridBoard;
@@ -23,8 +24,8 @@ public class BattleloreForwardModel extends AbstractForwardModel {
     protected void _setup(AbstractGameState initialState) {
         BattleloreGameParameters gameParams = (BattleloreGameParameters) initialState.getGameParameters();
         BattleloreGameState gameState = (BattleloreGameState) initialState;
-        BattleloreData _data = new BattleloreData();
-        _data.load(gameParams.getDataPath());
+        // unitTypes are treated as immutable (and shared between copies of the state), so can come from the shared data
+        BattleloreData _data = AbstractGameData.loadShared(BattleloreData.class, gameParams.getDataPath());
 
         if (gameState.getNPlayers() != 2) {
             throw new IllegalArgumentException("3 or more players are not supported");
@@ -198,11 +199,6 @@ public class BattleloreForwardModel extends AbstractForwardModel {
         return allyUnitsRemainInArea && enemyUnitsRemainInArea;
     }
 
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new BattleloreForwardModel();
-    }
-
     /**
      * Checks if the game ended.
      *
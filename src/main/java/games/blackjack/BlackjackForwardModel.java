@@ -96,9 +96,4 @@ public class BlackjackForwardModel extends AbstractForwardModel {
 //        }
 //    }
 
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new BlackjackForwardModel();
-    }
-
 }
\ No newline at end of file
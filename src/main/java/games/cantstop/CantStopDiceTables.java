@@ -0,0 +1,149 @@
+package games.cantstop;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed tables for the roll of four dice in CantStop, so that the pairings of a roll, and the chance of going
+ * bust, do not need to be worked out afresh every time.
+ * <p>
+ * Each roll has an index, sum((value - 1) * sides^i) over the dice. For every roll we hold the three ways of pairing
+ * the dice into two sums, and a bitmask of every sum that can be made (bit n for sum n). From these:
+ * - bustProbability(mask) is the chance that a roll makes none of the sums in mask. With mask set to the columns a
+ * player can still advance on this turn (see CantStopGameState.getUsableColumns()) this is the chance of going bust.
+ * - getOutcomes() lists each distinct roll (ignoring the order of the dice) with its probability. The forward model
+ * uses these (with every bust roll merged into one outcome) as the distribution of RollDice, so that MCTS with
+ * exactChanceNodes can expand the chance node exactly rather than by sampling.
+ * <p>
+ * Tables depend only on the number of sides on the dice, so are shared by all games.
+ */
+public class CantStopDiceTables {
+
+    private static final Map<Integer, CantStopDiceTables> cache = new ConcurrentHashMap<>();
+    private static final int DICE = 4;
+
+    public static class Outcome {
+        public final int[] dice;
+        public final double probability;
+
+        Outcome(int[] dice, double probability) {
+            this.dice = dice;
+            this.probability = probability;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(dice) + " : " + String.format("%.4f", probability);
+        }
+    }
+
+    public final int sides;
+    public final int nRolls;
+    // pairings[roll] = {{a, b}, {c, d}, {e, f}}: the sums of the three ways to split the dice into pairs
+    private final int[][][] pairings;
+    // sumsMask[roll] has bit n set if sum n appears in any pairing of the roll
+    private final int[] sumsMask;
+    // bustProbability[mask >> 2] for each subset of columns 2..(2 * sides)
+    private final double[] bustProbability;
+    private final List<Outcome> outcomes;
+
+    private CantStopDiceTables(int sides) {
+        this.sides = sides;
+        nRolls = (int) Math.pow(sides, DICE);
+        pairings = new int[nRolls][][];
+        sumsMask = new int[nRolls];
+
+        Map<String, int[]> distinct = new LinkedHashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        int[] values = new int[DICE];
+        for (int roll = 0; roll < nRolls; roll++) {
+            for (int i = 0, r = roll; i < DICE; i++, r /= sides)
+                values[i] = r % sides + 1;
+            pairings[roll] = new int[][]{
+                    {values[0] + values[1], values[2] + values[3]},
+                    {values[0] + values[2], values[1] + values[3]},
+                    {values[0] + values[3], values[1] + values[2]}
+            };
+            for (int[] p : pairings[roll])
+                sumsMask[roll] |= (1 << p[0]) | (1 << p[1]);
+
+            int[] sorted = values.clone();
+            Arrays.sort(sorted);
+            String key = Arrays.toString(sorted);
+            distinct.putIfAbsent(key, sorted);
+            counts.merge(key, 1, Integer::sum);
+        }
+
+        // count rolls by the exact set of sums they can make, then each column subset sums over the disjoint ones
+        int nColumns = 2 * sides - 1;
+        int[] rollsWithSums = new int[1 << nColumns];
+        for (int mask : sumsMask)
+            rollsWithSums[mask >> 2]++;
+        bustProbability = new double[1 << nColumns];
+        for (int columns = 0; columns < bustProbability.length; columns++) {
+            int bustRolls = 0;
+            for (int sums = 0; sums < rollsWithSums.length; sums++) {
+                if (rollsWithSums[sums] > 0 && (sums & columns) == 0)
+                    bustRolls += rollsWithSums[sums];
+            }
+            bustProbability[columns] = bustRolls / (double) nRolls;
+        }
+
+        List<Outcome> temp = new ArrayList<>();
+        for (Map.Entry<String, int[]> e : distinct.entrySet())
+            temp.add(new Outcome(e.getValue(), counts.get(e.getKey()) / (double) nRolls));
+        outcomes = Collections.unmodifiableList(temp);
+    }
+
+    /**
+     * @param params - game parameters
+     * @return the tables for the dice in params
+     */
+    public static CantStopDiceTables get(CantStopParameters params) {
+        if (params.DICE_NUMBER != DICE)
+            throw new IllegalArgumentException("Dice tables are only available for " + DICE + " dice");
+        return cache.computeIfAbsent(params.DICE_SIDES, CantStopDiceTables::new);
+    }
+
+    /**
+     * @param dice - the value of each die, in [1, sides]
+     * @return the index of the roll
+     */
+    public int rollIndex(int[] dice) {
+        int roll = 0;
+        for (int i = DICE - 1; i >= 0; i--)
+            roll = roll * sides + dice[i] - 1;
+        return roll;
+    }
+
+    /**
+     * @param roll - roll index
+     * @return the pair of sums for each of the three ways to split the dice. This must not be modified.
+     */
+    public int[][] getPairings(int roll) {
+        return pairings[roll];
+    }
+
+    /**
+     * @param roll - roll index
+     * @return a bitmask with bit n set if the roll can make the sum n
+     */
+    public int getSumsMask(int roll) {
+        return sumsMask[roll];
+    }
+
+    /**
+     * @param columns - a bitmask with bit n set for each column n that can be advanced
+     * @return the probability that a roll makes none of these columns
+     */
+    public double bustProbability(int columns) {
+        return bustProbability[(columns >> 2) & (bustProbability.length - 1)];
+    }
+
+    /**
+     * @return every distinct roll (with the dice in ascending order) and its probability. The probabilities sum to 1.
+     */
+    public List<Outcome> getOutcomes() {
+        return outcomes;
+    }
+}
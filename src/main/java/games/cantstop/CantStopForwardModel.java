@@ -3,7 +3,7 @@ package games.cantstop;
 import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
-import core.components.Dice;
+import core.interfaces.IChanceDistribution;
 import games.cantstop.actions.*;
 import utilities.Utils;
 
@@ -12,7 +12,10 @@ import java.util.*;
 import static java.util.stream.Collectors.partitioningBy;
 import static java.util.stream.Collectors.toList;
 
-public class CantStopForwardModel extends AbstractForwardModel {
+public class CantStopForwardModel extends AbstractForwardModel implements IChanceDistribution {
+
+    // every roll that goes bust leads to the same state, so these share one outcome
+    public static final long BUST_OUTCOME = -1;
 
     private final Pass passAction = new Pass(false);
     private final RollDice rollAction = new RollDice();
@@ -78,13 +81,17 @@ public class CantStopForwardModel extends AbstractForwardModel {
                 retValue.add(rollAction);
                 break;
             case Allocation:
-                List<Integer> values = state.dice.stream().map(Dice::getValue).collect(toList());
-                // we now need all combinations of values
-                // there are only three combinations - so we enumerate these, and then filter out the illegal ones
+                CantStopDiceTables tables = CantStopDiceTables.get((CantStopParameters) state.getGameParameters());
+                // there are only three combinations of values - so we look these up, and then filter out the illegal ones
+                int roll = tables.rollIndex(state.getDice());
+                if ((tables.getSumsMask(roll) & state.getUsableColumns()) == 0) {
+                    // no number on the dice can be used, so we have gone bust
+                    retValue.add(bust);
+                    break;
+                }
                 List<AllocateDice> temp = new ArrayList<>();
-                temp.add(new AllocateDice(values.get(0) + values.get(1), values.get(2) + values.get(3)));
-                temp.add(new AllocateDice(values.get(0) + values.get(2), values.get(1) + values.get(3)));
-                temp.add(new AllocateDice(values.get(0) + values.get(3), values.get(1) + values.get(2)));
+                for (int[] pairing : tables.getPairings(roll))
+                    temp.add(new AllocateDice(pairing));
                 Map<Boolean, List<AllocateDice>> legalSplit = temp.stream().distinct().collect(partitioningBy(ad -> ad.isLegal(state)));
                 retValue.addAll(legalSplit.getOrDefault(true, Collections.emptyList())); // legal actions go in directly
                 // then we splitup the legal actions, as we can use just one of the numbers
@@ -107,7 +114,50 @@ public class CantStopForwardModel extends AbstractForwardModel {
     }
 
     @Override
-    protected CantStopForwardModel _copy() {
-        return this;
+    public long chanceOutcome(AbstractGameState state, AbstractAction action) {
+        if (!(action instanceof RollDice))
+            return NO_CHANCE;
+        CantStopGameState cs = (CantStopGameState) state;
+        CantStopDiceTables tables = CantStopDiceTables.get((CantStopParameters) state.getGameParameters());
+        // the order of the dice does not matter, so this is the index of the roll with the dice sorted
+        int[] dice = cs.getDice();
+        Arrays.sort(dice);
+        int roll = tables.rollIndex(dice);
+        return (tables.getSumsMask(roll) & cs.getUsableColumns()) == 0 ? BUST_OUTCOME : roll;
+    }
+
+    @Override
+    public Map<Long, Double> chanceDistribution(AbstractGameState state, AbstractAction action) {
+        if (!(action instanceof RollDice))
+            return Collections.emptyMap();
+        CantStopGameState cs = (CantStopGameState) state;
+        CantStopDiceTables tables = CantStopDiceTables.get((CantStopParameters) state.getGameParameters());
+        int usable = cs.getUsableColumns();
+        Map<Long, Double> retValue = new LinkedHashMap<>();
+        double bustProbability = cs.getBustProbability();
+        if (bustProbability > 0.0)
+            retValue.put(BUST_OUTCOME, bustProbability);
+        for (CantStopDiceTables.Outcome outcome : tables.getOutcomes()) {
+            int roll = tables.rollIndex(outcome.dice);
+            if ((tables.getSumsMask(roll) & usable) != 0)
+                retValue.put((long) roll, outcome.probability);
+        }
+        return retValue;
+    }
+
+    @Override
+    public void setChanceOutcome(AbstractGameState state, AbstractAction action, long outcome) {
+        CantStopGameState cs = (CantStopGameState) state;
+        CantStopDiceTables tables = CantStopDiceTables.get((CantStopParameters) state.getGameParameters());
+        int usable = cs.getUsableColumns();
+        for (CantStopDiceTables.Outcome o : tables.getOutcomes()) {
+            int roll = tables.rollIndex(o.dice);
+            boolean bust = (tables.getSumsMask(roll) & usable) == 0;
+            if (outcome == BUST_OUTCOME ? bust : roll == outcome) {
+                cs.setDice(o.dice);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Unknown outcome of RollDice: " + outcome);
     }
 }
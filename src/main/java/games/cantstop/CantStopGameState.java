@@ -81,6 +81,32 @@ public class CantStopGameState extends AbstractGameState implements IPrintable {
         return new ArrayList<>(temporaryMarkerPositions.keySet());
     }
 
+    /**
+     * @return a bitmask with bit n set for each column n that the current player could advance on with their next roll,
+     * i.e. the column is not complete or topped out, and either already has a temporary marker or one is still free
+     */
+    public int getUsableColumns() {
+        CantStopParameters params = (CantStopParameters) getGameParameters();
+        boolean markerFree = temporaryMarkerPositions.size() < params.MARKERS;
+        int[] positions = playerMarkerPositions.get(getCurrentPlayer());
+        int mask = 0;
+        for (int n = 2; n <= 12; n++) {
+            if (completedColumns[n])
+                continue;
+            Integer temp = temporaryMarkerPositions.get(n);
+            if ((temp != null || markerFree) && (temp != null ? temp : positions[n]) < params.maxValue(n))
+                mask |= 1 << n;
+        }
+        return mask;
+    }
+
+    /**
+     * @return the probability that the current player goes bust if they roll the dice now
+     */
+    public double getBustProbability() {
+        return CantStopDiceTables.get((CantStopParameters) getGameParameters()).bustProbability(getUsableColumns());
+    }
+
     public CantStopGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, new StandardTurnOrder(nPlayers), GameType.CantStop);
     }
@@ -9,9 +9,12 @@ import games.catan.actions.*;
 import games.catan.components.Settlement;
 
 import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static core.CoreConstants.playerHandHash;
 import static games.catan.CatanConstants.cardType;
+import static java.util.stream.Collectors.toCollection;
 
 public class CatanActionFactory {
     /**
@@ -56,16 +59,20 @@ public class CatanActionFactory {
      * @return - ArrayList, various action types (unique).
      */
     static List<AbstractAction> getTradeStageActions(CatanGameState gs) {
-        CatanTurnOrder cto = (CatanTurnOrder) gs.getTurnOrder();
+        return tradeStageActions(gs).collect(toCollection(ArrayList::new));
+    }
 
-        ArrayList<AbstractAction> actions = new ArrayList<>();
-        actions.add(new DoNothing());
-        actions.addAll(getTradeActions(gs));
-        actions.addAll(getPlayerTradeOfferActions(gs));
+    /**
+     * The actions of getTradeStageActions(), in the same order, but with each PlayerTradeOffer only created when the
+     * stream reaches it.
+     */
+    static Stream<AbstractAction> tradeStageActions(CatanGameState gs) {
+        CatanTurnOrder cto = (CatanTurnOrder) gs.getTurnOrder();
+        Stream<AbstractAction> actions = Stream.concat(Stream.of(new DoNothing()), getTradeActions(gs).stream());
+        actions = Stream.concat(actions, playerTradeOfferActions(gs));
         if (!cto.isDevelopmentCardPlayed()) {
-            actions.addAll(getDevCardActions(gs));
+            actions = Stream.concat(actions, getDevCardActions(gs).stream());
         }
-
         return actions;
     }
 
@@ -77,53 +84,55 @@ public class CatanActionFactory {
      * @return - ArrayList, PlayerTradeOffer type (unique).
      */
     static List<AbstractAction> getPlayerTradeOfferActions(CatanGameState gs) {
-        ArrayList<AbstractAction> actions = new ArrayList<>();
+        return playerTradeOfferActions(gs).collect(toCollection(ArrayList::new));
+    }
+
+    static Stream<AbstractAction> playerTradeOfferActions(CatanGameState gs) {
         int[] resources = gs.getPlayerResources(gs.getCurrentPlayer());
         int exchangeRate = ((CatanParameters) gs.getGameParameters()).default_exchange_rate;
         int n_players = gs.getNPlayers();
         int currentPlayer = gs.getCurrentPlayer();
-        int[] resourcesOffered = new int[5];
-        int[] resourcesRequested = new int[5];
-
-        for (int playerIndex = 0; playerIndex < n_players; playerIndex++) { // loop through players
-            if (playerIndex != currentPlayer) { // exclude current player
-                int[] otherPlayerInventory = gs.getPlayerResources(playerIndex);
-                for (int resourceToOfferIndex = 0; resourceToOfferIndex < resources.length; resourceToOfferIndex++) { // loop through current players resources to offer
-                    if (resources[resourceToOfferIndex] > 0) { // don't continue if the player has none of the current resource
-                        for (int resourceToRequestIndex = 0; resourceToRequestIndex < resources.length; resourceToRequestIndex++) { // loop through current players resources to request
-                            if (resourceToRequestIndex != resourceToOfferIndex) { // exclude the currently offered resource
-                                int maxToRequest = otherPlayerInventory[resourceToRequestIndex];
-                                if (maxToRequest == 0)
-                                    continue;
-                                // we simplify this to be aggressive in our initial bid, on the basis that we are open to a counter-offer.
-                                // Effectively this creates one bid per player and possible pair of resources (which slightly reduces the combinatorial explosion of actions here)
-                                int offerQuantity = Math.max(1, maxToRequest / exchangeRate); // offer at least one
-                                offerQuantity = Math.min(offerQuantity, resources[resourceToOfferIndex]); // do not offer more than we have
-                                resourcesOffered[resourceToOfferIndex] = offerQuantity;
-                                resourcesRequested[resourceToRequestIndex] = Math.min(maxToRequest, offerQuantity * exchangeRate);
-                                actions.add(new OfferPlayerTrade(resourcesOffered.clone(), resourcesRequested.clone(), currentPlayer, playerIndex, 1)); // create the action
-                                Arrays.fill(resourcesOffered, 0);
-                                Arrays.fill(resourcesRequested, 0);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return actions;
+        int n_resources = resources.length;
+
+        // one index per (player, resource to offer, resource to request)
+        return IntStream.range(0, n_players * n_resources * n_resources).mapToObj(i -> {
+            int playerIndex = i / (n_resources * n_resources);
+            int resourceToOfferIndex = (i / n_resources) % n_resources;
+            int resourceToRequestIndex = i % n_resources;
+            // exclude the current player, resources the player has none of, and the currently offered resource
+            if (playerIndex == currentPlayer || resources[resourceToOfferIndex] == 0 || resourceToRequestIndex == resourceToOfferIndex)
+                return null;
+            int maxToRequest = gs.getPlayerResources(playerIndex)[resourceToRequestIndex];
+            if (maxToRequest == 0)
+                return null;
+            // we simplify this to be aggressive in our initial bid, on the basis that we are open to a counter-offer.
+            // Effectively this creates one bid per player and possible pair of resources (which slightly reduces the combinatorial explosion of actions here)
+            int offerQuantity = Math.max(1, maxToRequest / exchangeRate); // offer at least one
+            offerQuantity = Math.min(offerQuantity, resources[resourceToOfferIndex]); // do not offer more than we have
+            int[] resourcesOffered = new int[5];
+            int[] resourcesRequested = new int[5];
+            resourcesOffered[resourceToOfferIndex] = offerQuantity;
+            resourcesRequested[resourceToRequestIndex] = Math.min(maxToRequest, offerQuantity * exchangeRate);
+            return (AbstractAction) new OfferPlayerTrade(resourcesOffered, resourcesRequested, currentPlayer, playerIndex, 1);
+        }).filter(Objects::nonNull);
     }
 
     static List<AbstractAction> getTradeReactionActions(CatanGameState gs) {
-        ArrayList<AbstractAction> actions = new ArrayList<>();
+        return tradeReactionActions(gs).collect(toCollection(ArrayList::new));
+    }
+
+    /**
+     * The actions of getTradeReactionActions(), in the same order, but with each counter-offer only created when the
+     * stream reaches it.
+     */
+    static Stream<AbstractAction> tradeReactionActions(CatanGameState gs) {
         OfferPlayerTrade offeredPlayerTrade = gs.getCurrentTradeOffer();
 
-        actions.add(new EndNegotiation()); // rejects the trade offer
+        Stream<AbstractAction> actions = Stream.of(new EndNegotiation()); // rejects the trade offer
         if (offeredPlayerTrade.getNegotiationCount() < ((CatanParameters) gs.getGameParameters()).max_negotiation_count + 1) { // check that the maximum number of negotiations has not been exceeded to prevent AI looping
-            actions.addAll(getResponsePlayerTradeOfferActions(gs));
+            actions = Stream.concat(actions, responsePlayerTradeOfferActions(gs));
         }
-        actions.addAll(getAcceptTradeActions(gs));
-
-        return actions;
+        return Stream.concat(actions, getAcceptTradeActions(gs).stream());
     }
 
     static List<AbstractAction> getAcceptTradeActions(CatanGameState gs) {
@@ -148,16 +157,16 @@ public class CatanActionFactory {
      * @return
      */
     static List<AbstractAction> getResponsePlayerTradeOfferActions(CatanGameState gs) {
-        ArrayList<AbstractAction> actions = new ArrayList<>();
+        return responsePlayerTradeOfferActions(gs).collect(toCollection(ArrayList::new));
+    }
+
+    static Stream<AbstractAction> responsePlayerTradeOfferActions(CatanGameState gs) {
         OfferPlayerTrade offeredPlayerTrade = gs.getCurrentTradeOffer();
         if (offeredPlayerTrade.otherPlayerID != gs.getCurrentPlayer())
             throw new AssertionError("We should always be alternating Offer and Counter-Offer");
-        int exchangeRate = ((CatanParameters) gs.getGameParameters()).default_exchange_rate;
         int[] playerResources = gs.getPlayerResources(gs.getCurrentPlayer());
         int[] resourcesOffered = offeredPlayerTrade.getResourcesOffered();
         int[] resourcesRequested = offeredPlayerTrade.getResourcesRequested();
-        int[] resourcesToOffer = new int[5];
-        int[] resourcesToRequest = new int[5];
         int resourceRequestedIndex = 0;
         int resourceOfferedIndex = 0;
 
@@ -171,23 +180,23 @@ public class CatanActionFactory {
         }
 
         int maxRequest = gs.getPlayerResources(offeredPlayerTrade.offeringPlayerID)[resourceOfferedIndex];
+        int maxOffer = playerResources[resourceRequestedIndex];
+        int offerIndex = resourceRequestedIndex, requestIndex = resourceOfferedIndex;
         // TODO: Once we have partial observability of player hands, we need to modify this to take account of uncertainty (add new type of UNKNOWN in result)
-        for (int quantityAvailableToOffer = 1; quantityAvailableToOffer < playerResources[resourceRequestedIndex] + 1; quantityAvailableToOffer++) { // loop through the quantity of resources to offer
-            for (int quantityAvailableToRequest = 1; quantityAvailableToRequest <= maxRequest; quantityAvailableToRequest++) { // loop to generate all possible combinations of offer for the current resource pair
-                if (!(quantityAvailableToOffer == resourcesRequested[resourceRequestedIndex] && quantityAvailableToRequest == resourcesOffered[resourceOfferedIndex])) {
-                    resourcesToOffer[resourceRequestedIndex] = quantityAvailableToOffer;
-                    resourcesToRequest[resourceOfferedIndex] = quantityAvailableToRequest;
-                    if (!(Arrays.equals(resourcesToOffer, resourcesRequested) && Arrays.equals(resourcesToRequest, resourcesOffered))) { // ensures the trade offer is not the same as the existing trade offer
-                        actions.add(new OfferPlayerTrade(resourcesToOffer.clone(), resourcesToRequest.clone(), offeredPlayerTrade.getOtherPlayerID(), offeredPlayerTrade.getOfferingPlayerID(), offeredPlayerTrade.getNegotiationCount() + 1)); // create the action
-                    }
-                    Arrays.fill(resourcesToOffer, 0);
-                    Arrays.fill(resourcesToRequest, 0);
-                }
-            }
-        }
-
-
-        return actions;
+        // one index per combination of the quantity to offer and the quantity to request, for the current resource pair
+        return IntStream.range(0, maxOffer * maxRequest).mapToObj(i -> {
+            int quantityAvailableToOffer = i / maxRequest + 1;
+            int quantityAvailableToRequest = i % maxRequest + 1;
+            if (quantityAvailableToOffer == resourcesRequested[offerIndex] && quantityAvailableToRequest == resourcesOffered[requestIndex])
+                return null;
+            int[] resourcesToOffer = new int[5];
+            int[] resourcesToRequest = new int[5];
+            resourcesToOffer[offerIndex] = quantityAvailableToOffer;
+            resourcesToRequest[requestIndex] = quantityAvailableToRequest;
+            if (Arrays.equals(resourcesToOffer, resourcesRequested) && Arrays.equals(resourcesToRequest, resourcesOffered)) // ensures the trade offer is not the same as the existing trade offer
+                return null;
+            return (AbstractAction) new OfferPlayerTrade(resourcesToOffer, resourcesToRequest, offeredPlayerTrade.getOtherPlayerID(), offeredPlayerTrade.getOfferingPlayerID(), offeredPlayerTrade.getNegotiationCount() + 1);
+        }).filter(Objects::nonNull);
     }
 
     static List<AbstractAction> getStealActions(CatanGameState gs) {
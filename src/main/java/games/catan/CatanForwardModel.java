@@ -9,6 +9,7 @@ import core.components.Area;
 import core.components.Card;
 import core.components.Counter;
 import core.components.Deck;
+import core.interfaces.IActionGenerator;
 import core.properties.PropertyString;
 import games.catan.actions.*;
 import games.catan.components.Graph;
@@ -22,23 +23,13 @@ import static core.CoreConstants.playerHandHash;
 import static games.catan.CatanConstants.*;
 import static games.catan.CatanGameState.CatanGamePhase.*;
 
-public class CatanForwardModel extends AbstractForwardModel {
-    CatanParameters params;
-    int nPlayers;
-
-    public CatanForwardModel() {
-    }
-
-    public CatanForwardModel(CatanParameters pp, int nPlayers) {
-        this.params = pp;
-        this.nPlayers = nPlayers;
-    }
+public class CatanForwardModel extends AbstractForwardModel implements IActionGenerator {
 
     @Override
     protected void _setup(AbstractGameState firstState) {
 
         CatanGameState state = (CatanGameState) firstState;
-        params = (CatanParameters) state.getGameParameters();
+        CatanParameters params = (CatanParameters) state.getGameParameters();
 
         state.setBoard(generateBoard(params));
         state.setGraph(extractGraphFromBoard(state.getBoard()));
@@ -101,6 +92,7 @@ public class CatanForwardModel extends AbstractForwardModel {
     @Override
     protected void _next(AbstractGameState currentState, AbstractAction action) {
         CatanGameState gs = (CatanGameState) currentState;
+        CatanParameters params = (CatanParameters) gs.getGameParameters();
         CatanTurnOrder cto = (CatanTurnOrder) gs.getTurnOrder();
         if (action != null) {
             action.execute(gs);
@@ -257,10 +249,19 @@ public class CatanForwardModel extends AbstractForwardModel {
         throw new AssertionError("GamePhase is not in the defined set of options");
     }
 
+    /**
+     * Trade offers and counter-offers are only created as they are pulled from the Iterator, as there can be hundreds
+     * of them.
+     */
     @Override
-    protected AbstractForwardModel _copy() {
-        CatanForwardModel copy = new CatanForwardModel(params, nPlayers);
-        return copy;
+    public Iterator<AbstractAction> generateAvailableActions(AbstractGameState gameState) {
+        CatanGameState cgs = (CatanGameState) gameState;
+        if (cgs.getGamePhase() == Trade) {
+            if (cgs.getCurrentTradeOffer() != null)
+                return CatanActionFactory.tradeReactionActions(cgs).iterator();
+            return CatanActionFactory.tradeStageActions(cgs).iterator();
+        }
+        return _computeAvailableActions(gameState).iterator();
     }
 
     private CatanTile[][] generateBoard(CatanParameters params) {
@@ -7,6 +7,7 @@ import core.actions.DoNothing;
 import core.actions.DrawCard;
 import core.components.Deck;
 import core.components.PartialObservableDeck;
+import core.interfaces.IActionGenerator;
 import core.interfaces.IGamePhase;
 import games.coltexpress.ColtExpressTypes.CharacterType;
 import games.coltexpress.ColtExpressTypes.LootType;
@@ -18,13 +19,15 @@ import utilities.Group;
 import utilities.Utils;
 
 import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static core.CoreConstants.VisibilityMode;
 import static games.coltexpress.ColtExpressGameState.ColtExpressGamePhase.PlanActions;
 import static utilities.Utils.GameResult.LOSE;
 import static utilities.Utils.GameResult.WIN;
 
-public class ColtExpressForwardModel extends AbstractForwardModel {
+public class ColtExpressForwardModel extends AbstractForwardModel implements IActionGenerator {
 
     @Override
     public void _setup(AbstractGameState firstState) {
@@ -109,11 +112,6 @@ public class ColtExpressForwardModel extends AbstractForwardModel {
         cegs.rounds.setVisibilityOfComponent(0, allTrue);
     }
 
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new ColtExpressForwardModel();
-    }
-
     @Override
     protected void _next(AbstractGameState gameState, AbstractAction action) {
         ColtExpressGameState cegs = (ColtExpressGameState) gameState;
@@ -275,7 +273,7 @@ public class ColtExpressForwardModel extends AbstractForwardModel {
         {
             switch (plannedActionCard.cardType){
                 case Punch:
-                    createPunchingActions(cegs, actions, player, cardIdx);
+                    punchingActions(cegs, player, cardIdx).forEach(actions::add);
                     break;
                 case Shoot:
                     createShootingActions(cegs, actions, player, cardIdx);
@@ -374,7 +372,23 @@ public class ColtExpressForwardModel extends AbstractForwardModel {
         return actions;
     }
 
-    private void createPunchingActions(ColtExpressGameState cegs, ArrayList<AbstractAction> actions, int player, int cardIdx){
+    /**
+     * When the planned action being executed is the current player's Punch, each PunchAction (a target, direction and
+     * type of loot to drop) is only created as it is pulled from the Iterator.
+     */
+    @Override
+    public Iterator<AbstractAction> generateAvailableActions(AbstractGameState gameState) {
+        ColtExpressGameState cegs = (ColtExpressGameState) gameState;
+        if (ColtExpressGameState.ColtExpressGamePhase.ExecuteActions.equals(gameState.getGamePhase()) && cegs.plannedActions.getSize() > 0) {
+            int cardIdx = cegs.plannedActions.getSize() - 1;
+            ColtExpressCard plannedActionCard = cegs.plannedActions.peek(cardIdx);
+            if (plannedActionCard.cardType == ColtExpressCard.CardType.Punch && plannedActionCard.playerID == cegs.getCurrentPlayer())
+                return punchingActions(cegs, cegs.getCurrentPlayer(), cardIdx).iterator();
+        }
+        return _computeAvailableActions(gameState).iterator();
+    }
+
+    private Stream<AbstractAction> punchingActions(ColtExpressGameState cegs, int player, int cardIdx){
         int deckFromID = cegs.plannedActions.getComponentID();
         int deckToID = cegs.playerDecks.get(player).getComponentID();
         boolean playerIsCheyenne = cegs.playerCharacters.get(player) == CharacterType.Cheyenne;
@@ -408,47 +422,44 @@ public class ColtExpressForwardModel extends AbstractForwardModel {
         }
 
         // punch forward or backward
-        if (playerCompartment != null) {
-            int sourceCompID = playerCompartment.getComponentID();
+        List<Compartment> targetCompartments = new ArrayList<>();
+        for (int offset = -1; offset <= 1; offset++) {
+            if (offset == 0 || playerCompartmentIndex + offset < 0 || playerCompartmentIndex + offset >= cegs.trainCompartments.size())
+                continue;
+            targetCompartments.add(cegs.trainCompartments.get(playerCompartmentIndex + offset));
+        }
 
-            // Belle can't be a target if others are available
-            if (availableTargets.size() > 1)
-                availableTargets.remove(cegs.playerPlayingBelle);
-
-            // Create punch actions
-            for (int offset = -1; offset <= 1; offset++) {
-                if (offset == 0 || playerCompartmentIndex + offset < 0 || playerCompartmentIndex + offset >= cegs.trainCompartments.size())
-                    continue;
-                Compartment targetCompartment = cegs.trainCompartments.get(playerCompartmentIndex + offset);
-
-                // For each available target
-                for (Integer targetPlayer : availableTargets) {
-                    Deck<Loot> availableLoot = cegs.playerLoot.get(targetPlayer);
-
-                    if (availableLoot.getSize() > 0) {
-                        // Punch and make them drop random loot of type
-                        HashSet<LootType> lootTypes = new HashSet<>();
-                        for (Loot loot : availableLoot.getComponents()) {
-                            lootTypes.add(loot.getLootType());
-                        }
-                        for (LootType lt: lootTypes) {
-                            actions.add(new PunchAction(deckFromID, deckToID, cardIdx, targetPlayer,
-                                    sourceCompID, targetCompartment.getComponentID(),
-                                    lt, availableLoot.getComponentID(), playerIsCheyenne));
-                        }
-                    } else {
-                        // punch opponent that cannot drop anymore loot
-                        actions.add(new PunchAction(deckFromID, deckToID, cardIdx, targetPlayer,
-                                sourceCompID, targetCompartment.getComponentID(),
-                                null, -1, playerIsCheyenne));
-                    }
+        // Belle can't be a target if others are available
+        if (availableTargets.size() > 1)
+            availableTargets.remove(cegs.playerPlayingBelle);
+
+        if (playerCompartment == null || targetCompartments.isEmpty() || availableTargets.isEmpty())
+            return Stream.of(new PunchAction(deckFromID, deckToID, cardIdx, -1, -1, -1,
+                    null, -1, playerIsCheyenne));
+
+        int sourceCompID = playerCompartment.getComponentID();
+        List<Integer> targets = new ArrayList<>(availableTargets);
+        // Create punch actions, for each target compartment and available target
+        return IntStream.range(0, targetCompartments.size() * targets.size()).boxed().flatMap(i -> {
+            Compartment targetCompartment = targetCompartments.get(i / targets.size());
+            Integer targetPlayer = targets.get(i % targets.size());
+            Deck<Loot> availableLoot = cegs.playerLoot.get(targetPlayer);
+
+            if (availableLoot.getSize() > 0) {
+                // Punch and make them drop random loot of type
+                HashSet<LootType> lootTypes = new HashSet<>();
+                for (Loot loot : availableLoot.getComponents()) {
+                    lootTypes.add(loot.getLootType());
                 }
+                return lootTypes.stream().map(lt -> new PunchAction(deckFromID, deckToID, cardIdx, targetPlayer,
+                        sourceCompID, targetCompartment.getComponentID(),
+                        lt, availableLoot.getComponentID(), playerIsCheyenne));
             }
-        }
-
-        if (actions.size() == 0)
-            actions.add(new PunchAction(deckFromID, deckToID, cardIdx, -1, -1, -1,
+            // punch opponent that cannot drop anymore loot
+            return Stream.of(new PunchAction(deckFromID, deckToID, cardIdx, targetPlayer,
+                    sourceCompID, targetCompartment.getComponentID(),
                     null, -1, playerIsCheyenne));
+        });
     }
 
     private void createShootingActions(ColtExpressGameState cegs, ArrayList<AbstractAction> actions, int player, int cardIdx) {
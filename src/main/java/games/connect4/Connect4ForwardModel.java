@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.actions.SetGridValueAction;
 import core.components.GridBoard;
+import core.components.GridLineIndex;
 import core.components.Token;
 import utilities.Pair;
 import utilities.Utils;
@@ -49,11 +50,6 @@ public class Connect4ForwardModel extends AbstractForwardModel {
         return actions;
     }
 
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new Connect4ForwardModel();
-    }
-
     @Override
     protected void _next(AbstractGameState currentState, AbstractAction action) {
         action.execute(currentState);
@@ -64,182 +60,44 @@ public class Connect4ForwardModel extends AbstractForwardModel {
             return;
         }
 
-        if (checkGameEnd((Connect4GameState) currentState)) {
+        SetGridValueAction<Token> move = (SetGridValueAction<Token>) action;
+        if (checkGameEnd((Connect4GameState) currentState, move.getX(), move.getY())) {
             return;
         }
         currentState.getTurnOrder().endPlayerTurn(currentState);
     }
 
     /**
-     * Checks if the game ended.
+     * Checks if the game ended. Any new line must pass through the token just placed, so only lines through
+     * that cell are checked.
      *
      * @param gameState - game state to check game end.
+     * @param x         - x coordinate of the token just placed
+     * @param y         - y coordinate of the token just placed
      */
-    private boolean checkGameEnd(Connect4GameState gameState) {
+    private boolean checkGameEnd(Connect4GameState gameState, int x, int y) {
         GridBoard<Token> gridBoard = gameState.getGridBoard();
         Connect4GameParameters c4gp = (Connect4GameParameters) gameState.getGameParameters();
-        boolean gap = false;
-        LinkedList<Pair<Integer, Integer>> winning = new LinkedList<>();;
-
-        // Check columns
-        for (int x = 0; x < gridBoard.getWidth(); x++) {
-            int count = 0;
-            String lastToken = null;
-            winning.clear();
-            for (int y = gridBoard.getHeight() - 1; y >= 0; y--) {
-                Token c = gridBoard.getElement(x, y);
-                if (c.getTokenType().equals(Connect4Constants.emptyCell)) {
-                    count = 0;
-                    lastToken = null;
-                    winning.clear();
-                    gap = true;
-                } else if (lastToken == null || !lastToken.equals(c.getTokenType())) {
-                    winning.clear();
-                    count = 1;
-                    lastToken = c.getTokenType();
-                    winning.add(new Pair<>(x, y));
-                } else {
-                    {
-                        count++;
-                        winning.add(new Pair<>(x, y));
-                        if (count == c4gp.winCount) {
-                            registerWinner(gameState, c, winning);
-                            return true;
-                        }
-                    }
-                    lastToken = c.getTokenType();
-                }
-            }
-        }
-
-        // Check rows
-        for (int y = gridBoard.getHeight() - 1; y >= 0; y--) {
-            int count = 0;
-            String lastToken = null;
-            winning.clear();
-            for (int x = 0; x < gridBoard.getWidth(); x++) {
-                Token c = gridBoard.getElement(x, y);
-                if (c.getTokenType().equals(Connect4Constants.emptyCell)) {
-                    count = 0;
-                    lastToken = null;
-                    winning.clear();
-                } else if (lastToken == null || !lastToken.equals(c.getTokenType())) {
-                    winning.clear();
-                    count = 1;
-                    lastToken = c.getTokenType();
-                    winning.add(new Pair<>(x, y));
-                } else {
-                    {
-                        count++;
-                        winning.add(new Pair<>(x, y));
-                        if (count == c4gp.winCount) {
-                            registerWinner(gameState, c, winning);
-                            return true;
-                        }
-                    }
-                    lastToken = c.getTokenType();
-                }
-            }
-        }
-
-        //Check main diagonals (from col 0)
-        for (int y = gridBoard.getHeight() - 1; y >= 0; y--) {
-            if (checkMainDiagonals(gameState, 0, y))
-                return true;
-
-        }
-
-        //Check main and inverse diagonals (from row 0)
-        for (int x = 1; x < gridBoard.getWidth(); x++) {
-            if (checkMainDiagonals(gameState, x, gridBoard.getHeight() - 1))
-                return true;
-            if (checkInvDiagonals(gameState, x, gridBoard.getHeight() - 1))
-                return true;
-        }
-
-        //Check inv diagonals (from last column)
-        for (int y = gridBoard.getHeight() - 2; y >= 0; y--) { //height -1 is checked in previous loop
-            if (checkInvDiagonals(gameState, gridBoard.getWidth()-1, y))
-                return true;
-        }
-
-        if (!gap) { //tie
-            gameState.setGameStatus(Utils.GameResult.DRAW);
-            Arrays.fill(gameState.getPlayerResults(), Utils.GameResult.DRAW);
+        GridLineIndex lineIndex = GridLineIndex.get(gridBoard.getWidth(), gridBoard.getHeight(), c4gp.winCount);
+        int[] line = lineIndex.findLine(gridBoard, x, y, Token::getTokenType);
+        if (line != null) {
+            LinkedList<Pair<Integer, Integer>> winning = new LinkedList<>();
+            for (int cell : line)
+                winning.add(new Pair<>(cell % gridBoard.getWidth(), cell / gridBoard.getWidth()));
+            registerWinner(gameState, gridBoard.getElement(x, y), winning);
             return true;
         }
 
-        return false;
-    }
-
-
-    private boolean checkMainDiagonals(Connect4GameState gameState, int xStart, int yStart)
-    {
-        GridBoard<Token> gridBoard = gameState.getGridBoard();
-        Connect4GameParameters c4gp = (Connect4GameParameters) gameState.getGameParameters();
-        int count = 0;
-        String lastToken = null;
-        LinkedList<Pair<Integer, Integer>> winning = new LinkedList<>();
-
-        for (int x = xStart, y = yStart; x < gridBoard.getWidth() && y >=0; x++, y--) {
-            Token c = gridBoard.getElement(x, y);
-
-            if (c.getTokenType().equals(Connect4Constants.emptyCell)) {
-                count = 0;
-                lastToken = null;
-                winning.clear();
-            } else if (lastToken == null || !lastToken.equals(c.getTokenType())) {
-                winning.clear();
-                count = 1;
-                lastToken = c.getTokenType();
-                winning.add(new Pair<>(x, y));
-            } else {
-                count++;
-                winning.add(new Pair<>(x, y));
-                if (count == c4gp.winCount) {
-                    registerWinner(gameState, c, winning);
-                    return true;
-                }
-                lastToken = c.getTokenType();
-            }
-        }
-        return false;
-    }
-
-    private boolean checkInvDiagonals(Connect4GameState gameState, int xStart, int yStart)
-    {
-        GridBoard<Token> gridBoard = gameState.getGridBoard();
-        Connect4GameParameters c4gp = (Connect4GameParameters) gameState.getGameParameters();
-        int count = 0;
-        String lastToken = null;
-        LinkedList<Pair<Integer, Integer>> winning = new LinkedList<>();
-
-        for (int x = xStart, y = yStart; x >= 0 && y >= 0; x--, y--) {
-            Token c = gridBoard.getElement(x, y);
-
-            if (c.getTokenType().equals(Connect4Constants.emptyCell)) {
-                count = 0;
-                lastToken = null;
-                winning.clear();
-            } else if (lastToken == null || !lastToken.equals(c.getTokenType())) {
-                winning.clear();
-                count = 1;
-                lastToken = c.getTokenType();
-                winning.add(new Pair<>(x, y));
-            } else {
-                count++;
-                winning.add(new Pair<>(x, y));
-                if (count == c4gp.winCount) {
-                    registerWinner(gameState, c, winning);
-                    return true;
-                }
-                lastToken = c.getTokenType();
-            }
+        // the board is full when the top row is
+        for (int col = 0; col < gridBoard.getWidth(); col++) {
+            if (gridBoard.getElement(col, 0).getTokenType().equals(Connect4Constants.emptyCell))
+                return false;
         }
-        return false;
+        gameState.setGameStatus(Utils.GameResult.DRAW);
+        Arrays.fill(gameState.getPlayerResults(), Utils.GameResult.DRAW);
+        return true;
     }
 
-
     @Override
     protected void endGame(AbstractGameState gameState) {
         if (gameState.getCoreGameParameters().verbose) {
@@ -254,7 +112,10 @@ public class Connect4ForwardModel extends AbstractForwardModel {
      */
     private void registerWinner(Connect4GameState gameState, Token winnerSymbol, LinkedList<Pair<Integer, Integer>> winPos) {
         gameState.setGameStatus(Utils.GameResult.GAME_END);
-        int winningPlayer = Connect4Constants.playerMapping.indexOf(winnerSymbol);
+        // by type, as the token on the board need not be the same component as the one in playerMapping
+        int winningPlayer = 0;
+        while (!Connect4Constants.playerMapping.get(winningPlayer).getTokenType().equals(winnerSymbol.getTokenType()))
+            winningPlayer++;
         gameState.setPlayerResult(Utils.GameResult.WIN, winningPlayer);
         gameState.setPlayerResult(Utils.GameResult.LOSE, 1 - winningPlayer);
         gameState.registerWinningCells(winPos);
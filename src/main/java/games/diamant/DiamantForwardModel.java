@@ -238,11 +238,6 @@ public class DiamantForwardModel extends AbstractForwardModel {
         return actions;
     }
 
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new DiamantForwardModel();
-    }
-
     /**
      * Play the card
      *
@@ -40,8 +40,7 @@ public class DiceMonasteryForwardModel extends AbstractForwardModel {
     protected void _setup(AbstractGameState firstState) {
         DiceMonasteryGameState state = (DiceMonasteryGameState) firstState;
         DiceMonasteryParams params = (DiceMonasteryParams) state.getGameParameters();
-        AbstractGameData _data = new AbstractGameData();
-        _data.load(params.getDataPath());
+        AbstractGameData _data = AbstractGameData.loadShared(params.getDataPath());
 
         for (int p = 0; p < state.getNPlayers(); p++) {
             state.createMonk(4, p);
@@ -350,10 +349,4 @@ public class DiceMonasteryForwardModel extends AbstractForwardModel {
             .flatMap(b -> IntStream.rangeClosed(0, 3)
                     .mapToObj(m -> new Pair<>(b, m)))
             .collect(toList());
-
-    @Override
-    protected DiceMonasteryForwardModel _copy() {
-        // no mutable state
-        return this;
-    }
 }
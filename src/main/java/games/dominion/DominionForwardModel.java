@@ -2,16 +2,18 @@ package games.dominion;
 
 import core.*;
 import core.actions.*;
+import core.interfaces.IActionGenerator;
 import games.dominion.actions.*;
 import games.dominion.cards.*;
 import games.dominion.DominionConstants.*;
 import utilities.Utils;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.*;
 
-public class DominionForwardModel extends AbstractForwardModel {
+public class DominionForwardModel extends AbstractForwardModel implements IActionGenerator {
     /**
      * Performs initial game setup according to game rules
      * - sets up decks and shuffles
@@ -145,28 +147,30 @@ public class DominionForwardModel extends AbstractForwardModel {
                 }
                 return Collections.singletonList(new EndPhase());
             case "Buy":
-                // we return every available card for purchase within our price range
-                int budget = state.availableSpend(playerID);
-                List<AbstractAction> options = state.cardsToBuy().stream()
-                        .filter(ct -> ct.cost <= budget)
-                        .sorted(Comparator.comparingInt(c -> -c.cost))
-                        .map(ct -> new BuyCard(ct, playerID))
-                        .collect(toList());
-                options.add(new EndPhase());
-                return options;
+                return buyActions(state).collect(toList());
             default:
                 throw new AssertionError("Unknown Game Phase " + state.getGamePhase());
         }
     }
 
     /**
-     * Gets a copy of the FM with a new random number generator.
-     *
-     * @return - new forward model with different random seed (keeping logic).
+     * In the Buy phase each BuyCard is only created as it is pulled from the Iterator.
      */
     @Override
-    protected AbstractForwardModel _copy() {
-        // no internal state as yet
-        return this;
+    public Iterator<AbstractAction> generateAvailableActions(AbstractGameState gameState) {
+        DominionGameState state = (DominionGameState) gameState;
+        if (state.getGamePhase() == DominionGameState.DominionGamePhase.Buy)
+            return buyActions(state).iterator();
+        return _computeAvailableActions(state).iterator();
+    }
+
+    private Stream<AbstractAction> buyActions(DominionGameState state) {
+        // we return every available card for purchase within our price range (cardsToBuy() has the most expensive first)
+        int playerID = state.getCurrentPlayer();
+        int budget = state.availableSpend(playerID);
+        return Stream.concat(state.cardsToBuy().stream()
+                        .filter(ct -> ct.cost <= budget)
+                        .map(ct -> new BuyCard(ct, playerID)),
+                Stream.of(new EndPhase()));
     }
 }
@@ -102,9 +102,4 @@ public class DBForwardModel extends AbstractForwardModel {
 
         return new ArrayList<>(actions);
     }
-
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new DBForwardModel();
-    }
 }
@@ -0,0 +1,51 @@
+package games.dotsboxes;
+
+import core.AbstractGameState;
+import players.solver.IStateKey;
+import utilities.Vector2D;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+
+/**
+ * Exact key for a Dots and Boxes position, for use by the solver. The outcome from any position depends only on
+ * which edges have been drawn (not who drew them), the difference in boxes completed so far, and who is to move.
+ * Edges are numbered in a fixed order (by coordinates), so keys are the same across runs.
+ */
+public class DBStateKey implements IStateKey {
+
+    private Set<DBEdge> indexedEdges;
+    private DBEdge[] orderedEdges;
+
+    @Override
+    public long getKey(AbstractGameState state) {
+        DBGameState dbgs = (DBGameState) state;
+        if (dbgs.edges != indexedEdges) {
+            // all copies of a game share the same set of edges, so this is only needed once per game
+            DBEdge[] edges = dbgs.edges.toArray(new DBEdge[0]);
+            Arrays.sort(edges, Comparator.comparingInt((DBEdge e) -> min(e).getY()).thenComparingInt(e -> min(e).getX())
+                    .thenComparingInt(e -> max(e).getY()).thenComparingInt(e -> max(e).getX()));
+            int scoreRange = 2 * dbgs.cells.size() + 1;
+            if (edges.length + 64 - Long.numberOfLeadingZeros(scoreRange) + 1 > 63)
+                throw new IllegalArgumentException("Grid with " + edges.length + " edges is too large for an exact key");
+            orderedEdges = edges;
+            indexedEdges = dbgs.edges;
+        }
+
+        long key = 0;
+        for (DBEdge edge : orderedEdges)
+            key = (key << 1) | (dbgs.edgeToOwnerMap.containsKey(edge) ? 1 : 0);
+        int nCells = dbgs.cells.size();
+        key = key * (2 * nCells + 1) + (dbgs.nCellsPerPlayer[0] - dbgs.nCellsPerPlayer[1] + nCells);
+        return key * 2 + dbgs.getCurrentPlayer();
+    }
+
+    private static Vector2D min(DBEdge e) {
+        return e.from.getY() < e.to.getY() || (e.from.getY() == e.to.getY() && e.from.getX() < e.to.getX()) ? e.from : e.to;
+    }
+
+    private static Vector2D max(DBEdge e) {
+        return min(e) == e.from ? e.to : e.from;
+    }
+}
@@ -201,11 +201,6 @@ public class ExplodingKittensForwardModel extends AbstractForwardModel {
         return actions;
     }
 
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new ExplodingKittensForwardModel();
-    }
-
     private ArrayList<AbstractAction> playerActions(ExplodingKittensGameState ekgs, int playerID){
         ArrayList<AbstractAction> actions = new ArrayList<>();
         Deck<ExplodingKittensCard> playerDeck = ekgs.playerHandCards.get(playerID);
@@ -320,11 +320,6 @@ public class LoveLetterForwardModel extends AbstractForwardModel {
         return actions;
     }
 
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new LoveLetterForwardModel();
-    }
-
     /**
      * Computes actions available for the given player.
      * @param playerID - ID of player to calculate actions for.
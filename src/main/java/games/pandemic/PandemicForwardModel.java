@@ -1,6 +1,5 @@
 package games.pandemic;
 
-import core.AbstractForwardModel;
 import core.AbstractGameData;
 import core.AbstractGameState;
 import core.AbstractParameters;
@@ -58,7 +57,7 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
         RuleNode infectCities = new InfectCities(pp.infectionRate, pp.maxCubesPerCity, pp.nCubesInfection);
         RuleNode forceDiscardReaction1 = new ForceDiscardReaction();
         RuleNode forceDiscardReaction2 = new ForceDiscardReaction();
-        RuleNode epidemic2 = new EpidemicIntensify(new Random(pp.getRandomSeed()));
+        RuleNode epidemic2 = new EpidemicIntensify();
         RuleNode forceRPreaction = new ForceRPReaction();
         RuleNode epidemic1 = new EpidemicInfect(pp.maxCubesPerCity, pp.nCubesEpidemic);
         RuleNode drawCards = new DrawCards();
@@ -124,9 +123,6 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
 
         nextPlayerRule.setNext(root);
 
-        // Next rule to execute is root
-        nextRule = root;
-
         // Draw game tree from root
 //        new GameFlowDiagram(root);
     }
@@ -154,8 +150,7 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
         PandemicGameState state = (PandemicGameState) firstState;
         PandemicParameters pp = (PandemicParameters) state.getGameParameters();
 
-        AbstractGameData _data = new AbstractGameData();
-        _data.load(pp.getDataPath());
+        AbstractGameData _data = AbstractGameData.loadShared(pp.getDataPath());
 
         state.tempDeck = new Deck<>("Temp Deck", VISIBLE_TO_ALL);
         state.areas = new HashMap<>();
@@ -364,11 +359,6 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
         else return getPlayerActions(pgs);
     }
 
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new PandemicForwardModel(copyRoot());
-    }
-
     @Override
     protected void endGame(AbstractGameState gameState) {
         for (int i = 0; i < gameState.getNPlayers(); i++) {
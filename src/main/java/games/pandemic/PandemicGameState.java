@@ -7,6 +7,8 @@ import core.properties.*;
 import core.AbstractGameState;
 import core.components.Area;
 import core.AbstractParameters;
+import core.rules.IRuleBasedGameState;
+import core.rules.RuleExecution;
 import games.GameType;
 import utilities.Hash;
 import utilities.Utils;
@@ -18,7 +20,7 @@ import static core.CoreConstants.*;
 import static games.pandemic.PandemicGameState.PandemicGamePhase.Forecast;
 
 
-public class PandemicGameState extends AbstractGameState implements IFeatureRepresentation {
+public class PandemicGameState extends AbstractGameState implements IFeatureRepresentation, IRuleBasedGameState {
 
     // The Pandemic game phase enum distinguishes 3 more phases on top of the default ones for players forced to
     // discard cards, a player wishing to play a "Forecast" event card
@@ -42,8 +44,14 @@ public class PandemicGameState extends AbstractGameState implements IFeatureRepr
     boolean epidemic;
     // How many cards the current player has drawn in their turn
     int nCardsDrawn;
+    // Player whose hand went over capacity with the last card exchanged (-1 if none), for the rules to check
+    int playerHandOverCapacity = -1;
     // Keeps track of locations of all research stations (list of names of cities / board nodes)
     ArrayList<String> researchStationLocations;
+    // Position of the game in the rule graph of the forward model
+    RuleExecution ruleExecution = new RuleExecution();
+    // Seed for the next shuffle made by the rules during play (e.g. of the infection discard pile in an epidemic)
+    long shuffleSeed;
 
     @Override
     protected List<Component> _getAllComponents() {
@@ -126,7 +134,10 @@ public class PandemicGameState extends AbstractGameState implements IFeatureRepr
         quietNight = false;
         epidemic = false;
         nCardsDrawn = 0;
+        playerHandOverCapacity = -1;
         researchStationLocations = new ArrayList<>();
+        ruleExecution = new RuleExecution();
+        shuffleSeed = gameParameters.getRandomSeed();
     }
 
     @Override
@@ -138,15 +149,17 @@ public class PandemicGameState extends AbstractGameState implements IFeatureRepr
         return quietNight == that.quietNight &&
                 epidemic == that.epidemic &&
                 nCardsDrawn == that.nCardsDrawn &&
+                playerHandOverCapacity == that.playerHandOverCapacity &&
                 Objects.equals(areas, that.areas) &&
                 Objects.equals(tempDeck, that.tempDeck) &&
                 Objects.equals(world, that.world) &&
-                Objects.equals(researchStationLocations, that.researchStationLocations);
+                Objects.equals(researchStationLocations, that.researchStationLocations) &&
+                Objects.equals(ruleExecution, that.ruleExecution);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), areas, tempDeck, world, quietNight, epidemic, nCardsDrawn, researchStationLocations);
+        return Objects.hash(super.hashCode(), areas, tempDeck, world, quietNight, epidemic, nCardsDrawn, playerHandOverCapacity, researchStationLocations, ruleExecution);
     }
 
     /**
@@ -194,6 +207,12 @@ public class PandemicGameState extends AbstractGameState implements IFeatureRepr
     public int getNCardsDrawn() {
         return nCardsDrawn;
     }
+    public void setPlayerHandOverCapacity(int playerId) {
+        playerHandOverCapacity = playerId;
+    }
+    public int getPlayerHandOverCapacity() {
+        return playerHandOverCapacity;
+    }
     public void clearTempDeck() {
         tempDeck.clear();
     }
@@ -211,6 +230,19 @@ public class PandemicGameState extends AbstractGameState implements IFeatureRepr
     public GraphBoard getWorld() {
         return world;
     }
+    /**
+     * @return a Random for a shuffle made by the rules. Each call gives a different sequence, and a full copy of the
+     * state gives the same sequences as the original.
+     */
+    public Random nextShuffleRandom() {
+        Random rnd = new Random(shuffleSeed);
+        shuffleSeed = rnd.nextLong();
+        return new Random(rnd.nextLong());
+    }
+    @Override
+    public RuleExecution getRuleExecution() {
+        return ruleExecution;
+    }
 
     @Override
     protected AbstractGameState _copy(int playerId) {
@@ -248,8 +280,12 @@ public class PandemicGameState extends AbstractGameState implements IFeatureRepr
         gs.quietNight = quietNight;
         gs.epidemic = epidemic;
         gs.nCardsDrawn = nCardsDrawn;
+        gs.playerHandOverCapacity = playerHandOverCapacity;
 
         gs.researchStationLocations = new ArrayList<>(researchStationLocations);
+        gs.ruleExecution = ruleExecution.copy();
+        // a player's copy must not be able to predict future shuffles, so it uses the (new) seed of its parameters
+        gs.shuffleSeed = playerId == -1 ? shuffleSeed : gs.gameParameters.getRandomSeed();
 
         return gs;
     }
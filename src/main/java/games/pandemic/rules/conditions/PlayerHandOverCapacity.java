@@ -12,10 +12,9 @@ import static core.CoreConstants.playerHandHash;
 
 @SuppressWarnings("unchecked")
 public class PlayerHandOverCapacity extends ConditionNode {
-    private int playerId;
 
     public PlayerHandOverCapacity() {
-        this.playerId = -2;  // Current player by default
+        super();
     }
 
     /**
@@ -24,7 +23,6 @@ public class PlayerHandOverCapacity extends ConditionNode {
      */
     public PlayerHandOverCapacity(PlayerHandOverCapacity playerHandOverCapacity) {
         super(playerHandOverCapacity);
-        this.playerId = playerHandOverCapacity.playerId;
     }
 
     @Override
@@ -32,9 +30,8 @@ public class PlayerHandOverCapacity extends ConditionNode {
         Deck<Card> playerDeck;
         PandemicGameState pgs = (PandemicGameState)gs;
 
-        if (parent instanceof PlayerAction) {
-            playerId = ((PlayerAction) parent).getPlayerHandOverCapacity();
-        }
+        // After a player action, check the player whose hand it put over capacity; otherwise the current player
+        int playerId = parent instanceof PlayerAction ? pgs.getPlayerHandOverCapacity() : -2;
 
         if (playerId == -2) {
             // This is the current player
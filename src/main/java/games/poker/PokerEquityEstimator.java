@@ -0,0 +1,243 @@
+package games.poker;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+
+import static utilities.Utils.GameResult.LOSE;
+
+/**
+ * Estimates the equity of a poker hand (the share of the pot it can expect to win at showdown) by Monte Carlo
+ * sampling of the unknown cards.
+ * <p>
+ * Only the player's own hole cards and the community cards are used; opponents' holdings and the rest of the board
+ * are dealt at random from the remaining cards (held as a bitmask, and sampled by a partial shuffle), and each
+ * run-out is scored with PokerHandEvaluator. Sampling stops as soon as any of these is reached:
+ * - maxSamples samples have been taken;
+ * - timeBudgetMs milliseconds have passed (if > 0);
+ * - the confidence interval on the equity is narrower than +/- targetHalfWidth (if > 0).
+ * <p>
+ * With more than one thread, the sampling is split between the calling thread and tasks in the common ForkJoinPool
+ * (so there are no threads of our own to shut down). Each thread claims a batch of samples from the common tally
+ * before taking them, and batches are cut short at the end of the budget, so maxSamples is never exceeded.
+ */
+public class PokerEquityEstimator {
+
+    public static class Equity {
+        public final double win;        // probability of winning outright
+        public final double tie;        // probability of splitting the pot
+        public final double equity;     // expected share of the pot (win + tie / number of players tied)
+        public final double halfWidth;  // half-width of the confidence interval on equity
+        public final long samples;
+
+        Equity(double win, double tie, double equity, double halfWidth, long samples) {
+            this.win = win;
+            this.tie = tie;
+            this.equity = equity;
+            this.halfWidth = halfWidth;
+            this.samples = samples;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Equity %.3f +/- %.3f (win %.3f, tie %.3f, %d samples)", equity, halfWidth, win, tie, samples);
+        }
+    }
+
+    private static final long FULL_DECK = (1L << 52) - 1;
+    private static final int BOARD_SIZE = 5;
+    private static final int HOLE_SIZE = 2;
+    // samples taken by a thread between updates of the shared tally
+    private static final int BATCH_SIZE = 256;
+    // never stop on the confidence interval before this many samples, as the variance estimate is unreliable
+    private static final int MIN_SAMPLES = 1000;
+
+    private final int nThreads;
+    private final long maxSamples;
+    private final long timeBudgetMs;
+    private final double targetHalfWidth;
+    private final double z;
+    private final SplittableRandom rnd;
+
+    /**
+     * @param nThreads        - number of threads to sample with (including the calling thread)
+     * @param maxSamples      - maximum number of samples
+     * @param timeBudgetMs    - maximum time to spend, in milliseconds; 0 or less for no limit
+     * @param targetHalfWidth - stop once the confidence interval is this narrow; 0 or less to ignore
+     * @param z               - z-score of the confidence interval (1.96 for 95%)
+     * @param seed            - random seed
+     */
+    public PokerEquityEstimator(int nThreads, long maxSamples, long timeBudgetMs, double targetHalfWidth, double z, long seed) {
+        if (nThreads < 1)
+            throw new IllegalArgumentException("At least one thread is needed");
+        this.nThreads = nThreads;
+        this.maxSamples = maxSamples;
+        this.timeBudgetMs = timeBudgetMs;
+        this.targetHalfWidth = targetHalfWidth;
+        this.z = z;
+        this.rnd = new SplittableRandom(seed);
+    }
+
+    /**
+     * Equity of the given player's hand against all other players still in the round.
+     *
+     * @param pgs      - game state
+     * @param playerId - the player to estimate equity for
+     * @return - the estimate; zero for a player who is no longer in the round
+     */
+    public Equity estimate(PokerGameState pgs, int playerId) {
+        if (pgs.playerFold[playerId] || pgs.getPlayerResults()[playerId] == LOSE)
+            return new Equity(0, 0, 0, 0, 0);
+        int nOpponents = 0;
+        for (int i = 0; i < pgs.getNPlayers(); i++) {
+            if (i != playerId && !pgs.playerFold[i] && pgs.getPlayerResults()[i] != LOSE)
+                nOpponents++;
+        }
+        return estimate(PokerHandEvaluator.pack(pgs.playerDecks.get(playerId)),
+                PokerHandEvaluator.pack(pgs.communityCards), nOpponents);
+    }
+
+    /**
+     * @param hole       - packed hole cards of the player
+     * @param board      - packed community cards dealt so far
+     * @param nOpponents - number of opponents, whose cards are unknown
+     * @return - the estimate
+     */
+    public Equity estimate(long hole, long board, int nOpponents) {
+        if ((hole & board) != 0)
+            throw new IllegalArgumentException("Hole and community cards overlap");
+        if (Long.bitCount(hole) != HOLE_SIZE || Long.bitCount(board) > BOARD_SIZE)
+            throw new IllegalArgumentException("Expected " + HOLE_SIZE + " hole cards and at most " + BOARD_SIZE + " community cards");
+        if (nOpponents == 0)
+            return new Equity(1, 0, 1, 0, 0);
+
+        long live = FULL_DECK & ~hole & ~board;
+        int boardNeeded = BOARD_SIZE - Long.bitCount(board);
+        if (boardNeeded + nOpponents * HOLE_SIZE > Long.bitCount(live))
+            throw new IllegalArgumentException("Not enough cards to deal to " + nOpponents + " opponents");
+
+        Tally tally = new Tally(timeBudgetMs > 0 ? System.currentTimeMillis() + timeBudgetMs : Long.MAX_VALUE);
+        if (nThreads == 1) {
+            sample(tally, hole, board, live, boardNeeded, nOpponents, nextRandom());
+        } else {
+            ExecutorService workers = ForkJoinPool.commonPool();
+            Future<?>[] futures = new Future<?>[nThreads - 1];
+            for (int t = 0; t < futures.length; t++) {
+                SplittableRandom threadRnd = nextRandom();
+                futures[t] = workers.submit(() -> sample(tally, hole, board, live, boardNeeded, nOpponents, threadRnd));
+            }
+            sample(tally, hole, board, live, boardNeeded, nOpponents, nextRandom());
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (InterruptedException e) {
+                    tally.stop();
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        }
+        return tally.result();
+    }
+
+    // SplittableRandom is not thread-safe, and the same estimator may be used from more than one game thread
+    private synchronized SplittableRandom nextRandom() {
+        return rnd.split();
+    }
+
+    private void sample(Tally tally, long hole, long board, long live, int boardNeeded, int nOpponents, SplittableRandom random) {
+        int[] deck = new int[Long.bitCount(live)];
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = Long.numberOfTrailingZeros(live);
+            live &= live - 1;
+        }
+        int nDealt = boardNeeded + nOpponents * HOLE_SIZE;
+
+        int batch;
+        while ((batch = tally.claim(BATCH_SIZE)) > 0) {
+            int wins = 0, ties = 0;
+            double equity = 0, equitySq = 0;
+            for (int s = 0; s < batch; s++) {
+                // partial Fisher-Yates shuffle: only the cards actually dealt
+                for (int i = 0; i < nDealt; i++) {
+                    int j = i + random.nextInt(deck.length - i);
+                    int tmp = deck[i];
+                    deck[i] = deck[j];
+                    deck[j] = tmp;
+                }
+                long fullBoard = board;
+                for (int i = 0; i < boardNeeded; i++)
+                    fullBoard |= 1L << deck[i];
+                int mine = PokerHandEvaluator.evaluate(hole | fullBoard);
+                int tied = 1;
+                boolean lost = false;
+                for (int o = 0, c = boardNeeded; o < nOpponents; o++, c += HOLE_SIZE) {
+                    int theirs = PokerHandEvaluator.evaluate(fullBoard | 1L << deck[c] | 1L << deck[c + 1]);
+                    if (theirs > mine) {
+                        lost = true;
+                        break;
+                    }
+                    if (theirs == mine) tied++;
+                }
+                if (lost) continue;
+                double share = 1.0 / tied;
+                if (tied == 1) wins++;
+                else ties++;
+                equity += share;
+                equitySq += share * share;
+            }
+            tally.add(batch, wins, ties, equity, equitySq);
+        }
+    }
+
+    private class Tally {
+        private final long deadline;
+        private long claimed, samples, wins, ties;
+        private double equity, equitySq;
+        private volatile boolean done;
+
+        Tally(long deadline) {
+            this.deadline = deadline;
+        }
+
+        void stop() {
+            done = true;
+        }
+
+        /**
+         * @return the number of samples the caller may take next: n, or fewer if that would exceed maxSamples, or 0 if
+         * sampling has finished
+         */
+        synchronized int claim(int n) {
+            if (done)
+                return 0;
+            int k = (int) Math.min(n, maxSamples - claimed);
+            claimed += k;
+            return Math.max(k, 0);
+        }
+
+        synchronized void add(int n, int w, int t, double e, double eSq) {
+            samples += n;
+            wins += w;
+            ties += t;
+            equity += e;
+            equitySq += eSq;
+            if (samples >= maxSamples || System.currentTimeMillis() >= deadline)
+                done = true;
+            else if (targetHalfWidth > 0 && samples >= MIN_SAMPLES && halfWidth() <= targetHalfWidth)
+                done = true;
+        }
+
+        private double halfWidth() {
+            double mean = equity / samples;
+            double variance = Math.max(0, equitySq / samples - mean * mean);
+            return z * Math.sqrt(variance / samples);
+        }
+
+        synchronized Equity result() {
+            if (samples == 0)
+                return new Equity(0, 0, 0, Double.POSITIVE_INFINITY, 0);
+            return new Equity((double) wins / samples, (double) ties / samples, equity / samples, halfWidth(), samples);
+        }
+    }
+}
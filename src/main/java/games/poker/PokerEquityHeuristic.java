@@ -0,0 +1,91 @@
+package games.poker;
+
+import core.AbstractGameState;
+import core.interfaces.IStateHeuristic;
+import evaluation.TunableParameters;
+import games.poker.components.MoneyPot;
+import utilities.Utils;
+
+/**
+ * Values a Poker state as the money a player can expect to hold once the current round reaches showdown:
+ * their current money, plus their equity (from PokerEquityEstimator) times the pots they are eligible for.
+ * This is scaled by the maximum money, as in PokerHeuristic. Future betting is ignored.
+ */
+public class PokerEquityHeuristic extends TunableParameters implements IStateHeuristic {
+
+    int threads = 1;
+    int maxSamples = 5000;
+    int timeBudget = 0;             // in milliseconds, 0 for no limit
+    double halfWidth = 0.01;        // stop sampling once equity is known to +/- this, at 95% confidence
+    PokerEquityEstimator estimator;
+
+    public PokerEquityHeuristic() {
+        addTunableParameter("threads", 1);
+        addTunableParameter("maxSamples", 5000);
+        addTunableParameter("timeBudget", 0);
+        addTunableParameter("halfWidth", 0.01);
+        estimator = createEstimator();
+    }
+
+    private PokerEquityEstimator createEstimator() {
+        return new PokerEquityEstimator(threads, maxSamples, timeBudget, halfWidth, 1.96, getRandomSeed());
+    }
+
+    @Override
+    public void _reset() {
+        threads = (int) getParameterValue("threads");
+        maxSamples = (int) getParameterValue("maxSamples");
+        timeBudget = (int) getParameterValue("timeBudget");
+        halfWidth = (double) getParameterValue("halfWidth");
+        estimator = createEstimator();
+    }
+
+    @Override
+    protected PokerEquityHeuristic _copy() {
+        PokerEquityHeuristic retValue = new PokerEquityHeuristic();
+        retValue.threads = threads;
+        retValue.maxSamples = maxSamples;
+        retValue.timeBudget = timeBudget;
+        retValue.halfWidth = halfWidth;
+        retValue.estimator = retValue.createEstimator();
+        return retValue;
+    }
+
+    @Override
+    protected boolean _equals(Object o) {
+        if (o instanceof PokerEquityHeuristic) {
+            PokerEquityHeuristic other = (PokerEquityHeuristic) o;
+            return other.threads == threads && other.maxSamples == maxSamples &&
+                    other.timeBudget == timeBudget && other.halfWidth == halfWidth;
+        }
+        return false;
+    }
+
+    @Override
+    public PokerEquityHeuristic instantiate() {
+        return _copy();
+    }
+
+    @Override
+    public double evaluateState(AbstractGameState gs, int playerId) {
+        PokerGameState pgs = (PokerGameState) gs;
+        PokerGameParameters params = (PokerGameParameters) pgs.getGameParameters();
+
+        double maxMoney = params.nWinMoney;
+        if (!params.endMinMoney) {
+            maxMoney = gs.getNPlayers() * params.nStartingMoney; // all of the money in the game
+        }
+        double money = pgs.playerMoney[playerId].getValue();
+        if (gs.getPlayerResults()[playerId] != Utils.GameResult.GAME_ONGOING)
+            return money / maxMoney;
+
+        int pot = 0;
+        for (MoneyPot moneyPot : pgs.moneyPots) {
+            if (moneyPot.getPlayerContribution().containsKey(playerId))
+                pot += moneyPot.getValue();
+        }
+        if (pot == 0 || pgs.playerDecks.get(playerId).getSize() == 0)
+            return money / maxMoney;
+        return (money + estimator.estimate(pgs, playerId).equity * pot) / maxMoney;
+    }
+}
@@ -0,0 +1,241 @@
+package games.poker;
+
+import core.components.Deck;
+import core.components.FrenchCard;
+
+import java.util.Arrays;
+
+import static games.poker.PokerGameState.PokerHand.*;
+
+/**
+ * Table-driven evaluator for poker hands of up to 7 cards.
+ * <p>
+ * Cards are packed into the bits of a long, with card index = suit * 13 + (number - 2); so the 13 bits of each
+ * suit sit side by side, and a hand is just the OR of its cards. All the work is done once, when the class is loaded:
+ * - if any suit holds 5 or more cards the hand is a flush, and is looked up directly from the 13-bit mask of that
+ * suit (with 7 or fewer cards nothing can beat a flush other than a straight flush, which the same table covers);
+ * - otherwise only the count of each rank matters, and these counts are mapped to a perfect (minimal) hash by
+ * ranking them lexicographically amongst all count vectors with the same number of cards.
+ * <p>
+ * evaluate() returns a value that is higher for better hands, and equal for hands that tie. The top 4 bits hold
+ * the category (high card up to straight flush), and the rest the ranks that break ties within the category.
+ */
+public class PokerHandEvaluator {
+
+    public static final int MAX_CARDS = 7;
+
+    static final int HIGH_CARD = 0, ONE_PAIR = 1, TWO_PAIR = 2, THREE_OF_A_KIND = 3, STRAIGHT = 4, FLUSH = 5,
+            FULL_HOUSE = 6, FOUR_OF_A_KIND = 7, STRAIGHT_FLUSH = 8;
+
+    private static final int N_RANKS = 13;
+    private static final int SUIT_MASK = (1 << N_RANKS) - 1;
+    private static final int ACE = N_RANKS - 1;
+
+    // highest rank of a straight in a 13-bit rank mask, or -1 if there is none
+    private static final byte[] straightTop = new byte[1 << N_RANKS];
+    // value of the best hand made from a single suit, for masks with at least 5 bits set
+    private static final int[] flushValue = new int[1 << N_RANKS];
+    // number of rank-count vectors over r ranks (each count 0 to 4) that sum to s
+    private static final int[][] nVectors = new int[N_RANKS + 1][MAX_CARDS + 1];
+    // hashOffset[rank][cards left][count] - the hash contribution of 'count' cards of this rank
+    private static final int[][][] hashOffset = new int[N_RANKS][MAX_CARDS + 1][5];
+    // value of the best non-flush hand, indexed by [number of cards][hash of the rank counts]
+    private static final int[][] rankValue = new int[MAX_CARDS + 1][];
+
+    static {
+        for (int mask = 0; mask < straightTop.length; mask++) {
+            straightTop[mask] = (byte) findStraight(mask);
+            if (Integer.bitCount(mask) >= 5) {
+                if (straightTop[mask] >= 0)
+                    flushValue[mask] = value(STRAIGHT_FLUSH, straightTop[mask]);
+                else
+                    flushValue[mask] = value(FLUSH, topRanks(mask, 5));
+            }
+        }
+
+        nVectors[0][0] = 1;
+        for (int r = 1; r <= N_RANKS; r++)
+            for (int s = 0; s <= MAX_CARDS; s++)
+                for (int c = 0; c <= 4 && c <= s; c++)
+                    nVectors[r][s] += nVectors[r - 1][s - c];
+        for (int rank = 0; rank < N_RANKS; rank++)
+            for (int left = 0; left <= MAX_CARDS; left++)
+                for (int count = 1; count <= 4 && count <= left; count++)
+                    hashOffset[rank][left][count] = hashOffset[rank][left][count - 1]
+                            + nVectors[N_RANKS - 1 - rank][left - count + 1];
+
+        for (int n = 0; n <= MAX_CARDS; n++)
+            rankValue[n] = new int[nVectors[N_RANKS][n]];
+        fillRankValues(new int[N_RANKS], 0, 0);
+    }
+
+    /**
+     * @param card - a card
+     * @return the bit of this card in a packed hand
+     */
+    public static long cardBit(FrenchCard card) {
+        return 1L << (card.suite.ordinal() * N_RANKS + card.number - 2);
+    }
+
+    /**
+     * @param deck - the cards to pack
+     * @return the packed cards (as used by evaluate())
+     */
+    public static long pack(Deck<FrenchCard> deck) {
+        long cards = 0;
+        for (FrenchCard card : deck.getComponents())
+            cards |= cardBit(card);
+        return cards;
+    }
+
+    /**
+     * Returns the value of the best 5-card hand that can be made from the given cards.
+     *
+     * @param cards - packed cards, at most 7
+     * @return - hand value, higher is better
+     */
+    public static int evaluate(long cards) {
+        int s0 = (int) cards & SUIT_MASK;
+        int s1 = (int) (cards >>> N_RANKS) & SUIT_MASK;
+        int s2 = (int) (cards >>> (2 * N_RANKS)) & SUIT_MASK;
+        int s3 = (int) (cards >>> (3 * N_RANKS)) & SUIT_MASK;
+        if (Integer.bitCount(s0) >= 5) return flushValue[s0];
+        if (Integer.bitCount(s1) >= 5) return flushValue[s1];
+        if (Integer.bitCount(s2) >= 5) return flushValue[s2];
+        if (Integer.bitCount(s3) >= 5) return flushValue[s3];
+
+        int left = Long.bitCount(cards);
+        if (left > MAX_CARDS)
+            throw new IllegalArgumentException("Too many cards to evaluate: " + left);
+        int[] hand = rankValue[left];
+        int hash = 0;
+        for (int rank = 0; left > 0; rank++) {
+            int count = (s0 >>> rank & 1) + (s1 >>> rank & 1) + (s2 >>> rank & 1) + (s3 >>> rank & 1);
+            hash += hashOffset[rank][left][count];
+            left -= count;
+        }
+        return hand[hash];
+    }
+
+    /**
+     * @param value - a hand value, as returned by evaluate()
+     * @return the type of the hand
+     */
+    public static PokerGameState.PokerHand handType(int value) {
+        switch (value >>> 20) {
+            case STRAIGHT_FLUSH:
+                return (value >>> 16 & 0xF) == ACE + 1 ? RoyalFlush : StraightFlush;
+            case FOUR_OF_A_KIND:
+                return FourOfAKind;
+            case FULL_HOUSE:
+                return FullHouse;
+            case FLUSH:
+                return Flush;
+            case STRAIGHT:
+                return Straight;
+            case THREE_OF_A_KIND:
+                return ThreeOfAKind;
+            case TWO_PAIR:
+                return TwoPair;
+            case ONE_PAIR:
+                return OnePair;
+            default:
+                return HighCard;
+        }
+    }
+
+    /**
+     * Recursively enumerates every vector of rank counts with at most MAX_CARDS cards, and stores the value of
+     * the best non-flush hand for each.
+     */
+    private static void fillRankValues(int[] counts, int rank, int nCards) {
+        if (rank == N_RANKS) {
+            int hash = 0;
+            int left = nCards;
+            for (int r = 0; r < N_RANKS; r++) {
+                hash += hashOffset[r][left][counts[r]];
+                left -= counts[r];
+            }
+            rankValue[nCards][hash] = bestNonFlush(counts);
+            return;
+        }
+        for (int c = 0; c <= 4 && nCards + c <= MAX_CARDS; c++) {
+            counts[rank] = c;
+            fillRankValues(counts, rank + 1, nCards + c);
+        }
+        counts[rank] = 0;
+    }
+
+    private static int bestNonFlush(int[] counts) {
+        // ranks with each count, from highest to lowest
+        int[][] byCount = new int[5][N_RANKS];
+        int[] nByCount = new int[5];
+        int present = 0;
+        for (int rank = ACE; rank >= 0; rank--) {
+            int c = counts[rank];
+            byCount[c][nByCount[c]++] = rank;
+            if (c > 0) present |= 1 << rank;
+        }
+
+        if (nByCount[4] > 0) {
+            int quads = byCount[4][0];
+            return value(FOUR_OF_A_KIND, join(new int[]{quads}, topRanks(present & ~(1 << quads), 1)));
+        }
+        if (nByCount[3] > 0 && (nByCount[3] > 1 || nByCount[2] > 0)) {
+            int pair = nByCount[3] > 1 ? byCount[3][1] : -1;
+            if (nByCount[2] > 0) pair = Math.max(pair, byCount[2][0]);
+            return value(FULL_HOUSE, byCount[3][0], pair);
+        }
+        if (straightTop[present] >= 0)
+            return value(STRAIGHT, straightTop[present]);
+        if (nByCount[3] > 0) {
+            int trips = byCount[3][0];
+            return value(THREE_OF_A_KIND, join(new int[]{trips}, topRanks(present & ~(1 << trips), 2)));
+        }
+        if (nByCount[2] > 1) {
+            int high = byCount[2][0], low = byCount[2][1];
+            return value(TWO_PAIR, join(new int[]{high, low}, topRanks(present & ~(1 << high) & ~(1 << low), 1)));
+        }
+        if (nByCount[2] > 0) {
+            int pair = byCount[2][0];
+            return value(ONE_PAIR, join(new int[]{pair}, topRanks(present & ~(1 << pair), 3)));
+        }
+        return value(HIGH_CARD, topRanks(present, 5));
+    }
+
+    private static int findStraight(int mask) {
+        for (int top = ACE; top >= 4; top--) {
+            int run = 0x1F << (top - 4);
+            if ((mask & run) == run) return top;
+        }
+        // the wheel: A-2-3-4-5
+        int wheel = (1 << ACE) | 0xF;
+        return (mask & wheel) == wheel ? 3 : -1;
+    }
+
+    private static int[] topRanks(int mask, int n) {
+        int[] ranks = new int[Math.min(n, Integer.bitCount(mask))];
+        for (int i = 0; i < ranks.length; i++) {
+            int rank = 31 - Integer.numberOfLeadingZeros(mask);
+            ranks[i] = rank;
+            mask &= ~(1 << rank);
+        }
+        return ranks;
+    }
+
+    private static int[] join(int[] lead, int[] kickers) {
+        int[] all = Arrays.copyOf(lead, lead.length + kickers.length);
+        System.arraycopy(kickers, 0, all, lead.length, kickers.length);
+        return all;
+    }
+
+    // Ranks are stored as 4-bit values from 1 (deuce) to 13 (ace), so that 0 marks an absent card
+    private static int value(int category, int... ranks) {
+        int retValue = category << 20;
+        for (int i = 0; i < ranks.length; i++) {
+            if (ranks[i] >= 0)
+                retValue |= (ranks[i] + 1) << (16 - 4 * i);
+        }
+        return retValue;
+    }
+}
@@ -3,13 +3,12 @@ package games.stratego;
 import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import core.components.Component;
 import core.components.GridBoard;
-import games.stratego.actions.Move;
 import games.stratego.components.Piece;
 import utilities.Utils;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Random;
 
@@ -44,30 +43,40 @@ public class StrategoForwardModel extends AbstractForwardModel {
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
         StrategoGameState state = (StrategoGameState) gameState;
-        ArrayList<AbstractAction> actions = new ArrayList<>();
-        int player = gameState.getCurrentPlayer();
-        Piece.Alliance playerAlliance = StrategoConstants.playerMapping.get(player);
-        List<Piece> pieces = state.gridBoard.getComponents();
-
-        if (pieces.isEmpty()){
-            throw new AssertionError("Error: No Pieces Found");
-//            state.setGameStatus(Utils.GameResult.GAME_END);
- //           return actions;
+        if (state.availableActions == null) {
+            state.availableActions = generateActions(state);
         }
+        // A copy, as the caller is free to modify the list
+        return new ArrayList<>(state.availableActions);
+    }
 
-        for (Piece piece : pieces){
-            if (piece != null){
-                if (piece.getPieceAlliance() == playerAlliance) {
-                    Collection<Move> moves = piece.calculateMoves(state);
-                    actions.addAll(moves);
+    private List<AbstractAction> generateActions(StrategoGameState state) {
+        ArrayList<AbstractAction> actions = new ArrayList<>();
+        Piece.Alliance playerAlliance = StrategoConstants.playerMapping.get(state.getCurrentPlayer());
+        boolean piecesFound = false;
+
+        // Scan the board's grid directly, rather than via getComponents(), which builds a new list each time
+        for (Component[] row : state.gridBoard.getGridValues()) {
+            for (Component c : row) {
+                if (c != null) {
+                    piecesFound = true;
+                    Piece piece = (Piece) c;
+                    if (piece.getPieceAlliance() == playerAlliance) {
+                        piece.calculateMoves(state, actions);
+                    }
                 }
             }
         }
+        if (!piecesFound){
+            throw new AssertionError("Error: No Pieces Found");
+        }
         return actions;
     }
 
     @Override
     protected void _next(AbstractGameState currentState, AbstractAction action) {
+        StrategoGameState state = (StrategoGameState) currentState;
+        state.availableActions = null;
         action.execute(currentState);
 
         if (currentState.getGameStatus() == Utils.GameResult.GAME_END){
@@ -76,8 +85,9 @@ public class StrategoForwardModel extends AbstractForwardModel {
 
         currentState.getTurnOrder().endPlayerTurn(currentState);
 
-        List<AbstractAction> actions = _computeAvailableActions(currentState);
-        if (actions.isEmpty()){
+        // These are kept on the state, so the next call to computeAvailableActions() does not have to repeat the work
+        state.availableActions = generateActions(state);
+        if (state.availableActions.isEmpty()){
             // If the player can't take any actions, they lose
             currentState.setGameStatus(Utils.GameResult.GAME_END);
             currentState.setPlayerResult(Utils.GameResult.LOSE, currentState.getCurrentPlayer());
@@ -91,9 +101,4 @@ public class StrategoForwardModel extends AbstractForwardModel {
             }
         }
     }
-
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new StrategoForwardModel();
-    }
 }
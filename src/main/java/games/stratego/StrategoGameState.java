@@ -2,6 +2,7 @@ package games.stratego;
 
 import core.AbstractGameState;
 import core.AbstractParameters;
+import core.actions.AbstractAction;
 import core.components.Component;
 import core.components.GridBoard;
 import core.turnorders.AlternatingTurnOrder;
@@ -14,6 +15,9 @@ import java.util.Random;
 
 public class StrategoGameState extends AbstractGameState {
     GridBoard<Piece> gridBoard;
+    // Legal moves of the current player, cached by the forward model; null if they need to be (re)generated.
+    // The board must only be changed through the forward model while this is set.
+    List<AbstractAction> availableActions;
 
     /**
      * Constructor. Initialises some generic game state variables.
@@ -68,6 +72,10 @@ public class StrategoGameState extends AbstractGameState {
         if (!pieceTypesHidden.isEmpty()) {
             throw new AssertionError("We have a hidden piece that has not been placed on the copied board");
         }
+        if (playerId == -1 || playerId == getCurrentPlayer() || !getCoreGameParameters().partialObservable) {
+            // only the opponent's pieces can have been changed (if at all), so the same moves (which are immutable) are available
+            s.availableActions = availableActions;
+        }
         return s;
     }
 
@@ -84,6 +92,7 @@ public class StrategoGameState extends AbstractGameState {
     @Override
     protected void _reset() {
         gridBoard = null;
+        availableActions = null;
     }
 
     @Override
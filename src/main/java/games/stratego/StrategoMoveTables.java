@@ -0,0 +1,89 @@
+package games.stratego;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed movement rays for every square of a Stratego board, so that move generation does not need to
+ * re-check board bounds and lakes (StrategoParams.isTileValid) on each call.
+ * <p>
+ * Squares are indexed as y * gridSize + x. For each square and direction there is one ray for ordinary pieces
+ * (the valid squares up to moveSpeed away) and one for scouts (every square until the edge of the board or a lake).
+ * Directions are in the order -x, -y, +x, +y. A ray stops at the first piece along it, so generation only needs
+ * to walk the ray and look at the board.
+ * <p>
+ * Tables depend only on the board layout and move speed, so are shared by all games with the same settings.
+ */
+public class StrategoMoveTables {
+
+    private static final Map<String, StrategoMoveTables> cache = new ConcurrentHashMap<>();
+    private static final int[][] DIRECTIONS = {{-1, 0}, {0, -1}, {1, 0}, {0, 1}};
+
+    public final int gridSize;
+    // rays[square][direction] lists the squares a normal piece may reach, in order of distance
+    public final int[][][] rays;
+    // as rays, for scouts
+    public final int[][][] scoutRays;
+    // coordinates of each square, to avoid divisions
+    public final int[] squareX, squareY;
+    // the settings the tables were built from
+    private final int[] xRestrictedTiles, yRestrictedTiles;
+    private final int moveSpeed;
+
+    private StrategoMoveTables(StrategoParams params) {
+        gridSize = params.gridSize;
+        xRestrictedTiles = params.xRestrictedTiles.clone();
+        yRestrictedTiles = params.yRestrictedTiles.clone();
+        moveSpeed = params.moveSpeed;
+        int nSquares = gridSize * gridSize;
+        rays = new int[nSquares][DIRECTIONS.length][];
+        scoutRays = new int[nSquares][DIRECTIONS.length][];
+        squareX = new int[nSquares];
+        squareY = new int[nSquares];
+
+        int[] buffer = new int[Math.max(gridSize, params.moveSpeed)];
+        for (int sq = 0; sq < nSquares; sq++) {
+            int x = sq % gridSize, y = sq / gridSize;
+            squareX[sq] = x;
+            squareY[sq] = y;
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                int dx = DIRECTIONS[d][0], dy = DIRECTIONS[d][1];
+
+                // Scouts move in a straight line until they hit a lake or the edge of the board
+                int n = 0;
+                for (int j = 1; params.isTileValid(x + dx * j, y + dy * j); j++)
+                    buffer[n++] = (y + dy * j) * gridSize + x + dx * j;
+                scoutRays[sq][d] = Arrays.copyOf(buffer, n);
+
+                // Other pieces can reach any valid square up to moveSpeed away
+                n = 0;
+                for (int j = 1; j <= params.moveSpeed; j++) {
+                    if (params.isTileValid(x + dx * j, y + dy * j))
+                        buffer[n++] = (y + dy * j) * gridSize + x + dx * j;
+                }
+                rays[sq][d] = Arrays.copyOf(buffer, n);
+            }
+        }
+    }
+
+    /**
+     * @param params - game parameters
+     * @return the tables for the board layout and move speed in params
+     */
+    public static StrategoMoveTables get(StrategoParams params) {
+        String key = params.gridSize + ":" + Arrays.toString(params.xRestrictedTiles) + ":" +
+                Arrays.toString(params.yRestrictedTiles) + ":" + params.moveSpeed;
+        return cache.computeIfAbsent(key, k -> new StrategoMoveTables(params));
+    }
+
+    /**
+     * @param params - game parameters
+     * @return true if these tables were built for the board layout and move speed in params
+     */
+    public boolean matches(StrategoParams params) {
+        return gridSize == params.gridSize && moveSpeed == params.moveSpeed &&
+                Arrays.equals(xRestrictedTiles, params.xRestrictedTiles) &&
+                Arrays.equals(yRestrictedTiles, params.yRestrictedTiles);
+    }
+}
@@ -13,6 +13,8 @@ public class StrategoParams extends AbstractParameters {
     public int pieceSetupNFlags = 1;
     public int maxRounds = 500;
 
+    private StrategoMoveTables moveTables;
+
     public boolean isTileValid(final int x, final int y){
         if ((x>=0 && x<gridSize) && (y>=0 && y<gridSize)){
             return (x != xRestrictedTiles[0] || y != yRestrictedTiles[0]) && (x != xRestrictedTiles[0] || y != yRestrictedTiles[1])
@@ -24,6 +26,16 @@ public class StrategoParams extends AbstractParameters {
         }
     }
 
+    /**
+     * @return precomputed movement rays for this board layout (built on first use, and shared between games).
+     * They are looked up again if the layout or move speed has changed since the last call.
+     */
+    public StrategoMoveTables getMoveTables() {
+        if (moveTables == null || !moveTables.matches(this))
+            moveTables = StrategoMoveTables.get(this);
+        return moveTables;
+    }
+
     public StrategoParams(long seed) {
         super(seed);
     }
@@ -1,13 +1,13 @@
 package games.stratego.components;
 
-import core.components.GridBoard;
+import core.components.Component;
 import core.components.Token;
 import games.stratego.StrategoGameState;
+import games.stratego.StrategoMoveTables;
 import games.stratego.StrategoParams;
 import games.stratego.actions.AttackMove;
 import games.stratego.actions.Move;
 import games.stratego.actions.NormalMove;
-import utilities.Distance;
 
 import java.awt.*;
 import java.util.*;
@@ -20,8 +20,6 @@ public class Piece extends Token {
     protected final Alliance alliance;
     private boolean pieceKnown;
 
-    private final static int[] MOVE_VECTOR = {-1, 1};
-
     public Piece(PieceType pieceType, Alliance alliance, int[] position) {
         super(pieceType.name());
         this.pieceType = pieceType;
@@ -67,64 +65,44 @@ public class Piece extends Token {
     }
 
     public Collection<Move> calculateMoves(StrategoGameState gs) {
-
-        GridBoard<Piece> board = gs.getGridBoard();
-        StrategoParams params = (StrategoParams) gs.getGameParameters();
-
         List<Move> moves = new ArrayList<>();
+        calculateMoves(gs, moves);
+        return moves;
+    }
 
+    /**
+     * Adds all the moves available to this piece to the given list. This walks the precomputed rays from the
+     * piece's square (see StrategoMoveTables), reading the board's grid directly.
+     *
+     * @param gs    - current game state
+     * @param moves - list to add the moves to
+     */
+    public void calculateMoves(StrategoGameState gs, List<? super Move> moves) {
         if (!getPieceType().isMovable()){
-            return moves;
+            return;
         }
 
-        if (pieceType == PieceType.SCOUT){
-            for (int move : MOVE_VECTOR){  // positive or negative
-                for (int i =0; i<2; i++){  // horizontal and vertical
-                    int[] newPos = position.clone();
-
-                    while(true){
-                        newPos[i] += move;
-
-                        if (params.isTileValid(newPos[0],newPos[1])){
-                            if (addMove(board, params, moves, newPos)) {
-                                break;
-                            }
-                        } else {
-                            break;
-                        }
-                    }
-                }
-            }
-        } else {
-            for(int move : MOVE_VECTOR){  // positive or negative
-                for (int i=0; i<2; i++){  // horizontal or vertical
-                    for (int j = 1; j <= params.moveSpeed; j++) {  // according to movement speed
-                        int[] newPos = position.clone();
-                        newPos[i] += move * j;
-
-                        if (params.isTileValid(newPos[0], newPos[1])) {
-                            if (addMove(board, params, moves, newPos)) break;
-                        }
+        StrategoParams params = (StrategoParams) gs.getGameParameters();
+        StrategoMoveTables tables = params.getMoveTables();
+        Component[][] grid = gs.getGridBoard().getGridValues();
+        int[][] rays = (pieceType == PieceType.SCOUT ? tables.scoutRays : tables.rays)[position[1] * tables.gridSize + position[0]];
+
+        for (int[] ray : rays) {
+            for (int square : ray) {
+                int x = tables.squareX[square], y = tables.squareY[square];
+                Piece pieceAtTile = (Piece) grid[y][x];
+                if (pieceAtTile == null) {
+                    moves.add(new NormalMove(getComponentID(), new int[]{x, y}));
+                } else {
+                    if (Math.abs(x - position[0]) + Math.abs(y - position[1]) <= params.attackRange &&
+                            alliance != pieceAtTile.getPieceAlliance()) {
+                        moves.add(new AttackMove(getComponentID(), pieceAtTile.getComponentID()));
                     }
+                    // Reached another piece and cannot occupy same square or jump over, finish
+                    break;
                 }
             }
         }
-        return moves;
-    }
-
-    private boolean addMove(GridBoard<Piece> board, StrategoParams params, List<Move> moves, int[] newPos) {
-        Piece pieceAtTile = board.getElement(newPos[0], newPos[1]);
-        if (pieceAtTile == null) {
-            moves.add(new NormalMove(getComponentID(), newPos));
-        } else {
-            if (Distance.manhattan_distance(position, newPos) <= params.attackRange &&
-                    alliance != pieceAtTile.getPieceAlliance()) {
-                moves.add(new AttackMove(getComponentID(), pieceAtTile.getComponentID()));
-            }
-            // Reached another piece and cannot occupy same square or jump over, finish
-            return true;
-        }
-        return false;
     }
 
     @Override
@@ -438,9 +438,4 @@ public class SGForwardModel extends AbstractForwardModel {
         }
         return actions;
     }
-
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new SGForwardModel();
-    }
 }
\ No newline at end of file
@@ -4,7 +4,9 @@ import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.actions.SetGridValueAction;
+import core.components.Component;
 import core.components.GridBoard;
+import core.components.GridLineIndex;
 import core.components.Token;
 import utilities.Utils;
 
@@ -39,11 +41,6 @@ public class TicTacToeForwardModel extends AbstractForwardModel {
         return actions;
     }
 
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new TicTacToeForwardModel();
-    }
-
     @Override
     protected void _next(AbstractGameState currentState, AbstractAction action) {
         action.execute(currentState);
@@ -54,98 +51,39 @@ public class TicTacToeForwardModel extends AbstractForwardModel {
             return;
         }
 
-        if (checkGameEnd((TicTacToeGameState) currentState)) {
+        SetGridValueAction<Token> move = (SetGridValueAction<Token>) action;
+        if (checkGameEnd((TicTacToeGameState) currentState, move.getX(), move.getY())) {
             return;
         }
         currentState.getTurnOrder().endPlayerTurn(currentState);
     }
 
     /**
-     * Checks if the game ended.
+     * Checks if the game ended. Any new line must pass through the token just placed, so only lines through
+     * that cell are checked.
      *
      * @param gameState - game state to check game end.
+     * @param x         - x coordinate of the token just placed
+     * @param y         - y coordinate of the token just placed
      */
-    private boolean checkGameEnd(TicTacToeGameState gameState) {
+    private boolean checkGameEnd(TicTacToeGameState gameState, int x, int y) {
         GridBoard<Token> gridBoard = gameState.getGridBoard();
-
-        // Check columns
-        for (int x = 0; x < gridBoard.getWidth(); x++) {
-            Token c = gridBoard.getElement(x, 0);
-            if (!c.getTokenType().equals(TicTacToeConstants.emptyCell)) {
-                boolean win = true;
-                for (int y = 1; y < gridBoard.getHeight(); y++) {
-                    Token o = gridBoard.getElement(x, y);
-                    if (o.getTokenType().equals(TicTacToeConstants.emptyCell) || !o.equals(c)) {
-                        win = false;
-                        break;
-                    }
-                }
-                if (win) {
-                    registerWinner(gameState, c);
-                    return true;
-                }
-            }
-        }
-
-        // Check rows
-        for (int y = 0; y < gridBoard.getHeight(); y++) {
-            Token c = gridBoard.getElement(0, y);
-            if (!c.getTokenType().equals(TicTacToeConstants.emptyCell)) {
-                boolean win = true;
-                for (int x = 1; x < gridBoard.getWidth(); x++) {
-                    Token o = gridBoard.getElement(x, y);
-                    if (o.getTokenType().equals(TicTacToeConstants.emptyCell) || !o.equals(c)) {
-                        win = false;
-                        break;
-                    }
-                }
-                if (win) {
-                    registerWinner(gameState, c);
-                    return true;
-                }
-            }
+        // a line must run the full width of the board
+        GridLineIndex lineIndex = GridLineIndex.get(gridBoard.getWidth(), gridBoard.getHeight(), gridBoard.getWidth());
+        if (lineIndex.findLine(gridBoard, x, y, Token::getTokenType) != null) {
+            registerWinner(gameState, gridBoard.getElement(x, y));
+            return true;
         }
 
-        // Check diagonals
-        // Primary
-        Token c = gridBoard.getElement(0, 0);
-        if (!c.getTokenType().equals(TicTacToeConstants.emptyCell)) {
-            boolean win = true;
-            for (int i = 1; i < gridBoard.getWidth(); i++) {
-                Token o = gridBoard.getElement(i, i);
-                if (o.getTokenType().equals(TicTacToeConstants.emptyCell) || !o.equals(c)) {
-                    win = false;
-                }
-            }
-            if (win) {
-                registerWinner(gameState, c);
-                return true;
+        for (Component[] row : gridBoard.getGridValues()) {
+            for (Component c : row) {
+                if (((Token) c).getTokenType().equals(TicTacToeConstants.emptyCell))
+                    return false;
             }
         }
-
-        // Secondary
-        c = gridBoard.getElement(gridBoard.getWidth() - 1, 0);
-        if (!c.getTokenType().equals(TicTacToeConstants.emptyCell)) {
-            boolean win = true;
-            for (int i = 1; i < gridBoard.getWidth(); i++) {
-                Token o = gridBoard.getElement(gridBoard.getWidth() - 1 - i, i);
-                if (o.getTokenType().equals(TicTacToeConstants.emptyCell) || !o.equals(c)) {
-                    win = false;
-                }
-            }
-            if (win) {
-                registerWinner(gameState, c);
-                return true;
-            }
-        }
-        boolean tie = gridBoard.getComponents().stream().noneMatch(t -> t.getTokenType().equals(TicTacToeConstants.emptyCell));
-
-        if (tie) {
-            gameState.setGameStatus(Utils.GameResult.DRAW);
-            Arrays.fill(gameState.getPlayerResults(), Utils.GameResult.DRAW);
-        }
-
-        return tie;
+        gameState.setGameStatus(Utils.GameResult.DRAW);
+        Arrays.fill(gameState.getPlayerResults(), Utils.GameResult.DRAW);
+        return true;
     }
 
     @Override
@@ -162,7 +100,10 @@ public class TicTacToeForwardModel extends AbstractForwardModel {
      */
     private void registerWinner(TicTacToeGameState gameState, Token winnerSymbol) {
         gameState.setGameStatus(Utils.GameResult.GAME_END);
-        int winningPlayer = TicTacToeConstants.playerMapping.indexOf(winnerSymbol);
+        // by type, as the token on the board need not be the same component as the one in playerMapping
+        int winningPlayer = 0;
+        while (!TicTacToeConstants.playerMapping.get(winningPlayer).getTokenType().equals(winnerSymbol.getTokenType()))
+            winningPlayer++;
         gameState.setPlayerResult(Utils.GameResult.WIN, winningPlayer);
         gameState.setPlayerResult(Utils.GameResult.LOSE, 1 - winningPlayer);
     }
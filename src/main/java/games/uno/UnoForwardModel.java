@@ -363,10 +363,5 @@ public class UnoForwardModel extends AbstractForwardModel {
             }
         }
     }
-
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new UnoForwardModel();
-    }
 }
 
@@ -193,11 +193,6 @@ public class VirusForwardModel extends AbstractForwardModel {
         return actions;
     }
 
-    @Override
-    protected AbstractForwardModel _copy() {
-        return new VirusForwardModel();
-    }
-
     /**
      * Compute possible actions given a treatment card and add to actions
      * @param gameState - Virus game state
@@ -27,6 +27,7 @@ public class Frontend extends GUI {
     PlayerParameters[] playerParameters, agentParameters;
     private Thread gameThread;
     private Game gameRunning;
+    private StateSnapshotBuffer snapshots;
     private boolean showAll, paused, started, showAIWindow;
     private ActionController humanInputQueue;
 
@@ -318,6 +319,8 @@ public class Frontend extends GUI {
                     AbstractGUIManager gui = (humanInputQueue != null) ? gameType.createGUIManager(gamePanel, gameRunning, humanInputQueue) : null;
                     setFrameProperties();
 
+                    if (gui != null)
+                        snapshots = gameRunning.enableStateSnapshots();
                     guiUpdater = new Timer((int) coreParameters.frameSleepMS, event -> updateGUI(gui, frame));
                     guiUpdater.start();
                     // if Pause button has been pressed, then pause at the start so we can track all actions
@@ -541,16 +544,27 @@ public class Frontend extends GUI {
      * @param gui - gui to update.
      */
     private void updateGUI(AbstractGUIManager gui, JFrame frame) {
-        AbstractGameState gameState = gameRunning.getGameState().copy();
-        int currentPlayer = gameState.getCurrentPlayer();
-        AbstractPlayer player = gameRunning.getPlayers().get(currentPlayer);
-        if (gui != null) {
-            gui.update(player, gameState, gameRunning.isHumanToMove() || showAll);
-            if (!gameRunning.isHumanToMove() && paused && showAll) {
+        if (gui == null)
+            return;
+        // we render the latest snapshot published by the game thread, so never touch the live game state here
+        StateSnapshotBuffer.Snapshot fresh = snapshots.poll();
+        StateSnapshotBuffer.Snapshot snapshot = fresh != null ? fresh : snapshots.last();
+        if (snapshot != null) {
+            boolean humanOverride = !snapshot.humanToMove && paused && showAll;
+            // if nothing has changed, then we only need to update the GUI if a human is interacting with it
+            if (fresh == null && !snapshot.humanToMove && !humanOverride) {
+                if (!gameRunning.isHumanToMove())
+                    humanInputQueue.reset(); // clear out any actions clicked before their turn
+                return;
+            }
+            AbstractGameState gameState = snapshot.state;
+            AbstractPlayer player = gameRunning.getPlayers().get(gameState.getCurrentPlayer());
+            gui.update(player, gameState, snapshot.humanToMove || showAll);
+            if (humanOverride) {
                 // in this case we allow a human to override an AI decision
                 try {
                     if (humanInputQueue.hasAction()) {
-                        gameRunning.getForwardModel().next(gameState, humanInputQueue.getAction());
+                        gameRunning.getForwardModel().next(gameState.copy(), humanInputQueue.getAction());
                     }
                 } catch (InterruptedException e) {
                     // Really shouldn't happen as we checked first
@@ -0,0 +1,65 @@
+package gui;
+
+import core.AbstractGameState;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A single-slot hand-over point between the thread running a Game and the Swing thread rendering it.
+ * <p>
+ * The game thread publishes a copy of the state after each action (overwriting any snapshot that has not yet
+ * been rendered), and the GUI picks up the latest one whenever its frame Timer fires. Neither side ever waits
+ * for the other, so painting does not slow down the game, and intermediate states are simply skipped if the
+ * game runs faster than the frame rate.
+ */
+public class StateSnapshotBuffer {
+
+    public static final class Snapshot {
+        // This is a private copy of the game state. It must not be modified by the GUI.
+        public final AbstractGameState state;
+        public final int tick;
+        public final boolean humanToMove;
+
+        Snapshot(AbstractGameState state, int tick, boolean humanToMove) {
+            this.state = state;
+            this.tick = tick;
+            this.humanToMove = humanToMove;
+        }
+    }
+
+    private final AtomicReference<Snapshot> slot = new AtomicReference<>();
+    // only accessed by the consuming (GUI) thread
+    private Snapshot lastTaken;
+
+    /**
+     * Called from the game thread.
+     *
+     * @param gameState   the current game state. This is copied, so the game can carry on modifying it.
+     * @param tick        the game tick
+     * @param humanToMove true if the next decision is by a human player
+     */
+    public void publish(AbstractGameState gameState, int tick, boolean humanToMove) {
+        slot.set(new Snapshot(gameState.copy(), tick, humanToMove));
+    }
+
+    /**
+     * Called from the GUI thread.
+     *
+     * @return the newest snapshot if one has been published since the last call, or null if nothing has changed
+     */
+    public Snapshot poll() {
+        Snapshot retValue = slot.getAndSet(null);
+        if (retValue != null)
+            lastTaken = retValue;
+        return retValue;
+    }
+
+    /**
+     * Called from the GUI thread.
+     *
+     * @return the most recent snapshot returned by poll() (or null if there has not been one yet)
+     */
+    public Snapshot last() {
+        return lastTaken;
+    }
+}
@@ -0,0 +1,264 @@
+package gui;
+
+import io.humble.video.*;
+import io.humble.video.awt.MediaPictureConverter;
+import io.humble.video.awt.MediaPictureConverterFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams captured frames to a video file on a dedicated encoder thread.
+ * <p>
+ * The capture side (the GUI thread) only grabs a BufferedImage and offers it to a bounded queue. Colour conversion
+ * to YUV, encoding and muxing all happen on the encoder thread, so recording does not slow down the game.
+ * If the encoder falls behind, the Backpressure policy decides whether new frames are dropped, or whether the
+ * capturing thread waits for space in the queue.
+ */
+public class VideoRecorder {
+
+    public enum Backpressure {
+        DROP,   // discard frames that arrive while the queue is full
+        BLOCK   // wait for the encoder to make space (every frame is recorded)
+    }
+
+    /**
+     * Where the encoder thread sends frames. Both methods are only called on the encoder thread.
+     */
+    public interface FrameSink {
+        void write(BufferedImage image, long timestamp);
+
+        // called once, after the last frame
+        void close();
+    }
+
+    private static class Frame {
+        final BufferedImage image;
+        final long timestamp;
+
+        Frame(BufferedImage image, long timestamp) {
+            this.image = image;
+            this.timestamp = timestamp;
+        }
+    }
+
+    // Marks the end of the stream for the encoder thread
+    private static final Frame END = new Frame(null, -1);
+
+    private final BlockingQueue<Frame> queue;
+    private final Backpressure backpressure;
+    private final Thread encoderThread;
+    private final FrameSink sink;
+    private long lastTimestamp = -1;
+    private volatile boolean finished;
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    /**
+     * Sets up the muxer and encoder, and starts the encoder thread.
+     *
+     * @param filename       - the output file
+     * @param formatname     - the container format (e.g. mp4); if null this is guessed from the filename
+     * @param codecname      - the codec to use; if null the default for the format is used
+     * @param snapsPerSecond - frames per second in the output
+     * @param width          - width of the frames to be recorded
+     * @param height         - height of the frames to be recorded
+     * @param queueCapacity  - the maximum number of frames waiting to be encoded
+     * @param backpressure   - what to do when the queue is full
+     */
+    public VideoRecorder(String filename, String formatname, String codecname, int snapsPerSecond,
+                         int width, int height, int queueCapacity, Backpressure backpressure) throws IOException, InterruptedException {
+        this(new VideoEncoder(filename, formatname, codecname, snapsPerSecond, width, height), queueCapacity, backpressure);
+    }
+
+    /**
+     * Starts the encoder thread, which passes frames to the sink in the order they were recorded.
+     *
+     * @param sink          - receives the frames on the encoder thread
+     * @param queueCapacity - the maximum number of frames waiting to be encoded
+     * @param backpressure  - what to do when the queue is full
+     */
+    public VideoRecorder(FrameSink sink, int queueCapacity, Backpressure backpressure) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.backpressure = backpressure;
+        this.sink = sink;
+        encoderThread = new Thread(this::encodeFrames, "VideoEncoder");
+        encoderThread.setDaemon(true);
+        encoderThread.start();
+    }
+
+    /**
+     * Called from the capturing thread. Frames must have strictly increasing timestamps; any that do not
+     * (for example the same game tick rendered twice) are ignored.
+     *
+     * @param image     - the captured frame, in TYPE_3BYTE_BGR. This must not be modified afterwards.
+     * @param timestamp - timestamp of the frame, in units of 1/snapsPerSecond
+     * @return true if the frame was queued for encoding
+     */
+    public boolean recordFrame(BufferedImage image, long timestamp) {
+        if (finished || timestamp <= lastTimestamp)
+            return false;
+        Frame frame = new Frame(image, timestamp);
+        boolean queued;
+        if (backpressure == Backpressure.BLOCK) {
+            try {
+                queue.put(frame);
+                queued = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+        } else {
+            queued = queue.offer(frame);
+        }
+        if (queued)
+            lastTimestamp = timestamp;
+        else
+            droppedFrames.incrementAndGet();
+        return queued;
+    }
+
+    /**
+     * Encodes any frames still in the queue, flushes the encoder and closes the file.
+     * This blocks until the encoder thread has finished.
+     */
+    public void finish() {
+        if (finished)
+            return;
+        finished = true;
+        try {
+            queue.put(END);
+            encoderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    private void encodeFrames() {
+        try {
+            while (true) {
+                Frame frame = queue.take();
+                if (frame == END)
+                    break;
+                sink.write(frame.image, frame.timestamp);
+            }
+        } catch (InterruptedException e) {
+            // we still flush whatever has been encoded so far
+        } finally {
+            sink.close();
+        }
+    }
+
+    /**
+     * Encodes frames with humble-video, and writes them to a file.
+     */
+    private static class VideoEncoder implements FrameSink {
+
+        private final Muxer muxer;
+        private final Encoder encoder;
+        private final MediaPicture picture;
+        private final MediaPacket packet;
+        private MediaPictureConverter converter;
+
+        VideoEncoder(String filename, String formatname, String codecname, int snapsPerSecond,
+                     int width, int height) throws IOException, InterruptedException {
+            final Rational framerate = Rational.make(1, snapsPerSecond);
+
+            // First we create a muxer using the passed in filename and formatname if given.
+            muxer = Muxer.make(filename, null, formatname);
+
+            /* Now, we need to decide what type of codec to use to encode video. Muxers
+             * have limited sets of codecs they can use. We're going to pick the first one that
+             * works, or if the user supplied a codec name, we're going to force-fit that
+             * in instead.
+             */
+            final MuxerFormat format = muxer.getFormat();
+            final Codec codec;
+            if (codecname != null) {
+                codec = Codec.findEncodingCodecByName(codecname);
+            } else {
+                codec = Codec.findEncodingCodec(format.getDefaultVideoCodecId());
+            }
+
+            // Now that we know what codec, we need to create an encoder
+            encoder = Encoder.make(codec);
+
+            /*
+             * Video encoders need to know at a minimum:
+             *   width
+             *   height
+             *   pixel format
+             * Some also need to know frame-rate (older codecs that had a fixed rate at which video files could
+             * be written needed this). There are many other options you can set on an encoder, but we're
+             * going to keep it simpler here.
+             */
+            encoder.setWidth(width);
+            encoder.setHeight(height);
+            // We are going to use 420P as the format because that's what most video formats these days use
+            final PixelFormat.Type pixelformat = PixelFormat.Type.PIX_FMT_YUV420P;
+            encoder.setPixelFormat(pixelformat);
+            encoder.setTimeBase(framerate);
+
+            /* An annoynace of some formats is that they need global (rather than per-stream) headers,
+             * and in that case you have to tell the encoder. And since Encoders are decoupled from
+             * Muxers, there is no easy way to know this beyond
+             */
+            if (format.getFlag(MuxerFormat.Flag.GLOBAL_HEADER))
+                encoder.setFlag(Encoder.Flag.FLAG_GLOBAL_HEADER, true);
+
+            // Open the encoder.
+            encoder.open(null, null);
+            // Add this stream to the muxer.
+            muxer.addNewStream(encoder);
+            // And open the muxer for business.
+            muxer.open(null, null);
+
+            /* Next, we need to make sure we have the right MediaPicture format objects
+             * to encode data with. Java (and most on-screen graphics programs) use some
+             * variant of Red-Green-Blue image encoding (a.k.a. RGB or BGR). Most video
+             * codecs use some variant of YCrCb formatting. So we're going to have to
+             * convert. To do that, we'll introduce a MediaPictureConverter object later. object.
+             */
+            picture = MediaPicture.make(
+                    encoder.getWidth(),
+                    encoder.getHeight(),
+                    pixelformat);
+            picture.setTimeBase(framerate);
+            packet = MediaPacket.make();
+        }
+
+        @Override
+        public void write(BufferedImage image, long timestamp) {
+            // This is LIKELY not in YUV420P format, so we're going to convert it using some handy utilities.
+            if (converter == null)
+                converter = MediaPictureConverterFactory.createConverter(image, picture);
+            converter.toPicture(picture, image, timestamp);
+            writePackets(picture);
+        }
+
+        @Override
+        public void close() {
+            /* Encoders, like decoders, sometimes cache pictures so it can do the right key-frame optimizations.
+             * So, they need to be flushed as well. As with the decoders, the convention is to pass in a null
+             * input until the output is not complete.
+             */
+            writePackets(null);
+            // Finally, let's clean up after ourselves.
+            muxer.close();
+        }
+
+        private void writePackets(MediaPicture input) {
+            do {
+                encoder.encode(packet, input);
+                if (packet.isComplete())
+                    muxer.write(packet, false);
+            } while (packet.isComplete());
+        }
+    }
+}
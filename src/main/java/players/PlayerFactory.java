@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Random;
 import java.util.function.Function;
 
 /**
@@ -67,6 +68,10 @@ public class PlayerFactory {
     }
 
     public static AbstractPlayer fromJSONObject(JSONObject json) {
+        return fromJSONObject(json, null);
+    }
+
+    private static AbstractPlayer fromJSONObject(JSONObject json, Long seed) {
         // first of all we check for algorithm
         Object algo = json.get("class");
         if (!(algo instanceof String))
@@ -87,6 +92,8 @@ public class PlayerFactory {
         if (instantiatedObject instanceof TunableParameters) {
             TunableParameters params = (TunableParameters) instantiatedObject;
             TunableParameters.loadFromJSON(params, json);
+            if (seed != null)
+                params.setRandomSeed(seed);
             return (AbstractPlayer) params.instantiate();
         }
         return (AbstractPlayer) instantiatedObject;
@@ -116,6 +123,23 @@ public class PlayerFactory {
      * @return
      */
     public static AbstractPlayer createPlayer(String data, Function<String, String> preprocessor) {
+        return createPlayer(data, preprocessor, null);
+    }
+
+    /**
+     * As createPlayer(String), but with the random seed of the player fixed, so that it makes the same decisions
+     * each time it is created with the same seed. This applies to the short-hand names, and to JSON files of
+     * TunableParameters.
+     *
+     * @param data
+     * @param seed - random seed for the player
+     * @return
+     */
+    public static AbstractPlayer createPlayer(String data, long seed) {
+        return createPlayer(data, Function.identity(), seed);
+    }
+
+    private static AbstractPlayer createPlayer(String data, Function<String, String> preprocessor, Long seed) {
         // The idea here is that we first check to see if data is a filename.
         // If it is then we go the JSON route
         // If not then we now support a short-hand method for some simple defaults
@@ -125,7 +149,12 @@ public class PlayerFactory {
             String json = readJSONFile(reader, data);
             if (preprocessor != null)
                 json = preprocessor.apply(json);
-            AbstractPlayer retValue = fromJSONString(json);
+            AbstractPlayer retValue;
+            try {
+                retValue = fromJSONObject((JSONObject) parser.parse(json), seed);
+            } catch (ParseException e) {
+                throw new AssertionError("Error processing JSON string " + e.getMessage());
+            }
             retValue.setName(data.substring(0, data.indexOf(".")));
             return retValue;
         } catch (FileNotFoundException e) {
@@ -136,15 +165,15 @@ public class PlayerFactory {
         String input = data.toLowerCase();
         switch (input) {
             case "random":
-                return new RandomPlayer();
+                return seed == null ? new RandomPlayer() : new RandomPlayer(new Random(seed));
             case "osla":
-                return new OSLAPlayer();
+                return seed == null ? new OSLAPlayer() : new OSLAPlayer(new Random(seed));
             case "mcts":
-                return new MCTSPlayer(new MCTSParams(System.currentTimeMillis()));
+                return new MCTSPlayer(new MCTSParams(seed == null ? System.currentTimeMillis() : seed));
             case "rmhc":
-                return new RMHCPlayer(new RMHCParams(System.currentTimeMillis()));
+                return new RMHCPlayer(new RMHCParams(seed == null ? System.currentTimeMillis() : seed));
             case "rhea":
-                return new RHEAPlayer(new RHEAParams(System.currentTimeMillis()));
+                return new RHEAPlayer(new RHEAParams(seed == null ? System.currentTimeMillis() : seed));
             default:
                 throw new AssertionError("Unknown file or player key : " + input);
         }
@@ -12,7 +12,8 @@ import java.util.Arrays;
 public abstract class AbstractStateHeuristic implements IStateHeuristic {
 
     protected IStateFeatureVector features;
-    protected double[] coefficients;
+    // volatile, as an OnlineLearner may replace the coefficients while agents on other threads are using them
+    protected volatile double[] coefficients;
     protected IStateHeuristic defaultHeuristic;
 
     public AbstractStateHeuristic(String featureVectorClassName, String coefficientsFile, String defaultHeuristicClassName) {
@@ -64,4 +65,22 @@ public abstract class AbstractStateHeuristic implements IStateHeuristic {
         }
     }
 
+    /**
+     * Replaces the coefficients, for example with the latest ones from an OnlineLearner. The array is copied, so
+     * the caller can go on changing its own. Subclasses read the field once per evaluation, so each evaluation uses
+     * either the old or the new coefficients, and never a mixture.
+     *
+     * @param newCoefficients - the bias term, followed by one coefficient per feature
+     */
+    public void setCoefficients(double[] newCoefficients) {
+        if (newCoefficients.length != features.names().length + 1)
+            throw new IllegalArgumentException(String.format("Expected %d coefficients, not %d",
+                    features.names().length + 1, newCoefficients.length));
+        coefficients = newCoefficients.clone();
+    }
+
+    public double[] getCoefficients() {
+        double[] current = coefficients;
+        return current == null ? null : current.clone();
+    }
 }
@@ -19,6 +19,7 @@ public class LogisticStateHeuristic extends AbstractStateHeuristic {
 
     @Override
     public double evaluateState(AbstractGameState state, int playerId) {
+        double[] coefficients = this.coefficients;  // read once, as it may be replaced on another thread
         if (coefficients == null)
             return defaultHeuristic.evaluateState(state, playerId);
         double[] phi = features.featureVector(state, playerId);
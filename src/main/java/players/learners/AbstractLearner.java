@@ -56,13 +56,34 @@ public abstract class AbstractLearner implements ILearner {
         targetType = newTarget;
     }
 
+    @Override
+    public void learnFrom(String... files) {
+        loadData(files);
+        learnFromData();
+    }
+
+    /**
+     * Learns from data already in memory (for example from a ReplayBuffer), rather than from files.
+     *
+     * @param header - the column names, as in the header line of a file written by a FeatureListener
+     * @param data   - one row of values per record, in the same order as header
+     */
+    public void learnFrom(String[] header, List<double[]> data) {
+        loadData(header, data);
+        learnFromData();
+    }
+
+    /**
+     * Fits the model to the data that has been loaded into dataArray and target.
+     */
+    protected abstract void learnFromData();
+
     protected void loadData(String... files) {
         List<double[]> data = new ArrayList<>();
+        String[] fileHeader = null;
         for (String file : files) {
             try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                header = reader.readLine().split("\\t");
-                descriptions = new String[header.length - 10];
-                System.arraycopy(header, 5, descriptions, 0, descriptions.length);
+                fileHeader = reader.readLine().split("\\t");
                 while (reader.ready()) {
                     double[] datum = Arrays.stream(reader.readLine().split("\\t")).mapToDouble(Double::parseDouble).toArray();
                     data.add(datum);
@@ -75,6 +96,13 @@ public abstract class AbstractLearner implements ILearner {
                 throw new AssertionError("Problem parsing data as numeric : " + file);
             }
         }
+        loadData(fileHeader, data);
+    }
+
+    protected void loadData(String[] header, List<double[]> data) {
+        this.header = header;
+        descriptions = new String[header.length - 10];
+        System.arraycopy(header, 5, descriptions, 0, descriptions.length);
 
         // now convert data to [][]
         // we assume (for the moment) that the columns are: GameID, Player, Round, Turn, CurrentScore... Win, Ordinal, FinalScore
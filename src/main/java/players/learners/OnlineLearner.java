@@ -0,0 +1,266 @@
+package players.learners;
+
+import core.interfaces.IStatisticLogger;
+import players.heuristics.AbstractStateHeuristic;
+import utilities.TAGStatSummary;
+
+import java.io.FileWriter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * A learner that updates a linear or logistic model incrementally, one sample at a time, rather than fitting it
+ * again from scratch to all the data.
+ * <p>
+ * As well as being used as an ILearner on files (where each call of learnFrom() carries on from the current
+ * coefficients), it is also an IStatisticLogger. So it can be given directly to a StateFeatureListener, and then
+ * learns from the records of each game as soon as the game is over (which is when the final result is known), with
+ * no intermediate files. Any heuristics added with addHeuristic() have their coefficients replaced after each update.
+ * <p>
+ * There are three models:
+ * - LINEAR: stochastic gradient descent on the squared error, for LinearStateHeuristic
+ * - LOGISTIC: stochastic gradient descent on the log loss, for LogisticStateHeuristic (with a WIN target)
+ * - RLS: recursive least squares for a linear model. This converges much faster than LINEAR, but the work per
+ * sample is O(features^2), rather than O(features).
+ * <p>
+ * The gradient methods update once per mini-batch of batchSize samples, and L2 regularisation (not applied to the
+ * bias) is controlled by regularisation. For RLS the coefficients are updated with every sample, and are published
+ * to heuristics every batchSize samples and at the end of each game; regularisation sets the initial P matrix to
+ * I / regularisation, and forgetting (at most 1.0) discounts older samples.
+ */
+public class OnlineLearner extends AbstractLearner implements IStatisticLogger {
+
+    public enum Model {LINEAR, LOGISTIC, RLS}
+
+    final Model model;
+    final double learningRate, regularisation;
+    final int batchSize;
+    double forgetting = 1.0;
+
+    double[] coefficients;
+    private double[] gradient;
+    private double[][] P;
+    private int inBatch;
+    private long samples;
+    private final List<AbstractStateHeuristic> heuristics = new ArrayList<>();
+
+    // the records of the current game, received as an IStatisticLogger
+    private String[] keys;
+    private List<double[]> gameRows = new ArrayList<>();
+
+    public OnlineLearner() {
+        this(Model.LINEAR, 0.01, 32, 0.0);
+    }
+
+    public OnlineLearner(Model model) {
+        this(model, 0.01, 32, model == Model.RLS ? 0.01 : 0.0);
+    }
+
+    /**
+     * @param model          - the model to fit
+     * @param learningRate   - step size of the gradient methods (ignored by RLS)
+     * @param batchSize      - number of samples between updates of the coefficients (or of the heuristics for RLS)
+     * @param regularisation - L2 penalty for the gradient methods, and the initial inverse covariance for RLS
+     */
+    public OnlineLearner(Model model, double learningRate, int batchSize, double regularisation) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        if (model == Model.RLS && regularisation <= 0.0)
+            throw new IllegalArgumentException("RLS needs a positive regularisation");
+        this.model = model;
+        this.learningRate = learningRate;
+        this.batchSize = batchSize;
+        this.regularisation = regularisation;
+    }
+
+    public void setForgetting(double forgetting) {
+        if (forgetting <= 0.0 || forgetting > 1.0)
+            throw new IllegalArgumentException("forgetting must be in (0, 1]");
+        this.forgetting = forgetting;
+    }
+
+    /**
+     * The heuristic will have its coefficients replaced each time the model is updated.
+     */
+    public void addHeuristic(AbstractStateHeuristic heuristic) {
+        heuristics.add(heuristic);
+        if (coefficients != null)
+            heuristic.setCoefficients(coefficients);
+    }
+
+    /**
+     * @return a copy of the current coefficients (bias first), or null if no data has been seen
+     */
+    public double[] getCoefficients() {
+        return coefficients == null ? null : coefficients.clone();
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    @Override
+    protected void learnFromData() {
+        for (int i = 0; i < dataArray.length; i++)
+            update(dataArray[i], target[i][0]);
+    }
+
+    /**
+     * Updates the model with a single sample.
+     *
+     * @param x - the features, with the bias term (1.0) first
+     * @param y - the target value
+     */
+    public void update(double[] x, double y) {
+        if (coefficients == null)
+            initialise(x.length);
+        else if (x.length != coefficients.length)
+            throw new IllegalArgumentException(String.format("Expected %d features, not %d", coefficients.length, x.length));
+        samples++;
+        if (model == Model.RLS) {
+            updateRLS(x, y);
+            if (++inBatch == batchSize) {
+                inBatch = 0;
+                publish();
+            }
+            return;
+        }
+        double error = predict(x) - y;
+        for (int j = 0; j < x.length; j++)
+            gradient[j] += error * x[j];
+        if (++inBatch == batchSize)
+            applyGradient();
+    }
+
+    /**
+     * @return the prediction of the model for the features x (with the bias term first)
+     */
+    public double predict(double[] x) {
+        double value = 0.0;
+        for (int j = 0; j < x.length; j++)
+            value += coefficients[j] * x[j];
+        return model == Model.LOGISTIC ? 1.0 / (1.0 + Math.exp(-value)) : value;
+    }
+
+    private void initialise(int n) {
+        coefficients = new double[n];
+        gradient = new double[n];
+        if (model == Model.RLS) {
+            P = new double[n][n];
+            for (int j = 0; j < n; j++)
+                P[j][j] = 1.0 / regularisation;
+        }
+    }
+
+    private void applyGradient() {
+        for (int j = 0; j < coefficients.length; j++) {
+            double penalty = j == 0 ? 0.0 : regularisation * coefficients[j];
+            coefficients[j] -= learningRate * (gradient[j] / inBatch + penalty);
+            gradient[j] = 0.0;
+        }
+        inBatch = 0;
+        publish();
+    }
+
+    private void updateRLS(double[] x, double y) {
+        int n = x.length;
+        double[] Px = new double[n];
+        double denominator = forgetting;
+        for (int i = 0; i < n; i++) {
+            double sum = 0.0;
+            for (int j = 0; j < n; j++)
+                sum += P[i][j] * x[j];
+            Px[i] = sum;
+            denominator += x[i] * sum;
+        }
+        double error = y - predict(x);
+        for (int i = 0; i < n; i++)
+            coefficients[i] += Px[i] / denominator * error;
+        // P is symmetric, so x'P = (Px)'
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                P[i][j] = (P[i][j] - Px[i] * Px[j] / denominator) / forgetting;
+    }
+
+    private void publish() {
+        for (AbstractStateHeuristic heuristic : heuristics)
+            heuristic.setCoefficients(coefficients);
+    }
+
+    /**
+     * Applies any partial mini-batch, so that the coefficients include every sample seen so far.
+     */
+    public void flush() {
+        if (inBatch == 0)
+            return;
+        if (model == Model.RLS) {
+            inBatch = 0;
+            publish();
+        } else {
+            applyGradient();
+        }
+    }
+
+    @Override
+    public boolean writeToFile(String file) {
+        flush();
+        try (FileWriter writer = new FileWriter(file, false)) {
+            writer.write("BIAS\t" + String.join("\t", descriptions) + "\n");
+            writer.write(Arrays.stream(coefficients).mapToObj(d -> String.format("%.4g", d)).collect(Collectors.joining("\t")));
+            writer.write("\n");
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String name() {
+        return "Online" + model;
+    }
+
+    // IStatisticLogger, so that a StateFeatureListener can pass records straight to the learner
+
+    @Override
+    public void record(Map<String, ?> data) {
+        if (keys == null)
+            keys = data.keySet().toArray(new String[0]);
+        double[] row = new double[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Object datum = data.get(keys[i]);
+            row[i] = datum instanceof Number ? ((Number) datum).doubleValue() : Double.NaN;
+        }
+        gameRows.add(row);
+    }
+
+    @Override
+    public void record(String key, Object datum) {
+        System.out.println("Datum ignored - OnlineLearner only to be used with other record()");
+    }
+
+    /**
+     * Called by the FeatureListener at the end of each game, once the records have their final results.
+     */
+    @Override
+    public void processDataAndNotFinish() {
+        if (gameRows.isEmpty())
+            return;
+        learnFrom(keys, gameRows);
+        gameRows = new ArrayList<>();
+        // so that the heuristics are up to date for the next game, even if the last batch is not complete
+        if (model == Model.RLS)
+            publish();
+    }
+
+    @Override
+    public void processDataAndFinish() {
+        processDataAndNotFinish();
+        flush();
+    }
+
+    @Override
+    public Map<String, TAGStatSummary> summary() {
+        return new HashMap<>();
+    }
+}
@@ -12,8 +12,7 @@ public class SimpleRegressionLearner extends AbstractLearner {
     double[] coefficients;
 
     @Override
-    public void learnFrom(String... files) {
-        loadData(files);
+    protected void learnFromData() {
         // We now have all the data loaded, so can run regression
         Matrix X = new Matrix(dataArray);
         Matrix Y = new Matrix(target);
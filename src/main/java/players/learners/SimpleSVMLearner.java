@@ -42,8 +42,7 @@ public class SimpleSVMLearner extends AbstractLearner {
     }
 
     @Override
-    public void learnFrom(String... files) {
-        loadData(files);
+    protected void learnFromData() {
 
         // SVM is at least available as a regressor
         // unlike the Weka Logistic implementation, here we do not do any messing about with a bias term
@@ -48,8 +48,7 @@ public class WekaLogisticLearner extends AbstractLearner {
     }
 
     @Override
-    public void learnFrom(String... files) {
-        loadData(files);
+    protected void learnFromData() {
         validationStart = dataArray.length - (int) (dataArray.length * validationProportion);
 
         this.addNoise = true; // to avoid weka.Logistic silently discarding constants
@@ -5,6 +5,7 @@ import core.actions.AbstractAction;
 import players.PlayerConstants;
 import players.simple.RandomPlayer;
 import utilities.ElapsedCpuTimer;
+import utilities.Metrics;
 
 import java.util.*;
 
@@ -239,7 +240,8 @@ class BasicTreeNode {
             }
         }
         // Evaluate final state and return normalised score
-        double value = player.params.getHeuristic().evaluateState(rolloutState, player.getPlayerID());
+        Metrics.record(Metrics.Metric.ROLLOUT_LENGTH, state, null, rolloutDepth);
+        double value = Metrics.evaluate(player.params.getHeuristic(), rolloutState, player.getPlayerID());
         if (Double.isNaN(value))
             throw new AssertionError("Illegal heuristic value - should be a number");
         return value;
@@ -59,6 +59,11 @@ public class MCTSParams extends PlayerParameters {
     public int omaVisits = 0;
     public double progressiveWideningConstant = 0.0; //  Zero indicates switched off (well, less than 1.0)
     public double progressiveWideningExponent = 0.0;
+    public boolean lazyActionGeneration = false; // only materialise actions as progressive widening needs them
+    public boolean chanceNodes = false; // separate children by random outcome, if the ForwardModel implements IChanceOutcome
+    public double chanceWideningConstant = 1.0;
+    public double chanceWideningExponent = 0.5;
+    public boolean exactChanceNodes = false; // visit every outcome in proportion to its probability, if the ForwardModel implements IChanceDistribution
     public boolean normaliseRewards = true;
     public boolean nodesStoreScoreDelta = true;
     public boolean maintainMasterState = false;
@@ -104,6 +109,11 @@ public class MCTSParams extends PlayerParameters {
         addTunableParameter("biasVisits", 0, Arrays.asList(0, 1, 3, 10, 30, 100));
         addTunableParameter("progressiveWideningConstant", 0.0, Arrays.asList(0.0, 1.0, 2.0, 4.0, 8.0, 16.0, 32.0));
         addTunableParameter("progressiveWideningExponent", 0.0, Arrays.asList(0.0, 0.1, 0.2, 0.3, 0.5));
+        addTunableParameter("lazyActionGeneration", false);
+        addTunableParameter("chanceNodes", false);
+        addTunableParameter("chanceWideningConstant", 1.0, Arrays.asList(1.0, 2.0, 4.0, 8.0));
+        addTunableParameter("chanceWideningExponent", 0.5, Arrays.asList(0.25, 0.5, 0.75, 1.0));
+        addTunableParameter("exactChanceNodes", false);
         addTunableParameter("normaliseRewards", true);
         addTunableParameter("nodesStoreScoreDelta", false);
         addTunableParameter("maintainMasterState", false);
@@ -158,6 +168,11 @@ public class MCTSParams extends PlayerParameters {
         omaVisits = (int) getParameterValue("omaVisits");
         progressiveWideningConstant = (double) getParameterValue("progressiveWideningConstant");
         progressiveWideningExponent = (double) getParameterValue("progressiveWideningExponent");
+        lazyActionGeneration = (boolean) getParameterValue("lazyActionGeneration");
+        chanceNodes = (boolean) getParameterValue("chanceNodes");
+        chanceWideningConstant = (double) getParameterValue("chanceWideningConstant");
+        chanceWideningExponent = (double) getParameterValue("chanceWideningExponent");
+        exactChanceNodes = (boolean) getParameterValue("exactChanceNodes");
         normaliseRewards = (boolean) getParameterValue("normaliseRewards");
         nodesStoreScoreDelta = (boolean) getParameterValue("nodesStoreScoreDelta");
         maintainMasterState = (boolean) getParameterValue("maintainMasterState");
@@ -257,6 +272,11 @@ public class MCTSParams extends PlayerParameters {
         retValue.omaVisits = omaVisits;
         retValue.progressiveWideningConstant = progressiveWideningConstant;
         retValue.progressiveWideningExponent = progressiveWideningExponent;
+        retValue.lazyActionGeneration = lazyActionGeneration;
+        retValue.chanceNodes = chanceNodes;
+        retValue.chanceWideningConstant = chanceWideningConstant;
+        retValue.chanceWideningExponent = chanceWideningExponent;
+        retValue.exactChanceNodes = exactChanceNodes;
         retValue.normaliseRewards = normaliseRewards;
         retValue.nodesStoreScoreDelta = nodesStoreScoreDelta;
         retValue.maintainMasterState = maintainMasterState;
@@ -4,6 +4,7 @@ import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import core.interfaces.IStatisticLogger;
+import utilities.Metrics;
 import utilities.Pair;
 import utilities.Utils;
 
@@ -87,7 +88,7 @@ public class MultiTreeNode extends SingleTreeNode {
         SingleTreeNode currentNode;
 
         double[] startingValues = IntStream.range(0, openLoopState.getNPlayers())
-                .mapToDouble(i -> heuristic.evaluateState(currentState, i)).toArray();
+                .mapToDouble(i -> Metrics.evaluate(heuristic, currentState, i)).toArray();
 
         if (!currentState.isNotTerminal())
             return;
@@ -176,13 +177,14 @@ public class MultiTreeNode extends SingleTreeNode {
         double[] finalValues = new double[state.getNPlayers()];
 
         for (int i = 0; i < finalValues.length; i++) {
-            finalValues[i] = heuristic.evaluateState(currentState, i) - (params.nodesStoreScoreDelta ? startingValues[i] : 0);
+            finalValues[i] = Metrics.evaluate(heuristic, currentState, i) - (params.nodesStoreScoreDelta ? startingValues[i] : 0);
         }
         for (SingleTreeNode singleTreeNode : currentLocation) {
             if (singleTreeNode != null)
                 singleTreeNode.backUp(finalValues);
         }
         rolloutActionsTaken += actionsInRollout.size();
+        Metrics.record(Metrics.Metric.ROLLOUT_LENGTH, state, null, actionsInRollout.size());
         root.updateMASTStatistics(actionsInTree, actionsInRollout, finalValues);
     }
 
@@ -0,0 +1,88 @@
+package players.mcts;
+
+import core.actions.AbstractAction;
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Materialises the available actions from a state only as far as they are needed by progressive widening.
+ * <p>
+ * With no ranking function the actions are pulled from the underlying Iterator in the order it provides them
+ * (which is the order of computeAvailableActions() unless the ForwardModel implements IActionGenerator).
+ * With a ranking function we have to see every action to find the best, but we only pay for a heap build
+ * (built in one step, in linear time) rather than a full sort, and only the actions actually pulled are added to
+ * the tree.
+ */
+public class ProgressiveActionList {
+
+    private final Iterator<AbstractAction> source;
+    private final PriorityQueue<RankedAction> ranked;
+    private final List<AbstractAction> materialised = new ArrayList<>();
+    private final Map<AbstractAction, Double> scores = new HashMap<>();
+
+    public ProgressiveActionList(Iterator<AbstractAction> source, ToDoubleFunction<AbstractAction> ranking) {
+        if (ranking == null) {
+            this.source = source;
+            this.ranked = null;
+        } else {
+            List<RankedAction> all = new ArrayList<>();
+            while (source.hasNext()) {
+                AbstractAction action = source.next();
+                all.add(new RankedAction(action, ranking.applyAsDouble(action)));
+            }
+            // (PriorityQueue only heapifies a whole collection at once when using natural ordering)
+            this.ranked = new PriorityQueue<>(all);
+            this.source = Collections.emptyIterator();
+        }
+    }
+
+    /**
+     * Ensures that at least n actions have been materialised (or all of them, if there are fewer than n)
+     *
+     * @param n the number of actions required
+     * @return the actions materialised so far, in rank order. This is the live list, and will grow on later calls.
+     */
+    public List<AbstractAction> ensure(int n) {
+        while (materialised.size() < n && !exhausted()) {
+            if (ranked != null) {
+                RankedAction next = ranked.poll();
+                materialised.add(next.action);
+                scores.put(next.action, next.score);
+            } else {
+                materialised.add(source.next());
+            }
+        }
+        return materialised;
+    }
+
+    public boolean exhausted() {
+        return ranked != null ? ranked.isEmpty() : !source.hasNext();
+    }
+
+    public List<AbstractAction> materialised() {
+        return materialised;
+    }
+
+    /**
+     * @return the ranking score of each materialised action (empty if no ranking function was provided)
+     */
+    public Map<AbstractAction, Double> scores() {
+        return scores;
+    }
+
+    // ordered by descending score
+    private static final class RankedAction implements Comparable<RankedAction> {
+        final AbstractAction action;
+        final double score;
+
+        RankedAction(AbstractAction action, double score) {
+            this.action = action;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(RankedAction other) {
+            return Double.compare(other.score, score);
+        }
+    }
+}
@@ -4,10 +4,14 @@ import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
+import core.interfaces.IActionHeuristic;
+import core.interfaces.IChanceDistribution;
+import core.interfaces.IChanceOutcome;
 import core.interfaces.IStateHeuristic;
 import core.interfaces.IStatisticLogger;
 import players.PlayerConstants;
 import utilities.ElapsedCpuTimer;
+import utilities.Metrics;
 import utilities.Pair;
 import utilities.Utils;
 
@@ -15,6 +19,7 @@ import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.*;
@@ -52,6 +57,8 @@ public class SingleTreeNode {
     protected int nVisits;
     protected int rolloutActionsTaken;
     List<AbstractAction> actionsFromOpenLoopState = new ArrayList<>();
+    // Only used with lazyActionGeneration; actionsFromOpenLoopState is then the materialised prefix of this
+    ProgressiveActionList lazyActions;
     Map<AbstractAction, Double> advantagesOfActionsFromOLS = new HashMap<>();
     // Depth of this node
     int depth;
@@ -68,7 +75,17 @@ public class SingleTreeNode {
     // Children of this node. The value is an Array because we have to cater for the possibility that the next decision
     // could be by any player - each of which would transition to a different Node OpenLoop search. (Closed Loop will
     // only ever have one position in the array populated: and similarly if we are using a SelfOnly tree).
+    //
+    // With chanceNodes, the array is extended so that stochastic actions have one block of nPlayers children per
+    // random outcome: index = bucket * nPlayers + nextPlayer. Bucket 0 is shared by deterministic transitions, and by
+    // any outcomes beyond the current chance widening limit; later buckets are assigned in the order outcomes are seen.
     Map<AbstractAction, SingleTreeNode[]> children = new HashMap<>();
+    // outcome key -> bucket, per action (only used with chanceNodes)
+    Map<AbstractAction, Map<Long, Integer>> chanceBuckets;
+    // outcome key -> number of times it has been chosen, per action (only used with exactChanceNodes)
+    Map<AbstractAction, Map<Long, Integer>> chanceCounts;
+    // outcome of the last call to advance() from this node, until it is used to pick a child
+    long lastChanceOutcome = IChanceOutcome.NO_CHANCE;
     List<Map<AbstractAction, Pair<Integer, Double>>> MASTStatistics; // a list of one Map per player. Action -> (visits, totValue)
     ToDoubleBiFunction<AbstractAction, AbstractGameState> advantageFunction = (a, s) -> advantagesOfActionsFromOLS.getOrDefault(a, 0.0);
     ToDoubleBiFunction<AbstractAction, AbstractGameState> MASTFunction;
@@ -178,6 +195,14 @@ public class SingleTreeNode {
         // so check the MCTSParams as well
         openLoopState = actionState;
         if (actionState.getCurrentPlayer() == this.decisionPlayer) {
+            if (params.lazyActionGeneration && params.progressiveWideningConstant >= 1.0) {
+                // we only pull as many actions as the current widening allows; more are pulled as nVisits increases
+                lazyActions = new ProgressiveActionList(forwardModel.availableActionIterator(actionState), actionRanking(actionState));
+                actionsFromOpenLoopState = lazyActions.materialised();
+                advantagesOfActionsFromOLS = lazyActions.scores();
+                widenLazyActions();
+                return;
+            }
             actionsFromOpenLoopState = forwardModel.computeAvailableActions(actionState);
             //      System.out.printf("Setting OLS actions for P%d (%d)%n%s%n", decisionPlayer, actionState.getCurrentPlayer(),
 //                actionsFromOpenLoopState.stream().map(a -> "\t" + a.toString() + "\n").collect(joining()));
@@ -198,6 +223,34 @@ public class SingleTreeNode {
         }
     }
 
+    private ToDoubleFunction<AbstractAction> actionRanking(AbstractGameState actionState) {
+        if (params.expansionPolicy == MAST)
+            return a -> root.MASTFunction.applyAsDouble(a, actionState);
+        if (params.advantageFunction != null && params.advantageFunction != IActionHeuristic.nullReturn)
+            return a -> params.advantageFunction.evaluateAction(a, actionState);
+        return null;
+    }
+
+    /**
+     * With lazyActionGeneration, pulls any further actions that the current progressive widening width allows
+     * and registers them as (unexpanded) children.
+     */
+    private void widenLazyActions() {
+        if (lazyActions == null || lazyActions.exhausted())
+            return;
+        int previouslyMaterialised = actionsFromOpenLoopState.size();
+        lazyActions.ensure(progressiveWideningWidth());
+        for (int i = previouslyMaterialised; i < actionsFromOpenLoopState.size(); i++) {
+            AbstractAction action = actionsFromOpenLoopState.get(i);
+            if (!children.containsKey(action))
+                children.put(action, null);
+        }
+    }
+
+    private int progressiveWideningWidth() {
+        return (int) Math.floor(params.progressiveWideningConstant * Math.pow(nVisits + 1, params.progressiveWideningExponent));
+    }
+
     /**
      * Performs full MCTS search, using the defined budget limits.
      */
@@ -273,7 +326,7 @@ public class SingleTreeNode {
      */
     protected void oneSearchIteration() {
         double[] startingValues = IntStream.range(0, openLoopState.getNPlayers())
-                .mapToDouble(i -> heuristic.evaluateState(openLoopState, i)).toArray();
+                .mapToDouble(i -> Metrics.evaluate(heuristic, openLoopState, i)).toArray();
 
         List<Pair<Integer, AbstractAction>> treeActions = new ArrayList<>();
         SingleTreeNode selected = treePolicy(treeActions);
@@ -283,6 +336,7 @@ public class SingleTreeNode {
         double[] delta = selected.rollOut(rolloutActions, startingValues, decisionPlayer, lastActorInTree);
         // Back up the value of the rollout through the tree
         rolloutActionsTaken += rolloutActions.size();
+        Metrics.record(Metrics.Metric.ROLLOUT_LENGTH, state, null, rolloutActions.size());
         selected.backUp(delta);
         updateMASTStatistics(treeActions, rolloutActions, delta);
     }
@@ -425,7 +479,7 @@ public class SingleTreeNode {
                     // Because OLS = state in this case, so we need to copy it before updating it and
                     // using it to populate a new node.
                 }
-                cur.advance(nextState, chosen);
+                cur.advance(nextState, chosen, true);
                 // then create the new node
                 return cur.expandNode(chosen, nextState);
             } else {
@@ -435,7 +489,7 @@ public class SingleTreeNode {
                     // We do not need to copy the state, as we advance this as we descend the tree.
                     // In open loop we never re-use the state...the only purpose of storing it on the Node is
                     // to pick it up in the next uct() call as we descend the tree
-                    cur.advance(cur.openLoopState, chosen);
+                    cur.advance(cur.openLoopState, chosen, true);
                 }
                 cur = cur.nextNodeInTree(chosen);
                 // else we keep cur, but will exit immediately
@@ -447,7 +501,7 @@ public class SingleTreeNode {
 
     protected List<AbstractAction> actionsToConsider(List<AbstractAction> allAvailable, int usedElsewhere) {
         if (!allAvailable.isEmpty() && params.progressiveWideningConstant >= 1.0) {
-            int actionsToConsider = (int) Math.floor(params.progressiveWideningConstant * Math.pow(nVisits + 1, params.progressiveWideningExponent));
+            int actionsToConsider = progressiveWideningWidth();
             actionsToConsider = Math.min(actionsToConsider - usedElsewhere, allAvailable.size());
             // takes account of the expanded actions
             if (actionsToConsider <= 0) return new ArrayList<>();
@@ -465,6 +519,7 @@ public class SingleTreeNode {
         // first cater for an edge case with progressive widening
         // where the expanded children may include available actions not in the current pruning width
         // this can occur where we have different available actions (actionsFromOpenLoopState) on each iteration
+        widenLazyActions();
         List<AbstractAction> topActions = params.progressiveWideningConstant >= 1.0
                 ? actionsToConsider(actionsFromOpenLoopState, 0)
                 : actionsFromOpenLoopState;
@@ -508,12 +563,39 @@ public class SingleTreeNode {
         // then instantiate a new node
         int nextPlayer = params.opponentTreePolicy.selfOnlyTree ? decisionPlayer : nextState.getCurrentPlayer();
         SingleTreeNode tn = SingleTreeNode.createChildNode(this, actionCopy, nextState);
-        SingleTreeNode[] nodeArray = new SingleTreeNode[nextState.getNPlayers()];
-        nodeArray[nextPlayer] = tn; // we store this by id of the player who will take their turn next
+        int index = childIndex(actionCopy, nextPlayer, nextState.getNPlayers());
+        SingleTreeNode[] nodeArray = new SingleTreeNode[Math.max(nextState.getNPlayers(), index + 1)];
+        nodeArray[index] = tn; // we store this by id of the player who will take their turn next (and the outcome)
         children.put(actionCopy, nodeArray);
         return tn;
     }
 
+    /**
+     * Finds where in the children array of action a child should go. Without chanceNodes this is just the id of the
+     * next player; otherwise it also depends on the random outcome of the last call to advance(), which is consumed.
+     * New outcomes get their own bucket while the action has fewer than
+     * chanceWideningConstant * (visits + 1) ^ chanceWideningExponent of them (double progressive widening), unless
+     * the outcomes are being expanded exactly, when every outcome gets a bucket.
+     */
+    private int childIndex(AbstractAction action, int nextPlayer, int nPlayers) {
+        long outcome = lastChanceOutcome;
+        lastChanceOutcome = IChanceOutcome.NO_CHANCE;
+        if (outcome == IChanceOutcome.NO_CHANCE)
+            return nextPlayer;
+        if (chanceBuckets == null)
+            chanceBuckets = new HashMap<>();
+        Map<Long, Integer> buckets = chanceBuckets.computeIfAbsent(action, a -> new HashMap<>());
+        Integer bucket = buckets.get(outcome);
+        if (bucket == null) {
+            int width = (int) Math.floor(params.chanceWideningConstant * Math.pow(actionVisits(action) + 1, params.chanceWideningExponent));
+            if (buckets.size() >= width && !exactChance())
+                return nextPlayer;
+            bucket = buckets.size() + 1;
+            buckets.put(outcome, bucket);
+        }
+        return bucket * nPlayers + nextPlayer;
+    }
+
 
     /**
      * Advance the current game state with the given action, count the FM call and compute the next available actions.
@@ -525,13 +607,58 @@ public class SingleTreeNode {
      * @param act - action to apply
      */
     protected void advance(AbstractGameState gs, AbstractAction act) {
+        advance(gs, act, false);
+    }
+
+    /**
+     * As advance(gs, act), but when inTree is true (the action is taken from this node during tree descent rather
+     * than in a rollout) and chance nodes are expanded exactly, the random outcome of the action is then replaced
+     * with the one furthest below its share of visits.
+     */
+    protected void advance(AbstractGameState gs, AbstractAction act, boolean inTree) {
         // we execute a copy(), because this can change the action, so we then don't find the node later!
         forwardModel.next(gs, act.copy());
         root.fmCallsCount++;
+        if (params.chanceNodes && forwardModel instanceof IChanceOutcome) {
+            lastChanceOutcome = ((IChanceOutcome) forwardModel).chanceOutcome(gs, act);
+            if (inTree && lastChanceOutcome != IChanceOutcome.NO_CHANCE && exactChance())
+                lastChanceOutcome = chooseChanceOutcome(gs, act);
+        }
         if (params.opponentTreePolicy == SelfOnly && gs.getCurrentPlayer() != decisionPlayer)
             advanceToTurnOfPlayer(gs, decisionPlayer);
     }
 
+    private boolean exactChance() {
+        return params.exactChanceNodes && forwardModel instanceof IChanceDistribution;
+    }
+
+    /**
+     * Picks the outcome of the action just applied to gs for which probability * (n + 1) - visits is largest, where
+     * n is the number of outcomes chosen so far, and sets it on the state. This keeps the number of visits to each
+     * outcome within one of its exact share, so the value of the action is the probability-weighted value of its
+     * outcomes rather than an estimate from samples.
+     */
+    private long chooseChanceOutcome(AbstractGameState gs, AbstractAction act) {
+        IChanceDistribution fm = (IChanceDistribution) forwardModel;
+        if (chanceCounts == null)
+            chanceCounts = new HashMap<>();
+        Map<Long, Integer> counts = chanceCounts.computeIfAbsent(act, a -> new HashMap<>());
+        int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+        long chosen = lastChanceOutcome;
+        double maxDeficit = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<Long, Double> outcome : fm.chanceDistribution(gs, act).entrySet()) {
+            double deficit = outcome.getValue() * (total + 1) - counts.getOrDefault(outcome.getKey(), 0);
+            if (deficit > maxDeficit) {
+                maxDeficit = deficit;
+                chosen = outcome.getKey();
+            }
+        }
+        counts.merge(chosen, 1, Integer::sum);
+        if (chosen != lastChanceOutcome)
+            fm.setChanceOutcome(gs, act, chosen);
+        return chosen;
+    }
+
     /**
      * Advance the game state to the next point at which it is the turn of the specified player.
      * This is used when we are only tracking our ourselves in the tree.
@@ -562,6 +689,7 @@ public class SingleTreeNode {
         if (params.opponentTreePolicy == SelfOnly && openLoopState != null && openLoopState.getCurrentPlayer() != decisionPlayer)
             throw new AssertionError("An error has occurred. SelfOnly should only call uct when we are moving.");
 
+        widenLazyActions();
         List<AbstractAction> availableActions = actionsToConsider(actionsFromOpenLoopState, 0);
         if (availableActions.isEmpty())
             throw new AssertionError("We need to have at least one option");
@@ -602,16 +730,23 @@ public class SingleTreeNode {
             }
         } else {
             int nextPlayer = params.opponentTreePolicy.selfOnlyTree ? decisionPlayer : openLoopState.getCurrentPlayer();
-            SingleTreeNode nextNode = nodeArray[nextPlayer];
+            int index = childIndex(actionChosen, nextPlayer, openLoopState.getNPlayers());
+            if (index >= nodeArray.length) {
+                // a new random outcome
+                nodeArray = Arrays.copyOf(nodeArray, index + 1);
+                children.put(actionChosen, nodeArray);
+            }
+            SingleTreeNode nextNode = nodeArray[index];
             if (nextNode == null) {
                 // need to create a new node - this is because we have a different player acting than expected
-                if (params.opponentTreePolicy.selfOnlyTree)
+                // (or a new random outcome)
+                if (params.opponentTreePolicy.selfOnlyTree && index == nextPlayer)
                     throw new AssertionError("Not sure this should be possible though");
-                nodeArray[nextPlayer] = SingleTreeNode.createChildNode(this, actionChosen.copy(), openLoopState);
-                nextNode = nodeArray[nextPlayer];
+                nodeArray[index] = SingleTreeNode.createChildNode(this, actionChosen.copy(), openLoopState);
+                nextNode = nodeArray[index];
             } else if (params.opponentTreePolicy.selfOnlyTree && nextNode.decisionPlayer != decisionPlayer) {
-                nodeArray[nextPlayer] = SingleTreeNode.createChildNode(this, actionChosen.copy(), openLoopState);
-                nextNode = nodeArray[nextPlayer];
+                nodeArray[index] = SingleTreeNode.createChildNode(this, actionChosen.copy(), openLoopState);
+                nextNode = nodeArray[index];
             } else {
                 // pick up the existing one, and set the state
                 nextNode.setActionsFromOpenLoopState(openLoopState);
@@ -831,7 +966,7 @@ public class SingleTreeNode {
         double[] retValue = new double[rolloutState.getNPlayers()];
 
         for (int i = 0; i < retValue.length; i++) {
-            retValue[i] = heuristic.evaluateState(rolloutState, i) - startingValues[i];
+            retValue[i] = Metrics.evaluate(heuristic, rolloutState, i) - startingValues[i];
             if (Double.isNaN(retValue[i]))
                 throw new AssertionError("Illegal heuristic value - should be a number");
         }
@@ -7,6 +7,7 @@ import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 import utilities.Pair;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -16,6 +17,7 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
     protected int nonRepairCount;
     AbstractAction[] actions;         // Actions in individual. Intended max length of individual = actions.length
     AbstractGameState[] gameStates;   // Game states in individual.
+    double[] stateScores;             // Heuristic value of each of gameStates (cached so the prefix is not re-evaluated)
     double value;                     // Fitness of individual, to be maximised.
     int length;                       // Actual length of individual, <= actions.length
     double discountFactor;            // Discount factor for calculating rewards
@@ -26,37 +28,69 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
     RHEAIndividual(int L, double discountFactor, AbstractForwardModel fm, AbstractGameState gs,
                    int playerID, Random gen, IStateHeuristic heuristic,
                    AbstractPlayer rolloutPolicy) {
+        initialise(L, discountFactor, fm, gs, playerID, gen, heuristic, rolloutPolicy);
+    }
+
+    // Copy constructor
+    RHEAIndividual(RHEAIndividual I) {
+        copyFrom(I);
+    }
+
+    /**
+     * (Re-)initialises this individual with a fresh random rollout from gs. This re-uses the existing
+     * action and state arrays where possible, so that RHEAPlayer can recycle individuals between generations.
+     */
+    void initialise(int L, double discountFactor, AbstractForwardModel fm, AbstractGameState gs,
+                    int playerID, Random gen, IStateHeuristic heuristic,
+                    AbstractPlayer rolloutPolicy) {
         // Initialize
         this.gen = gen;
         this.discountFactor = discountFactor;
-        actions = new AbstractAction[L];
-        gameStates = new AbstractGameState[L + 1];
+        allocate(L);
+        Arrays.fill(actions, null);
+        Arrays.fill(gameStates, null);
         this.heuristic = heuristic;
         this.rolloutPolicy = rolloutPolicy;
+        repairCount = 0;
+        nonRepairCount = 0;
 
         // Rollout with random actions and assign fitness value
         gameStates[0] = gs.copy();
         rollout(fm, 0, playerID, true);
     }
 
-    // Copy constructor
-    RHEAIndividual(RHEAIndividual I) {
-        actions = new AbstractAction[I.actions.length];
-        gameStates = new AbstractGameState[I.gameStates.length];
+    /**
+     * Overwrites this individual in place with the genome of I (the equivalent of the copy constructor, but
+     * without allocating new arrays if this individual is being recycled).
+     */
+    void copyFrom(RHEAIndividual I) {
+        allocate(I.actions.length);
         length = I.length;
         discountFactor = I.discountFactor;
         heuristic = I.heuristic;
-        rolloutPolicy = I.rolloutPolicy.copy();
+        rolloutPolicy = I.rolloutPolicy;
+        repairCount = 0;
+        nonRepairCount = 0;
 
-        for (int i = 0; i < length; i++) {
-            actions[i] = I.actions[i]; //.copy();
-            gameStates[i] = I.gameStates[i]; //.copy(); // Should not need to copy game states, as we always copy before we use!
-        }
+        System.arraycopy(I.actions, 0, actions, 0, length);
+        System.arraycopy(I.gameStates, 0, gameStates, 0, length);
+        System.arraycopy(I.stateScores, 0, stateScores, 0, length);
+        // Should not need to copy game states, as we always copy before we use!
+        Arrays.fill(actions, length, actions.length, null);
+        Arrays.fill(gameStates, length, gameStates.length, null);
 
         value = I.value;
         gen = I.gen;
     }
 
+    private void allocate(int L) {
+        if (actions == null || actions.length != L) {
+            actions = new AbstractAction[L];
+            gameStates = new AbstractGameState[L + 1];
+            stateScores = new double[L + 1];
+        }
+    }
+
     /**
      * Mutates this individual, by picking an index and changing all genes from that point on.
      * Updates the length of the individual in case the rollout hits game end.
@@ -103,13 +137,12 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
         double delta = 0;
         double previousScore = 0;
         int fmCalls = 0, copyCalls = 0;
-        AbstractGameState gs = gameStates[startIndex].copy();
+        // The stored states are never modified (we always copy before applying the forward model), so we can
+        // start from the stored state directly, and re-use the cached scores for the unchanged prefix
+        AbstractGameState gs = gameStates[startIndex];
 
         for (int i = 0; i < startIndex; i++) {
-            double score;
-            score = heuristic.evaluateState(gameStates[i + 1], playerID);
-            if (Double.isNaN(score))
-                throw new AssertionError("Illegal heuristic value - should be a number");
+            double score = stateScores[i + 1];
             delta += Math.pow(discountFactor, i) * (score - previousScore);
             previousScore = score;
         }
@@ -159,6 +192,7 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
                 score = heuristic.evaluateState(gameStates[i + 1], playerID);
                 if (Double.isNaN(score))
                     throw new AssertionError("Illegal heuristic value - should be a number");
+                stateScores[i + 1] = score;
                 delta += Math.pow(discountFactor, i) * (score - previousScore);
                 previousScore = score;
 
@@ -19,6 +19,9 @@ public class RHEAPlayer extends AbstractPlayer {
     RHEAParams params;
     List<Map<AbstractAction, Pair<Integer, Double>>> MASTStatistics; // a list of one Map per player. Action -> (visits, totValue)
     private List<RHEAIndividual> population = new ArrayList<>();
+    // Individuals (and their arrays) are recycled between generations rather than re-allocated
+    private List<RHEAIndividual> nextPopulation = new ArrayList<>();
+    private final Deque<RHEAIndividual> spareIndividuals = new ArrayDeque<>();
     // Budgets
     private double timePerIteration = 0, timeTaken = 0, initTime = 0;
     private int numIters = 0;
@@ -47,6 +50,8 @@ public class RHEAPlayer extends AbstractPlayer {
         for (int i = 0; i < state.getNPlayers(); i++)
             MASTStatistics.add(new HashMap<>());
         population = new ArrayList<>();
+        nextPopulation = new ArrayList<>();
+        spareIndividuals.clear();
     }
 
     @Override
@@ -85,11 +90,19 @@ public class RHEAPlayer extends AbstractPlayer {
                 copyCalls += calls.b;
             }
         } else {
-            population = new ArrayList<>();
+            spareIndividuals.addAll(population);
+            population.clear();
             for (int i = 0; i < params.populationSize; ++i) {
                 if (!budgetLeft(timer)) break;
-                population.add(new RHEAIndividual(params.horizon, params.discountFactor, getForwardModel(), stateObs,
-                        getPlayerID(), randomGenerator, params.heuristic, params.useMAST ? mastPlayer : randomPlayer));
+                RHEAIndividual individual = spareIndividuals.poll();
+                if (individual == null) {
+                    individual = new RHEAIndividual(params.horizon, params.discountFactor, getForwardModel(), stateObs,
+                            getPlayerID(), randomGenerator, params.heuristic, params.useMAST ? mastPlayer : randomPlayer);
+                } else {
+                    individual.initialise(params.horizon, params.discountFactor, getForwardModel(), stateObs,
+                            getPlayerID(), randomGenerator, params.heuristic, params.useMAST ? mastPlayer : randomPlayer);
+                }
+                population.add(individual);
                 fmCalls += population.get(i).length;
                 copyCalls += population.get(i).length;
             }
@@ -136,10 +149,21 @@ public class RHEAPlayer extends AbstractPlayer {
         return new RHEAPlayer(newParams);
     }
 
+    /**
+     * @return a copy of the individual, re-using a spare individual from an earlier generation if there is one
+     */
+    private RHEAIndividual copyOf(RHEAIndividual individual) {
+        RHEAIndividual retValue = spareIndividuals.poll();
+        if (retValue == null)
+            return new RHEAIndividual(individual);
+        retValue.copyFrom(individual);
+        return retValue;
+    }
+
     private RHEAIndividual crossover(RHEAIndividual p1, RHEAIndividual p2) {
         switch (params.crossoverType) {
             case NONE: // we just take the first parent
-                return new RHEAIndividual(p1);
+                return copyOf(p1);
             case UNIFORM:
                 return uniformCrossover(p1, p2);
             case ONE_POINT:
@@ -152,39 +176,43 @@ public class RHEAPlayer extends AbstractPlayer {
     }
 
     private RHEAIndividual uniformCrossover(RHEAIndividual p1, RHEAIndividual p2) {
-        RHEAIndividual child = new RHEAIndividual(p1);
+        RHEAIndividual child = copyOf(p1);
         copyCalls += child.length;
         int min = Math.min(p1.length, p2.length);
         for (int i = 0; i < min; ++i) {
             if (randomGenerator.nextFloat() >= 0.5f) {
                 child.actions[i] = p2.actions[i];
                 child.gameStates[i] = p2.gameStates[i]; //.copy();
+                child.stateScores[i] = p2.stateScores[i];
             }
         }
         return child;
     }
 
     private RHEAIndividual onePointCrossover(RHEAIndividual p1, RHEAIndividual p2) {
-        RHEAIndividual child = new RHEAIndividual(p1);
+        RHEAIndividual child = copyOf(p1);
         copyCalls += child.length;
         int tailLength = Math.min(p1.length, p2.length) / 2;
 
         for (int i = 0; i < tailLength; ++i) {
             child.actions[child.length - 1 - i] = p2.actions[p2.length - 1 - i];
             child.gameStates[child.length - 1 - i] = p2.gameStates[p2.length - 1 - i]; //.copy();
+            child.stateScores[child.length - 1 - i] = p2.stateScores[p2.length - 1 - i];
         }
         return child;
     }
 
     private RHEAIndividual twoPointCrossover(RHEAIndividual p1, RHEAIndividual p2) {
-        RHEAIndividual child = new RHEAIndividual(p1);
+        RHEAIndividual child = copyOf(p1);
         copyCalls += child.length;
         int tailLength = Math.min(p1.length, p2.length) / 3;
         for (int i = 0; i < tailLength; ++i) {
             child.actions[i] = p2.actions[i];
             child.gameStates[i] = p2.gameStates[i]; //.copy();
+            child.stateScores[i] = p2.stateScores[i];
             child.actions[child.length - 1 - i] = p2.actions[p2.length - 1 - i];
             child.gameStates[child.length - 1 - i] = p2.gameStates[p2.length - 1 - i]; //.copy();
+            child.stateScores[child.length - 1 - i] = p2.stateScores[p2.length - 1 - i];
         }
         return child;
     }
@@ -240,9 +268,10 @@ public class RHEAPlayer extends AbstractPlayer {
      */
     private void runIteration() {
         //copy elites
-        List<RHEAIndividual> newPopulation = new ArrayList<>();
+        List<RHEAIndividual> newPopulation = nextPopulation;
+        newPopulation.clear();
         for (int i = 0, max = Math.min(params.eliteCount, population.size()); i < max; ++i) {
-            newPopulation.add(new RHEAIndividual(population.get(i)));
+            newPopulation.add(copyOf(population.get(i)));
         }
         //crossover
         for (int i = 0; i < params.childCount; ++i) {
@@ -264,11 +293,16 @@ public class RHEAPlayer extends AbstractPlayer {
         //sort
         population.sort(Comparator.naturalOrder());
 
-        //best ones get moved to the new population
-        for (int i = 0; i < Math.min(population.size(), params.populationSize - params.eliteCount); ++i) {
-            newPopulation.add(population.get(i));
+        //best ones get moved to the new population, and the rest are kept for re-use
+        int survivors = Math.min(population.size(), params.populationSize - params.eliteCount);
+        for (int i = 0; i < population.size(); ++i) {
+            if (i < survivors)
+                newPopulation.add(population.get(i));
+            else
+                spareIndividuals.push(population.get(i));
         }
 
+        nextPopulation = population;
         population = newPopulation;
 
         population.sort(Comparator.naturalOrder());
@@ -4,13 +4,15 @@ import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
 public class Individual implements Comparable {
 
     AbstractAction[] actions;         // Actions in individual. Intended max length of individual = actions.length
-    AbstractGameState[] gameStates;   // Game states in individual.
+    AbstractGameState[] gameStates;   // Game states in individual. These are never modified once stored.
+    double[] stateScores;             // Heuristic value of each of gameStates (cached so the prefix is not re-evaluated)
     double value;                     // Fitness of individual, to be maximised.
     int length;                       // Actual length of individual, <= actions.length
     double discountFactor;            // Discount factor for calculating rewards
@@ -24,6 +26,7 @@ public class Individual implements Comparable {
         this.discountFactor = discountFactor;
         actions = new AbstractAction[L];
         gameStates = new AbstractGameState[L+1];
+        stateScores = new double[L+1];
         gameStates[0] = gs.copy();
         this.heuristic = heuristic;
 
@@ -33,15 +36,30 @@ public class Individual implements Comparable {
 
     // Copy constructor
     Individual(Individual I){
-        actions = new AbstractAction[I.actions.length];
-        gameStates = new AbstractGameState[I.gameStates.length];
+        copyFrom(I);
+    }
+
+    /**
+     * Overwrites this individual in place with I. The arrays are only re-allocated if the
+     * horizon has changed, so that RMHCPlayer can re-use the same candidate individual on every iteration.
+     * The actions and states are shared with I rather than copied: stored states are never modified (rollout()
+     * always copies before applying the forward model), and a mutation only overwrites entries from the
+     * mutation point onwards.
+     */
+    void copyFrom(Individual I){
+        if (actions == null || actions.length != I.actions.length) {
+            actions = new AbstractAction[I.actions.length];
+            gameStates = new AbstractGameState[I.gameStates.length];
+            stateScores = new double[I.stateScores.length];
+        }
         length = I.length;
         discountFactor = I.discountFactor;
 
-        for (int i = 0; i < length; i++){
-            actions[i] = I.actions[i].copy();
-            gameStates[i] = I.gameStates[i].copy();
-        }
+        System.arraycopy(I.actions, 0, actions, 0, length);
+        System.arraycopy(I.gameStates, 0, gameStates, 0, length);
+        System.arraycopy(I.stateScores, 0, stateScores, 0, length);
+        Arrays.fill(actions, length, actions.length, null);
+        Arrays.fill(gameStates, length, gameStates.length, null);
 
         value = I.value;
         gen = I.gen;
@@ -88,14 +106,7 @@ public class Individual implements Comparable {
         double previousScore = 0;
 
         for (int i = 0; i < startIndex; i++) {
-            double score;
-            if (this.heuristic != null){
-                score = heuristic.evaluateState(gameStates[i+1], playerID);
-            } else {
-                score = gameStates[i+1].getHeuristicScore(playerID);
-            }
-            if (Double.isNaN(score))
-                throw new AssertionError("Illegal heuristic value - should be a number");
+            double score = stateScores[i+1];
             delta += Math.pow(discountFactor, i) * (score - previousScore);
             previousScore = score;
         }
@@ -134,6 +145,7 @@ public class Individual implements Comparable {
                     }
                     if (Double.isNaN(score))
                         throw new AssertionError("Illegal heuristic value - should be a number");
+                    stateScores[i+1] = score;
                     delta += Math.pow(discountFactor, i) * (score - previousScore);
                     previousScore = score;
                 } else {
@@ -14,6 +14,7 @@ public class RMHCPlayer extends AbstractPlayer {
 
     RMHCParams params;
     private Individual bestIndividual;
+    private Individual candidate;  // re-used for every mutation, and swapped with bestIndividual when it improves
     private final Random randomGenerator;
     IStateHeuristic heuristic;
 
@@ -105,16 +106,21 @@ public class RMHCPlayer extends AbstractPlayer {
     private void runIteration(AbstractGameState stateObs) {
         ElapsedCpuTimer elapsedTimerIteration = new ElapsedCpuTimer();
 
-        // Create new individual through mutation
-        Individual newIndividual = new Individual(bestIndividual);
-        copyCalls += newIndividual.length;
-        int statesUpdated = newIndividual.mutate(getForwardModel(), getPlayerID());
+        // Create new individual through mutation (this shares the states of bestIndividual up to the mutation point)
+        if (candidate == null)
+            candidate = new Individual(bestIndividual);
+        else
+            candidate.copyFrom(bestIndividual);
+        int statesUpdated = candidate.mutate(getForwardModel(), getPlayerID());
         fmCalls += statesUpdated;
         copyCalls += statesUpdated; // as mutate() copyies once each time it applies the forward model
 
-        // Keep new individual if better than current
-        if (newIndividual.value > bestIndividual.value)
-            bestIndividual = newIndividual;
+        // Keep new individual if better than current (the old best then becomes the next candidate)
+        if (candidate.value > bestIndividual.value) {
+            Individual previousBest = bestIndividual;
+            bestIndividual = candidate;
+            candidate = previousBest;
+        }
 
         // Update budgets
         numIters++;
@@ -0,0 +1,192 @@
+package players.solver;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import utilities.Utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exact solver for two-player, deterministic, perfect-information games (TicTacToe, Connect4, DotsAndBoxes...).
+ * <p>
+ * This is a minimax alpha-beta search over the forward model, with a transposition table keyed by an IStateKey.
+ * Values are always from the point of view of player 0: WIN (+1), DRAW (0) or LOSS (-1). Player 0 maximises and
+ * player 1 minimises, which copes with games in which the same player can move several times in a row.
+ * <p>
+ * The transposition table is kept between calls to solve(), so later positions in the same game are usually
+ * solved almost immediately. Entries whose value is known exactly can be exported to a Tablebase.
+ * Chance events are not modelled, so games with dice or card draws (such as CantStop) cannot be solved like this.
+ */
+public class AlphaBetaSolver {
+
+    public static final int WIN = 1, DRAW = 0, LOSS = -1;
+
+    // Transposition table flags
+    static final byte EXACT = 0, LOWER = 1, UPPER = 2;
+
+    static class Entry {
+        final byte value;
+        final byte flag;
+        final short bestAction;
+
+        Entry(int value, byte flag, int bestAction) {
+            this.value = (byte) value;
+            this.flag = flag;
+            this.bestAction = (short) bestAction;
+        }
+
+        // As values only range from LOSS to WIN, a bound at the end of that range is exact
+        boolean isExact() {
+            return flag == EXACT || (flag == LOWER && value == WIN) || (flag == UPPER && value == LOSS);
+        }
+    }
+
+    private static class BudgetExceeded extends RuntimeException {
+        BudgetExceeded() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final AbstractForwardModel forwardModel;
+    private final IStateKey stateKey;
+    private final Map<Long, Entry> table = new HashMap<>();
+    private Tablebase tablebase;
+    private long nodeBudget;
+    private long nodes;
+
+    public AlphaBetaSolver(AbstractForwardModel forwardModel, IStateKey stateKey) {
+        this.forwardModel = forwardModel;
+        this.stateKey = stateKey;
+    }
+
+    /**
+     * Positions found in the tablebase are not searched any further.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Solves the given state.
+     *
+     * @param state      - state to solve. This is not modified.
+     * @param nodeBudget - maximum number of nodes to expand; 0 or less for no limit
+     * @return - the value of the state for player 0 (WIN, DRAW or LOSS), or null if the budget ran out first
+     */
+    public Integer solve(AbstractGameState state, long nodeBudget) {
+        if (state.getNPlayers() != 2)
+            throw new IllegalArgumentException("Only two-player games can be solved");
+        this.nodeBudget = nodeBudget > 0 ? nodeBudget : Long.MAX_VALUE;
+        this.nodes = 0;
+        try {
+            return search(state, LOSS, WIN);
+        } catch (BudgetExceeded e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of nodes expanded by the last call to solve()
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @param state - a game state
+     * @return the value of the state for player 0 if known exactly (from the game result, the tablebase or a
+     * previous search), otherwise null
+     */
+    public Integer lookup(AbstractGameState state) {
+        if (!state.isNotTerminal())
+            return terminalValue(state);
+        long key = stateKey.getKey(state);
+        if (tablebase != null) {
+            int value = tablebase.lookup(key);
+            if (value != Tablebase.UNKNOWN)
+                return value;
+        }
+        Entry e = table.get(key);
+        return e != null && e.isExact() ? (int) e.value : null;
+    }
+
+    /**
+     * @return all positions searched so far whose value is known exactly, as key -> value for player 0
+     */
+    public Map<Long, Integer> exactValues() {
+        Map<Long, Integer> retValue = new HashMap<>();
+        for (Map.Entry<Long, Entry> e : table.entrySet()) {
+            if (e.getValue().isExact())
+                retValue.put(e.getKey(), (int) e.getValue().value);
+        }
+        return retValue;
+    }
+
+    public void clear() {
+        table.clear();
+    }
+
+    public static int terminalValue(AbstractGameState state) {
+        Utils.GameResult[] results = state.getPlayerResults();
+        if (results[0] == Utils.GameResult.WIN || results[1] == Utils.GameResult.LOSE || results[1] == Utils.GameResult.DISQUALIFY)
+            return WIN;
+        if (results[1] == Utils.GameResult.WIN || results[0] == Utils.GameResult.LOSE || results[0] == Utils.GameResult.DISQUALIFY)
+            return LOSS;
+        return DRAW;
+    }
+
+    private int search(AbstractGameState state, int alpha, int beta) {
+        if (!state.isNotTerminal())
+            return terminalValue(state);
+
+        long key = stateKey.getKey(state);
+        if (tablebase != null) {
+            int value = tablebase.lookup(key);
+            if (value != Tablebase.UNKNOWN)
+                return value;
+        }
+        Entry entry = table.get(key);
+        int firstAction = 0;
+        if (entry != null) {
+            if (entry.isExact())
+                return entry.value;
+            if (entry.flag == LOWER) alpha = Math.max(alpha, entry.value);
+            else beta = Math.min(beta, entry.value);
+            if (alpha >= beta)
+                return entry.value;
+            firstAction = entry.bestAction;
+        }
+
+        if (++nodes > nodeBudget)
+            throw new BudgetExceeded();
+
+        int alphaOrig = alpha, betaOrig = beta;
+        boolean maximising = state.getCurrentPlayer() == 0;
+        List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+        if (firstAction >= actions.size()) firstAction = 0;
+        int best = maximising ? LOSS - 1 : WIN + 1;
+        int bestAction = 0;
+        for (int i = 0; i < actions.size(); i++) {
+            // try the best action from a previous search first
+            int a = i == 0 ? firstAction : (i <= firstAction ? i - 1 : i);
+            AbstractGameState child = state.copy();
+            forwardModel.next(child, actions.get(a).copy());
+            int value = search(child, alpha, beta);
+            if (maximising ? value > best : value < best) {
+                best = value;
+                bestAction = a;
+            }
+            if (maximising) alpha = Math.max(alpha, best);
+            else beta = Math.min(beta, best);
+            if (alpha >= beta)
+                break;
+        }
+
+        byte flag = best <= alphaOrig ? UPPER : best >= betaOrig ? LOWER : EXACT;
+        table.put(key, new Entry(best, flag, bestAction));
+        return best;
+    }
+}
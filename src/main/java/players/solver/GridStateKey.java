@@ -0,0 +1,54 @@
+package players.solver;
+
+import core.AbstractGameState;
+import core.components.GridBoard;
+import core.components.Token;
+import core.interfaces.IGridGameState;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact key for games whose state is fully described by a grid of Tokens and the player to move (such as
+ * TicTacToe and Connect4). Each cell is encoded as a digit in base (number of token types), with the current
+ * player as the lowest digit, so boards are limited to those for which this fits in 63 bits.
+ */
+public class GridStateKey implements IStateKey {
+
+    private final List<String> tokenTypes;
+    private final int nPlayers;
+
+    /**
+     * @param nPlayers   - number of players
+     * @param tokenTypes - every token type that can appear on the board (including the one for empty cells)
+     */
+    public GridStateKey(int nPlayers, String... tokenTypes) {
+        this.nPlayers = nPlayers;
+        this.tokenTypes = Arrays.asList(tokenTypes);
+    }
+
+    /**
+     * @return true if a board with this many cells can be keyed exactly
+     */
+    public boolean fits(int nCells) {
+        return nCells * Math.log(tokenTypes.size()) + Math.log(nPlayers) < 63 * Math.log(2);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public long getKey(AbstractGameState state) {
+        GridBoard<Token> grid = ((IGridGameState<Token>) state).getGridBoard();
+        if (!fits(grid.getWidth() * grid.getHeight()))
+            throw new IllegalArgumentException("Board of " + grid.getWidth() + "x" + grid.getHeight() + " is too large for an exact key");
+        long key = 0;
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                int type = tokenTypes.indexOf(grid.getElement(x, y).getTokenType());
+                if (type < 0)
+                    throw new IllegalArgumentException("Unknown token type " + grid.getElement(x, y).getTokenType());
+                key = key * tokenTypes.size() + type;
+            }
+        }
+        return key * nPlayers + state.getCurrentPlayer();
+    }
+}
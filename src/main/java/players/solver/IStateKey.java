@@ -0,0 +1,18 @@
+package players.solver;
+
+import core.AbstractGameState;
+
+/**
+ * Maps a game state to a 64-bit key that identifies it for the purposes of solving: two states with the same key
+ * must have the same game-theoretic value. The key should be exact (no collisions) if it is to be used to build a
+ * tablebase, and must not depend on anything that changes between runs (such as component IDs).
+ */
+@FunctionalInterface
+public interface IStateKey {
+
+    /**
+     * @param state - a game state
+     * @return the key for this state
+     */
+    long getKey(AbstractGameState state);
+}
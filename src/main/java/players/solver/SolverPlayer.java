@@ -0,0 +1,100 @@
+package players.solver;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.actions.AbstractAction;
+import players.simple.RandomPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays perfectly whenever it can prove the value of its options, and otherwise defers to a fallback player.
+ * <p>
+ * Each child position is first looked up (tablebase, then the solver's transposition table), and only searched with
+ * the AlphaBetaSolver, within nodeBudget, if that fails. A proven win is always taken; if every option is proven,
+ * the best is chosen; otherwise the fallback player chooses from the options not proven to lose.
+ */
+public class SolverPlayer extends AbstractPlayer {
+
+    private final IStateKey stateKey;
+    private final Tablebase tablebase;
+    private final long nodeBudget;
+    private final AbstractPlayer fallback;
+    private AlphaBetaSolver solver;
+
+    /**
+     * @param stateKey   - key for the game's states
+     * @param tablebase  - solved positions for the game (may be null)
+     * @param nodeBudget - maximum nodes to search for each option on each decision; 0 or less for no limit
+     * @param fallback   - player to use when the position cannot be solved (if null, a RandomPlayer)
+     */
+    public SolverPlayer(IStateKey stateKey, Tablebase tablebase, long nodeBudget, AbstractPlayer fallback) {
+        this.stateKey = stateKey;
+        this.tablebase = tablebase;
+        this.nodeBudget = nodeBudget;
+        this.fallback = fallback == null ? new RandomPlayer() : fallback;
+        setName("Solver");
+    }
+
+    @Override
+    public void setForwardModel(AbstractForwardModel model) {
+        super.setForwardModel(model);
+        fallback.setForwardModel(model);
+        solver = new AlphaBetaSolver(model, stateKey);
+        solver.setTablebase(tablebase);
+    }
+
+    @Override
+    public void initializePlayer(AbstractGameState gameState) {
+        fallback.initializePlayer(gameState);
+    }
+
+    @Override
+    public void finalizePlayer(AbstractGameState gameState) {
+        fallback.finalizePlayer(gameState);
+    }
+
+    @Override
+    public AbstractAction getAction(AbstractGameState gameState, List<AbstractAction> possibleActions) {
+        // values are from player 0's perspective
+        int sign = getPlayerID() == 0 ? 1 : -1;
+        List<AbstractAction> notLosing = new ArrayList<>();
+        AbstractAction bestProven = null;
+        int bestValue = Integer.MIN_VALUE;
+        boolean allProven = true;
+
+        for (AbstractAction action : possibleActions) {
+            AbstractGameState child = gameState.copy();
+            getForwardModel().next(child, action.copy());
+            Integer value = solver.lookup(child);
+            if (value == null)
+                value = solver.solve(child, nodeBudget);
+            if (value == null) {
+                allProven = false;
+                notLosing.add(action);
+                continue;
+            }
+            int myValue = value * sign;
+            if (myValue == AlphaBetaSolver.WIN)
+                return action;
+            if (myValue > bestValue) {
+                bestValue = myValue;
+                bestProven = action;
+            }
+            if (myValue > AlphaBetaSolver.LOSS)
+                notLosing.add(action);
+        }
+        if (allProven)
+            return bestProven;
+        if (notLosing.isEmpty())
+            notLosing = possibleActions;
+        return fallback.getAction(gameState, notLosing);
+    }
+
+    @Override
+    public SolverPlayer copy() {
+        return new SolverPlayer(stateKey, tablebase, nodeBudget, fallback.copy());
+    }
+}
@@ -0,0 +1,109 @@
+package players.solver;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+
+/**
+ * A read-only table of solved positions (state key -> value for player 0), stored as an open-addressing hash table
+ * in a file that is memory-mapped when opened. Lookups are O(1) (a hash and a short linear probe) and only touch
+ * the pages they need, so a tablebase can be shared by any number of players and heuristics, on any thread.
+ * <p>
+ * File layout: int MAGIC, int capacity (a power of 2), int number of entries; then capacity longs (the keys) and
+ * capacity bytes (the values, stored as value + 2, so that 0 marks an empty slot).
+ */
+public class Tablebase {
+
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final int MAGIC = 0x54424153;  // "TBAS"
+    private static final int HEADER_BYTES = 12;
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int size;
+    private final int valuesOffset;
+
+    private Tablebase(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("Not a tablebase file");
+        this.capacity = buffer.getInt(4);
+        this.size = buffer.getInt(8);
+        this.valuesOffset = HEADER_BYTES + capacity * 8;
+    }
+
+    /**
+     * Memory-maps an existing tablebase file.
+     *
+     * @param filename - file written by write()
+     * @return - the tablebase
+     */
+    public static Tablebase open(String filename) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filename, "r");
+             FileChannel channel = file.getChannel()) {
+            // the mapping remains valid after the channel is closed
+            return new Tablebase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes a tablebase file.
+     *
+     * @param filename - file to write
+     * @param values   - state key -> value for player 0 (AlphaBetaSolver.WIN, DRAW or LOSS)
+     */
+    public static void write(String filename, Map<Long, Integer> values) throws IOException {
+        int capacity = Integer.highestOneBit(Math.max(16, values.size() * 2 - 1)) << 1;
+        long fileSize = HEADER_BYTES + capacity * 9L;
+        if (fileSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many positions for a single tablebase file: " + values.size());
+        try (RandomAccessFile file = new RandomAccessFile(filename, "rw");
+             FileChannel channel = file.getChannel()) {
+            file.setLength(0);
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            out.putInt(0, MAGIC);
+            out.putInt(4, capacity);
+            out.putInt(8, values.size());
+            int valuesOffset = HEADER_BYTES + capacity * 8;
+            for (Map.Entry<Long, Integer> e : values.entrySet()) {
+                int slot = slot(e.getKey(), capacity);
+                while (out.get(valuesOffset + slot) != 0)
+                    slot = (slot + 1) & (capacity - 1);
+                out.putLong(HEADER_BYTES + slot * 8, e.getKey());
+                out.put(valuesOffset + slot, (byte) (e.getValue() + 2));
+            }
+            out.force();
+        }
+    }
+
+    /**
+     * @param key - state key
+     * @return - the value of the state for player 0, or UNKNOWN if it is not in the tablebase
+     */
+    public int lookup(long key) {
+        int slot = slot(key, capacity);
+        while (true) {
+            byte value = buffer.get(valuesOffset + slot);
+            if (value == 0)
+                return UNKNOWN;
+            if (buffer.getLong(HEADER_BYTES + slot * 8) == key)
+                return value - 2;
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int slot(long key, int capacity) {
+        // finaliser from SplitMix64, so that keys differing only in their low digits spread out
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        key ^= key >>> 31;
+        return (int) key & (capacity - 1);
+    }
+}
@@ -0,0 +1,79 @@
+package players.solver;
+
+import core.AbstractParameters;
+import core.AbstractPlayer;
+import core.Game;
+import core.ParameterFactory;
+import games.GameType;
+import games.connect4.Connect4Constants;
+import games.dotsboxes.DBStateKey;
+import games.tictactoe.TicTacToeConstants;
+import players.simple.RandomPlayer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static utilities.Utils.getArg;
+
+/**
+ * Solves a small game from its initial position, and writes every position proven along the way to a Tablebase.
+ */
+public class TablebaseBuilder {
+
+    /**
+     * @param game - the game
+     * @return an exact IStateKey for the game
+     */
+    public static IStateKey defaultKey(GameType game) {
+        switch (game) {
+            case TicTacToe:
+                return new GridStateKey(2, TicTacToeConstants.emptyCell,
+                        TicTacToeConstants.playerMapping.get(0).getTokenType(), TicTacToeConstants.playerMapping.get(1).getTokenType());
+            case Connect4:
+                return new GridStateKey(2, Connect4Constants.emptyCell,
+                        Connect4Constants.playerMapping.get(0).getTokenType(), Connect4Constants.playerMapping.get(1).getTokenType());
+            case DotsAndBoxes:
+                return new DBStateKey();
+        }
+        throw new IllegalArgumentException("No exact state key available for " + game);
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> argsList = Arrays.asList(args);
+        if (argsList.contains("--help") || argsList.contains("-h") || argsList.size() == 0) {
+            System.out.println(
+                    "To run this class, you can supply a number of possible arguments:\n" +
+                            "\tgame=          The game to solve (TicTacToe, Connect4 or DotsAndBoxes).\n" +
+                            "\tgameParam=     (Optional) A JSON file from which the game parameters will be initialised.\n" +
+                            "\t               Only small boards can be solved, so this will usually be needed.\n" +
+                            "\tout=           The tablebase file to write. Defaults to <game>.tb\n" +
+                            "\tbudget=        (Optional) The maximum number of nodes to search. Defaults to no limit."
+            );
+            return;
+        }
+        GameType gameType = GameType.valueOf(getArg(args, "game", ""));
+        String gameParams = getArg(args, "gameParam", "");
+        String out = getArg(args, "out", gameType.name() + ".tb");
+        int budget = getArg(args, "budget", 0);
+
+        AbstractParameters params = ParameterFactory.createFromFile(gameType, gameParams);
+        Game game = gameType.createGameInstance(2, params);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(new RandomPlayer());
+        players.add(new RandomPlayer());
+        game.reset(players);
+
+        AlphaBetaSolver solver = new AlphaBetaSolver(game.getForwardModel(), defaultKey(gameType));
+        long start = System.currentTimeMillis();
+        Integer value = solver.solve(game.getGameState(), budget);
+        System.out.printf("%s: %s after %d nodes in %d ms%n", gameType.name(),
+                value == null ? "unsolved (budget exceeded)" : value == AlphaBetaSolver.WIN ? "first player wins" :
+                        value == AlphaBetaSolver.LOSS ? "second player wins" : "draw",
+                solver.getNodes(), System.currentTimeMillis() - start);
+
+        Tablebase.write(out, solver.exactValues());
+        System.out.printf("Wrote %d positions to %s%n", Tablebase.open(out).size(), out);
+    }
+}
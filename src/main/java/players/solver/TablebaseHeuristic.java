@@ -0,0 +1,35 @@
+package players.solver;
+
+import core.AbstractGameState;
+import core.interfaces.IStateHeuristic;
+
+/**
+ * Scores solved positions exactly (+1 for a proven win, 0 for a draw, -1 for a loss) from a tablebase, and defers
+ * to another heuristic for everything else. As a rollout heuristic this ends the evaluation of any endgame
+ * position in the tablebase with its true value.
+ */
+public class TablebaseHeuristic implements IStateHeuristic {
+
+    private final Tablebase tablebase;
+    private final IStateKey stateKey;
+    private final IStateHeuristic fallback;
+
+    /**
+     * @param tablebase - solved positions
+     * @param stateKey  - the key used to build the tablebase
+     * @param fallback  - heuristic for positions not in the tablebase (if null, the game's own heuristic score)
+     */
+    public TablebaseHeuristic(Tablebase tablebase, IStateKey stateKey, IStateHeuristic fallback) {
+        this.tablebase = tablebase;
+        this.stateKey = stateKey;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public double evaluateState(AbstractGameState gs, int playerId) {
+        int value = gs.isNotTerminal() ? tablebase.lookup(stateKey.getKey(gs)) : AlphaBetaSolver.terminalValue(gs);
+        if (value == Tablebase.UNKNOWN)
+            return fallback != null ? fallback.evaluateState(gs, playerId) : gs.getHeuristicScore(playerId);
+        return playerId == 0 ? value : -value;
+    }
+}
@@ -0,0 +1,163 @@
+package utilities;
+
+import core.AbstractGameState;
+import core.CoreConstants;
+import core.Game;
+import core.actions.AbstractAction;
+import core.interfaces.IGameListener;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Wraps an IGameListener so that its onEvent() calls run on a worker thread of its own, rather than on the game
+ * thread. This takes slow listeners (feature extraction, detailed logging...) out of the time taken by each action.
+ * <p>
+ * - Each event is queued with a copy of the state (and action), as the game carries on changing the live one. These
+ * copies are still made on the game thread, for every event, including those the wrapped listener ignores. So this
+ * only helps when the listener takes longer over an event than the game takes to copy its state.
+ * - Each wrapped listener has its own worker, so events reach it in the order they were raised.
+ * - The queue is bounded; if the listener falls too far behind, the game thread waits for space.
+ * - onGameEvent() passes the Game itself, which cannot be copied. So these calls wait until all earlier events have
+ * been processed, and are then made on the game thread as usual.
+ * - allGamesFinished() waits until every event has been processed before passing it on.
+ * - close() stops the worker thread once the wrapper is no longer needed. Any later events are passed straight on to
+ * the listener, on the calling thread.
+ * <p>
+ * Any exception thrown by the listener on the worker is re-thrown on the game thread at the next onGameEvent()
+ * or allGamesFinished().
+ */
+public class AsyncGameListener implements IGameListener {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private final IGameListener listener;
+    private final BlockingQueue<Runnable> queue;
+    private final Thread worker;
+    private volatile Throwable failure;
+    private boolean closed;
+
+    // queued by close(), to tell the worker to stop
+    private static final Runnable STOP = () -> {
+    };
+
+    /**
+     * @param listener - the listener to wrap
+     */
+    public AsyncGameListener(IGameListener listener) {
+        this(listener, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param listener - the listener to wrap
+     * @param capacity - the maximum number of events waiting to be processed
+     */
+    public AsyncGameListener(IGameListener listener, int capacity) {
+        this.listener = listener;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        worker = new Thread(this::processEvents, "AsyncGameListener-" + listener.getClass().getSimpleName());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public IGameListener getListener() {
+        return listener;
+    }
+
+    @Override
+    public void onGameEvent(CoreConstants.GameEvents type, Game game) {
+        flush();
+        listener.onGameEvent(type, game);
+    }
+
+    @Override
+    public void onEvent(CoreConstants.GameEvents type, AbstractGameState state, AbstractAction action) {
+        if (closed) {
+            listener.onEvent(type, state, action);
+            return;
+        }
+        AbstractGameState stateCopy = state.copy();
+        AbstractAction actionCopy = action == null ? null : action.copy();
+        put(() -> listener.onEvent(type, stateCopy, actionCopy));
+    }
+
+    @Override
+    public void allGamesFinished() {
+        flush();
+        listener.allGamesFinished();
+    }
+
+    /**
+     * Blocks until every event queued so far has been processed by the listener.
+     */
+    public void flush() {
+        if (closed)
+            return;
+        CountDownLatch done = new CountDownLatch(1);
+        put(done::countDown);
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable t = failure;
+        if (t != null) {
+            failure = null;
+            throw new RuntimeException("Exception in " + listener.getClass().getSimpleName(), t);
+        }
+    }
+
+    /**
+     * Processes any events still queued, and then stops the worker thread. Calling this more than once has no effect.
+     */
+    public void close() {
+        if (closed)
+            return;
+        flush();
+        closed = true;
+        put(STOP);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void put(Runnable event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void processEvents() {
+        while (true) {
+            Runnable event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (event == STOP)
+                return;
+            try {
+                event.run();
+            } catch (Throwable t) {
+                if (failure == null)
+                    failure = t;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AsyncGameListener && ((AsyncGameListener) o).listener.equals(listener);
+    }
+
+    @Override
+    public int hashCode() {
+        return listener.hashCode() + 31;
+    }
+}
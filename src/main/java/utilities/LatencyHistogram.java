@@ -0,0 +1,107 @@
+package utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative long values (typically nanoseconds), with buckets whose width grows with the value,
+ * in the style of an HDR histogram. Values below 64 have a bucket each, and above that every power of two is split
+ * into 32 buckets, so any value is recorded to within about 3%. This covers the whole range of a long in a fixed
+ * 15kB, and recording a value is a few arithmetic operations and atomic increments, with no allocation and no locks.
+ * It can be recorded to from many threads at once.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 6, HALF = 1 << (SUB_BITS - 1), LINEAR = 1 << SUB_BITS;
+    private static final int BUCKETS = (63 - SUB_BITS + 1) * HALF + LINEAR;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong(), sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE), min = new AtomicLong(Long.MAX_VALUE);
+
+    static int bucket(long value) {
+        if (value < LINEAR)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    // the smallest and largest values that go in the bucket
+    static long lowest(int bucket) {
+        if (bucket < LINEAR)
+            return bucket;
+        int shift = bucket / HALF - 1;
+        return (long) (bucket - shift * HALF) << shift;
+    }
+
+    static long highest(int bucket) {
+        if (bucket < LINEAR)
+            return bucket;
+        int shift = bucket / HALF - 1;
+        return lowest(bucket) + (1L << shift) - 1;
+    }
+
+    /**
+     * @param value - the value to record. Negative values (e.g. from a clock going backwards) are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+        counts.incrementAndGet(bucket(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        if (value > max.get())
+            max.accumulateAndGet(value, Math::max);
+        if (value < min.get())
+            min.accumulateAndGet(value, Math::min);
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public double mean() {
+        long n = count.get();
+        return n == 0 ? 0.0 : sum.get() / (double) n;
+    }
+
+    public long max() {
+        return count.get() == 0 ? 0 : max.get();
+    }
+
+    public long min() {
+        return count.get() == 0 ? 0 : min.get();
+    }
+
+    /**
+     * @param percentile - in the range [0, 100]
+     * @return the value below which the given percentage of values fall, to the accuracy of the buckets (the middle
+     * of the bucket is returned). 0 if nothing has been recorded.
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, not " + percentile);
+        long n = count.get();
+        if (n == 0)
+            return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        if (target >= n)
+            return max();
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts.get(b);
+            if (seen >= target)
+                return Math.min(max(), (lowest(b) + highest(b)) / 2);
+        }
+        return max();
+    }
+
+    public void reset() {
+        for (int b = 0; b < BUCKETS; b++)
+            counts.set(b, 0);
+        count.set(0);
+        sum.set(0);
+        max.set(Long.MIN_VALUE);
+        min.set(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,271 @@
+package utilities;
+
+import core.AbstractGameState;
+import core.interfaces.IGamePhase;
+import core.interfaces.IStateHeuristic;
+import games.GameType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import javax.management.ObjectName;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of histograms for the hot paths of the framework: state copies, forward model next() and
+ * computeAvailableActions(), heuristic evaluation and rollout length. Each metric is broken down by game, game phase
+ * and (where there is one) action class, so that it is possible to see which phase of which game takes up the
+ * decision budget.
+ * <p>
+ * Metrics are off by default, and when off cost one volatile read per call. They can be turned on with
+ * -Dtag.metrics=true, with setEnabled(), or over JMX once registerMBean() has been called. A report can be printed
+ * with report(), or written as text or JSON with writeReport().
+ * <p>
+ * The phase recorded is the phase when the operation started (so for next() this is the phase in which the action
+ * was chosen).
+ */
+public class Metrics {
+
+    public enum Metric {
+        COPY("ns"),
+        NEXT("ns"),
+        COMPUTE_ACTIONS("ns"),
+        HEURISTIC("ns"),
+        ROLLOUT_LENGTH("actions");
+
+        public final String unit;
+
+        Metric(String unit) {
+            this.unit = unit;
+        }
+    }
+
+    /**
+     * The management interface published by registerMBean().
+     */
+    public interface MetricsMXBean {
+        boolean isEnabled();
+
+        void setEnabled(boolean enabled);
+
+        void reset();
+
+        String getReport();
+
+        String getJSONReport();
+    }
+
+    // ConcurrentHashMap does not allow null keys, so this stands in for a missing game, phase or action
+    private static final Object NONE = new Object() {
+        @Override
+        public String toString() {
+            return "-";
+        }
+    };
+
+    private static volatile boolean enabled = Boolean.getBoolean("tag.metrics");
+
+    // metric -> game -> phase -> action class -> histogram
+    private static final Map<Metric, Map<Object, Map<Object, Map<Object, LatencyHistogram>>>> histograms = new EnumMap<>(Metric.class);
+
+    static {
+        for (Metric metric : Metric.values())
+            histograms.put(metric, new ConcurrentHashMap<>());
+    }
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Discards everything recorded so far.
+     */
+    public static void reset() {
+        for (Map<?, ?> byGame : histograms.values())
+            byGame.clear();
+    }
+
+    /**
+     * Records a value, if metrics are enabled.
+     *
+     * @param metric      - the metric to record
+     * @param game        - the game, or null
+     * @param phase       - the game phase, or null
+     * @param actionClass - the class of the action involved, or null
+     * @param value       - the value, in the units of the metric
+     */
+    public static void record(Metric metric, GameType game, IGamePhase phase, Class<?> actionClass, long value) {
+        if (!enabled)
+            return;
+        histograms.get(metric)
+                .computeIfAbsent(game == null ? NONE : game, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(phase == null ? NONE : phase, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(actionClass == null ? NONE : actionClass, k -> new LatencyHistogram())
+                .record(value);
+    }
+
+    /**
+     * Records a value for the game and current phase of the state.
+     */
+    public static void record(Metric metric, AbstractGameState state, Class<?> actionClass, long value) {
+        if (enabled)
+            record(metric, state.getGameType(), state.getGamePhase(), actionClass, value);
+    }
+
+    /**
+     * Evaluates the heuristic, and records how long that took if metrics are enabled.
+     */
+    public static double evaluate(IStateHeuristic heuristic, AbstractGameState state, int playerId) {
+        if (!enabled)
+            return heuristic.evaluateState(state, playerId);
+        GameType game = state.getGameType();
+        IGamePhase phase = state.getGamePhase();
+        long start = System.nanoTime();
+        double value = heuristic.evaluateState(state, playerId);
+        record(Metric.HEURISTIC, game, phase, heuristic.getClass(), System.nanoTime() - start);
+        return value;
+    }
+
+    /**
+     * @return the histogram for the given breakdown, or null if nothing has been recorded for it.
+     */
+    public static LatencyHistogram get(Metric metric, GameType game, IGamePhase phase, Class<?> actionClass) {
+        Map<Object, Map<Object, LatencyHistogram>> byPhase = histograms.get(metric).get(game == null ? NONE : game);
+        if (byPhase == null) return null;
+        Map<Object, LatencyHistogram> byAction = byPhase.get(phase == null ? NONE : phase);
+        if (byAction == null) return null;
+        return byAction.get(actionClass == null ? NONE : actionClass);
+    }
+
+    /**
+     * @return every histogram as a row of (metric, game, phase, action, histogram), sorted so that for each metric
+     * the breakdowns with the largest total come first.
+     */
+    private static List<Object[]> rows() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Metric metric : Metric.values()) {
+            List<Object[]> metricRows = new ArrayList<>();
+            histograms.get(metric).forEach((game, byPhase) -> byPhase.forEach((phase, byAction) ->
+                    byAction.forEach((action, histogram) ->
+                            metricRows.add(new Object[]{metric, name(game), name(phase), name(action), histogram}))));
+            metricRows.sort(Comparator.comparingDouble(r -> {
+                LatencyHistogram h = (LatencyHistogram) r[4];
+                return -h.mean() * h.count();
+            }));
+            rows.addAll(metricRows);
+        }
+        return rows;
+    }
+
+    // GameType has a long description as its toString()
+    private static String name(Object key) {
+        if (key instanceof Class)
+            return ((Class<?>) key).getSimpleName();
+        if (key instanceof Enum)
+            return ((Enum<?>) key).name();
+        return key.toString();
+    }
+
+    /**
+     * @return a plain text table of all the histograms, with one line per metric, game, phase and action class.
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-16s %-16s %-20s %-28s %10s %12s %12s %12s %12s %12s%n",
+                "Metric", "Game", "Phase", "Action", "Count", "Mean", "p50", "p90", "p99", "Max"));
+        for (Object[] row : rows()) {
+            LatencyHistogram h = (LatencyHistogram) row[4];
+            sb.append(String.format("%-16s %-16s %-20s %-28s %10d %12.1f %12d %12d %12d %12d%n",
+                    row[0], row[1], row[2], row[3], h.count(), h.mean(),
+                    h.percentile(50), h.percentile(90), h.percentile(99), h.max()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return all the histograms as a JSON array, with one object per metric, game, phase and action class.
+     */
+    @SuppressWarnings("unchecked")
+    public static JSONArray toJSON() {
+        JSONArray array = new JSONArray();
+        for (Object[] row : rows()) {
+            LatencyHistogram h = (LatencyHistogram) row[4];
+            JSONObject json = new JSONObject();
+            json.put("metric", row[0].toString());
+            json.put("unit", ((Metric) row[0]).unit);
+            json.put("game", row[1]);
+            json.put("phase", row[2]);
+            json.put("action", row[3]);
+            json.put("count", h.count());
+            json.put("mean", h.mean());
+            json.put("min", h.min());
+            json.put("p50", h.percentile(50));
+            json.put("p90", h.percentile(90));
+            json.put("p99", h.percentile(99));
+            json.put("max", h.max());
+            array.add(json);
+        }
+        return array;
+    }
+
+    /**
+     * Writes the report to the file, as JSON if its name ends in .json and as text otherwise.
+     */
+    public static void writeReport(String fileName) {
+        try (FileWriter writer = new FileWriter(fileName)) {
+            writer.write(fileName.endsWith(".json") ? toJSON().toJSONString() : report());
+        } catch (IOException e) {
+            throw new AssertionError("Could not write metrics to " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes the metrics over JMX as TAG:type=Metrics, so that they can be watched and switched on or off from
+     * e.g. JConsole while games are running. Does nothing if they are already registered.
+     */
+    public static synchronized void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("TAG:type=Metrics");
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(name))
+                return;
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMXBean() {
+                @Override
+                public boolean isEnabled() {
+                    return Metrics.isEnabled();
+                }
+
+                @Override
+                public void setEnabled(boolean enabled) {
+                    Metrics.setEnabled(enabled);
+                }
+
+                @Override
+                public void reset() {
+                    Metrics.reset();
+                }
+
+                @Override
+                public String getReport() {
+                    return report();
+                }
+
+                @Override
+                public String getJSONReport() {
+                    return toJSON().toJSONString();
+                }
+            }, name);
+        } catch (Exception e) {
+            throw new AssertionError("Could not register metrics with JMX: " + e.getMessage());
+        }
+    }
+}
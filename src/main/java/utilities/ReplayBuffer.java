@@ -0,0 +1,115 @@
+package utilities;
+
+import core.interfaces.IStatisticLogger;
+
+import java.util.*;
+
+/**
+ * An in-memory store of the feature rows recorded by a FeatureListener, shared by several threads playing games, and
+ * emptied by a learner. This replaces the round trip through a FileStatsLogger text file and back again.
+ * <p>
+ * Each playing thread writes through its own logger from newLogger(). This keeps the rows of one game together until
+ * the FeatureListener calls processDataAndNotFinish() at the end of the game, when they are all added to the buffer
+ * at once. So the buffer only ever holds complete games.
+ */
+public class ReplayBuffer {
+
+    private String[] header;
+    private List<double[]> rows = new ArrayList<>();
+    private int games;
+    private Throwable failure;
+
+    /**
+     * @return a new logger that adds the rows of each game to this buffer. A logger must only be used by one thread.
+     */
+    public IStatisticLogger newLogger() {
+        return new BufferLogger();
+    }
+
+    /**
+     * @return the column names of the rows, in order; or null if no game has been added yet
+     */
+    public synchronized String[] getHeader() {
+        return header;
+    }
+
+    public synchronized int games() {
+        return games;
+    }
+
+    /**
+     * Waits until at least minGames games are in the buffer, and then takes all of them out.
+     *
+     * @return the rows of all the games in the buffer
+     */
+    public synchronized List<double[]> awaitGames(int minGames) throws InterruptedException {
+        while (games < minGames && failure == null)
+            wait();
+        if (failure != null)
+            throw new AssertionError("Problem playing games : " + failure, failure);
+        List<double[]> retValue = rows;
+        rows = new ArrayList<>();
+        games = 0;
+        return retValue;
+    }
+
+    /**
+     * Called by a playing thread that has stopped because of an exception, so that awaitGames() does not wait
+     * for ever.
+     */
+    public synchronized void fail(Throwable e) {
+        failure = e;
+        notifyAll();
+    }
+
+    private synchronized void addGame(String[] gameHeader, List<double[]> gameRows) {
+        if (header == null)
+            header = gameHeader;
+        else if (!Arrays.equals(header, gameHeader))
+            throw new AssertionError("Inconsistent columns in ReplayBuffer : " + String.join(",", gameHeader));
+        rows.addAll(gameRows);
+        games++;
+        notifyAll();
+    }
+
+    private class BufferLogger implements IStatisticLogger {
+
+        private String[] keys;
+        private List<double[]> gameRows = new ArrayList<>();
+
+        @Override
+        public void record(Map<String, ?> data) {
+            if (keys == null)
+                keys = data.keySet().toArray(new String[0]);
+            double[] row = new double[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                Object datum = data.get(keys[i]);
+                row[i] = datum instanceof Number ? ((Number) datum).doubleValue() : Double.NaN;
+            }
+            gameRows.add(row);
+        }
+
+        @Override
+        public void record(String key, Object datum) {
+            System.out.println("Datum ignored - ReplayBuffer only to be used with other record()");
+        }
+
+        @Override
+        public void processDataAndNotFinish() {
+            if (keys != null && !gameRows.isEmpty()) {
+                addGame(keys, gameRows);
+                gameRows = new ArrayList<>();
+            }
+        }
+
+        @Override
+        public void processDataAndFinish() {
+            processDataAndNotFinish();
+        }
+
+        @Override
+        public Map<String, TAGStatSummary> summary() {
+            return new HashMap<>();
+        }
+    }
+}
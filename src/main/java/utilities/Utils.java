@@ -187,6 +187,24 @@ public abstract class Utils {
         return input.keySet().stream().collect(toMap(key -> key, key -> input.get(key).doubleValue() / sum));
     }
 
+    /**
+     * @return the density of the standard normal distribution at x
+     */
+    public static double normalPDF(double x) {
+        return Math.exp(-x * x / 2.0) / Math.sqrt(2.0 * Math.PI);
+    }
+
+    /**
+     * Standard normal cumulative distribution function, from the Abramowitz and Stegun (7.1.26) approximation to
+     * erf, which is accurate to about 1e-7.
+     */
+    public static double normalCDF(double x) {
+        double t = 1.0 / (1.0 + 0.3275911 * Math.abs(x) / Math.sqrt(2.0));
+        double poly = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))));
+        double erf = 1.0 - poly * Math.exp(-x * x / 2.0);
+        return x >= 0 ? 0.5 * (1.0 + erf) : 0.5 * (1.0 - erf);
+    }
+
     public static double range(double value, double min, double max) {
         if (value > max) return max;
         if (value < min) return min;
@@ -232,6 +250,8 @@ public abstract class Utils {
                 }
             } else if (defaultValue instanceof Integer) {
                 return (T) Integer.valueOf(rawString);
+            } else if (defaultValue instanceof Long) {
+                return (T) Long.valueOf(rawString);
             } else if (defaultValue instanceof Double) {
                 return (T) Double.valueOf(rawString);
             } else if (defaultValue instanceof Boolean) {
@@ -0,0 +1,79 @@
+package test.core;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.CoreConstants;
+import core.Game;
+import core.actions.AbstractAction;
+import core.actions.DoNothing;
+import core.components.Card;
+import core.components.Deck;
+import core.interfaces.IActionGenerator;
+import games.GameType;
+import games.catan.CatanGameState;
+import games.catan.actions.OfferPlayerTrade;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class ActionGeneratorTest {
+
+    AbstractForwardModel fm;
+
+    // plays random moves until the predicate holds, checking the generated actions against the full list at each step
+    private AbstractGameState playUntil(GameType gameType, int nPlayers, long seed, Predicate<AbstractGameState> predicate) {
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        AbstractGameState state = game.getGameState();
+        fm = game.getForwardModel();
+        assertTrue(fm instanceof IActionGenerator);
+        Random rnd = new Random(seed);
+        for (int move = 0; move < 2000 && state.isNotTerminal(); move++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            List<AbstractAction> generated = new ArrayList<>();
+            fm.availableActionIterator(state).forEachRemaining(generated::add);
+            assertEquals(actions, generated);
+            if (predicate.test(state))
+                return state;
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        return null;
+    }
+
+    @Test
+    public void catanGeneratesTheSameActions() {
+        playUntil(GameType.Catan, 3, 487, s -> false);
+    }
+
+    @Test
+    public void dominionGeneratesTheSameActions() {
+        playUntil(GameType.Dominion, 3, 487, s -> false);
+    }
+
+    @Test
+    public void coltExpressGeneratesTheSameActions() {
+        for (long seed = 1; seed <= 5; seed++)
+            playUntil(GameType.ColtExpress, 4, seed, s -> false);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void catanTradeOffersAreOnlyCreatedWhenPulled() {
+        AbstractGameState state = playUntil(GameType.Catan, 3, 487, s -> s.getGamePhase() == CatanGameState.CatanGamePhase.Trade
+                && ((CatanGameState) s).getCurrentTradeOffer() == null
+                && fm.computeAvailableActions(s).stream().anyMatch(a -> a instanceof OfferPlayerTrade));
+        assertNotNull(state);
+
+        Iterator<AbstractAction> iterator = fm.availableActionIterator(state);
+        assertEquals(new DoNothing(), iterator.next());
+        // if the offers were made up front, then emptying the other players' hands now would make no difference
+        for (int p = 0; p < state.getNPlayers(); p++) {
+            if (p != state.getCurrentPlayer())
+                ((Deck<Card>) ((CatanGameState) state).getComponent(CoreConstants.playerHandHash, p)).clear();
+        }
+        while (iterator.hasNext())
+            assertFalse(iterator.next() instanceof OfferPlayerTrade);
+    }
+}
@@ -0,0 +1,73 @@
+package test.core.components;
+
+import core.components.GridLineIndex;
+import core.components.IntGridBoard;
+import core.components.Token;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IntGridBoardTest {
+
+    @Test
+    public void emptyCellsAreTracked() {
+        IntGridBoard board = new IntGridBoard(3, 2, 0, true);
+        assertEquals(6, board.countEmpty());
+        assertTrue(board.set(1, 1, 2));
+        assertFalse(board.set(3, 0, 1));
+        assertEquals(5, board.countEmpty());
+        assertEquals(2, board.get(board.index(1, 1)));
+        int found = 0;
+        for (int i = board.nextEmptyCell(0); i >= 0; i = board.nextEmptyCell(i + 1)) {
+            assertTrue(board.isEmpty(i));
+            found++;
+        }
+        assertEquals(5, found);
+        board.set(1, 1, 0);
+        assertEquals(6, board.countEmpty());
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        IntGridBoard board = new IntGridBoard(4, 4, -1, true);
+        board.set(2, 3, 1);
+        IntGridBoard copy = board.copy();
+        assertEquals(board, copy);
+        assertEquals(board.hashCode(), copy.hashCode());
+        assertEquals(board.getComponentID(), copy.getComponentID());
+        copy.set(0, 0, 1);
+        assertEquals(-1, board.get(0, 0));
+        assertEquals(15, board.countEmpty());
+        assertEquals(14, copy.countEmpty());
+        assertNotEquals(board, copy);
+    }
+
+    @Test
+    public void componentsUsePalette() {
+        Token empty = new Token("."), x = new Token("x");
+        IntGridBoard board = new IntGridBoard(2, 2, 0, false);
+        board.setPalette(empty, x);
+        board.set(1, 0, 1);
+        List<Token> components = board.getComponents();
+        assertEquals(4, components.size());
+        assertEquals(x, components.get(1));
+        assertEquals(empty, components.get(3));
+        assertEquals(". x \n. . \n", board.toString());
+    }
+
+    @Test
+    public void linesAreFound() {
+        IntGridBoard board = new IntGridBoard(5, 5, 0, false);
+        GridLineIndex index = GridLineIndex.get(5, 5, 3);
+        board.set(1, 3, 1);
+        board.set(2, 2, 1);
+        assertNull(index.findLine(board, 2, 2));
+        board.set(3, 1, 2);
+        assertNull(index.findLine(board, 3, 1));
+        board.set(3, 1, 1);
+        assertArrayEquals(new int[]{board.index(1, 3), board.index(2, 2), board.index(3, 1)}, index.findLine(board, 3, 1));
+        assertNull(index.findLine(board, 0, 0));
+    }
+}
@@ -0,0 +1,157 @@
+package test.core.rules;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import core.rules.IRuleBasedGameState;
+import core.rules.Node;
+import core.rules.RuleProgram;
+import core.rules.nodetypes.ConditionNode;
+import core.rules.nodetypes.RuleNode;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static core.rules.RuleProgram.END;
+import static core.rules.RuleProgram.ROOT;
+import static org.junit.Assert.*;
+
+public class RuleProgramTest {
+
+    // Records its name when run, and interrupts the game loop if asked to
+    private static class Step extends RuleNode {
+        final String name;
+        final boolean interrupt;
+        final List<String> log;
+
+        Step(String name, boolean interrupt, List<String> log) {
+            this.name = name;
+            this.interrupt = interrupt;
+            this.log = log;
+        }
+
+        @Override
+        protected boolean run(AbstractGameState gs) {
+            log.add(name);
+            return !interrupt;
+        }
+
+        @Override
+        protected Node _copy() {
+            return this;
+        }
+    }
+
+    // True the first 'times' times it is tested
+    private static class Countdown extends ConditionNode {
+        int times;
+
+        Countdown(int times) {
+            this.times = times;
+        }
+
+        @Override
+        protected boolean test(AbstractGameState gs) {
+            return times-- > 0;
+        }
+
+        @Override
+        protected Node _copy() {
+            return this;
+        }
+    }
+
+    @Test
+    public void loopsAndInterruptsFollowTheGraph() {
+        List<String> log = new ArrayList<>();
+        Step a = new Step("A", false, log), b = new Step("B", true, log);
+        Countdown loop = new Countdown(2);
+        a.setNext(loop);
+        loop.setYesNo(a, b);
+        b.setNext(a);
+
+        RuleProgram program = RuleProgram.compile(a);
+        assertEquals(3, program.size());
+        assertSame(a, program.node(ROOT));
+
+        int pc = ROOT, last = END;
+        while (pc != END) {
+            last = pc;
+            pc = program.step(pc, null, null);
+        }
+        assertEquals(Arrays.asList("A", "A", "A", "B"), log);
+        assertSame(b, program.node(last));
+        // after the interrupt, play carries on from the rule after B
+        assertSame(a, program.node(program.next(last)));
+    }
+
+    @Test(expected = AssertionError.class)
+    public void graphWithMissingChildIsRejected() {
+        Step a = new Step("A", false, new ArrayList<>());
+        RuleProgram.compile(a);
+    }
+
+    @Test
+    public void copiesOfStateCarryOnFromTheSamePlace() {
+        Game game = GameType.Pandemic.createGameInstance(2, 123);
+        game.reset(Arrays.asList(new RandomPlayer(), new RandomPlayer()), 123);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        // the forward model holds no game state, so is shared rather than copied
+        assertSame(fm, fm.copy());
+        Random rnd = new Random(99);
+        int steps = 0;
+        for (; steps < 300 && state.isNotTerminal(); steps++) {
+            // a copy of the state must make the same rule flow decisions as the original
+            AbstractGameState stateCopy = state.copy();
+            assertEquals(((IRuleBasedGameState) state).getRuleExecution(), ((IRuleBasedGameState) stateCopy).getRuleExecution());
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            // (Pandemic may update the game phase when computing actions, so this is done on both)
+            assertEquals(actions, fm.computeAvailableActions(stateCopy));
+            AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+            fm.next(state, action.copy());
+            fm.next(stateCopy, action.copy());
+            assertEquals(state.getGamePhase(), stateCopy.getGamePhase());
+            assertEquals(state.getCurrentPlayer(), stateCopy.getCurrentPlayer());
+            assertEquals(state.getTurnOrder().getRoundCounter(), stateCopy.getTurnOrder().getRoundCounter());
+            assertEquals(state.getGameStatus(), stateCopy.getGameStatus());
+        }
+        assertTrue(steps > 20);
+    }
+
+    @Test
+    public void sharedForwardModelCanBeUsedFromManyThreads() throws Exception {
+        Game game = GameType.Pandemic.createGameInstance(2, 123);
+        game.reset(Arrays.asList(new RandomPlayer(), new RandomPlayer()), 123);
+        AbstractGameState start = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                long seed = t;
+                // each thread plays out its own copy of the state with the one forward model
+                results.add(executor.submit(() -> {
+                    AbstractGameState state = start.copy();
+                    Random rnd = new Random(seed);
+                    int steps = 0;
+                    for (; steps < 200 && state.isNotTerminal(); steps++) {
+                        List<AbstractAction> actions = fm.computeAvailableActions(state);
+                        fm.next(state, actions.get(rnd.nextInt(actions.size())));
+                    }
+                    return steps;
+                }));
+            }
+            for (Future<Integer> result : results)
+                assertTrue(result.get() > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
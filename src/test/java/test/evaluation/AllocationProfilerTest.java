@@ -0,0 +1,64 @@
+package test.evaluation;
+
+import evaluation.AllocationProfiler;
+import games.GameType;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static evaluation.AllocationProfiler.*;
+import static org.junit.Assert.*;
+
+public class AllocationProfilerTest {
+
+    @Test
+    public void allocationsAreRecordedByOperationAndActionClass() {
+        AllocationProfiler profiler = new AllocationProfiler();
+        profiler.profile(GameType.TicTacToe, 2, 5, 1, 100, 42);
+        Map<String, AllocationProfiler.Tally> tallies = profiler.getResults().get(GameType.TicTacToe);
+        // a game of TicTacToe lasts between 5 and 9 moves
+        long moves = tallies.get(NEXT).calls();
+        assertTrue(moves >= 25 && moves <= 45);
+        assertEquals(moves, tallies.get(COPY).calls());
+        assertEquals(moves, tallies.get(ACTIONS).calls());
+        assertEquals(moves, tallies.get(NEXT + ":SetGridValueAction").calls());
+        // a copy of the state cannot be made without allocating the new state
+        assertTrue(tallies.get(COPY).mean() > 0);
+        assertTrue(profiler.report().contains("SetGridValueAction"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void runsThatAllocateMoreThanTheBaselineAreRegressions() {
+        AllocationProfiler profiler = new AllocationProfiler();
+        profiler.profile(GameType.TicTacToe, 2, 5, 1, 100, 42);
+        JSONObject baseline = profiler.toJSON();
+        assertTrue(profiler.regressions(baseline, 0.1, 0.0).isEmpty());
+
+        // halve the baseline for copies, which should now fail
+        JSONObject ticTacToe = (JSONObject) baseline.get("TicTacToe");
+        ticTacToe.put(COPY, ((Number) ticTacToe.get(COPY)).doubleValue() / 2.0);
+        assertEquals(1, profiler.regressions(baseline, 0.1, 0.0).size());
+        assertTrue(profiler.regressions(baseline, 0.1, 0.0).get(0).startsWith("TicTacToe copy"));
+        // ...unless the tolerance allows it
+        assertTrue(profiler.regressions(baseline, 1.5, 0.0).isEmpty());
+
+        // games that are not in the baseline are not checked
+        assertTrue(profiler.regressions(new JSONObject(), 0.0, 0.0).isEmpty());
+    }
+
+    @Test
+    public void gamesThatFailAreRegressions() {
+        AllocationProfiler profiler = new AllocationProfiler();
+        profiler.profile(GameType.TicTacToe, 2, 5, 1, 100, 42);
+        JSONObject baseline = profiler.toJSON();
+        profiler.recordFailure(GameType.TicTacToe, new AssertionError("Simulated crash"));
+        assertFalse(profiler.getResults().containsKey(GameType.TicTacToe));
+        assertEquals(1, profiler.regressions(baseline, 0.1, 0.0).size());
+        assertTrue(profiler.regressions(baseline, 0.1, 0.0).get(0).startsWith("TicTacToe failed"));
+        // whether or not the game is in the baseline
+        assertEquals(1, profiler.regressions(new JSONObject(), 0.1, 0.0).size());
+        assertTrue(profiler.report().contains("Simulated crash"));
+    }
+}
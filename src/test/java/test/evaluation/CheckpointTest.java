@@ -0,0 +1,199 @@
+package test.evaluation;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.CoreConstants;
+import core.Game;
+import core.actions.AbstractAction;
+import core.interfaces.IGameListener;
+import evaluation.ITPSearchSpace;
+import evaluation.MatchmakingTournament;
+import evaluation.NTBEACheckpoint;
+import evaluation.RacingTournament;
+import evaluation.RandomRRTournament;
+import evaluation.RoundRobinTournament;
+import games.GameType;
+import games.tictactoe.TicTacToeGameParameters;
+import ntbea.NTupleSystem;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import players.mcts.MCTSParams;
+import players.simple.RandomPlayer;
+import utilities.Pair;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CheckpointTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // Records the seed of each game, and optionally crashes after a number of games
+    static class SeedListener implements IGameListener {
+        List<Long> seeds = new ArrayList<>();
+        List<List<AbstractPlayer>> players = new ArrayList<>();
+        int crashAfter = Integer.MAX_VALUE;
+
+        @Override
+        public void onGameEvent(CoreConstants.GameEvents type, Game game) {
+            if (type == CoreConstants.GameEvents.GAME_OVER) {
+                seeds.add(game.getGameState().getGameParameters().getRandomSeed());
+                players.add(new ArrayList<>(game.getPlayers()));
+                if (seeds.size() == crashAfter)
+                    throw new RuntimeException("Simulated crash");
+            }
+        }
+
+        @Override
+        public void onEvent(CoreConstants.GameEvents type, AbstractGameState state, AbstractAction action) {
+        }
+
+        @Override
+        public void allGamesFinished() {
+        }
+    }
+
+    private RoundRobinTournament tournament(SeedListener listener) {
+        List<AbstractPlayer> agents = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+            agents.add(new RandomPlayer(new Random(i)));
+        RoundRobinTournament tournament = new RoundRobinTournament(agents, GameType.TicTacToe, 2, 2, false,
+                new TicTacToeGameParameters(500));
+        tournament.verbose = false;
+        tournament.addListener(listener);
+        return tournament;
+    }
+
+    @Test
+    public void tournamentResumesAfterLastCompleteMatchUp() {
+        SeedListener full = new SeedListener();
+        tournament(full).runTournament();
+        assertEquals(12, full.seeds.size());
+
+        File checkpoint = new File(folder.getRoot(), "rr.bin");
+        SeedListener crashing = new SeedListener();
+        crashing.crashAfter = 7;
+        RoundRobinTournament first = tournament(crashing);
+        first.setCheckpoint(checkpoint, 1);
+        try {
+            first.runTournament();
+            fail("Expected simulated crash");
+        } catch (RuntimeException e) {
+            assertEquals("Simulated crash", e.getMessage());
+        }
+        assertTrue(checkpoint.exists());
+
+        // three match-ups (six games) were complete, so the resumed run plays the last six games, with the same seeds
+        SeedListener resumed = new SeedListener();
+        RoundRobinTournament second = tournament(resumed);
+        second.setCheckpoint(checkpoint, 1);
+        second.runTournament();
+        assertEquals(full.seeds.subList(6, 12), resumed.seeds);
+    }
+
+    @Test
+    public void randomTournamentResumesWithTheSameMatchUps() {
+        List<AbstractPlayer> agents = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            agents.add(new RandomPlayer(new Random(i)));
+        SeedListener full = new SeedListener();
+        randomTournament(agents, 37, full, null).runTournament();
+        assertEquals(8, full.players.size());
+
+        File checkpoint = new File(folder.getRoot(), "random.bin");
+        SeedListener crashing = new SeedListener();
+        crashing.crashAfter = 5;
+        try {
+            randomTournament(agents, 37, crashing, checkpoint).runTournament();
+            fail("Expected simulated crash");
+        } catch (RuntimeException e) {
+            assertEquals("Simulated crash", e.getMessage());
+        }
+
+        // the resumed tournament is given a different seed (as it would be by default), but uses the one saved
+        SeedListener resumed = new SeedListener();
+        randomTournament(agents, 99, resumed, checkpoint).runTournament();
+        assertEquals(full.players.subList(4, 8), resumed.players);
+        assertEquals(full.seeds.subList(4, 8), resumed.seeds);
+    }
+
+    @Test
+    public void tournamentsThatChooseMatchUpsAsTheyGoDoNotSupportCheckpoints() {
+        List<AbstractPlayer> agents = Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)));
+        assertTrue(randomTournament(agents, 1, new SeedListener(), null).supportsCheckpoint());
+        RoundRobinTournament racing = new RacingTournament(agents, GameType.TicTacToe, 2, false,
+                60, 10, 3.0, 42, new TicTacToeGameParameters(731));
+        RoundRobinTournament matchmaking = new MatchmakingTournament(agents, GameType.TicTacToe, 2, false,
+                30, 17, new TicTacToeGameParameters(88));
+        for (RoundRobinTournament tournament : Arrays.asList(racing, matchmaking)) {
+            assertFalse(tournament.supportsCheckpoint());
+            try {
+                tournament.setCheckpoint(new File(folder.getRoot(), "unused.bin"), 1);
+                fail("Expected the checkpoint to be refused");
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage().contains("does not support checkpoints"));
+            }
+        }
+    }
+
+    private RoundRobinTournament randomTournament(List<AbstractPlayer> agents, long seed, SeedListener listener, File checkpoint) {
+        RoundRobinTournament tournament = new RandomRRTournament(agents, GameType.TicTacToe, 2, false, 8, seed,
+                new TicTacToeGameParameters(500));
+        tournament.verbose = false;
+        tournament.addListener(listener);
+        if (checkpoint != null)
+            tournament.setCheckpoint(checkpoint, 1);
+        return tournament;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ntbeaCheckpointRestoresLandscapeAndRandomState() {
+        JSONObject json = new JSONObject();
+        JSONArray kValues = new JSONArray(), rolloutValues = new JSONArray();
+        kValues.addAll(Arrays.asList(0.5, 1.0, 2.0));
+        rolloutValues.addAll(Arrays.asList(5L, 10L, 20L));
+        json.put("K", kValues);
+        json.put("rolloutLength", rolloutValues);
+        ITPSearchSpace searchSpace = new ITPSearchSpace(new MCTSParams(), json);
+        File file = new File(folder.getRoot(), "ntbea.bin");
+        NTBEACheckpoint checkpoint = NTBEACheckpoint.loadOrCreate(file, searchSpace.nDims(), 5);
+        NTupleSystem original = new NTupleSystem(searchSpace);
+        original.addTuples();
+        Random rnd = new Random(42);
+        Random samples = new Random(7);
+        for (int i = 0; i < 10; i++) {
+            int[] point = new int[searchSpace.nDims()];
+            for (int d = 0; d < point.length; d++)
+                point[d] = samples.nextInt(searchSpace.nValues(d));
+            double value = rnd.nextDouble();
+            original.addPoint(point, value);
+            checkpoint.record(point, value, rnd);
+        }
+        long expectedNext = rnd.nextLong();
+
+        NTBEACheckpoint loaded = NTBEACheckpoint.loadOrCreate(file, searchSpace.nDims(), 5);
+        assertEquals(0, loaded.getRepeat());
+        assertEquals(10, loaded.samplesInRun());
+        assertEquals(expectedNext, loaded.getRandom().nextLong());
+        NTupleSystem restored = new NTupleSystem(searchSpace);
+        restored.addTuples();
+        loaded.replayInto(restored);
+        assertEquals(original.numberOfSamples(), restored.numberOfSamples());
+        assertArrayEquals(original.getBestOfSampled(), restored.getBestOfSampled(), 1e-9);
+
+        // finishing a run clears the samples, and keeps the best result
+        loaded.finishRun(new Pair<>(new Pair<>(0.75, 0.1), new double[]{1, 0}), rnd);
+        NTBEACheckpoint afterRun = NTBEACheckpoint.loadOrCreate(file, searchSpace.nDims(), 5);
+        assertEquals(1, afterRun.getRepeat());
+        assertEquals(0, afterRun.samplesInRun());
+        assertEquals(0.75, afterRun.getBest().a.a, 1e-9);
+        assertArrayEquals(new double[]{1, 0}, afterRun.getBest().b, 1e-9);
+    }
+}
@@ -0,0 +1,87 @@
+package test.evaluation;
+
+import evaluation.DistributedTournament;
+import evaluation.TournamentWorker;
+import evaluation.WorkUnit;
+import games.GameType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DistributedTournamentTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DistributedTournament tournament(List<String> agents, File dir) {
+        DistributedTournament tournament = new DistributedTournament(GameType.TicTacToe, 2, agents, "",
+                10, false, 1234, Collections.singletonList("utilities.GameResultListener"), 2, dir);
+        tournament.verbose = false;
+        return tournament;
+    }
+
+    private List<Thread> startWorkers(File dir, int n) {
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Thread worker = new Thread(new TournamentWorker(dir, "worker" + i, 10));
+            worker.start();
+            workers.add(worker);
+        }
+        return workers;
+    }
+
+    @Test
+    public void workersMatchSingleProcess() throws Exception {
+        List<String> agents = Arrays.asList("random", "osla", "random");
+        DistributedTournament local = tournament(agents, folder.newFolder("local"));
+        local.runLocally();
+
+        File dir = folder.newFolder("shared");
+        DistributedTournament distributed = tournament(agents, dir);
+        List<Thread> workers = startWorkers(dir, 3);
+        distributed.run(0, 60_000);
+        for (Thread worker : workers)
+            worker.join(10_000);
+
+        assertEquals(60, distributed.getUnits().size());
+        for (int i = 0; i < local.getUnits().size(); i++) {
+            WorkUnit a = local.getUnits().get(i), b = distributed.getUnits().get(i);
+            assertArrayEquals(a.results, b.results);
+            assertArrayEquals(a.ordinals, b.ordinals);
+        }
+        assertArrayEquals(local.getPointsPerPlayer(), distributed.getPointsPerPlayer());
+        // each result is moved out of done once it has been collected
+        assertEquals(0, Objects.requireNonNull(new File(dir, TournamentWorker.DONE).list()).length);
+        assertEquals(60, Objects.requireNonNull(new File(dir, TournamentWorker.MERGED).list()).length);
+
+        // listener output is joined in unit order, with one header
+        File output = new File(folder.getRoot(), "report.txt");
+        distributed.writeListenerFiles(Collections.singletonList(output.getPath()));
+        List<String> lines = Files.readAllLines(output.toPath());
+        assertEquals(61, lines.size());
+        assertTrue(lines.get(0).startsWith("Game\t"));
+    }
+
+    @Test
+    public void failingUnitsAreRetriedThenReported() throws Exception {
+        File dir = folder.newFolder("shared");
+        DistributedTournament tournament = tournament(Arrays.asList("random", "noSuchPlayer"), dir);
+        List<Thread> workers = startWorkers(dir, 2);
+        try {
+            tournament.run(0, 60_000);
+            fail("Expected the tournament to fail");
+        } catch (AssertionError e) {
+            assertTrue(e.getMessage().contains("after 2 attempts"));
+            assertTrue(e.getMessage().contains("noSuchPlayer".toLowerCase()));
+        }
+        for (Thread worker : workers)
+            worker.join(10_000);
+        assertTrue(new File(dir, TournamentWorker.STOP).exists());
+    }
+}
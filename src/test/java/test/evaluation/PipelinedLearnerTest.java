@@ -0,0 +1,124 @@
+package test.evaluation;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.CoreConstants;
+import core.Game;
+import core.interfaces.IStateFeatureVector;
+import evaluation.ProgressiveLearner;
+import games.GameType;
+import games.tictactoe.TicTacToeConstants;
+import games.tictactoe.TicTacToeGameState;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import players.learners.SimpleRegressionLearner;
+import players.simple.RandomPlayer;
+import utilities.FileStatsLogger;
+import utilities.ReplayBuffer;
+import utilities.StateFeatureListener;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PipelinedLearnerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // A small feature vector for TicTacToe: the number of pieces of each player on the board
+    public static class PieceCount implements IStateFeatureVector {
+        @Override
+        public double[] featureVector(AbstractGameState gs, int playerID) {
+            TicTacToeGameState state = (TicTacToeGameState) gs;
+            String playerChar = TicTacToeConstants.playerMapping.get(playerID).getTokenType();
+            double mine = 0, theirs = 0;
+            for (int x = 0; x < state.getGridBoard().getWidth(); x++)
+                for (int y = 0; y < state.getGridBoard().getHeight(); y++) {
+                    String token = state.getGridBoard().getElement(x, y).getTokenType();
+                    if (token.equals(playerChar)) mine++;
+                    else if (!token.equals(TicTacToeConstants.emptyCell)) theirs++;
+                }
+            return new double[]{mine, theirs};
+        }
+
+        @Override
+        public String[] names() {
+            return new String[]{"Mine", "Theirs"};
+        }
+    }
+
+    private void playGames(StateFeatureListener listener, int nGames) {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        game.addListener(listener);
+        Random rnd = new Random(7);
+        for (int i = 0; i < nGames; i++) {
+            List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(rnd.nextLong())),
+                    new RandomPlayer(new Random(rnd.nextLong())));
+            game.reset(players, rnd.nextLong());
+            game.run();
+        }
+        listener.allGamesFinished();
+    }
+
+    @Test
+    public void learningFromMemoryMatchesLearningFromFile() throws Exception {
+        File dataFile = new File(folder.getRoot(), "data.txt");
+        // the file logger writes doubles with limited precision, so we compare with a tolerance
+        playGames(new StateFeatureListener(new FileStatsLogger(dataFile.getPath(), "\t", false), new PieceCount(),
+                CoreConstants.GameEvents.ACTION_TAKEN, false), 50);
+        ReplayBuffer buffer = new ReplayBuffer();
+        playGames(new StateFeatureListener(buffer.newLogger(), new PieceCount(),
+                CoreConstants.GameEvents.ACTION_TAKEN, false), 50);
+
+        assertEquals(50, buffer.games());
+        List<double[]> rows = buffer.awaitGames(50);
+        assertEquals(0, buffer.games());
+        assertEquals(Files.readAllLines(dataFile.toPath()).size() - 1, rows.size());
+
+        SimpleRegressionLearner fromFile = new SimpleRegressionLearner();
+        fromFile.learnFrom(dataFile.getPath());
+        File fileCoefficients = new File(folder.getRoot(), "file.txt");
+        fromFile.writeToFile(fileCoefficients.getPath());
+
+        SimpleRegressionLearner fromMemory = new SimpleRegressionLearner();
+        fromMemory.learnFrom(buffer.getHeader(), rows);
+        File memoryCoefficients = new File(folder.getRoot(), "memory.txt");
+        fromMemory.writeToFile(memoryCoefficients.getPath());
+
+        List<String> a = Files.readAllLines(fileCoefficients.toPath()), b = Files.readAllLines(memoryCoefficients.toPath());
+        assertEquals(a.get(0), b.get(0));
+        double[] x = Arrays.stream(a.get(1).split("\t")).mapToDouble(Double::parseDouble).toArray();
+        double[] y = Arrays.stream(b.get(1).split("\t")).mapToDouble(Double::parseDouble).toArray();
+        assertArrayEquals(x, y, 0.01);
+    }
+
+    @Test
+    public void pipelinedRunProducesAnAgentPerIteration() throws Exception {
+        File player = new File(folder.getRoot(), "player.json");
+        try (FileWriter writer = new FileWriter(player)) {
+            writer.write("{\"class\" : \"players.mcts.MCTSParams\", \"budgetType\" : \"BUDGET_ITERATIONS\", " +
+                    "\"budget\" : 20, \"rolloutLength\" : 0, \"heuristic\" : {\"class\" : \"*HEURISTIC*\", " +
+                    "\"args\" : [\"*PHI*\", \"*FILE*\", \"*DEFAULT*\"]}}");
+        }
+        String prefix = new File(folder.getRoot(), "run").getPath();
+        ProgressiveLearner learner = new ProgressiveLearner(new String[]{
+                "game=TicTacToe", "nPlayers=2", "player=" + player.getPath(), "fileName=" + prefix,
+                "learner=players.learners.SimpleRegressionLearner", "statePhi=" + PieceCount.class.getName(),
+                "matchups=20", "iterations=3", "finalMatchups=10", "pipelined=true", "workers=2"});
+        learner.run();
+
+        for (int i = 0; i < 3; i++) {
+            File coefficients = new File(prefix + "_" + i + ".txt");
+            assertTrue(coefficients.exists());
+            assertEquals("BIAS\tMine\tTheirs", Files.readAllLines(coefficients.toPath()).get(0));
+            // no data files are written in pipelined mode
+            assertFalse(new File(prefix + "_" + i + ".data").exists());
+        }
+        assertTrue(new File(prefix + "_Final.txt").exists());
+    }
+}
@@ -0,0 +1,43 @@
+package test.evaluation;
+
+import core.AbstractPlayer;
+import evaluation.RacingTournament;
+import games.GameType;
+import games.tictactoe.TicTacToeGameParameters;
+import org.junit.Test;
+import players.simple.OSLAPlayer;
+import players.simple.RandomPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RacingTournamentTest {
+
+    @Test
+    public void clearMatchUpsAreDecidedEarly() {
+        List<AbstractPlayer> agents = new ArrayList<>();
+        agents.add(new RandomPlayer(new Random(1)));
+        agents.add(new OSLAPlayer(new Random(2)));
+        agents.add(new RandomPlayer(new Random(3)));
+        RacingTournament tournament = new RacingTournament(agents, GameType.TicTacToe, 2, false,
+                600, 10, 3.0, 42, new TicTacToeGameParameters(731));
+        tournament.verbose = false;
+        tournament.runTournament();
+
+        // OSLA is much stronger than random, so both its pairs are decided well within the budget...
+        assertTrue(tournament.isDecided(0, 1));
+        assertTrue(tournament.isDecided(1, 2));
+        assertTrue(tournament.getPairGames(0, 1) < 200);
+        assertTrue(tournament.getPairGames(1, 2) < 200);
+        // ...leaving the rest of the budget to the two random players
+        assertEquals(600, tournament.getGamesPlayed());
+        assertEquals(600 - tournament.getPairGames(0, 1) - tournament.getPairGames(1, 2), tournament.getPairGames(0, 2));
+
+        assertEquals(1, (int) tournament.getRanking().get(0));
+        assertTrue(tournament.confidence(1, 0) > 0.99);
+        assertEquals(1.0, tournament.confidence(1, 0) + tournament.confidence(0, 1), 1e-9);
+    }
+}
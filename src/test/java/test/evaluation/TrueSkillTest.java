@@ -0,0 +1,75 @@
+package test.evaluation;
+
+import core.AbstractPlayer;
+import evaluation.MatchmakingTournament;
+import evaluation.TrueSkillRating;
+import games.GameType;
+import games.tictactoe.TicTacToeGameParameters;
+import org.junit.Test;
+import players.simple.OSLAPlayer;
+import players.simple.RandomPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TrueSkillTest {
+
+    @Test
+    public void winnerGainsAndUncertaintyShrinks() {
+        TrueSkillRating ratings = new TrueSkillRating(2);
+        ratings.update(new int[]{0, 1}, new int[]{1, 2});
+        assertTrue(ratings.getMu(0) > 25.0);
+        assertEquals(50.0, ratings.getMu(0) + ratings.getMu(1), 1e-9);
+        assertEquals(ratings.getSigma(0), ratings.getSigma(1), 1e-9);
+        assertTrue(ratings.getSigma(0) < 25.0 / 3.0);
+
+        // a draw between unequal players brings them closer together
+        double gap = ratings.getMu(0) - ratings.getMu(1);
+        ratings.update(new int[]{1, 0}, new int[]{1, 1});
+        assertTrue(ratings.getMu(0) - ratings.getMu(1) < gap);
+    }
+
+    @Test
+    public void multiplayerResultsGiveTheFinishingOrder() {
+        TrueSkillRating ratings = new TrueSkillRating(4);
+        Random rnd = new Random(3);
+        for (int g = 0; g < 100; g++) {
+            // agent a usually finishes in position a + 1, with some noise
+            int[] agents = {0, 1, 2, 3};
+            int[] positions = {1, 2, 3, 4};
+            if (rnd.nextDouble() < 0.2) {
+                positions[1] = 3;
+                positions[2] = 2;
+            }
+            ratings.update(agents, positions);
+        }
+        for (int a = 0; a < 3; a++)
+            assertTrue(ratings.getMu(a) > ratings.getMu(a + 1));
+        assertTrue(ratings.getSigma(0) < 3.0);
+    }
+
+    @Test
+    public void matchmakingFindsTheStrongestAgent() {
+        List<AbstractPlayer> agents = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            agents.add(new RandomPlayer(new Random(i)));
+        agents.add(2, new OSLAPlayer(new Random(99)));
+        MatchmakingTournament tournament = new MatchmakingTournament(agents, GameType.TicTacToe, 2, false,
+                300, 17, new TicTacToeGameParameters(88));
+        tournament.verbose = false;
+        tournament.runTournament();
+
+        TrueSkillRating ratings = tournament.getRatings();
+        assertEquals(2, (int) tournament.getRanking().get(0));
+        int totalGames = 0;
+        for (int a = 0; a < agents.size(); a++) {
+            totalGames += ratings.getGames(a);
+            // every agent gets a reasonable share of the games
+            assertTrue(ratings.getGames(a) > 40);
+        }
+        assertEquals(600, totalGames);
+    }
+}
@@ -351,4 +351,46 @@ public class TestCantStop {
     }
 
 
+    @Test
+    public void testDiceOutcomesCoverEveryRoll() {
+        CantStopDiceTables tables = CantStopDiceTables.get(new CantStopParameters(-274));
+        assertEquals(1296, tables.nRolls);
+        assertEquals(126, tables.getOutcomes().size());
+        double total = tables.getOutcomes().stream().mapToDouble(o -> o.probability).sum();
+        assertEquals(1.0, total, 1e-9);
+        int roll = tables.rollIndex(new int[]{1, 2, 3, 6});
+        assertArrayEquals(new int[]{3, 9}, tables.getPairings(roll)[0]);
+        assertArrayEquals(new int[]{4, 8}, tables.getPairings(roll)[1]);
+        assertArrayEquals(new int[]{7, 5}, tables.getPairings(roll)[2]);
+    }
+
+    @Test
+    public void testBustProbability() {
+        CantStopGameState state = (CantStopGameState) cantStop.getGameState();
+        assertEquals(0.0, state.getBustProbability(), 1e-9);
+        fm.next(state, new RollDice());
+        state.setDice(new int[]{3, 3, 4, 4});
+        fm.next(state, new AllocateDice(6, 8));
+        // a marker is still free, so every roll can be used
+        assertEquals(0.0, state.getBustProbability(), 1e-9);
+        fm.next(state, new RollDice());
+        state.setDice(new int[]{3, 4, 5, 6});
+        fm.next(state, new AllocateDice(7));
+        // all three markers are now on 6, 7 and 8 - the classic 92% chance of success
+        assertEquals(104 / 1296.0, state.getBustProbability(), 1e-9);
+
+        // and this agrees with the forward model for every possible roll
+        fm.next(state, new RollDice());
+        int bustRolls = 0;
+        for (int a = 1; a <= 6; a++)
+            for (int b = 1; b <= 6; b++)
+                for (int c = 1; c <= 6; c++)
+                    for (int d = 1; d <= 6; d++) {
+                        state.setDice(new int[]{a, b, c, d});
+                        if (fm.computeAvailableActions(state).get(0).equals(new Pass(true)))
+                            bustRolls++;
+                    }
+        assertEquals(104, bustRolls);
+    }
+
 }
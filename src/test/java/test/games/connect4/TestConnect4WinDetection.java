@@ -0,0 +1,45 @@
+package test.games.connect4;
+
+import core.AbstractForwardModel;
+import core.Game;
+import core.actions.SetGridValueAction;
+import core.components.GridBoard;
+import core.components.GridLineIndex;
+import core.components.Token;
+import games.GameType;
+import games.connect4.Connect4GameState;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static utilities.Utils.GameResult.*;
+
+public class TestConnect4WinDetection {
+
+    @Test
+    public void linesAreFoundByTokenTypeNotComponent() {
+        GridBoard<Token> board = new GridBoard<>(4, 4, new Token("."));
+        // every token is a separate component, with its own ID
+        board.setElement(0, 3, new Token("x"));
+        board.setElement(1, 2, new Token("x"));
+        board.setElement(2, 1, new Token("o"));
+        GridLineIndex index = GridLineIndex.get(4, 4, 3);
+        assertNull(index.findLine(board, 1, 2, Token::getTokenType));
+        board.setElement(2, 1, new Token("x"));
+        assertArrayEquals(new int[]{12, 9, 6}, index.findLine(board, 2, 1, Token::getTokenType));
+    }
+
+    @Test
+    public void winsAreFoundOnACopiedBoard() {
+        Game game = GameType.Connect4.createGameInstance(2, 42);
+        AbstractForwardModel fm = game.getForwardModel();
+        Connect4GameState copy = (Connect4GameState) game.getGameState().copy(0);
+        GridBoard<Token> board = copy.getGridBoard();
+        int bottom = board.getHeight() - 1;
+        for (int y = bottom; y > bottom - 3; y--)
+            board.setElement(0, y, new Token("x"));
+        fm.next(copy, new SetGridValueAction<>(board.getComponentID(), 0, bottom - 3, new Token("x")));
+        assertEquals(GAME_END, copy.getGameStatus());
+        assertEquals(WIN, copy.getPlayerResults()[0]);
+        assertEquals(LOSE, copy.getPlayerResults()[1]);
+    }
+}
@@ -0,0 +1,67 @@
+package test.games.poker;
+
+import core.AbstractPlayer;
+import core.Game;
+import games.GameType;
+import games.poker.PokerEquityEstimator;
+import games.poker.PokerEquityHeuristic;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestPokerEquityEstimator {
+
+    // card index = suit * 13 + (number - 2), with suits in the order Diamonds, Hearts, Clubs, Spades
+    private static long card(int suit, int number) {
+        return 1L << (suit * 13 + number - 2);
+    }
+
+    @Test
+    public void pocketAcesPreflop() {
+        PokerEquityEstimator estimator = new PokerEquityEstimator(1, 200000, 0, 0.005, 1.96, 42);
+        PokerEquityEstimator.Equity equity = estimator.estimate(card(0, 14) | card(1, 14), 0, 1);
+        // AA against a random hand is about 85%
+        assertEquals(0.852, equity.equity, 0.01);
+        assertTrue(equity.halfWidth <= 0.005);
+        assertTrue(equity.samples < 200000);
+    }
+
+    @Test
+    public void multiThreadedMatchesSingleThreaded() {
+        long hole = card(2, 7) | card(3, 2);
+        long board = card(0, 13) | card(1, 9) | card(2, 4);
+        PokerEquityEstimator.Equity single = new PokerEquityEstimator(1, 100000, 0, 0, 1.96, 1).estimate(hole, board, 3);
+        PokerEquityEstimator.Equity multi = new PokerEquityEstimator(4, 100000, 0, 0, 1.96, 2).estimate(hole, board, 3);
+        // the last batches are cut short, so the limit is exact
+        assertEquals(100000, single.samples);
+        assertEquals(100000, multi.samples);
+        assertEquals(single.equity, multi.equity, 3 * (single.halfWidth + multi.halfWidth));
+    }
+
+    @Test
+    public void nutsOnTheRiver() {
+        long hole = card(3, 14) | card(3, 13);
+        long board = card(3, 12) | card(3, 11) | card(3, 10) | card(0, 2) | card(1, 3);
+        PokerEquityEstimator.Equity equity = new PokerEquityEstimator(2, 5000, 0, 0, 1.96, 3).estimate(hole, board, 5);
+        assertEquals(1.0, equity.win, 0.0);
+        assertEquals(1.0, equity.equity, 0.0);
+        assertEquals(5000, equity.samples);
+    }
+
+    @Test
+    public void heuristicIsBounded() {
+        Game game = GameType.Poker.createGameInstance(3, 99);
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int i = 0; i < 3; i++) players.add(new RandomPlayer());
+        game.reset(players);
+        PokerEquityHeuristic heuristic = new PokerEquityHeuristic();
+        for (int p = 0; p < 3; p++) {
+            double value = heuristic.evaluateState(game.getGameState(), p);
+            assertTrue(value > 0 && value <= 1.0);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package test.games.poker;
+
+import core.components.FrenchCard;
+import games.poker.PokerHandEvaluator;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static core.components.FrenchCard.FrenchCardType.*;
+import static core.components.FrenchCard.Suite.*;
+import static games.poker.PokerGameState.PokerHand.*;
+import static org.junit.Assert.*;
+
+public class TestPokerHandEvaluator {
+
+    private static long hand(String... cards) {
+        // e.g. "AS" for ace of spades, "TD" for ten of diamonds
+        long retValue = 0;
+        for (String card : cards) {
+            FrenchCard.Suite suite;
+            switch (card.charAt(1)) {
+                case 'D':
+                    suite = Diamonds;
+                    break;
+                case 'H':
+                    suite = Hearts;
+                    break;
+                case 'C':
+                    suite = Clubs;
+                    break;
+                default:
+                    suite = Spades;
+            }
+            FrenchCard c;
+            switch (card.charAt(0)) {
+                case 'A':
+                    c = new FrenchCard(Ace, suite);
+                    break;
+                case 'K':
+                    c = new FrenchCard(King, suite);
+                    break;
+                case 'Q':
+                    c = new FrenchCard(Queen, suite);
+                    break;
+                case 'J':
+                    c = new FrenchCard(Jack, suite);
+                    break;
+                case 'T':
+                    c = new FrenchCard(Number, suite, 10);
+                    break;
+                default:
+                    c = new FrenchCard(Number, suite, card.charAt(0) - '0');
+            }
+            retValue |= PokerHandEvaluator.cardBit(c);
+        }
+        return retValue;
+    }
+
+    private static int eval(String... cards) {
+        return PokerHandEvaluator.evaluate(hand(cards));
+    }
+
+    @Test
+    public void categoriesAreOrdered() {
+        int[] ascending = {
+                eval("AS", "KD", "9C", "7H", "3S"),         // high card
+                eval("2S", "2D", "5C", "7H", "9S"),         // pair
+                eval("2S", "2D", "5C", "5H", "9S"),         // two pair
+                eval("2S", "2D", "2C", "7H", "9S"),         // trips
+                eval("AS", "2D", "3C", "4H", "5S"),         // wheel
+                eval("6S", "2D", "3C", "4H", "5S"),         // six-high straight
+                eval("2H", "4H", "6H", "8H", "TH"),         // flush
+                eval("2S", "2D", "2C", "7H", "7S"),         // full house
+                eval("2S", "2D", "2C", "2H", "7S"),         // quads
+                eval("AH", "2H", "3H", "4H", "5H"),         // straight flush (wheel)
+                eval("AH", "KH", "QH", "JH", "TH"),         // royal flush
+        };
+        for (int i = 1; i < ascending.length; i++)
+            assertTrue("Hand " + i, ascending[i] > ascending[i - 1]);
+    }
+
+    @Test
+    public void handTypes() {
+        assertEquals(RoyalFlush, PokerHandEvaluator.handType(eval("AH", "KH", "QH", "JH", "TH", "2C", "3D")));
+        assertEquals(StraightFlush, PokerHandEvaluator.handType(eval("9H", "KH", "QH", "JH", "TH", "2C", "3D")));
+        assertEquals(FullHouse, PokerHandEvaluator.handType(eval("9H", "9S", "9D", "JH", "JD", "JC", "3D")));
+        assertEquals(TwoPair, PokerHandEvaluator.handType(eval("9H", "9S", "4D", "4H", "JD", "JC", "3D")));
+        assertEquals(Straight, PokerHandEvaluator.handType(eval("AH", "2S", "3D", "4H", "5D", "5C", "5S")));
+        assertEquals(HighCard, PokerHandEvaluator.handType(eval("AH", "KS")));
+    }
+
+    @Test
+    public void kickersBreakTies() {
+        // same pair, better kicker
+        assertTrue(eval("QS", "QD", "AC", "7H", "3S", "2D", "4C") > eval("QH", "QC", "KC", "7D", "3H", "2S", "4D"));
+        // two pair: only the best two pairs and one kicker count
+        assertEquals(eval("QS", "QD", "9C", "9H", "5S", "5D", "AC"), eval("QH", "QC", "9D", "9S", "4H", "4C", "AD"));
+        // the board plays
+        assertEquals(eval("AS", "KS", "QD", "JC", "TH", "2D", "3C"), eval("AS", "KS", "QD", "JC", "TH", "4H", "5H"));
+        // six-card flush uses the top five
+        assertEquals(eval("AH", "KH", "9H", "7H", "5H", "3H", "2C"), eval("AH", "KH", "9H", "7H", "5H", "2H", "2D"));
+    }
+
+    @Test
+    public void sevenCardsMatchBestFiveCardSubset() {
+        Random rnd = new Random(4523);
+        for (int trial = 0; trial < 20000; trial++) {
+            int[] cards = new int[7];
+            long packed = 0;
+            for (int i = 0; i < 7; i++) {
+                int c;
+                do {
+                    c = rnd.nextInt(52);
+                } while ((packed & (1L << c)) != 0);
+                cards[i] = c;
+                packed |= 1L << c;
+            }
+            int best = -1;
+            for (int skip1 = 0; skip1 < 7; skip1++) {
+                for (int skip2 = skip1 + 1; skip2 < 7; skip2++) {
+                    long five = packed & ~(1L << cards[skip1]) & ~(1L << cards[skip2]);
+                    best = Math.max(best, PokerHandEvaluator.evaluate(five));
+                }
+            }
+            assertEquals(best, PokerHandEvaluator.evaluate(packed));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package test.games.stratego;
+
+import games.stratego.StrategoMoveTables;
+import games.stratego.StrategoParams;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestStrategoMoveTables {
+
+    @Test
+    public void tablesFollowChangesToTheParameters() {
+        StrategoParams params = new StrategoParams(42);
+        StrategoMoveTables tables = params.getMoveTables();
+        assertEquals(10, tables.gridSize);
+        assertSame(tables, params.getMoveTables());
+
+        params.gridSize = 8;
+        params.xRestrictedTiles = new int[]{1, 2, 5, 6};
+        params.yRestrictedTiles = new int[]{3, 4};
+        StrategoMoveTables smaller = params.getMoveTables();
+        assertEquals(8, smaller.gridSize);
+        assertEquals(64, smaller.rays.length);
+        // a scout in the corner can run the full length of the edge
+        assertEquals(7, smaller.scoutRays[0][2].length);
+
+        params.moveSpeed = 2;
+        assertEquals(2, params.getMoveTables().rays[0][2].length);
+        assertEquals(1, smaller.rays[0][2].length);
+
+        // and changing back finds the original tables again
+        params.gridSize = 10;
+        params.xRestrictedTiles = new int[]{2, 3, 6, 7};
+        params.yRestrictedTiles = new int[]{4, 5};
+        params.moveSpeed = 1;
+        assertSame(tables, params.getMoveTables());
+    }
+}
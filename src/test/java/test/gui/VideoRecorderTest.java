@@ -0,0 +1,104 @@
+package test.gui;
+
+import gui.VideoRecorder;
+import gui.VideoRecorder.Backpressure;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class VideoRecorderTest {
+
+    // Records the timestamps it is given, and holds on to the first frame until released, as a slow encoder would
+    static class SlowSink implements VideoRecorder.FrameSink {
+        final List<Long> written = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch firstFrameTaken = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile int closed;
+
+        @Override
+        public void write(BufferedImage image, long timestamp) {
+            firstFrameTaken.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            written.add(timestamp);
+        }
+
+        @Override
+        public void close() {
+            closed++;
+        }
+    }
+
+    private final BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_3BYTE_BGR);
+
+    @Test
+    public void dropDiscardsFramesWhileTheQueueIsFull() throws InterruptedException {
+        SlowSink sink = new SlowSink();
+        VideoRecorder recorder = new VideoRecorder(sink, 2, Backpressure.DROP);
+        assertTrue(recorder.recordFrame(image, 1));
+        assertTrue(sink.firstFrameTaken.await(5, TimeUnit.SECONDS));
+        // frame 1 is with the encoder, so two more fit in the queue
+        assertTrue(recorder.recordFrame(image, 2));
+        assertTrue(recorder.recordFrame(image, 3));
+        assertFalse(recorder.recordFrame(image, 4));
+        assertFalse(recorder.recordFrame(image, 5));
+        assertEquals(2, recorder.getDroppedFrames());
+        // frames out of order are ignored rather than dropped
+        assertFalse(recorder.recordFrame(image, 3));
+        assertEquals(2, recorder.getDroppedFrames());
+
+        sink.release.countDown();
+        recorder.finish();
+        assertEquals(Arrays.asList(1L, 2L, 3L), sink.written);
+        assertEquals(1, sink.closed);
+    }
+
+    @Test
+    public void blockWaitsForSpaceAndRecordsEveryFrame() throws InterruptedException {
+        SlowSink sink = new SlowSink();
+        VideoRecorder recorder = new VideoRecorder(sink, 1, Backpressure.BLOCK);
+        assertTrue(recorder.recordFrame(image, 1));
+        assertTrue(sink.firstFrameTaken.await(5, TimeUnit.SECONDS));
+        assertTrue(recorder.recordFrame(image, 2));
+        // the queue is now full, so the next frame has to wait for the encoder
+        Thread capture = new Thread(() -> recorder.recordFrame(image, 3));
+        capture.start();
+        capture.join(200);
+        assertTrue(capture.isAlive());
+
+        sink.release.countDown();
+        capture.join(5000);
+        assertFalse(capture.isAlive());
+        recorder.finish();
+        assertEquals(Arrays.asList(1L, 2L, 3L), sink.written);
+        assertEquals(0, recorder.getDroppedFrames());
+    }
+
+    @Test
+    public void finishEncodesEverythingQueuedBeforeClosing() {
+        SlowSink sink = new SlowSink();
+        sink.release.countDown();
+        VideoRecorder recorder = new VideoRecorder(sink, 100, Backpressure.BLOCK);
+        for (int t = 1; t <= 50; t++)
+            assertTrue(recorder.recordFrame(image, t));
+        recorder.finish();
+        assertEquals(50, sink.written.size());
+        assertEquals(50L, (long) sink.written.get(49));
+        assertEquals(1, sink.closed);
+        // a second finish() does nothing, and no more frames are accepted
+        recorder.finish();
+        assertFalse(recorder.recordFrame(image, 51));
+        assertEquals(1, sink.closed);
+    }
+}
@@ -0,0 +1,92 @@
+package test.players.learners;
+
+import core.AbstractGameState;
+import core.interfaces.IStateFeatureVector;
+import org.junit.Test;
+import players.heuristics.LinearStateHeuristic;
+import players.heuristics.NullHeuristic;
+import players.learners.OnlineLearner;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class OnlineLearnerTest {
+
+    // the records of a FeatureListener, with two features
+    private static final String[] header = {"GameID", "Player", "Round", "Turn", "CurrentScore", "A", "B",
+            "PlayerCount", "TotalRounds", "Win", "Ordinal", "FinalScore"};
+
+    private static class TwoFeatures implements IStateFeatureVector {
+        @Override
+        public double[] featureVector(AbstractGameState state, int playerID) {
+            return new double[2];
+        }
+
+        @Override
+        public String[] names() {
+            return new String[]{"A", "B"};
+        }
+    }
+
+    // rows where Win = f(A, B), for the default WIN target with no discounting
+    private List<double[]> rows(int n, long seed, boolean binary) {
+        Random rnd = new Random(seed);
+        List<double[]> data = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            double a = rnd.nextDouble() * 2.0 - 1.0, b = rnd.nextDouble() * 2.0 - 1.0;
+            double win = 0.5 + 0.3 * a - 0.2 * b;
+            if (binary)
+                win = rnd.nextDouble() < 1.0 / (1.0 + Math.exp(-(0.5 + 2.0 * a - 1.0 * b))) ? 1.0 : 0.0;
+            data.add(new double[]{i / 10, i % 2, 1, 1, 0.0, a, b, 2, 1, win, 2.0 - win, 0.0});
+        }
+        return data;
+    }
+
+    @Test
+    public void sgdConvergesToLinearModel() {
+        OnlineLearner learner = new OnlineLearner(OnlineLearner.Model.LINEAR, 0.1, 8, 0.0);
+        for (int batch = 0; batch < 20; batch++)
+            learner.learnFrom(header, rows(500, batch, false));
+        learner.flush();
+        assertEquals(10000, learner.getSamples());
+        assertArrayEquals(new double[]{0.5, 0.3, -0.2}, learner.getCoefficients(), 0.01);
+    }
+
+    @Test
+    public void rlsConvergesQuickly() {
+        OnlineLearner learner = new OnlineLearner(OnlineLearner.Model.RLS);
+        learner.learnFrom(header, rows(50, 1, false));
+        assertArrayEquals(new double[]{0.5, 0.3, -0.2}, learner.getCoefficients(), 1e-3);
+    }
+
+    @Test
+    public void logisticRecoversCoefficients() {
+        OnlineLearner learner = new OnlineLearner(OnlineLearner.Model.LOGISTIC, 1.0, 32, 0.0);
+        for (int batch = 0; batch < 100; batch++)
+            learner.learnFrom(header, rows(1000, batch, true));
+        learner.flush();
+        assertArrayEquals(new double[]{0.5, 2.0, -1.0}, learner.getCoefficients(), 0.2);
+    }
+
+    @Test
+    public void recordsUpdateHeuristicsAtEndOfGame() {
+        OnlineLearner learner = new OnlineLearner(OnlineLearner.Model.RLS);
+        LinearStateHeuristic heuristic = new LinearStateHeuristic(new TwoFeatures(), "", new NullHeuristic());
+        learner.addHeuristic(heuristic);
+        assertNull(heuristic.getCoefficients());
+
+        // one 'game' of 40 records, passed in as a FeatureListener does
+        for (double[] row : rows(40, 3, false)) {
+            Map<String, Double> data = new LinkedHashMap<>();
+            for (int i = 0; i < header.length; i++)
+                data.put(header[i], row[i]);
+            learner.record(data);
+        }
+        assertEquals(0, learner.getSamples());
+        learner.processDataAndNotFinish();
+        assertEquals(40, learner.getSamples());
+        assertArrayEquals(learner.getCoefficients(), heuristic.getCoefficients(), 1e-9);
+        assertArrayEquals(new double[]{0.5, 0.3, -0.2}, heuristic.getCoefficients(), 1e-3);
+    }
+}
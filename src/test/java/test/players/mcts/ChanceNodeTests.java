@@ -0,0 +1,144 @@
+package test.players.mcts;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.cantstop.CantStopForwardModel;
+import games.cantstop.CantStopGameState;
+import games.cantstop.actions.AllocateDice;
+import games.cantstop.actions.Pass;
+import games.cantstop.actions.RollDice;
+import org.junit.*;
+import players.PlayerConstants;
+import players.mcts.*;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ChanceNodeTests {
+
+    TestMCTSPlayer mctsPlayer;
+    MCTSParams params;
+
+    @Before
+    public void setup() {
+        params = new MCTSParams(9332);
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MaxN;
+        params.information = MCTSEnums.Information.Open_Loop;
+        params.maxTreeDepth = 10;
+        params.rolloutLength = 10;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 400;
+        params.K = 1.0;
+    }
+
+    private SingleTreeNode searchFromStart() {
+        mctsPlayer = new TestMCTSPlayer(params);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        Game game = GameType.CantStop.createGameInstance(2, 34);
+        game.reset(players);
+        AbstractGameState state = game.getGameState();
+        List<AbstractAction> actions = game.getForwardModel().computeAvailableActions(state);
+        mctsPlayer.getAction(state, actions);
+        return mctsPlayer.getRoot(0);
+    }
+
+    @Test
+    public void withoutChanceNodesAllRollsShareOneChild() {
+        SingleTreeNode root = searchFromStart();
+        SingleTreeNode[] rollChildren = root.getChildren().get(new RollDice());
+        assertEquals(2, rollChildren.length);
+        assertEquals(1, Arrays.stream(rollChildren).filter(Objects::nonNull).count());
+    }
+
+    @Test
+    public void chanceNodesSeparateRollsWithProgressiveWidening() {
+        params.chanceNodes = true;
+        SingleTreeNode root = searchFromStart();
+        SingleTreeNode[] rollChildren = root.getChildren().get(new RollDice());
+        int rollVisits = Arrays.stream(rollChildren).filter(Objects::nonNull).mapToInt(SingleTreeNode::getVisits).sum();
+        long outcomes = Arrays.stream(rollChildren).filter(Objects::nonNull).count();
+        assertTrue(rollVisits > 100);
+        assertTrue(outcomes > 5);
+        // no more outcomes than the widening allows (plus the shared bucket)
+        assertTrue(outcomes <= Math.floor(Math.sqrt(rollVisits + 1)) + 1);
+        // and every iteration is still counted once
+        int total = root.getChildren().values().stream().filter(Objects::nonNull)
+                .flatMap(Arrays::stream).filter(Objects::nonNull).mapToInt(SingleTreeNode::getVisits).sum();
+        assertEquals(root.getVisits(), total);
+    }
+
+    @Test
+    public void exactChanceNodesVisitEveryOutcomeInProportionToItsProbability() {
+        params.chanceNodes = true;
+        params.exactChanceNodes = true;
+        params.budget = 2000;
+        SingleTreeNode root = searchFromStart();
+        SingleTreeNode[] rollChildren = root.getChildren().get(new RollDice());
+        int[] visits = Arrays.stream(rollChildren).filter(Objects::nonNull).mapToInt(SingleTreeNode::getVisits).toArray();
+        int rollVisits = Arrays.stream(visits).sum();
+
+        // at the start of the game no roll goes bust, so there is an outcome for every distinct roll
+        CantStopForwardModel fm = new CantStopForwardModel();
+        Game game = GameType.CantStop.createGameInstance(2, 34);
+        AbstractGameState state = game.getGameState();
+        fm.next(state, new RollDice());
+        Map<Long, Double> distribution = fm.chanceDistribution(state, new RollDice());
+        assertEquals(126, distribution.size());
+        assertEquals(1.0, distribution.values().stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+        // (Pass takes a varying share of the budget, as the search is not fully seeded)
+        assertTrue(rollVisits > 500);
+        assertEquals(126, visits.length);
+
+        // and each outcome has been visited within one of its exact share
+        double[] expected = distribution.values().stream().mapToDouble(p -> p * rollVisits).sorted().toArray();
+        Arrays.sort(visits);
+        for (int i = 0; i < visits.length; i++)
+            assertEquals(expected[i], visits[i], 1.0);
+    }
+
+    @Test
+    public void bustRollsShareOneOutcome() {
+        CantStopForwardModel fm = new CantStopForwardModel();
+        Game game = GameType.CantStop.createGameInstance(2, 34);
+        CantStopGameState state = (CantStopGameState) game.getGameState();
+        fm.next(state, new RollDice());
+        state.setDice(new int[]{3, 3, 4, 4});
+        fm.next(state, new AllocateDice(6, 8));
+        fm.next(state, new RollDice());
+        state.setDice(new int[]{3, 4, 5, 6});
+        fm.next(state, new AllocateDice(7));
+        // all three markers are now on 6, 7 and 8
+        fm.next(state, new RollDice());
+        Map<Long, Double> distribution = fm.chanceDistribution(state, new RollDice());
+        assertEquals(state.getBustProbability(), distribution.get(CantStopForwardModel.BUST_OUTCOME), 1e-9);
+        assertEquals(1.0, distribution.values().stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+
+        fm.setChanceOutcome(state, new RollDice(), CantStopForwardModel.BUST_OUTCOME);
+        assertEquals(CantStopForwardModel.BUST_OUTCOME, fm.chanceOutcome(state, new RollDice()));
+        assertEquals(new Pass(true), fm.computeAvailableActions(state).get(0));
+        state.setDice(new int[]{1, 1, 1, 1});
+        assertEquals(CantStopForwardModel.BUST_OUTCOME, fm.chanceOutcome(state, new RollDice()));
+
+        long outcome = distribution.keySet().stream().filter(k -> k != CantStopForwardModel.BUST_OUTCOME).findFirst().get();
+        fm.setChanceOutcome(state, new RollDice(), outcome);
+        assertEquals(outcome, fm.chanceOutcome(state, new RollDice()));
+    }
+
+    @Test
+    public void chanceNodesAreOnlyUsedForStochasticActions() {
+        params.chanceNodes = true;
+        SingleTreeNode root = searchFromStart();
+        // Pass is deterministic, so only has the usual one child per player
+        for (AbstractAction action : root.getChildren().keySet()) {
+            if (!(action instanceof RollDice))
+                assertEquals(2, root.getChildren().get(action).length);
+        }
+    }
+}
@@ -105,6 +105,29 @@ public class MCTSNodesAndVisitsTests {
         runGame(game, 4, new int[0], new int[0]);
     }
 
+    @Test
+    public void lazyProgressiveWidening() {
+        params.progressiveWideningConstant = 2.0;
+        params.progressiveWideningExponent = 0.3;
+        params.lazyActionGeneration = true;
+        Game game = createGame(params);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel forwardModel = game.getForwardModel();
+        int maxWidth = (int) Math.floor(2.0 * Math.pow(201, 0.3));
+        for (int move = 0; move < 4; move++) {
+            AbstractAction actionChosen = game.getPlayers().get(state.getCurrentPlayer())
+                    .getAction(state, forwardModel.computeAvailableActions(state));
+            if (state.getCurrentPlayer() == 0) {
+                SingleTreeNode root = mctsPlayer.getRoot(0);
+                assertEquals(200, root.getVisits());
+                // only the actions needed by progressive widening should have been added to the tree
+                assertTrue(root.getChildren().size() <= maxWidth);
+                assertTrue(root.getChildren().containsKey(actionChosen));
+            }
+            forwardModel.next(state, actionChosen);
+        }
+    }
+
     private void runGame(Game game, int moves, int[] expectedNodes, int[] errorMargin) {
         int counter = 0;
         AbstractGameState state = game.getGameState();
@@ -0,0 +1,85 @@
+package test.players.solver;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+import players.solver.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AlphaBetaSolverTests {
+
+    private Game ticTacToe(AbstractPlayer p0, AbstractPlayer p1, long seed) {
+        Game game = GameType.TicTacToe.createGameInstance(2, seed);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(p0);
+        players.add(p1);
+        game.reset(players);
+        return game;
+    }
+
+    @Test
+    public void ticTacToeIsADraw() {
+        Game game = ticTacToe(new RandomPlayer(), new RandomPlayer(), 1);
+        AlphaBetaSolver solver = new AlphaBetaSolver(game.getForwardModel(), TablebaseBuilder.defaultKey(GameType.TicTacToe));
+        assertEquals(Integer.valueOf(AlphaBetaSolver.DRAW), solver.solve(game.getGameState(), 0));
+        // a second solve is answered from the transposition table
+        assertEquals(Integer.valueOf(AlphaBetaSolver.DRAW), solver.solve(game.getGameState(), 0));
+        assertEquals(0, solver.getNodes());
+    }
+
+    @Test
+    public void budgetIsRespected() {
+        Game game = ticTacToe(new RandomPlayer(), new RandomPlayer(), 2);
+        AlphaBetaSolver solver = new AlphaBetaSolver(game.getForwardModel(), TablebaseBuilder.defaultKey(GameType.TicTacToe));
+        assertNull(solver.solve(game.getGameState(), 50));
+    }
+
+    @Test
+    public void tablebaseMatchesSolver() throws Exception {
+        Game game = ticTacToe(new RandomPlayer(), new RandomPlayer(), 3);
+        IStateKey key = TablebaseBuilder.defaultKey(GameType.TicTacToe);
+        AlphaBetaSolver solver = new AlphaBetaSolver(game.getForwardModel(), key);
+        solver.solve(game.getGameState(), 0);
+        Map<Long, Integer> values = solver.exactValues();
+
+        File file = File.createTempFile("tictactoe", ".tb");
+        file.deleteOnExit();
+        Tablebase.write(file.getPath(), values);
+        Tablebase tablebase = Tablebase.open(file.getPath());
+        assertEquals(values.size(), tablebase.size());
+        for (Map.Entry<Long, Integer> e : values.entrySet())
+            assertEquals((int) e.getValue(), tablebase.lookup(e.getKey()));
+        assertEquals(Tablebase.UNKNOWN, tablebase.lookup(-1));
+
+        // a fresh solver with the tablebase needs no search at all from the root
+        AlphaBetaSolver withTablebase = new AlphaBetaSolver(game.getForwardModel(), key);
+        withTablebase.setTablebase(tablebase);
+        assertEquals(Integer.valueOf(AlphaBetaSolver.DRAW), withTablebase.solve(game.getGameState(), 0));
+        assertEquals(0, withTablebase.getNodes());
+    }
+
+    @Test
+    public void solverPlayerNeverLosesTicTacToe() {
+        IStateKey key = TablebaseBuilder.defaultKey(GameType.TicTacToe);
+        for (int i = 0; i < 10; i++) {
+            int solverSeat = i % 2;
+            AbstractPlayer solver = new SolverPlayer(key, null, 0, null);
+            AbstractPlayer random = new RandomPlayer(new Random(i));
+            Game game = solverSeat == 0 ? ticTacToe(solver, random, i) : ticTacToe(random, solver, i);
+            game.run();
+            AbstractGameState state = game.getGameState();
+            int value = AlphaBetaSolver.terminalValue(state) * (solverSeat == 0 ? 1 : -1);
+            assertTrue(value >= AlphaBetaSolver.DRAW);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package test.utilities;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.CoreConstants;
+import core.Game;
+import core.actions.AbstractAction;
+import core.interfaces.IGameListener;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+import utilities.AsyncGameListener;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class AsyncGameListenerTest {
+
+    static class RecordingListener implements IGameListener {
+        List<String> events = new ArrayList<>();
+        Set<Thread> eventThreads = new HashSet<>();
+        boolean finished;
+        boolean fail;
+
+        @Override
+        public void onGameEvent(CoreConstants.GameEvents type, Game game) {
+            events.add(type + " " + game.getGameState().getGameStatus());
+        }
+
+        @Override
+        public void onEvent(CoreConstants.GameEvents type, AbstractGameState state, AbstractAction action) {
+            if (fail)
+                throw new IllegalStateException("listener failure");
+            eventThreads.add(Thread.currentThread());
+            events.add(type + " " + state.getTurnOrder().getRoundCounter() + " " + state.getCurrentPlayer() + " " + (action == null ? "" : action.getClass().getSimpleName()));
+        }
+
+        @Override
+        public void allGamesFinished() {
+            finished = true;
+        }
+    }
+
+    private void playGame(IGameListener listener, long seed) {
+        Game game = GameType.TicTacToe.createGameInstance(2, seed);
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(seed)), new RandomPlayer(new Random(seed + 1)));
+        game.reset(players);
+        game.addListener(listener);
+        game.run();
+    }
+
+    @Test
+    public void eventsMatchSynchronousDispatch() {
+        RecordingListener sync = new RecordingListener();
+        RecordingListener async = new RecordingListener();
+        AsyncGameListener wrapper = new AsyncGameListener(async, 4);
+        for (int seed = 0; seed < 5; seed++) {
+            playGame(sync, seed);
+            playGame(wrapper, seed);
+        }
+        wrapper.allGamesFinished();
+        assertTrue(async.finished);
+        assertFalse(sync.events.isEmpty());
+        assertEquals(sync.events, async.events);
+        assertEquals(1, async.eventThreads.size());
+        assertFalse(async.eventThreads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void closeStopsTheWorker() {
+        RecordingListener listener = new RecordingListener();
+        AsyncGameListener wrapper = new AsyncGameListener(listener);
+        playGame(wrapper, 1);
+        wrapper.allGamesFinished();
+        Thread worker = listener.eventThreads.iterator().next();
+        assertTrue(worker.isAlive());
+        wrapper.close();
+        assertFalse(worker.isAlive());
+        wrapper.close();
+
+        // later events are passed on directly
+        int before = listener.events.size();
+        playGame(wrapper, 2);
+        assertTrue(listener.events.size() > before);
+        assertTrue(listener.eventThreads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void exceptionsAreReportedOnTheGameThread() {
+        RecordingListener listener = new RecordingListener();
+        listener.fail = true;
+        AsyncGameListener wrapper = new AsyncGameListener(listener);
+        try {
+            playGame(wrapper, 1);
+            fail("Expected the listener's exception to be re-thrown");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package test.utilities;
+
+import core.AbstractGameState;
+import core.Game;
+import core.actions.SetGridValueAction;
+import games.GameType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import players.simple.RandomPlayer;
+import utilities.LatencyHistogram;
+import utilities.Metrics;
+import utilities.Metrics.Metric;
+
+import javax.management.Attribute;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    @After
+    public void cleanUp() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    public void histogramPercentilesAreWithinBucketAccuracy() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100000; v++)
+            histogram.record(v * 1000);
+        assertEquals(100000, histogram.count());
+        assertEquals(1000, histogram.min());
+        assertEquals(100000000, histogram.max());
+        assertEquals(50000500.0, histogram.mean(), 1.0);
+        assertEquals(50000000, histogram.percentile(50), 50000000 * 0.02);
+        assertEquals(99000000, histogram.percentile(99), 99000000 * 0.02);
+        assertEquals(100000000, histogram.percentile(100));
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(50));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int v = 0; v < 10; v++)
+            histogram.record(v);
+        assertEquals(4, histogram.percentile(50));
+        assertEquals(9, histogram.percentile(100));
+    }
+
+    @Test
+    public void nothingIsRecordedWhenDisabled() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        game.reset(Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2))), 42);
+        game.run();
+        assertTrue(Metrics.toJSON().isEmpty());
+    }
+
+    @Test
+    public void gameAndSearchAreBrokenDownByGamePhaseAndAction() {
+        Metrics.setEnabled(true);
+        MCTSParams params = new MCTSParams(3);
+        params.budget = 50;
+        params.rolloutLength = 5;
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        game.reset(Arrays.asList(new MCTSPlayer(params), new RandomPlayer(new Random(2))), 42);
+        game.run();
+
+        AbstractGameState state = game.getGameState();
+        LatencyHistogram next = Metrics.get(Metric.NEXT, GameType.TicTacToe, AbstractGameState.DefaultGamePhase.Main, SetGridValueAction.class);
+        assertNotNull(next);
+        // at least one call per move in the game, plus many more in the search
+        assertTrue(next.count() > state.getHistory().size());
+        assertNotNull(Metrics.get(Metric.COPY, GameType.TicTacToe, AbstractGameState.DefaultGamePhase.Main, null));
+        assertNotNull(Metrics.get(Metric.COMPUTE_ACTIONS, GameType.TicTacToe, AbstractGameState.DefaultGamePhase.Main, null));
+        LatencyHistogram rollouts = Metrics.get(Metric.ROLLOUT_LENGTH, GameType.TicTacToe, AbstractGameState.DefaultGamePhase.Main, null);
+        assertNotNull(rollouts);
+        assertTrue(rollouts.max() <= 5);
+
+        String report = Metrics.report();
+        assertTrue(report.contains("SetGridValueAction"));
+        boolean heuristicFound = false;
+        for (Object o : Metrics.toJSON()) {
+            JSONObject row = (JSONObject) o;
+            assertEquals("TicTacToe", row.get("game"));
+            heuristicFound |= row.get("metric").equals(Metric.HEURISTIC.name());
+        }
+        assertTrue(heuristicFound);
+    }
+
+    @Test
+    public void metricsCanBeSwitchedOnOverJMX() throws Exception {
+        Metrics.registerMBean();
+        Metrics.registerMBean();  // a second registration is ignored
+        ObjectName name = new ObjectName("TAG:type=Metrics");
+        assertEquals(false, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Enabled"));
+        ManagementFactory.getPlatformMBeanServer().setAttribute(name, new Attribute("Enabled", true));
+        assertTrue(Metrics.isEnabled());
+
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        game.reset(Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2))), 42);
+        game.run();
+        String json = (String) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "JSONReport");
+        assertTrue(json.contains("\"NEXT\""));
+        assertFalse(((JSONArray) org.json.simple.JSONValue.parse(json)).isEmpty());
+    }
+}